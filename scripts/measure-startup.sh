@@ -0,0 +1,55 @@
+#!/bin/sh
+# Measures time to first frame and to first order, with and without the AppCDS archive.
+# Build first with: mvn -Pappcds package
+# Usage: scripts/measure-startup.sh [runs]
+# Set DISPLAY_WRAPPER="" to use the current display instead of xvfb-run.
+set -e
+
+cd "$(dirname "$0")/.."
+RUNS=${1:-5}
+JAR="$(pwd)/target/RestrauntAutomation-1.0-SNAPSHOT.jar"
+ARCHIVE="$(pwd)/target/app-cds.jsa"
+DISPLAY_WRAPPER=${DISPLAY_WRAPPER-"xvfb-run --auto-servernum"}
+WORK_DIR="$(pwd)/target/startup-measure"
+
+if [ ! -f "$JAR" ]; then
+    echo "Missing $JAR, run: mvn -Pappcds package" >&2
+    exit 1
+fi
+mkdir -p "$WORK_DIR"
+
+# Prints the "done at" time in ms of a startup phase from a log.
+phase_ms() {
+    sed -n "s/.*Startup phase '$2' done at \([0-9]*\) ms.*/\1/p" "$1" | head -n 1
+}
+
+# Runs the probe RUNS times and prints the average time to first frame and first order.
+measure() {
+    label=$1
+    shift
+    frame_total=0
+    order_total=0
+    i=0
+    while [ "$i" -lt "$RUNS" ]; do
+        log="$WORK_DIR/run.log"
+        (cd "$WORK_DIR" && $DISPLAY_WRAPPER java "$@" -Drestaurant.startup.probe=true \
+            -Drestaurant.db.url=jdbc:h2:mem:startup-measure -jar "$JAR") > "$log" 2>&1
+        frame=$(phase_ms "$log" "First frame")
+        order=$(phase_ms "$log" "First order")
+        if [ -z "$frame" ] || [ -z "$order" ]; then
+            echo "$label: run $i did not log its startup phases, see $log" >&2
+            exit 1
+        fi
+        frame_total=$((frame_total + frame))
+        order_total=$((order_total + order))
+        i=$((i + 1))
+    done
+    echo "$label: first frame $((frame_total / RUNS)) ms, first order $((order_total / RUNS)) ms (average of $RUNS runs)"
+}
+
+measure "Without AppCDS" -Xshare:auto
+if [ -f "$ARCHIVE" ]; then
+    measure "With AppCDS   " -XX:SharedArchiveFile="$ARCHIVE"
+else
+    echo "No archive at $ARCHIVE, run: mvn -Pappcds package" >&2
+fi
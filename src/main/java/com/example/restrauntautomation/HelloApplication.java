@@ -1,6 +1,7 @@
 package com.example.restrauntautomation;
 
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
 import javafx.scene.image.Image;
@@ -13,6 +14,8 @@ import java.io.InputStream;
 public class HelloApplication extends Application {
     @Override
     public void start(Stage stage) throws IOException {
+        StartupTimer.start();
+        StartupTimer.mark("JavaFX toolkit started");
         FXMLLoader fxmlLoader = new FXMLLoader(HelloApplication.class.getResource("hello-view.fxml"));
         // Load FXML to get the preferred size
         // Remove fixed size (320, 240) from Scene constructor
@@ -46,10 +49,32 @@ public class HelloApplication extends Application {
 
         // Maximize the window
         stage.setMaximized(true);
+        markFirstFrame(scene);
         stage.show();
+        StartupTimer.mark("Window shown");
+    }
+
+    /**
+     * Records the first layout pulse of the scene, i.e. the first frame about to be rendered.
+     *
+     * @param scene The main scene.
+     */
+    private static void markFirstFrame(Scene scene) {
+        Runnable[] listener = new Runnable[1];
+        boolean[] marked = new boolean[1];
+        listener[0] = () -> {
+            if (marked[0]) {
+                return;
+            }
+            marked[0] = true;
+            StartupTimer.mark("First frame");
+            Platform.runLater(() -> scene.removePostLayoutPulseListener(listener[0])); // Not while the pulse is iterating listeners
+        };
+        scene.addPostLayoutPulseListener(listener[0]);
     }
 
     public static void main(String[] args) {
+        StartupTimer.start();
         launch();
     }
 }
@@ -1,33 +1,87 @@
 package com.example.restrauntautomation;
 
+import com.example.restrauntautomation.archive.OrderArchive;
+import com.example.restrauntautomation.archive.OrderHistory;
+import com.example.restrauntautomation.audit.AmendmentLog;
+import com.example.restrauntautomation.config.RuntimeConfig;
+import com.example.restrauntautomation.inventory.Ingredient;
+import com.example.restrauntautomation.inventory.InventoryListener;
+import com.example.restrauntautomation.inventory.InventoryManager;
+import com.example.restrauntautomation.manager.EtaEstimator;
+import com.example.restrauntautomation.manager.KpiTracker;
 import com.example.restrauntautomation.manager.MenuManager;
+import com.example.restrauntautomation.manager.MenuSearchIndex;
+import com.example.restrauntautomation.manager.OrderEventPublisher;
+import com.example.restrauntautomation.manager.OrderQueueListener;
 import com.example.restrauntautomation.manager.OrderQueueManager;
+import com.example.restrauntautomation.manager.StaffAssignmentEngine;
 import com.example.restrauntautomation.manager.WaitStaffManager;
 // Specific imports instead of wildcard to avoid MenuItem conflict
+import com.example.restrauntautomation.model.CompactOrder;
+import com.example.restrauntautomation.model.KpiSnapshot;
 import com.example.restrauntautomation.model.MenuCategory;
 import com.example.restrauntautomation.model.Order;
+import com.example.restrauntautomation.model.OrderEta;
 import com.example.restrauntautomation.model.OrderItem;
+import com.example.restrauntautomation.model.SnowflakeOrderIdGenerator;
 import com.example.restrauntautomation.model.Table;
 import com.example.restrauntautomation.model.WaitStaff;
+import com.example.restrauntautomation.persistence.AmendmentRepository;
+import com.example.restrauntautomation.persistence.InventoryRepository;
+import com.example.restrauntautomation.persistence.MenuRepository;
+import com.example.restrauntautomation.persistence.OrderRepository;
+import com.example.restrauntautomation.persistence.SqlDatabase;
+import com.example.restrauntautomation.persistence.WaitStaffRepository;
+import com.example.restrauntautomation.pricing.PricingEngine;
+import com.example.restrauntautomation.pricing.PricingRule;
+import com.example.restrauntautomation.pricing.PricingRuleSet;
+import com.example.restrauntautomation.replication.ReplicationNode;
+import com.example.restrauntautomation.settlement.LocalPaymentProcessor;
+import com.example.restrauntautomation.settlement.OpenTabs;
+import com.example.restrauntautomation.settlement.Settlement;
+import com.example.restrauntautomation.settlement.SettlementEngine;
+import com.example.restrauntautomation.settlement.SettlementPolicy;
 // com.example.restrauntautomation.model.MenuItem will be fully qualified
 
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.PauseTransition;
+import javafx.animation.Timeline;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
+import javafx.scene.input.KeyCode;
 import javafx.scene.layout.TilePane;
 import javafx.scene.layout.VBox;
+import javafx.util.Duration;
 import javafx.util.StringConverter;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
-import java.math.BigDecimal;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap; // Added for map
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map; // Added for map
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -38,13 +92,43 @@ import java.util.logging.Logger;
 public class HelloController {
 
     private static final Logger LOGGER = Logger.getLogger(HelloController.class.getName());
-    private static final int NUMBER_OF_TABLES = 30;
-    private static final int SEATS_PER_TABLE = 4;
+    private static final int DINING_FLOOR = 0; // All tables and servers share one floor
+    private static final double KPI_REFRESH_SECONDS = 30;
+    private static final double PRICING_CHECK_SECONDS = 30; // How often to check whether a happy hour started or ended
+    private static final String PRICING_STAFF_ID = "PRICING"; // Recorded in the audit log as the author of repricing
+    // System properties for joining a group of replicated terminals, e.g.
+    // -Drestaurant.node.id=1 -Drestaurant.replication.listen=7400 (leader) or
+    // -Drestaurant.node.id=2 -Drestaurant.replication.leader=localhost:7400 (follower)
+    private static final String NODE_ID_PROPERTY = "restaurant.node.id";
+    private static final String REPLICATION_LISTEN_PROPERTY = "restaurant.replication.listen";
+    private static final String REPLICATION_LEADER_PROPERTY = "restaurant.replication.leader";
+    private static final String ORDER_ID_STATE_FILE = "order-id.state";
+    private static final String REPLICATION_STATE_FILE = "replication.state"; // A follower's position in the leader's log
+    // -Drestaurant.startup.probe=true: push one order through after startup, log its latency and exit
+    // (used for the AppCDS training run and startup measurements)
+    private static final String STARTUP_PROBE_PROPERTY = "restaurant.startup.probe";
+    private static final double STARTUP_PROBE_EXIT_DELAY_SECONDS = 1;
+    private static final double MENU_LIST_HEIGHT = 150;
+    private static final double MENU_CELL_HEIGHT = 32;
+    private static final double MENU_SEARCH_DELAY_MILLIS = 120; // Wait for a pause in typing before searching
+    private static final int MENU_SEARCH_LIMIT = 20;
+    private static final List<Integer> TIP_PERCENT_CHOICES = List.of(0, 10, 15, 18, 20);
+    private static final double NOTIFICATION_SECONDS = 4;
+    private static final DateTimeFormatter ETA_FORMAT = DateTimeFormatter.ofPattern("HH:mm");
+    private static final String HISTORY_BY_TABLE = "Selected table";
+    private static final String HISTORY_BY_STAFF = "Selected wait staff";
+    private static final String HISTORY_LAST_HOUR = "Last hour";
+    private static final String HISTORY_BY_ID = "Order ID";
+    private static final List<String> HISTORY_LOOKUPS = List.of(HISTORY_BY_TABLE, HISTORY_BY_STAFF, HISTORY_LAST_HOUR, HISTORY_BY_ID);
+    private static final long HISTORY_CLOCK_SKEW_MINUTES = 5; // Orders from terminals whose clocks run slightly ahead
+    private static final String MODAL_NOTIFICATIONS_PROPERTY = "restaurant.notifications.modal"; // true: confirm every notification in a dialog
 
     // --- FXML Injected Fields ---
     @FXML private TilePane tableGridPane;
     @FXML private Label selectedTableLabel;
     @FXML private ComboBox<WaitStaff> waitStaffComboBox;
+    @FXML private TextField menuSearchField;
+    @FXML private ListView<com.example.restrauntautomation.model.MenuItem> menuSearchResultsView;
     @FXML private Accordion menuAccordion;
     @FXML private ListView<OrderItem> currentOrderListView;
     @FXML private Label orderTotalLabel;
@@ -52,11 +136,36 @@ public class HelloController {
     @FXML private Button clearOrderButton;
     @FXML private ListView<Order> orderQueueListView; // Added for queue display
     @FXML private Button completeOrderButton; // Added for completion
+    @FXML private Button voidOrderButton;
+    @FXML private Button amendOrderButton;
+    @FXML private Button removeItemButton;
+    @FXML private Button settleTableButton;
+    @FXML private Label kpiLabel; // Live dashboard numbers
+    @FXML private VBox notificationArea; // Non-modal notifications
 
     // --- Managers ---
+    private RuntimeConfig config; // Floor plan, backends and sizes, read at startup
     private WaitStaffManager waitStaffManager;
     private MenuManager menuManager;
     private OrderQueueManager orderQueueManager;
+    private OrderArchive orderArchive; // Null if the archive could not be opened
+    private OrderHistory orderHistory; // Completed orders of the current shift; null until the menu is loaded
+    private KpiTracker kpiTracker;
+    private EtaEstimator etaEstimator;
+    private StaffAssignmentEngine staffAssignmentEngine;
+    private AmendmentLog amendmentLog; // Audit trail of every order change
+    private OrderEventPublisher orderEventPublisher; // Push stream for the kitchen display
+    private KitchenDisplayWindow kitchenDisplayWindow; // Null until first opened
+    private ReplicationNode replicationNode; // Null when running standalone
+    private volatile int orderIdNodeId = -1; // Node ID in the persistent order IDs, -1 if IDs are not safe to replicate
+    private SqlDatabase database; // Null if the database could not be opened
+    private NotificationCenter notificationCenter;
+    private PricingEngine pricingEngine; // Null until the menu is loaded
+    private InventoryManager inventoryManager; // Null until the menu is loaded
+    private SettlementEngine settlementEngine; // Splits and charges bills
+    private OpenTabs openTabs; // Served orders waiting to be paid, by table
+    private OrderRepository orderRepository; // Null if the database could not be opened
+    private LocalTime lastPricingCheck;
 
     // --- Application State ---
     private List<Table> restaurantTables; // Holds the data model for tables
@@ -64,43 +173,631 @@ public class HelloController {
     private Table selectedTable = null; // Currently selected table data object
     private Button selectedTableButton = null; // Currently selected table button UI element
     private ObservableList<OrderItem> currentOrderItems = FXCollections.observableArrayList();
+    private final Map<com.example.restrauntautomation.model.MenuItem, Integer> currentOrderLineIndex = new HashMap<>(); // Item -> position in currentOrderItems
+    private long currentOrderTotalCents = 0; // Running total of currentOrderItems
     private ObservableList<Order> queuedOrders = FXCollections.observableArrayList(); // Added for queue display
+    private boolean startupComplete = false; // Set once all background startup tasks are done
+    private ListView<com.example.restrauntautomation.model.MenuItem> menuItemListView; // Shared by all category panes
+    private final Map<TitledPane, MenuCategory> categoriesByPane = new HashMap<>();
+    private MenuSearchIndex menuSearchIndex; // Null until built in the background
+    private final PauseTransition menuSearchDelay = new PauseTransition(Duration.millis(MENU_SEARCH_DELAY_MILLIS));
+    private final ExecutorService menuSearchExecutor = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "menu-search");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private long menuSearchGeneration = 0; // Only results of the latest search are shown; FX thread only
 
     /**
      * Initializes the controller class. This method is automatically called
-     * after the FXML file has been loaded. Sets up managers, loads data,
-     * and populates UI elements.
+     * after the FXML file has been loaded. Creates the lightweight managers and views here,
+     * then loads the menu, wait staff, tables, archive and database concurrently in the background
+     * so the window can be shown right away.
      */
     @FXML
     public void initialize() {
         LOGGER.info("Initializing HelloController...");
+        StartupTimer.mark("FXML loaded");
+
+        config = loadConfig();
 
-        // Initialize Managers
+        // Initialize Managers that do no I/O; the rest are loaded in the background
         waitStaffManager = new WaitStaffManager();
-        menuManager = new MenuManager(); // Menu is hardcoded inside
-        orderQueueManager = new OrderQueueManager();
+        orderQueueManager = new OrderQueueManager(config.getQueueBackend());
+        kpiTracker = new KpiTracker();
+        orderQueueManager.addListener(kpiTracker); // Registered first so KPIs are current when the view refreshes
+        etaEstimator = new EtaEstimator();
+        orderQueueManager.addListener(etaEstimator); // Also before the view, which shows each order's ETA
+        staffAssignmentEngine = new StaffAssignmentEngine();
+        orderQueueManager.addListener(staffAssignmentEngine);
+        amendmentLog = new AmendmentLog();
+        orderQueueManager.addListener(amendmentLog);
+        orderEventPublisher = new OrderEventPublisher(config.getEventBufferSize());
+        orderQueueManager.addListener(orderEventPublisher);
+        settlementEngine = new SettlementEngine(
+                new SettlementPolicy(config.getTaxBasisPoints(), config.getServiceChargeBasisPoints()),
+                new LocalPaymentProcessor());
+        openTabs = new OpenTabs();
+        orderQueueManager.addListener(openTabs); // Served orders stay open on their table's tab until paid
         tableButtonMap = new HashMap<>(); // Initialize the map
+        notificationCenter = new NotificationCenter(notificationArea, Duration.seconds(NOTIFICATION_SECONDS));
 
-        // Setup UI Components
-        setupWaitStaffComboBox();
-        setupTableGrid();
-        setupMenuAccordion();
+        // Setup UI Components that do not need loaded data
         setupCurrentOrderListView();
         setupOrderQueueListView(); // Added setup call
+        setupKpiRefresh();
 
         // Initial state for buttons
-        submitOrderButton.setDisable(true); // Disable until table, staff, and items are selected
+        submitOrderButton.setDisable(true); // Disable until startup is complete and table, staff, and items are selected
         completeOrderButton.setDisable(true); // Disable initially
+        voidOrderButton.setDisable(true);
+        amendOrderButton.setDisable(true);
+        removeItemButton.setDisable(true);
+        settleTableButton.setDisable(true);
+
+        loadInBackground();
+        LOGGER.info("HelloController initialization complete, loading data in the background.");
+    }
+
+    /**
+     * Loads the runtime configuration. An invalid configuration fails startup rather than running the
+     * terminal with settings nobody chose, e.g. the default database or archive.
+     *
+     * @return The configuration.
+     * @throws IllegalStateException If the configuration is invalid or cannot be read.
+     */
+    private RuntimeConfig loadConfig() {
+        try {
+            RuntimeConfig loaded = RuntimeConfig.load();
+            LOGGER.log(Level.INFO, "Using {0}", loaded);
+            return loaded;
+        } catch (IllegalArgumentException | UncheckedIOException e) {
+            LOGGER.log(Level.SEVERE, "Invalid configuration, not starting.", e);
+            showAlert(Alert.AlertType.ERROR, "Invalid Configuration", e.getMessage());
+            throw new IllegalStateException("Invalid configuration: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Starts the background startup tasks and binds each result on the FX thread as soon as it is ready.
+     * Startup completes, and orders can be submitted, once every task has finished and its result is bound.
+     */
+    private void loadInBackground() {
+        Executor fxThread = Platform::runLater;
+        CompletableFuture<Void> orderIds = CompletableFuture.runAsync(() -> {
+            setupOrderIdGenerator();
+            StartupTimer.mark("Order IDs");
+        });
+        CompletableFuture<List<Table>> tables = CompletableFuture.supplyAsync(timed("Tables", this::createTables));
+        CompletableFuture<OrderArchive> archive = CompletableFuture.supplyAsync(timed("Order archive", this::openOrderArchive));
+        CompletableFuture<SqlDatabase> db = CompletableFuture.supplyAsync(timed("Database", this::openDatabase));
+        CompletableFuture<MenuManager> menu = db.thenApplyAsync(this::loadMenu);
+        CompletableFuture<List<WaitStaff>> staff = db.thenApplyAsync(this::loadWaitStaff);
+        CompletableFuture<MenuSearchIndex> searchIndex = menu.thenApplyAsync(loadedMenu -> {
+            MenuSearchIndex index = new MenuSearchIndex(loadedMenu);
+            StartupTimer.mark("Menu search index");
+            return index;
+        });
+
+        // Startup waits for these FX stages too, so it never completes before the data is bound to the view
+        CompletableFuture<Void> tableGrid = tables.thenAcceptAsync(this::setupTableGrid, fxThread);
+        CompletableFuture<Void> menuView = menu.thenAcceptAsync(loadedMenu -> {
+            menuManager = loadedMenu;
+            orderHistory = new OrderHistory(config.getHistoryRetention(), menuManager::getMenuItemId, menuManager::getMenuItemById);
+            setupMenuAccordion();
+        }, fxThread);
+        CompletableFuture<Void> staffView = staff.thenAcceptAsync(this::setupWaitStaffComboBox, fxThread);
+        CompletableFuture<Void> search = searchIndex.thenAcceptAsync(this::setupMenuSearch, fxThread);
+        CompletableFuture<Void> pricing = menu
+                .thenApplyAsync(loadedMenu -> new PricingEngine(PricingRuleSet.compile(createPricingRules(), loadedMenu)))
+                .thenAcceptAsync(this::setupPricing, fxThread);
+        CompletableFuture<Void> inventory = menu
+                .thenCombineAsync(db, this::loadInventory)
+                .thenAcceptAsync(this::setupInventory, fxThread);
+        CompletableFuture<Void> amendments = menu.thenAcceptBothAsync(db, this::restoreAmendments);
+        CompletableFuture.allOf(orderIds, archive, tableGrid, menuView, staffView, search, pricing, inventory, amendments)
+                .whenCompleteAsync((ignored, error) -> finishStartup(archive.getNow(null), db.getNow(null), error), fxThread);
+    }
+
+    /**
+     * Wraps a startup task so that its completion is recorded by the {@link StartupTimer}.
+     *
+     * @param phase The name of the startup phase.
+     * @param task  The task.
+     * @param <T>   The result type.
+     * @return A supplier that runs the task and records the phase.
+     */
+    private static <T> Supplier<T> timed(String phase, Supplier<T> task) {
+        return () -> {
+            T result = task.get();
+            StartupTimer.mark(phase);
+            return result;
+        };
+    }
+
+    /**
+     * Final startup step, on the FX thread once all background tasks have finished: attaches the
+     * archive and database, joins replication and enables order submission.
+     *
+     * @param archive  The opened order archive, or null.
+     * @param database The opened database, or null.
+     * @param error    The failure of a startup task, or null if all succeeded.
+     */
+    private void finishStartup(OrderArchive archive, SqlDatabase database, Throwable error) {
+        if (error != null) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            LOGGER.log(Level.SEVERE, "Startup failed.", cause);
+            showAlert(Alert.AlertType.ERROR, "Startup Failed", "The application could not finish loading: " + cause.getMessage());
+            return;
+        }
+        orderArchive = archive;
+        // Before replication starts, so orders completed on other terminals are recorded too
+        orderQueueManager.addListener(new OrderQueueListener() {
+            @Override
+            public void ordersAdded(List<Order> orders) {
+            }
+
+            @Override
+            public void orderRemoved(Order order) {
+                if (order.getStatus() != Order.OrderStatus.CANCELLED) {
+                    archiveCompletedOrder(order);
+                }
+            }
+        });
+        attachDatabase(database);
+        startReplicationIfConfigured();
+        startupComplete = true;
+        checkSubmitButtonState();
+        StartupTimer.mark("Startup complete");
+        if (Boolean.getBoolean(STARTUP_PROBE_PROPERTY)) {
+            runStartupProbe();
+        }
+    }
+
+    /**
+     * Pushes one order through the queue (and every queue listener), logs how long the first order
+     * took, then exits after a short delay so the first frames are rendered too.
+     * Used by scripted startup runs; the probe order is voided rather than completed, so it is not archived.
+     */
+    private void runStartupProbe() {
+        long start = System.nanoTime();
+        Order probe = new Order(restaurantTables.get(0).getTableNumber(), "probe");
+        probe.addItem(menuManager.getMenuItemById(0), 1);
+        orderQueueManager.addOrder(probe);
+        probe.setStatus(Order.OrderStatus.CANCELLED);
+        orderQueueManager.removeOrder(probe);
+        LOGGER.log(Level.INFO, "First order took {0} ms.", (System.nanoTime() - start) / 1_000_000);
+        StartupTimer.mark("First order");
+        new Timeline(new KeyFrame(Duration.seconds(STARTUP_PROBE_EXIT_DELAY_SECONDS), event -> Platform.exit())).play();
+    }
+
+    /**
+     * Installs the time-ordered order ID generator for this terminal. The node ID comes from the
+     * replication node ID property (0 when standalone), and the ID high-water mark is persisted
+     * so IDs keep increasing across restarts.
+     *
+     * <p>An invalid node ID fails startup, since any IDs issued without it could collide with another
+     * terminal's. If the state file cannot be used, IDs fall back to the non-persistent default and
+     * replication is refused, because IDs issued after a restart could repeat ones already replicated.
+     *
+     * @throws IllegalArgumentException If the node ID property is set but is not a valid node ID.
+     */
+    private void setupOrderIdGenerator() {
+        int nodeId = 0;
+        String nodeIdValue = System.getProperty(NODE_ID_PROPERTY);
+        if (nodeIdValue != null) {
+            try {
+                nodeId = Integer.parseInt(nodeIdValue.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid node id '" + nodeIdValue + "' in " + NODE_ID_PROPERTY + ".", e);
+            }
+            if (nodeId < 0 || nodeId > SnowflakeOrderIdGenerator.MAX_NODE_ID) {
+                throw new IllegalArgumentException("Node id " + nodeId + " in " + NODE_ID_PROPERTY
+                        + " must be between 0 and " + SnowflakeOrderIdGenerator.MAX_NODE_ID + ".");
+            }
+        }
+        try {
+            Order.setIdGenerator(new SnowflakeOrderIdGenerator(nodeId, Paths.get(ORDER_ID_STATE_FILE)));
+            orderIdNodeId = nodeId;
+        } catch (UncheckedIOException e) {
+            LOGGER.log(Level.SEVERE, "Could not set up persistent order IDs, using non-persistent IDs; replication is disabled.", e);
+        }
+    }
+
+    /**
+     * Joins a group of replicated terminals if the replication system properties are set.
+     * Without them the terminal runs standalone.
+     */
+    private void startReplicationIfConfigured() {
+        String nodeIdValue = System.getProperty(NODE_ID_PROPERTY);
+        String listenPort = System.getProperty(REPLICATION_LISTEN_PROPERTY);
+        String leaderAddress = System.getProperty(REPLICATION_LEADER_PROPERTY);
+        if (nodeIdValue == null || (listenPort == null && leaderAddress == null)) {
+            LOGGER.info("Replication not configured, running standalone.");
+            return;
+        }
+        int nodeId = Integer.parseInt(nodeIdValue.trim()); // Already validated with the order IDs
+        if (nodeId != orderIdNodeId) {
+            LOGGER.log(Level.SEVERE, "Order IDs are not persisted with node id {0}, refusing to start replication.", nodeId);
+            showAlert(Alert.AlertType.ERROR, "Replication Disabled",
+                    "Order IDs could not be set up for node " + nodeId + " (see the log), so this terminal runs standalone to avoid duplicate order IDs.");
+            return;
+        }
+        try {
+            // Committed changes, this terminal's own included, are applied on the FX thread in log order
+            replicationNode = new ReplicationNode(nodeId, orderQueueManager, menuManager, Platform::runLater,
+                    Paths.get(REPLICATION_STATE_FILE));
+            replicationNode.setTableStatusListener(this::applyTableStatus);
+            replicationNode.setOrderVoidListener(amendmentLog::voidOrder); // Voids made on other terminals are audited here too
+            replicationNode.setOrderPaymentListener(this::applyOrdersPaid); // Bills paid on other terminals close their tabs here too
+            replicationNode.setOrderAmendmentListener(new ReplicationNode.OrderAmendmentListener() { // Audited here too
+                @Override
+                public void itemAdded(Order order, String staffId, OrderItem line) {
+                    addItemToQueuedOrder(order, staffId, line);
+                }
+
+                @Override
+                public void itemRemoved(Order order, String staffId, com.example.restrauntautomation.model.MenuItem menuItem) {
+                    removeItemFromQueuedOrder(order, staffId, menuItem);
+                }
+            });
+            replicationNode.setOrderRefundListener(this::applyRefund);
+            replicationNode.setConnectionListener(connected -> runOnFxThread(() -> notifyUser(
+                    connected ? Alert.AlertType.INFORMATION : Alert.AlertType.WARNING,
+                    connected ? "Reconnected" : "Connection Lost",
+                    connected ? "This terminal is connected to the other terminals again."
+                            : "This terminal lost the connection to the other terminals; orders cannot be changed until it reconnects.",
+                    null)));
+            if (listenPort != null) {
+                replicationNode.startLeader(Integer.parseInt(listenPort.trim()));
+            } else {
+                String[] hostAndPort = leaderAddress.trim().split(":", 2);
+                replicationNode.startFollower(hostAndPort[0], Integer.parseInt(hostAndPort[1]));
+            }
+        } catch (IOException | UncheckedIOException | IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            LOGGER.log(Level.SEVERE, "Could not start replication, running standalone.", e);
+            if (replicationNode != null) {
+                replicationNode.close();
+            }
+            replicationNode = null;
+        }
+    }
+
+    /**
+     * Sets a table's status: directly when standalone, through the replicated log when in a group,
+     * in which case the status changes here once the change is committed.
+     *
+     * @param table  The table.
+     * @param status The new status.
+     */
+    private void setTableStatus(Table table, Table.TableStatus status) {
+        if (replicationNode == null) {
+            applyTableStatus(table.getTableNumber(), status);
+            return;
+        }
+        try {
+            reportIfUnconfirmed(replicationNode.submitTableStatus(table.getTableNumber(), status),
+                    "Setting table " + table.getTableNumber() + " to " + status);
+        } catch (IllegalStateException e) {
+            LOGGER.log(Level.WARNING, "Could not replicate the status of table " + table.getTableNumber(), e);
+            notifyUser(Alert.AlertType.WARNING, "Table Not Updated", "Table " + table.getTableNumber()
+                    + " was not set to " + status + ": " + e.getMessage(), null);
+        }
+    }
+
+    /**
+     * Queues an order: directly when standalone, through the replicated log when in a group,
+     * in which case it is queued here, as on every other terminal, once the change is committed.
+     *
+     * @param order The order.
+     * @return true if the order was queued or submitted.
+     */
+    private boolean queueOrder(Order order) {
+        if (replicationNode == null) {
+            return orderQueueManager.addOrder(order);
+        }
+        try {
+            reportIfUnconfirmed(replicationNode.submitOrderAdded(order), "Order " + order.getOrderId());
+            return true;
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            LOGGER.log(Level.SEVERE, "Could not replicate order " + order.getOrderId(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Removes an order from the queue: directly when standalone, through the replicated log when in a group,
+     * where it is removed with its status (e.g. paid) on every terminal.
+     *
+     * @param order The order.
+     * @return true if the order was queued and is removed, or its removal submitted.
+     */
+    private boolean dequeueOrder(Order order) {
+        if (replicationNode == null) {
+            return orderQueueManager.removeOrder(order);
+        }
+        if (orderQueueManager.getOrderById(order.getOrderId()) == null) {
+            return false;
+        }
+        try {
+            reportIfUnconfirmed(replicationNode.submitOrderRemoved(order), "Removing order " + order.getOrderId());
+        } catch (IllegalStateException e) {
+            LOGGER.log(Level.SEVERE, "Could not replicate the removal of order " + order.getOrderId(), e);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Removes a voided order from the queue: directly when standalone, through the replicated log when in a
+     * group, with who voided it and why so the other terminals audit the void too.
+     *
+     * @param order   The voided order.
+     * @param staffId The ID of the staff member who voided it.
+     * @param reason  Why it was voided.
+     * @return true if the order was queued and is removed, or its removal submitted.
+     */
+    private boolean dequeueVoidedOrder(Order order, String staffId, String reason) {
+        if (replicationNode == null) {
+            return orderQueueManager.removeOrder(order);
+        }
+        if (orderQueueManager.getOrderById(order.getOrderId()) == null) {
+            return false;
+        }
+        try {
+            reportIfUnconfirmed(replicationNode.submitOrderVoided(order, staffId, reason), "Voiding order " + order.getOrderId());
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            LOGGER.log(Level.SEVERE, "Could not replicate the void of order " + order.getOrderId(), e);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Tells the user when a change submitted to the replicated log fails before it is committed, e.g. because
+     * the connection to the leader was lost, so it is not silently missing from the queue or tables.
+     *
+     * @param committed The future of the submitted change.
+     * @param change    The change, for the message, e.g. "Order 123".
+     */
+    private void reportIfUnconfirmed(CompletableFuture<Void> committed, String change) {
+        committed.whenComplete((ignored, error) -> {
+            if (error == null) {
+                return;
+            }
+            LOGGER.log(Level.SEVERE, change + " was not confirmed by the replication leader.", error);
+            Platform.runLater(() -> showAlert(Alert.AlertType.ERROR, "Change Not Confirmed", change
+                    + " was not confirmed by the other terminals and may not have been made. Check the queue and tables once this terminal has reconnected."));
+        });
+    }
+
+    /**
+     * Checks that this terminal can change orders and tables, telling the user if it cannot because it lost
+     * the connection to the other terminals. Checked before anything is changed locally, e.g. a void recorded
+     * or a card charged, so a change is not made on this terminal alone.
+     *
+     * @param title The title of the error shown if it cannot.
+     * @return true if changes can be made.
+     */
+    private boolean checkReplicationConnected(String title) {
+        if (replicationNode == null || replicationNode.isConnected()) {
+            return true;
+        }
+        showAlert(Alert.AlertType.ERROR, title, "This terminal lost the connection to the other terminals and is reconnecting, so nothing was changed. Please try again shortly.");
+        return false;
+    }
+
+    /**
+     * Sets a table's status and refreshes its button, without replicating.
+     *
+     * @param tableNumber The table number.
+     * @param status      The new status.
+     */
+    private void applyTableStatus(int tableNumber, Table.TableStatus status) {
+        Table table = findTableByNumber(tableNumber);
+        Button button = tableButtonMap.get(tableNumber);
+        if (table == null || button == null) {
+            LOGGER.warning("Could not find table or button to update status for table number: " + tableNumber);
+            return;
+        }
+        table.setStatus(status);
+        kpiTracker.tableStatusChanged(tableNumber, status); // Turn time runs from seated to vacant
+        if (status == Table.TableStatus.VACANT) {
+            staffAssignmentEngine.releaseTable(tableNumber); // The next party may get another server
+        }
+        updateTableButtonAppearance(button, table);
+        if (table == selectedTable) {
+            button.getStyleClass().add("table-button-selected"); // Keep the selection highlight
+        }
+    }
+
+    /**
+     * Runs a task on the JavaFX Application Thread, directly if already on it.
+     *
+     * @param task The task to run.
+     */
+    private static void runOnFxThread(Runnable task) {
+        if (Platform.isFxApplicationThread()) {
+            task.run();
+        } else {
+            Platform.runLater(task);
+        }
+    }
+
+    /**
+     * Opens the on-disk archive that completed orders are appended to. Runs in the background.
+     * The application keeps working without it if the archive cannot be opened.
+     *
+     * @return The archive, or null if it could not be opened.
+     */
+    private OrderArchive openOrderArchive() {
+        try {
+            OrderArchive openedArchive = new OrderArchive(Paths.get(config.getArchiveDirectory()));
+            // Closing forces the mapped columns, which ASYNC appends are not one by one, and releases the files
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> closeOrderArchive(openedArchive), "archive-shutdown"));
+            return openedArchive;
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Could not open order archive at " + config.getArchiveDirectory() + ", completed orders will not be archived.", e);
+            return null;
+        }
+    }
+
+    /**
+     * Closes the order archive on exit. Orders completed after this are no longer archived.
+     *
+     * @param openedArchive The archive.
+     */
+    private static void closeOrderArchive(OrderArchive openedArchive) {
+        try {
+            openedArchive.close();
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Could not close the order archive; recent orders may not be on disk.", e);
+        }
+    }
+
+    /**
+     * Opens the embedded database. Runs in the background.
+     * The application keeps working without the database if it cannot be opened.
+     *
+     * @return The database, or null if it could not be opened.
+     */
+    private SqlDatabase openDatabase() {
+        String url = config.getDatabaseUrl();
+        try {
+            SqlDatabase openedDatabase = new SqlDatabase(url, config.getDatabaseQueueCapacity());
+            Runtime.getRuntime().addShutdownHook(new Thread(openedDatabase::close, "database-shutdown")); // Commit queued writes on exit
+            return openedDatabase;
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Could not open database " + url + ", order history will not be stored.", e);
+            return null;
+        }
+    }
+
+    /**
+     * Loads the menu, from the database if it is open. Runs in the background.
+     *
+     * @param openedDatabase The database, or null to use the default menu.
+     * @return The menu.
+     */
+    private MenuManager loadMenu(SqlDatabase openedDatabase) {
+        MenuManager menu = openedDatabase != null
+                ? MenuManager.load(new MenuRepository(openedDatabase))
+                : new MenuManager();
+        StartupTimer.mark("Menu");
+        return menu;
+    }
+
+    /**
+     * Creates the inventory, with the stock levels stored in the database if it is open. Runs in the background.
+     *
+     * @param loadedMenu     The menu.
+     * @param openedDatabase The database, or null to start fully stocked.
+     * @return The inventory.
+     */
+    private InventoryManager loadInventory(MenuManager loadedMenu, SqlDatabase openedDatabase) {
+        InventoryManager inventory = openedDatabase != null
+                ? InventoryManager.load(loadedMenu, new InventoryRepository(openedDatabase))
+                : InventoryManager.createDefault(loadedMenu);
+        StartupTimer.mark("Inventory");
+        return inventory;
+    }
+
+    /**
+     * Restores the audit log of the orders amended during the last history retention period (the shift) from
+     * the database, and stores every entry appended from now on. Runs in the background, before any order
+     * can be queued.
+     *
+     * @param loadedMenu     The menu.
+     * @param openedDatabase The database, or null to keep the audit log in memory only.
+     */
+    private void restoreAmendments(MenuManager loadedMenu, SqlDatabase openedDatabase) {
+        if (openedDatabase == null) {
+            return;
+        }
+        AmendmentRepository repository;
+        try {
+            repository = new AmendmentRepository(openedDatabase, loadedMenu);
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Could not open the stored audit log; amendments are kept in memory only.", e);
+            return;
+        }
+        try {
+            amendmentLog.restore(repository.findAmendmentsSince(System.currentTimeMillis() - config.getHistoryRetention().toMillis()));
+        } catch (SQLException | IllegalArgumentException e) {
+            LOGGER.log(Level.SEVERE, "Could not restore the stored audit log; starting with an empty one.", e);
+        }
+        amendmentLog.addListener(repository);
+        StartupTimer.mark("Audit log");
+    }
+
+    /**
+     * Attaches the repositories to an opened database: the order history is recorded
+     * from queue events. All writes are asynchronous.
+     *
+     * @param openedDatabase The database, or null if it could not be opened.
+     */
+    private void attachDatabase(SqlDatabase openedDatabase) {
+        database = openedDatabase;
+        if (database == null) {
+            return;
+        }
+        orderRepository = new OrderRepository(database, menuManager);
+        orderQueueManager.addListener(orderRepository);
+    }
+
+    /**
+     * Records a served order in the shift history, and appends it to the order archive if one is open.
+     * Called from the queue listener, on whichever thread removed the order.
+     *
+     * @param order The served order.
+     */
+    private void archiveCompletedOrder(Order order) {
+        try {
+            orderHistory.record(order);
+        } catch (IllegalArgumentException e) {
+            LOGGER.log(Level.SEVERE, "Failed to record completed order " + order.getOrderId() + " in the shift history", e);
+        }
+        if (orderArchive == null) {
+            return;
+        }
+        try {
+            orderArchive.append(order, LocalDateTime.now(), menuManager::getMenuItemId);
+            if (config.getArchiveJournal() == RuntimeConfig.JournalMode.SYNC) {
+                orderArchive.flush();
+            }
+        } catch (IOException | IllegalArgumentException | IllegalStateException e) {
+            LOGGER.log(Level.SEVERE, "Failed to archive completed order " + order.getOrderId(), e);
+        }
+    }
 
-        LOGGER.info("HelloController initialization complete.");
+    /**
+     * Loads the wait staff roster, from the database if it is open. Runs in the background.
+     *
+     * @param openedDatabase The database, or null to read the CSV file.
+     * @return The wait staff.
+     */
+    private List<WaitStaff> loadWaitStaff(SqlDatabase openedDatabase) {
+        List<WaitStaff> staff = openedDatabase != null
+                ? waitStaffManager.loadWaitStaff(new WaitStaffRepository(openedDatabase))
+                : waitStaffManager.loadWaitStaff(config.getStaffFile());
+        StartupTimer.mark("Wait staff");
+        return staff;
     }
 
     /**
-     * Sets up the Wait Staff ComboBox: loads data and configures display.
+     * Sets up the Wait Staff ComboBox with the loaded staff and configures display.
+     *
+     * @param staff The wait staff to choose from.
      */
-    private void setupWaitStaffComboBox() {
-        List<WaitStaff> staff = waitStaffManager.loadWaitStaff();
+    private void setupWaitStaffComboBox(List<WaitStaff> staff) {
         waitStaffComboBox.setItems(FXCollections.observableArrayList(staff));
+        for (WaitStaff server : staff) {
+            try {
+                staffAssignmentEngine.addServer(server, DINING_FLOOR);
+            } catch (IllegalArgumentException e) {
+                LOGGER.log(Level.WARNING, "Skipping duplicate wait staff entry: " + server.getStaffId(), e);
+            }
+        }
 
         // How to display WaitStaff objects in the ComboBox
         waitStaffComboBox.setConverter(new StringConverter<WaitStaff>() {
@@ -123,20 +820,131 @@ public class HelloController {
     }
 
     /**
-     * Creates and populates the grid of tables.
+     * Creates the table data model. Runs in the background.
+     *
+     * @return The tables, numbered from 1.
+     */
+    private List<Table> createTables() {
+        List<Table> tables = new ArrayList<>(config.getTables());
+        for (int i = 1; i <= config.getTables(); i++) {
+            tables.add(new Table(i, config.getSeatsPerTable())); // Default status is VACANT
+        }
+        return tables;
+    }
+
+    /**
+     * Creates the pricing rules: half-price beverages during happy hour and a soup and main course combo.
+     * Hardcoded like the menu.
+     *
+     * @return The pricing rules.
+     */
+    private static List<PricingRule> createPricingRules() {
+        return Arrays.asList(
+                PricingRule.percentOff("Happy hour drinks", Arrays.asList("Beverages"), 5_000,
+                        LocalTime.of(16, 0), LocalTime.of(18, 0)),
+                PricingRule.combo("Soup and main", Arrays.asList("Soups", "Main Courses"), 300, null, null));
+    }
+
+    /**
+     * Starts pricing orders: new orders are priced when submitted, before they are queued, and every open
+     * order is repriced as soon as the active rules change. Orders queued by other terminals arrive with
+     * the discount they were priced with there.
+     *
+     * @param engine The pricing engine.
+     */
+    private void setupPricing(PricingEngine engine) {
+        pricingEngine = engine;
+        lastPricingCheck = LocalTime.now();
+        Timeline pricingCheck = new Timeline(new KeyFrame(Duration.seconds(PRICING_CHECK_SECONDS), event -> checkPricingWindow()));
+        pricingCheck.setCycleCount(Animation.INDEFINITE);
+        pricingCheck.play();
+        LOGGER.info("Pricing setup complete with " + engine.getRules().getRules().size() + " rules.");
+    }
+
+    /**
+     * Reprices every open order if a pricing window (e.g. happy hour) started or ended since the last check.
+     * Each changed discount is recorded in the audit log. Orders already paid or voided, but not yet gone
+     * from the queue, keep their price.
+     */
+    private void checkPricingWindow() {
+        LocalTime now = LocalTime.now();
+        if (!pricingEngine.getRules().sameActiveRules(lastPricingCheck, now)) {
+            List<Order> openOrders = new ArrayList<>();
+            for (Order order : orderQueueManager.getOrders()) {
+                if (order.getStatus() != Order.OrderStatus.PAID && order.getStatus() != Order.OrderStatus.CANCELLED) {
+                    openOrders.add(order);
+                }
+            }
+            int changed = pricingEngine.repriceAll(openOrders, now,
+                    (order, discount) -> {
+                        amendmentLog.changeDiscount(order, PRICING_STAFF_ID, discount);
+                        kpiTracker.orderRepriced(order); // Revenue is booked net of the discount
+                    });
+            updateOrderQueueView();
+            if (changed > 0) {
+                notifyUser(Alert.AlertType.INFORMATION, "Prices Updated", "Pricing rules changed; " + changed + " open orders were repriced.", null);
+            }
+        }
+        lastPricingCheck = now;
+    }
+
+    /**
+     * Starts depleting stock as orders are queued, and giving it back when they are voided.
+     * Items 86'd by the inventory are greyed out in the menu,
+     * and a warning is shown when an ingredient runs low.
+     *
+     * @param inventory The inventory.
+     */
+    private void setupInventory(InventoryManager inventory) {
+        inventoryManager = inventory;
+        orderQueueManager.addListener(inventory); // Depletes stock for orders queued by other terminals too
+        inventory.addListener(new InventoryListener() {
+            @Override
+            public void stockChanged(List<Ingredient> ingredients) {
+                // Stored by the inventory itself; the dialogs read the current levels when opened
+            }
+
+            @Override
+            public void ingredientLow(Ingredient ingredient, long stock) {
+                runOnFxThread(() -> notifyUser(Alert.AlertType.WARNING, "Low Stock",
+                        ingredient.getName() + " is running low (" + stock + " " + ingredient.getUnit() + " left).",
+                        "%d ingredients are running low."));
+            }
+
+            @Override
+            public void availabilityChanged(List<com.example.restrauntautomation.model.MenuItem> items) {
+                runOnFxThread(HelloController.this::refreshMenuItemViews);
+            }
+        });
+        refreshMenuItemViews(); // Items may have been 86'd while the inventory was created
+        LOGGER.info("Inventory setup complete with " + inventory.getIngredients().size() + " ingredients.");
+    }
+
+    /**
+     * Redraws the visible menu item rows, e.g. after items were 86'd.
+     */
+    private void refreshMenuItemViews() {
+        if (menuItemListView != null) {
+            menuItemListView.refresh();
+        }
+        menuSearchResultsView.refresh();
+    }
+
+    /**
+     * Populates the grid of tables with a button per table.
+     *
+     * @param tables The tables to show.
      */
-    private void setupTableGrid() {
-        restaurantTables = new ArrayList<>();
+    private void setupTableGrid(List<Table> tables) {
+        restaurantTables = new ArrayList<>(tables);
         tableButtonMap.clear(); // Clear map before repopulating
         tableGridPane.getChildren().clear(); // Clear any existing UI children
-        for (int i = 1; i <= NUMBER_OF_TABLES; i++) {
-            Table table = new Table(i, SEATS_PER_TABLE); // Default status is VACANT
-            restaurantTables.add(table);
+        for (Table table : restaurantTables) {
             Button tableButton = createTableButton(table);
             tableButtonMap.put(table.getTableNumber(), tableButton); // Store button reference
             tableGridPane.getChildren().add(tableButton);
         }
-        LOGGER.info("Table grid setup complete. Created " + NUMBER_OF_TABLES + " tables.");
+        LOGGER.info("Table grid setup complete. Created " + restaurantTables.size() + " tables.");
     }
 
     /**
@@ -184,8 +992,31 @@ public class HelloController {
         }
         button.getStyleClass().add("table-button-selected");
 
-
+        selectServerFor(table);
         checkSubmitButtonState();
+        checkSettleButtonState();
+    }
+
+    /**
+     * Preselects the server of a table: the one it is assigned to, or else the least-loaded server on its
+     * floor. The selection can still be changed before submitting.
+     *
+     * @param table The selected table.
+     */
+    private void selectServerFor(Table table) {
+        String staffId = staffAssignmentEngine.getServerOf(table.getTableNumber());
+        if (staffId == null) {
+            staffId = staffAssignmentEngine.recommend(DINING_FLOOR);
+        }
+        if (staffId == null) {
+            return; // Wait staff not loaded yet
+        }
+        for (WaitStaff staff : waitStaffComboBox.getItems()) {
+            if (staff.getStaffId().equals(staffId)) {
+                waitStaffComboBox.getSelectionModel().select(staff);
+                return;
+            }
+        }
     }
 
     /**
@@ -229,42 +1060,167 @@ public class HelloController {
 
 
     /**
-     * Sets up the Menu Accordion with categories and items.
+     * Sets up the Menu Accordion with one empty pane per category. Items are shown in a single
+     * virtualized ListView that is moved into whichever pane is expanded and given that category's
+     * items, so only the visible rows have cells, whatever the size of the menu.
      */
     private void setupMenuAccordion() {
         menuAccordion.getPanes().clear();
+        categoriesByPane.clear();
         List<MenuCategory> categories = menuManager.getMenuCategories();
 
+        menuItemListView = new ListView<>();
+        menuItemListView.setPrefHeight(MENU_LIST_HEIGHT); // Limit height
+        menuItemListView.setFixedCellSize(MENU_CELL_HEIGHT); // Lets the list lay out rows without measuring every item
+        menuItemListView.setCellFactory(lv -> new MenuItemCell());
+        addSelectedItemOnEnter(menuItemListView);
+
         for (MenuCategory category : categories) {
-            VBox itemsVBox = new VBox(5); // VBox to hold buttons for items in this category
-            itemsVBox.setPadding(new javafx.geometry.Insets(10));
-            // Use fully qualified name for the loop variable to resolve ambiguity
-            for (com.example.restrauntautomation.model.MenuItem item : category.getItems()) {
-                Button itemButton = new Button(item.getName() + " ($" + item.getPrice() + ")");
-                itemButton.setMaxWidth(Double.MAX_VALUE); // Make button fill width
-                // Ensure the correct 'item' (our model item) is captured by the lambda
-                itemButton.setOnAction(event -> handleAddItemToOrder(item));
-                itemsVBox.getChildren().add(itemButton);
-            }
-            ScrollPane scrollPane = new ScrollPane(itemsVBox); // Make items scrollable if many
-            scrollPane.setFitToWidth(true);
-            scrollPane.setPrefHeight(150); // Limit height
-
-            TitledPane categoryPane = new TitledPane(category.getName(), scrollPane);
+            TitledPane categoryPane = new TitledPane(category.getName(), null); // Content is attached when expanded
+            categoriesByPane.put(categoryPane, category);
             menuAccordion.getPanes().add(categoryPane);
         }
+        menuAccordion.expandedPaneProperty().addListener((obs, oldPane, newPane) -> showMenuCategory(oldPane, newPane));
         LOGGER.info("Menu Accordion setup complete. Added " + categories.size() + " categories.");
     }
 
-     /**
-     * Sets up the ListView for displaying the current order items.
+    /**
+     * Adds the selected menu item to the current order when Enter is pressed in a menu item list.
+     * Key events go to the focused list, not to its cells, so the list handles them.
+     *
+     * @param listView The menu item list.
      */
-    private void setupCurrentOrderListView() {
-        currentOrderListView.setItems(currentOrderItems);
+    private void addSelectedItemOnEnter(ListView<com.example.restrauntautomation.model.MenuItem> listView) {
+        listView.setOnKeyPressed(event -> {
+            com.example.restrauntautomation.model.MenuItem selected = listView.getSelectionModel().getSelectedItem();
+            if (event.getCode() == KeyCode.ENTER && selected != null) {
+                handleAddItemToOrder(selected);
+                event.consume();
+            }
+        });
+    }
 
-        // Customize how OrderItems are displayed in the ListView
-        currentOrderListView.setCellFactory(lv -> new ListCell<OrderItem>() {
-            @Override
+    /**
+     * Moves the shared item list into the newly expanded category pane and shows that category's items.
+     *
+     * @param oldPane The previously expanded pane, or null.
+     * @param newPane The expanded pane, or null if all panes are collapsed.
+     */
+    private void showMenuCategory(TitledPane oldPane, TitledPane newPane) {
+        if (oldPane != null) {
+            oldPane.setContent(null);
+        }
+        if (newPane == null) {
+            return;
+        }
+        MenuCategory category = categoriesByPane.get(newPane);
+        menuItemListView.setItems(FXCollections.observableList(category.getItems())); // Wraps the list, no copy
+        menuItemListView.scrollTo(0);
+        newPane.setContent(menuItemListView);
+    }
+
+    /**
+     * Enables the menu search field. Typing schedules a search after a short pause; the search runs on a
+     * background thread and the matches replace the category view until the field is cleared.
+     *
+     * @param index The built search index.
+     */
+    private void setupMenuSearch(MenuSearchIndex index) {
+        menuSearchIndex = index;
+        menuSearchResultsView.setFixedCellSize(MENU_CELL_HEIGHT);
+        menuSearchResultsView.setCellFactory(lv -> new MenuItemCell());
+        addSelectedItemOnEnter(menuSearchResultsView);
+        menuSearchResultsView.setPlaceholder(new Label("No matching items"));
+        menuSearchDelay.setOnFinished(event -> runMenuSearch(menuSearchField.getText()));
+        menuSearchField.textProperty().addListener((obs, oldText, newText) -> menuSearchDelay.playFromStart());
+        menuSearchField.setOnKeyPressed(event -> {
+            if (event.getCode() == KeyCode.ESCAPE) {
+                menuSearchField.clear();
+            }
+        });
+        menuSearchField.setDisable(false);
+        LOGGER.info("Menu search enabled for " + index.getItemCount() + " items.");
+    }
+
+    /**
+     * Searches the menu on the search thread and shows the matches, unless a newer search was started meanwhile.
+     * An empty query hides the results and shows the categories again.
+     *
+     * @param query The text typed in the search field.
+     */
+    private void runMenuSearch(String query) {
+        long generation = ++menuSearchGeneration;
+        if (query == null || query.isBlank()) {
+            showMenuSearchResults(null);
+            return;
+        }
+        MenuSearchIndex index = menuSearchIndex;
+        menuSearchExecutor.execute(() -> {
+            List<com.example.restrauntautomation.model.MenuItem> matches = index.search(query, MENU_SEARCH_LIMIT);
+            Platform.runLater(() -> {
+                if (generation == menuSearchGeneration) {
+                    showMenuSearchResults(matches);
+                }
+            });
+        });
+    }
+
+    /**
+     * Shows search matches in place of the category accordion, or the accordion again when there are none to show.
+     *
+     * @param matches The matches, or null to hide the results.
+     */
+    private void showMenuSearchResults(List<com.example.restrauntautomation.model.MenuItem> matches) {
+        boolean searching = matches != null;
+        menuSearchResultsView.setItems(searching ? FXCollections.observableList(matches) : FXCollections.emptyObservableList());
+        menuSearchResultsView.setVisible(searching);
+        menuSearchResultsView.setManaged(searching);
+        menuAccordion.setVisible(!searching);
+        menuAccordion.setManaged(!searching);
+        if (searching && !matches.isEmpty()) {
+            menuSearchResultsView.scrollTo(0);
+        }
+    }
+
+    /**
+     * A reusable row of the menu item list. Clicking a row adds the item to the current order;
+     * Enter is handled by the list itself, see {@link #addSelectedItemOnEnter(ListView)}.
+     */
+    private final class MenuItemCell extends ListCell<com.example.restrauntautomation.model.MenuItem> {
+
+        MenuItemCell() {
+            getStyleClass().add("menu-item-cell");
+            setOnMouseClicked(event -> {
+                if (!isEmpty()) {
+                    handleAddItemToOrder(getItem());
+                }
+            });
+        }
+
+        @Override
+        protected void updateItem(com.example.restrauntautomation.model.MenuItem item, boolean empty) {
+            super.updateItem(item, empty);
+            getStyleClass().remove("menu-item-unavailable");
+            if (empty || item == null) {
+                setText(null);
+            } else if (!menuManager.isItemAvailable(item)) {
+                getStyleClass().add("menu-item-unavailable");
+                setText(item.getName() + " (unavailable)");
+            } else {
+                setText(item.getName() + " ($" + item.getPrice() + ")");
+            }
+        }
+    }
+
+     /**
+     * Sets up the ListView for displaying the current order items.
+     */
+    private void setupCurrentOrderListView() {
+        currentOrderListView.setItems(currentOrderItems);
+
+        // Customize how OrderItems are displayed in the ListView
+        currentOrderListView.setCellFactory(lv -> new ListCell<OrderItem>() {
+            @Override
             protected void updateItem(OrderItem item, boolean empty) {
                 super.updateItem(item, empty);
                 if (empty || item == null) {
@@ -275,7 +1231,7 @@ public class HelloController {
             }
         });
 
-        // Add listener to enable submit button when items are added (along with other conditions)
+        // The running total is kept by the methods that edit the order; the listener only shows it
         currentOrderItems.addListener((javafx.collections.ListChangeListener.Change<? extends OrderItem> c) -> {
             updateOrderTotal();
             checkSubmitButtonState();
@@ -299,12 +1255,14 @@ public class HelloController {
                     setText(null);
                 } else {
                     // Customize this string for desired queue display format
-                    setText(String.format("ID: %d | Tbl: %d | Staff: %s | Items: %d | Total: $%.2f",
+                    OrderEta eta = etaEstimator.getEta(order.getOrderId());
+                    setText(String.format("ID: %d | Tbl: %d | Staff: %s | Items: %d | Total: $%.2f%s",
                             order.getOrderId(),
                             order.getTableNumber(),
                             order.getWaitStaffId(), // Consider fetching staff name if needed
                             order.getItems().size(),
-                            order.getTotalPrice()));
+                            order.getTotalPrice(),
+                            eta == null ? "" : " | Ready ~" + ETA_FORMAT.format(eta.getReadyAt())));
                 }
             }
         });
@@ -312,6 +1270,24 @@ public class HelloController {
         // Add listener to enable/disable complete button based on selection
         orderQueueListView.getSelectionModel().selectedItemProperty().addListener((obs, oldSelection, newSelection) -> {
             completeOrderButton.setDisable(newSelection == null);
+            voidOrderButton.setDisable(newSelection == null);
+            amendOrderButton.setDisable(newSelection == null);
+            removeItemButton.setDisable(newSelection == null);
+        });
+
+        // Refresh the queue display whenever the manager reports a change
+        // (changes replicated from other terminals arrive on background threads)
+        orderQueueManager.addListener(new OrderQueueListener() {
+            @Override
+            public void ordersAdded(List<Order> orders) {
+                runOnFxThread(HelloController.this::updateOrderQueueView);
+            }
+
+            @Override
+            public void orderRemoved(Order order) {
+                runOnFxThread(HelloController.this::updateOrderQueueView);
+                checkSettleButtonState(); // A served order opens its table's tab
+            }
         });
 
         updateOrderQueueView(); // Initial population
@@ -323,46 +1299,314 @@ public class HelloController {
      */
     private void updateOrderQueueView() {
         queuedOrders.setAll(orderQueueManager.getOrders());
+        updateKpiLabel(kpiTracker.getSnapshot());
         LOGGER.fine("Order Queue view updated."); // Use fine level for frequent updates
     }
 
+    /**
+     * Periodically republishes the KPIs so the rolling 15 minute window ages out even when no orders arrive.
+     */
+    private void setupKpiRefresh() {
+        Timeline kpiRefresh = new Timeline(new KeyFrame(Duration.seconds(KPI_REFRESH_SECONDS),
+                event -> updateKpiLabel(kpiTracker.refresh())));
+        kpiRefresh.setCycleCount(Animation.INDEFINITE);
+        kpiRefresh.play();
+        updateKpiLabel(kpiTracker.getSnapshot());
+    }
 
     /**
-     * Handles adding a selected MenuItem to the current order list.
+     * Shows the live dashboard numbers from a KPI snapshot.
+     *
+     * @param snapshot The snapshot to display.
+     */
+    private void updateKpiLabel(KpiSnapshot snapshot) {
+        KpiSnapshot.Stats recent = snapshot.getLast15Minutes();
+        KpiSnapshot.Stats shift = snapshot.getShift();
+        KpiSnapshot.Stats day = snapshot.getDay();
+        kpiLabel.setText(String.format("Open: %d | 15 min: $%.2f (%d) | Shift: $%.2f (%d) | Today: $%.2f | Avg ticket: $%.2f | Avg turn: %d min (%d tables)",
+                snapshot.getOpenOrders(),
+                recent.getRevenueCents() / 100.0,
+                recent.getOrders(),
+                shift.getRevenueCents() / 100.0,
+                shift.getOrders(),
+                day.getRevenueCents() / 100.0,
+                day.getAverageTicketCents() / 100.0,
+                shift.getAverageTurnMillis() / 60_000,
+                shift.getTableTurns()));
+    }
+
+    /**
+     * Handles the action of starting a new shift: after confirmation the shift totals on the dashboard,
+     * including the average table turn, start again from zero. Day totals are kept.
+     */
+    @FXML
+    void handleStartShiftAction(ActionEvent event) {
+        Alert confirmation = new Alert(Alert.AlertType.CONFIRMATION,
+                "Start a new shift? The shift revenue, order count and turn times will be reset.", ButtonType.OK, ButtonType.CANCEL);
+        confirmation.setTitle("Start Shift");
+        confirmation.setHeaderText(null);
+        if (confirmation.showAndWait().filter(ButtonType.OK::equals).isEmpty()) {
+            return;
+        }
+        kpiTracker.startShift();
+        updateKpiLabel(kpiTracker.getSnapshot());
+        notifyUser(Alert.AlertType.INFORMATION, "Shift Started", "Shift started at " + LocalTime.now().format(DateTimeFormatter.ofPattern("HH:mm")) + ".", null);
+    }
+
+
+    /**
+     * Handles the action of receiving a delivery: asks for the ingredient and the quantity received
+     * and adds it to the stock, offering again the items that were 86'd for lack of it.
+     */
+    @FXML
+    void handleReceiveStockAction(ActionEvent event) {
+        Optional<Ingredient> ingredient = chooseIngredient("Receive Stock", "Which ingredient was delivered?");
+        if (ingredient.isEmpty()) {
+            return;
+        }
+        OptionalLong units = askUnits("Receive Stock", "Quantity of " + ingredient.get().getName() + " received", ingredient.get());
+        if (units.isEmpty()) {
+            return;
+        }
+        try {
+            inventoryManager.receive(ingredient.get().getName(), units.getAsLong());
+        } catch (IllegalArgumentException e) {
+            notifyUser(Alert.AlertType.WARNING, "Cannot Receive Stock", e.getMessage(), null);
+            return;
+        }
+        notifyUser(Alert.AlertType.INFORMATION, "Stock Received", ingredient.get().getName() + " stock is now "
+                + inventoryManager.getStock(ingredient.get().getName()) + " " + ingredient.get().getUnit() + ".", null);
+    }
+
+    /**
+     * Handles the action of recording a stock count: asks for the ingredient and the quantity counted on
+     * the shelf and sets the stock to it, correcting waste and miscounts.
+     */
+    @FXML
+    void handleCountStockAction(ActionEvent event) {
+        Optional<Ingredient> ingredient = chooseIngredient("Count Stock", "Which ingredient was counted?");
+        if (ingredient.isEmpty()) {
+            return;
+        }
+        OptionalLong units = askUnits("Count Stock", "Quantity of " + ingredient.get().getName() + " counted (currently "
+                + inventoryManager.getStock(ingredient.get().getName()) + ")", ingredient.get());
+        if (units.isEmpty()) {
+            return;
+        }
+        try {
+            inventoryManager.adjustTo(ingredient.get().getName(), units.getAsLong());
+        } catch (IllegalArgumentException e) {
+            notifyUser(Alert.AlertType.WARNING, "Cannot Count Stock", e.getMessage(), null);
+            return;
+        }
+        notifyUser(Alert.AlertType.INFORMATION, "Stock Counted", ingredient.get().getName() + " stock set to "
+                + units.getAsLong() + " " + ingredient.get().getUnit() + ".", null);
+    }
+
+    /**
+     * Asks which ingredient a stock action is for.
+     *
+     * @param title  The dialog title.
+     * @param header The question.
+     * @return The chosen ingredient, or empty if cancelled or the inventory is not loaded yet.
+     */
+    private Optional<Ingredient> chooseIngredient(String title, String header) {
+        if (inventoryManager == null) {
+            notifyUser(Alert.AlertType.WARNING, title, "The inventory is still loading.", null);
+            return Optional.empty();
+        }
+        List<Ingredient> ingredients = inventoryManager.getIngredients();
+        List<Ingredient> lowStock = inventoryManager.getLowStockIngredients();
+        ChoiceDialog<Ingredient> dialog = new ChoiceDialog<>(lowStock.isEmpty() ? ingredients.get(0) : lowStock.get(0), ingredients);
+        dialog.setTitle(title);
+        dialog.setHeaderText(header);
+        dialog.setContentText("Ingredient:");
+        return dialog.showAndWait();
+    }
+
+    /**
+     * Asks for a whole number of units of an ingredient.
+     *
+     * @param title      The dialog title.
+     * @param header     The question.
+     * @param ingredient The ingredient, whose unit is shown.
+     * @return The number of units, or empty if cancelled or not a whole number.
+     */
+    private OptionalLong askUnits(String title, String header, Ingredient ingredient) {
+        TextInputDialog dialog = new TextInputDialog();
+        dialog.setTitle(title);
+        dialog.setHeaderText(header + ".");
+        dialog.setContentText("Units (" + ingredient.getUnit() + "):");
+        Optional<String> text = dialog.showAndWait();
+        if (text.isEmpty()) {
+            return OptionalLong.empty();
+        }
+        try {
+            return OptionalLong.of(Long.parseLong(text.get().trim()));
+        } catch (NumberFormatException e) {
+            notifyUser(Alert.AlertType.WARNING, title, "'" + text.get().trim() + "' is not a whole number of " + ingredient.getUnit() + ".", null);
+            return OptionalLong.empty();
+        }
+    }
+
+    /**
+     * Handles the action of looking up completed orders in the shift history, for reprints and disputes:
+     * the orders of the selected table or wait staff member, the last hour's orders, or one order by ID.
+     */
+    @FXML
+    void handleOrderHistoryAction(ActionEvent event) {
+        if (orderHistory == null) {
+            notifyUser(Alert.AlertType.WARNING, "Order History", "The menu is still loading.", null);
+            return;
+        }
+        ChoiceDialog<String> dialog = new ChoiceDialog<>(selectedTable != null ? HISTORY_BY_TABLE : HISTORY_LAST_HOUR, HISTORY_LOOKUPS);
+        dialog.setTitle("Order History");
+        dialog.setHeaderText("Which completed orders?");
+        dialog.setContentText("Show:");
+        Optional<String> lookup = dialog.showAndWait();
+        if (lookup.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime to = now.plusMinutes(HISTORY_CLOCK_SKEW_MINUTES);
+        LocalDateTime shiftStart = now.minus(config.getHistoryRetention());
+        String heading;
+        List<CompactOrder> orders;
+        switch (lookup.get()) {
+            case HISTORY_BY_TABLE:
+                if (selectedTable == null) {
+                    notifyUser(Alert.AlertType.WARNING, "Order History", "Please select a table first.", null);
+                    return;
+                }
+                heading = "Table " + selectedTable.getTableNumber();
+                orders = orderHistory.findByTable(selectedTable.getTableNumber(), shiftStart, to);
+                break;
+            case HISTORY_BY_STAFF:
+                WaitStaff staff = waitStaffComboBox.getSelectionModel().getSelectedItem();
+                if (staff == null) {
+                    notifyUser(Alert.AlertType.WARNING, "Order History", "Please select a wait staff member first.", null);
+                    return;
+                }
+                heading = staff.getStaffId();
+                orders = orderHistory.findByStaff(staff.getStaffId(), shiftStart, to);
+                break;
+            case HISTORY_LAST_HOUR:
+                heading = "Last hour";
+                orders = orderHistory.findBetween(now.minusHours(1), to);
+                break;
+            default:
+                Optional<CompactOrder> order = askHistoryOrder();
+                if (order.isEmpty()) {
+                    return;
+                }
+                heading = "Order " + order.get().getOrderId();
+                orders = List.of(order.get());
+                break;
+        }
+        showOrderHistory(heading, orders);
+    }
+
+    /**
+     * Asks for an order ID and looks the order up in the shift history.
+     *
+     * @return The order, or empty if cancelled, not a number or not in the history.
+     */
+    private Optional<CompactOrder> askHistoryOrder() {
+        TextInputDialog dialog = new TextInputDialog();
+        dialog.setTitle("Order History");
+        dialog.setHeaderText("Which order?");
+        dialog.setContentText("Order ID:");
+        Optional<String> text = dialog.showAndWait();
+        if (text.isEmpty()) {
+            return Optional.empty();
+        }
+        CompactOrder order;
+        try {
+            order = orderHistory.getOrder(Long.parseLong(text.get().trim()));
+        } catch (NumberFormatException e) {
+            notifyUser(Alert.AlertType.WARNING, "Order History", "'" + text.get().trim() + "' is not an order ID.", null);
+            return Optional.empty();
+        }
+        if (order == null) {
+            notifyUser(Alert.AlertType.WARNING, "Order History", "Order " + text.get().trim() + " was not completed this shift.", null);
+        }
+        return Optional.ofNullable(order);
+    }
+
+    /**
+     * Shows completed orders, one line per order followed by its items, in a dialog.
+     *
+     * @param heading What the orders are, e.g. the table.
+     * @param orders  The orders, oldest first.
+     */
+    private void showOrderHistory(String heading, List<CompactOrder> orders) {
+        if (orders.isEmpty()) {
+            notifyUser(Alert.AlertType.INFORMATION, "Order History", "No completed orders for " + heading + " this shift.", null);
+            return;
+        }
+        StringBuilder text = new StringBuilder();
+        for (CompactOrder order : orders) {
+            text.append(String.format("ID: %d | %s | Tbl: %d | Staff: %s | %s | Total: $%.2f%n", order.getOrderId(),
+                    order.getOrderTime().format(ETA_FORMAT), order.getTableNumber(), order.getWaitStaffId(),
+                    order.getStatus(), order.getTotalPrice()));
+            for (OrderItem item : order.getItems()) {
+                text.append(String.format("    %s x %d%s ($%s)%n", item.getMenuItem().getName(), item.getQuantity(),
+                        item.getModifiers().isEmpty() ? "" : " " + item.getModifiers(), item.getTotalPrice()));
+            }
+        }
+        TextArea area = new TextArea(text.toString());
+        area.setEditable(false);
+        Alert alert = new Alert(Alert.AlertType.INFORMATION);
+        alert.setTitle("Order History");
+        alert.setHeaderText(heading + ": " + orders.size() + " completed order(s)");
+        alert.getDialogPane().setContent(area);
+        alert.showAndWait();
+    }
+
+    /**
+     * Handles adding a selected MenuItem to the current order list. The line of an item already in the
+     * order is found through the line index and replaced in place, so only its cell is redrawn; the
+     * list listener then shows the running total. Takes constant time however long the order is.
+     * Items 86'd by the inventory are refused with a warning.
      *
      * @param item The MenuItem to add. Use fully qualified name to avoid conflict.
      */
     private void handleAddItemToOrder(com.example.restrauntautomation.model.MenuItem item) {
         if (item == null) return;
+        if (!menuManager.isItemAvailable(item)) {
+            notifyUser(Alert.AlertType.WARNING, "Item Unavailable", item.getName() + " is out of stock.", null);
+            return;
+        }
 
-        // Check if item already exists in the list
-        Optional<OrderItem> existingOrderItem = currentOrderItems.stream()
-                .filter(orderItem -> orderItem.getMenuItem().equals(item))
-                .findFirst();
-
-        if (existingOrderItem.isPresent()) {
-            // Increment quantity
-            OrderItem oi = existingOrderItem.get();
+        Integer lineIndex = currentOrderLineIndex.get(item);
+        currentOrderTotalCents += item.getPriceInCents(); // Before the list changes, so the listener shows the new total
+        if (lineIndex != null) {
+            // Increment quantity; setting the same line fires a single replace change for its cell
+            OrderItem oi = currentOrderItems.get(lineIndex);
             oi.setQuantity(oi.getQuantity() + 1);
-            // Refresh the ListView to show updated quantity/price
-            currentOrderListView.refresh();
+            currentOrderItems.set(lineIndex, oi);
         } else {
             // Add new item with quantity 1
+            currentOrderLineIndex.put(item, currentOrderItems.size());
             currentOrderItems.add(new OrderItem(item, 1));
         }
-        LOGGER.info("Added item to current order: " + item.getName());
-        updateOrderTotal(); // Update total after adding/modifying
-        checkSubmitButtonState();
+        LOGGER.fine("Added item to current order: " + item.getName());
     }
 
     /**
-     * Updates the total price label based on items in the current order list.
+     * Empties the current order, its line index and its running total.
+     */
+    private void clearCurrentOrderItems() {
+        currentOrderLineIndex.clear();
+        currentOrderTotalCents = 0;
+        currentOrderItems.clear();
+    }
+
+    /**
+     * Updates the total price label from the running total of the current order.
      */
     private void updateOrderTotal() {
-        BigDecimal total = currentOrderItems.stream()
-                .map(OrderItem::getTotalPrice)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        orderTotalLabel.setText(String.format("$%.2f", total));
+        orderTotalLabel.setText(String.format("$%d.%02d", currentOrderTotalCents / 100, currentOrderTotalCents % 100));
     }
 
     /**
@@ -374,7 +1618,14 @@ public class HelloController {
         boolean staffSelected = (waitStaffComboBox.getSelectionModel().getSelectedItem() != null);
         boolean itemsExist = !currentOrderItems.isEmpty();
 
-        submitOrderButton.setDisable(!(tableSelected && staffSelected && itemsExist));
+        submitOrderButton.setDisable(!(startupComplete && tableSelected && staffSelected && itemsExist));
+    }
+
+    /**
+     * Enables the Settle Table button when the selected table has served orders waiting to be paid.
+     */
+    private void checkSettleButtonState() {
+        runOnFxThread(() -> settleTableButton.setDisable(selectedTable == null || !openTabs.hasOpenTab(selectedTable.getTableNumber())));
     }
 
 
@@ -387,28 +1638,36 @@ public class HelloController {
     void handleSubmitOrderAction(ActionEvent event) {
         if (selectedTable == null || waitStaffComboBox.getSelectionModel().getSelectedItem() == null || currentOrderItems.isEmpty()) {
             // Should not happen if button state is managed correctly, but good practice to check
-            showAlert(Alert.AlertType.WARNING, "Incomplete Order", "Please select a table, wait staff, and add items before submitting.");
+            notifyUser(Alert.AlertType.WARNING, "Incomplete Order", "Please select a table, wait staff, and add items before submitting.", null);
             LOGGER.warning("Submit order attempted with incomplete information.");
             return;
         }
 
+        if (!checkReplicationConnected("Submission Failed")) {
+            return;
+        }
+
         // Create the order
         WaitStaff staff = waitStaffComboBox.getSelectionModel().getSelectedItem();
         Order newOrder = new Order(selectedTable.getTableNumber(), staff.getStaffId());
-        currentOrderItems.forEach(item -> newOrder.addItem(item.getMenuItem(), item.getQuantity())); // Add items from list
+        newOrder.addItems(currentOrderItems); // Add items from list in one batch
+        pricingEngine.price(newOrder, LocalTime.now()); // Before queueing, so the queue shows the discounted total
 
-        // Add to queue (which also prints to console)
-        boolean added = orderQueueManager.addOrder(newOrder);
+        // Add to queue (the queue listener refreshes the queue display)
+        boolean added = queueOrder(newOrder);
 
         if (added) {
             LOGGER.info("Order " + newOrder.getOrderId() + " submitted successfully for table " + selectedTable.getTableNumber());
-            showAlert(Alert.AlertType.INFORMATION, "Order Submitted", "Order ID: " + newOrder.getOrderId() + " submitted to the queue.");
+            OrderEta eta = etaEstimator.getEta(newOrder.getOrderId());
+            notifyUser(Alert.AlertType.INFORMATION, "Order Submitted", "Order ID: " + newOrder.getOrderId() + " submitted to the queue"
+                    + (eta == null ? "." : ", ready around " + ETA_FORMAT.format(eta.getReadyAt())
+                    + " (by " + ETA_FORMAT.format(eta.getLatestReadyAt()) + ")."),
+                    "%d orders submitted to the queue.");
             // Update table status and button appearance
             Table orderedTable = findTableByNumber(selectedTable.getTableNumber());
             Button orderedButton = tableButtonMap.get(selectedTable.getTableNumber());
             if (orderedTable != null && orderedButton != null) {
-                orderedTable.setStatus(Table.TableStatus.OCCUPIED);
-                updateTableButtonAppearance(orderedButton, orderedTable);
+                setTableStatus(orderedTable, Table.TableStatus.OCCUPIED);
                 LOGGER.info("Table " + orderedTable.getTableNumber() + " status set to OCCUPIED.");
             } else {
                  LOGGER.warning("Could not find table or button to update status for table number: " + selectedTable.getTableNumber());
@@ -416,8 +1675,6 @@ public class HelloController {
 
             // Clear the UI for the next order
             clearCurrentOrderState();
-            // Update the queue display in the GUI
-            updateOrderQueueView();
         } else {
              LOGGER.log(Level.SEVERE, "Failed to submit order for table " + selectedTable.getTableNumber());
               showAlert(Alert.AlertType.ERROR, "Submission Failed", "Could not submit the order to the queue.");
@@ -425,39 +1682,35 @@ public class HelloController {
     }
 
      /**
-     * Handles the action of completing the selected order from the queue.
-     * Removes the order, updates the queue view, and sets the table back to vacant.
+     * Handles the action of completing the selected order from the queue: marks it served and removes it
+     * from the kitchen queue. The order stays open on its table's tab, and the table occupied, until the
+     * bill is settled.
      */
     @FXML
     void handleCompleteOrderAction(ActionEvent event) {
         Order selectedOrder = orderQueueListView.getSelectionModel().getSelectedItem();
 
         if (selectedOrder == null) {
-            showAlert(Alert.AlertType.WARNING, "No Order Selected", "Please select an order from the queue to complete.");
+            notifyUser(Alert.AlertType.WARNING, "No Order Selected", "Please select an order from the queue to complete.", null);
+            return;
+        }
+        if (!checkReplicationConnected("Completion Failed")) {
             return;
         }
 
-        // Remove from the backend queue
-        boolean removed = orderQueueManager.removeOrder(selectedOrder);
+        // Remove from the backend queue as served, so it goes on the table's tab rather than being closed
+        Order.OrderStatus previousStatus = selectedOrder.getStatus();
+        selectedOrder.setStatus(Order.OrderStatus.SERVED);
+        boolean removed = dequeueOrder(selectedOrder);
 
         if (removed) {
-            // Update the GUI queue view
-            updateOrderQueueView();
-
-            // Find the associated table and update its status and button
-            Table completedTable = findTableByNumber(selectedOrder.getTableNumber());
-            Button completedTableButton = tableButtonMap.get(selectedOrder.getTableNumber());
-
-            if (completedTable != null && completedTableButton != null) {
-                completedTable.setStatus(Table.TableStatus.VACANT); // Set table back to vacant
-                updateTableButtonAppearance(completedTableButton, completedTable); // Update button appearance
-                LOGGER.info("Order " + selectedOrder.getOrderId() + " completed. Table " + completedTable.getTableNumber() + " set to VACANT.");
-                showAlert(Alert.AlertType.INFORMATION, "Order Completed", "Order ID: " + selectedOrder.getOrderId() + " completed and removed from queue. Table " + completedTable.getTableNumber() + " is now vacant.");
-            } else {
-                LOGGER.warning("Could not find table or button to update status after completing order for table number: " + selectedOrder.getTableNumber());
-                 showAlert(Alert.AlertType.WARNING, "Order Completed (Table Update Issue)", "Order ID: " + selectedOrder.getOrderId() + " completed and removed from queue, but could not update table status visually.");
-            }
+            // The queue listeners refresh the GUI queue view, open the tab and archive the order, once committed when replicated
+            LOGGER.info("Order " + selectedOrder.getOrderId() + " served to table " + selectedOrder.getTableNumber() + ".");
+            notifyUser(Alert.AlertType.INFORMATION, "Order Completed", "Order ID: " + selectedOrder.getOrderId() + " served to table "
+                            + selectedOrder.getTableNumber() + " and removed from queue. It stays on the table's bill until settled.",
+                    "%d orders completed and removed from queue.");
         } else {
+            selectedOrder.setStatus(previousStatus); // Still in the kitchen
             // Should not happen if button is enabled correctly, but handle defensively
             showAlert(Alert.AlertType.ERROR, "Completion Failed", "Could not remove the selected order from the queue. It might have already been processed.");
             updateOrderQueueView(); // Refresh view in case of inconsistency
@@ -465,6 +1718,481 @@ public class HelloController {
     }
 
 
+    /**
+     * Handles the action of voiding the selected order: asks for a reason, records the void in the
+     * amendment log under the selected wait staff member, and removes the order from the queue.
+     * Voided orders are not archived, and their stock is given back.
+     */
+    @FXML
+    void handleVoidOrderAction(ActionEvent event) {
+        Order selectedOrder = orderQueueListView.getSelectionModel().getSelectedItem();
+        WaitStaff staff = waitStaffComboBox.getSelectionModel().getSelectedItem();
+        if (selectedOrder == null || staff == null) {
+            notifyUser(Alert.AlertType.WARNING, "Cannot Void Order", "Please select an order from the queue and the wait staff member voiding it.", null);
+            return;
+        }
+        if (!checkReplicationConnected("Void Failed")) {
+            return;
+        }
+
+        TextInputDialog dialog = new TextInputDialog();
+        dialog.setTitle("Void Order");
+        dialog.setHeaderText("Void order " + selectedOrder.getOrderId() + " for table " + selectedOrder.getTableNumber() + "?");
+        dialog.setContentText("Reason:");
+        Optional<String> reason = dialog.showAndWait().map(String::trim).filter(text -> !text.isEmpty());
+        if (reason.isEmpty() || !checkReplicationConnected("Void Failed")) {
+            return; // Checked again: the connection may have dropped while the dialog was open
+        }
+
+        try {
+            amendmentLog.voidOrder(selectedOrder, staff.getStaffId(), reason.get());
+        } catch (IllegalArgumentException e) {
+            showAlert(Alert.AlertType.ERROR, "Void Failed", e.getMessage());
+            return;
+        }
+        if (dequeueVoidedOrder(selectedOrder, staff.getStaffId(), reason.get())) {
+            vacateIfNothingOpen(selectedOrder.getTableNumber(), selectedOrder);
+            notifyUser(Alert.AlertType.INFORMATION, "Order Voided", "Order ID: " + selectedOrder.getOrderId() + " voided by " + staff.getStaffId() + ".",
+                    "%d orders voided.");
+        } else {
+            updateOrderQueueView(); // Already gone from the queue; the void is still recorded
+        }
+    }
+
+    /**
+     * Handles the action of adding the items of the current order to the selected queued order, e.g. a dessert
+     * ordered after the mains. Each line is recorded in the amendment log under the selected wait staff member.
+     */
+    @FXML
+    void handleAmendOrderAction(ActionEvent event) {
+        Order selectedOrder = orderQueueListView.getSelectionModel().getSelectedItem();
+        WaitStaff staff = waitStaffComboBox.getSelectionModel().getSelectedItem();
+        if (selectedOrder == null || staff == null || currentOrderItems.isEmpty()) {
+            notifyUser(Alert.AlertType.WARNING, "Cannot Amend Order", "Please select an order from the queue, the wait staff member amending it, and the items to add.", null);
+            return;
+        }
+        if (!checkReplicationConnected("Amendment Failed")) {
+            return;
+        }
+
+        List<OrderItem> lines = new ArrayList<>(currentOrderItems);
+        for (OrderItem line : lines) {
+            try {
+                addItemToQueuedOrder(selectedOrder, staff.getStaffId(), line);
+            } catch (IllegalArgumentException e) {
+                showAlert(Alert.AlertType.ERROR, "Amendment Failed", e.getMessage());
+                return; // E.g. paid or voided meanwhile; the lines already added stay recorded
+            }
+            replicateAmendment(selectedOrder, staff.getStaffId(), line, false);
+        }
+        clearCurrentOrderItems();
+        notifyUser(Alert.AlertType.INFORMATION, "Order Amended", lines.size() + " item(s) added to order " + selectedOrder.getOrderId()
+                + " by " + staff.getStaffId() + ".", "%d orders amended.");
+    }
+
+    /**
+     * Handles the action of removing an item from the selected queued order: asks which item, and records the
+     * removal in the amendment log under the selected wait staff member. Only items without modifiers can be
+     * removed, and not the last item; such orders are voided instead.
+     */
+    @FXML
+    void handleRemoveItemAction(ActionEvent event) {
+        Order selectedOrder = orderQueueListView.getSelectionModel().getSelectedItem();
+        WaitStaff staff = waitStaffComboBox.getSelectionModel().getSelectedItem();
+        if (selectedOrder == null || staff == null) {
+            notifyUser(Alert.AlertType.WARNING, "Cannot Remove Item", "Please select an order from the queue and the wait staff member amending it.", null);
+            return;
+        }
+        Map<String, com.example.restrauntautomation.model.MenuItem> removable = new LinkedHashMap<>();
+        for (OrderItem line : selectedOrder.getItems()) {
+            if (line.getModifiers().isEmpty()) {
+                removable.put(line.getMenuItem().getName(), line.getMenuItem());
+            }
+        }
+        if (removable.isEmpty() || selectedOrder.getItemCount() < 2) {
+            notifyUser(Alert.AlertType.WARNING, "Cannot Remove Item", "Order " + selectedOrder.getOrderId()
+                    + " has no item that can be removed; void the order instead.", null);
+            return;
+        }
+
+        List<String> names = new ArrayList<>(removable.keySet());
+        ChoiceDialog<String> dialog = new ChoiceDialog<>(names.get(0), names);
+        dialog.setTitle("Remove Item");
+        dialog.setHeaderText("Remove an item from order " + selectedOrder.getOrderId() + " for table " + selectedOrder.getTableNumber() + "?");
+        dialog.setContentText("Item:");
+        Optional<String> name = dialog.showAndWait();
+        if (name.isEmpty() || !checkReplicationConnected("Removal Failed")) {
+            return; // Checked again: the connection may have dropped while the dialog was open
+        }
+
+        com.example.restrauntautomation.model.MenuItem item = removable.get(name.get());
+        boolean removed;
+        try {
+            removed = selectedOrder.getItemCount() > 1 && removeItemFromQueuedOrder(selectedOrder, staff.getStaffId(), item);
+        } catch (IllegalArgumentException e) {
+            showAlert(Alert.AlertType.ERROR, "Removal Failed", e.getMessage());
+            return;
+        }
+        if (!removed) {
+            notifyUser(Alert.AlertType.WARNING, "Cannot Remove Item", name.get() + " can no longer be removed from order "
+                    + selectedOrder.getOrderId() + ".", null);
+            return;
+        }
+        replicateAmendment(selectedOrder, staff.getStaffId(), new OrderItem(item, 1), true);
+        notifyUser(Alert.AlertType.INFORMATION, "Item Removed", name.get() + " removed from order " + selectedOrder.getOrderId()
+                + " by " + staff.getStaffId() + ".", "%d items removed from orders.");
+    }
+
+    /**
+     * Adds a line to a queued order through the amendment log, then brings everything that follows the order's
+     * items up to date. Used for amendments made here and on other terminals.
+     *
+     * @param order   The queued order.
+     * @param staffId The ID of the staff member adding the line.
+     * @param line    The line to add.
+     * @throws IllegalArgumentException If the order is paid or voided, or the line is invalid.
+     */
+    private void addItemToQueuedOrder(Order order, String staffId, OrderItem line) {
+        amendmentLog.addItem(order, staffId, line.getMenuItem(), line.getQuantity(), line.getModifiers());
+        itemsAmended(order, line, true);
+    }
+
+    /**
+     * Removes an item without modifiers from a queued order through the amendment log, then brings everything
+     * that follows the order's items up to date. Used for amendments made here and on other terminals.
+     *
+     * @param order    The queued order.
+     * @param staffId  The ID of the staff member removing the item.
+     * @param menuItem The item to remove.
+     * @return true if the item was removed.
+     * @throws IllegalArgumentException If the order is paid or voided.
+     */
+    private boolean removeItemFromQueuedOrder(Order order, String staffId, com.example.restrauntautomation.model.MenuItem menuItem) {
+        OrderItem removedLine = null;
+        for (OrderItem line : order.getItems()) {
+            if (line.getMenuItem().equals(menuItem) && line.getModifiers().isEmpty()) {
+                removedLine = new OrderItem(menuItem, line.getQuantity());
+            }
+        }
+        if (removedLine == null || !amendmentLog.removeItem(order, staffId, menuItem)) {
+            return false;
+        }
+        itemsAmended(order, removedLine, false);
+        return true;
+    }
+
+    /**
+     * Brings everything that follows a queued order's items up to date after a line was added or removed: the
+     * stock, the order's discount (recorded in the amendment log), the KPIs, the stored lines, the kitchen display
+     * and the queue view.
+     *
+     * @param order The amended order.
+     * @param line  The line added or removed.
+     * @param added true if the line was added, false if it was removed.
+     */
+    private void itemsAmended(Order order, OrderItem line, boolean added) {
+        if (inventoryManager != null) {
+            Order stock = new Order(order.getOrderId(), order.getTableNumber(), order.getWaitStaffId(), order.getOrderTime(), order.getStatus());
+            stock.addItem(line.getMenuItem(), line.getQuantity(), line.getModifiers());
+            if (added) {
+                inventoryManager.consume(stock);
+            } else {
+                inventoryManager.restore(stock);
+            }
+        }
+        if (pricingEngine != null) {
+            amendmentLog.changeDiscount(order, PRICING_STAFF_ID, pricingEngine.discountCents(order, LocalTime.now()));
+        }
+        kpiTracker.orderRepriced(order); // Revenue is booked from the order's lines
+        if (orderRepository != null) {
+            orderRepository.saveLines(order);
+        }
+        orderEventPublisher.orderAmended(order);
+        updateOrderQueueView();
+    }
+
+    /**
+     * Tells the other terminals of an item added to or removed from a queued order here.
+     *
+     * @param order   The amended order.
+     * @param staffId The ID of the staff member who amended it.
+     * @param line    The line added, or a line of the item removed.
+     * @param removed true if the line's item was removed.
+     */
+    private void replicateAmendment(Order order, String staffId, OrderItem line, boolean removed) {
+        if (replicationNode == null) {
+            return;
+        }
+        try {
+            reportIfUnconfirmed(removed ? replicationNode.submitItemRemoved(order, staffId, line.getMenuItem())
+                    : replicationNode.submitItemAdded(order, staffId, line), "Amending order " + order.getOrderId());
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            LOGGER.log(Level.SEVERE, "Could not replicate the amendment of order " + order.getOrderId(), e);
+            showAlert(Alert.AlertType.ERROR, "Change Not Confirmed", "Order " + order.getOrderId() + " was amended here, but the other "
+                    + "terminals were not told; they may still show it without the change.");
+        }
+    }
+
+    /**
+     * Handles the action of refunding a paid order of the shift history: asks for the order, the amount (at most
+     * what is still refundable) and the reason, and records the refund in the amendment log under the selected
+     * wait staff member. The refund is paid out by hand; no card is credited.
+     */
+    @FXML
+    void handleRefundOrderAction(ActionEvent event) {
+        WaitStaff staff = waitStaffComboBox.getSelectionModel().getSelectedItem();
+        if (orderHistory == null || staff == null) {
+            notifyUser(Alert.AlertType.WARNING, "Cannot Refund Order", "Please select the wait staff member giving the refund.", null);
+            return;
+        }
+        Optional<CompactOrder> found = askHistoryOrder();
+        if (found.isEmpty()) {
+            return;
+        }
+        if (found.get().getStatus() != Order.OrderStatus.PAID) {
+            notifyUser(Alert.AlertType.WARNING, "Cannot Refund Order", "Order " + found.get().getOrderId() + " is "
+                    + found.get().getStatus() + "; only paid orders can be refunded.", null);
+            return;
+        }
+        Order order = found.get().toOrder();
+        long refundable = order.getSubtotalCents() - order.getDiscountCents() - amendmentLog.getRefundedCents(order.getOrderId());
+        if (refundable <= 0) {
+            notifyUser(Alert.AlertType.WARNING, "Cannot Refund Order", "Order " + order.getOrderId() + " has already been refunded in full.", null);
+            return;
+        }
+
+        TextInputDialog amountDialog = new TextInputDialog(BigDecimal.valueOf(refundable, 2).toPlainString());
+        amountDialog.setTitle("Refund Order");
+        amountDialog.setHeaderText("Refund order " + order.getOrderId() + " (up to $" + BigDecimal.valueOf(refundable, 2) + ")?");
+        amountDialog.setContentText("Amount ($):");
+        Optional<String> amountText = amountDialog.showAndWait();
+        if (amountText.isEmpty()) {
+            return;
+        }
+        long amountCents;
+        try {
+            amountCents = new BigDecimal(amountText.get().trim()).movePointRight(2).longValueExact();
+        } catch (NumberFormatException | ArithmeticException e) {
+            notifyUser(Alert.AlertType.WARNING, "Cannot Refund Order", "'" + amountText.get().trim() + "' is not an amount in dollars and cents.", null);
+            return;
+        }
+        TextInputDialog reasonDialog = new TextInputDialog();
+        reasonDialog.setTitle("Refund Order");
+        reasonDialog.setHeaderText("Why is order " + order.getOrderId() + " refunded?");
+        reasonDialog.setContentText("Reason:");
+        Optional<String> reason = reasonDialog.showAndWait().map(String::trim).filter(text -> !text.isEmpty());
+        if (reason.isEmpty() || !checkReplicationConnected("Refund Failed")) {
+            return;
+        }
+
+        try {
+            amendmentLog.refund(order, staff.getStaffId(), amountCents, reason.get());
+        } catch (IllegalArgumentException e) {
+            showAlert(Alert.AlertType.ERROR, "Refund Failed", e.getMessage());
+            return;
+        }
+        if (replicationNode != null) {
+            try {
+                reportIfUnconfirmed(replicationNode.submitOrderRefunded(order, staff.getStaffId(), amountCents, reason.get()),
+                        "Refunding order " + order.getOrderId());
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                LOGGER.log(Level.SEVERE, "Could not replicate the refund of order " + order.getOrderId(), e);
+                showAlert(Alert.AlertType.ERROR, "Change Not Confirmed", "The refund was recorded here, but the other terminals were not told.");
+            }
+        }
+        notifyUser(Alert.AlertType.INFORMATION, "Order Refunded", "$" + BigDecimal.valueOf(amountCents, 2) + " refunded on order "
+                + order.getOrderId() + " by " + staff.getStaffId() + ".", "%d refunds recorded.");
+    }
+
+    /**
+     * Records a refund given on another terminal, on the paid order as kept in the shift history.
+     *
+     * @param orderId     The ID of the refunded order.
+     * @param staffId     The ID of the staff member who gave the refund.
+     * @param amountCents The amount refunded in cents.
+     * @param reason      Why the refund was given.
+     */
+    private void applyRefund(long orderId, String staffId, long amountCents, String reason) {
+        CompactOrder paid = orderHistory == null ? null : orderHistory.getOrder(orderId);
+        if (paid == null) {
+            LOGGER.log(Level.WARNING, "Not recording the refund of order {0}, which is not in the shift history.", orderId);
+            return;
+        }
+        amendmentLog.refund(paid.toOrder(), staffId, amountCents, reason);
+    }
+
+    /**
+     * Handles the action of settling the bill of the selected table: asks how many guests split the bill
+     * evenly and the tip, charges the checks for the table's served orders and, once all are approved,
+     * closes those orders as paid. Orders still in the kitchen are not billed and stay in the queue; the
+     * table is set to vacant only if it has none.
+     */
+    @FXML
+    void handleSettleTableAction(ActionEvent event) {
+        if (selectedTable == null) {
+            notifyUser(Alert.AlertType.WARNING, "No Table Selected", "Please select the table to settle.", null);
+            return;
+        }
+        int tableNumber = selectedTable.getTableNumber();
+        if (!openTabs.hasOpenTab(tableNumber)) {
+            notifyUser(Alert.AlertType.WARNING, "Cannot Settle Table", "Table " + tableNumber + " has no served orders to pay.", null);
+            return;
+        }
+
+        TextInputDialog guestsDialog = new TextInputDialog("1");
+        guestsDialog.setTitle("Settle Table");
+        guestsDialog.setHeaderText("Settle the bill of table " + tableNumber + ".");
+        guestsDialog.setContentText("Split evenly between guests:");
+        Optional<String> guestsText = guestsDialog.showAndWait();
+        if (guestsText.isEmpty()) {
+            return;
+        }
+        int guests;
+        try {
+            guests = Integer.parseInt(guestsText.get().trim());
+        } catch (NumberFormatException e) {
+            guests = 0;
+        }
+        if (guests <= 0) {
+            notifyUser(Alert.AlertType.WARNING, "Cannot Settle Table", "The number of guests must be a positive whole number.", null);
+            return;
+        }
+        ChoiceDialog<Integer> tipDialog = new ChoiceDialog<>(TIP_PERCENT_CHOICES.get(0), TIP_PERCENT_CHOICES);
+        tipDialog.setTitle("Settle Table");
+        tipDialog.setHeaderText("Tip for table " + tableNumber + ", as a percentage of the bill.");
+        tipDialog.setContentText("Tip (%):");
+        Optional<Integer> tipPercent = tipDialog.showAndWait();
+        if (tipPercent.isEmpty()) {
+            return;
+        }
+
+        if (!checkReplicationConnected("Settlement Failed")) {
+            return; // Before any card is charged, so paid orders are not left open on the other terminals
+        }
+        int splitGuests = guests;
+        Settlement settlement;
+        try {
+            settlement = settlementEngine.settleTable(openTabs.getOrders(tableNumber), tableNumber,
+                    orders -> settlementEngine.splitEvenly(orders, splitGuests, tipPercent.get() * 100),
+                    this::closePaidOrders);
+        } catch (IllegalArgumentException | ArithmeticException e) {
+            LOGGER.log(Level.SEVERE, "Failed to settle table " + tableNumber, e);
+            showAlert(Alert.AlertType.ERROR, "Settlement Failed", e.getMessage());
+            return;
+        }
+        if (!settlement.isPaid()) {
+            showAlert(Alert.AlertType.ERROR, "Payment Declined", "A check of table " + tableNumber
+                    + " was declined; no check was charged and the orders are still open.");
+            return;
+        }
+        recordTips(settlement);
+        vacateIfNothingOpen(tableNumber, null);
+        checkSettleButtonState();
+        notifyUser(Alert.AlertType.INFORMATION, "Table Settled", "Table " + tableNumber + " paid "
+                        + String.format("$%d.%02d", settlement.getTotalCents() / 100, settlement.getTotalCents() % 100) + " in " + settlement.getChecks().size() + " checks.",
+                "%d tables settled.");
+    }
+
+    /**
+     * Credits the tips of a paid bill to the servers who took its orders, so the next tables go to
+     * whoever has earned least. Tips of servers who are no longer working are not counted.
+     *
+     * @param settlement The paid settlement.
+     */
+    private void recordTips(Settlement settlement) {
+        for (Map.Entry<String, Long> tip : settlement.getTipsByServer().entrySet()) {
+            if (staffAssignmentEngine.getLoad(tip.getKey()) != null) {
+                staffAssignmentEngine.recordTip(tip.getKey(), tip.getValue());
+            } else {
+                LOGGER.log(Level.INFO, "Not crediting a tip of {0} cents to {1}, who is not working.", new Object[]{tip.getValue(), tip.getKey()});
+            }
+        }
+    }
+
+    /**
+     * Closes the orders of a paid bill here right away, since the cards are already charged, and on the
+     * other terminals through the replicated log. The echo of the payment finds the tabs already closed.
+     *
+     * @param paidOrders The paid orders, already marked PAID.
+     */
+    private void closePaidOrders(List<Order> paidOrders) {
+        long[] orderIds = new long[paidOrders.size()];
+        for (int i = 0; i < orderIds.length; i++) {
+            orderIds[i] = paidOrders.get(i).getOrderId();
+        }
+        applyOrdersPaid(orderIds);
+        if (replicationNode == null) {
+            return;
+        }
+        try {
+            reportIfUnconfirmed(replicationNode.submitOrdersPaid(paidOrders), "Closing the paid orders of table " + paidOrders.get(0).getTableNumber());
+        } catch (IllegalStateException e) {
+            LOGGER.log(Level.SEVERE, "Could not replicate the payment of orders " + Arrays.toString(orderIds), e);
+            showAlert(Alert.AlertType.ERROR, "Change Not Confirmed", "The bill was paid, but the other terminals were not told; "
+                    + "its orders may still show as open there.");
+        }
+    }
+
+    /**
+     * Takes paid orders off their tabs and records them as paid in the shift history and the database.
+     * The archive keeps the orders as served.
+     *
+     * @param orderIds The IDs of the paid orders; orders not on a tab, e.g. already closed, are skipped.
+     */
+    private void applyOrdersPaid(long[] orderIds) {
+        LocalDateTime now = LocalDateTime.now();
+        for (Order order : openTabs.closeAll(orderIds)) {
+            if (order.getStatus() != Order.OrderStatus.PAID) {
+                order.setStatus(Order.OrderStatus.PAID); // Paid on another terminal
+            }
+            try {
+                orderHistory.record(order);
+            } catch (IllegalArgumentException e) {
+                LOGGER.log(Level.SEVERE, "Failed to record paid order " + order.getOrderId() + " in the shift history", e);
+            }
+            if (orderRepository != null) {
+                orderRepository.saveClosed(order, now);
+            }
+        }
+        checkSettleButtonState();
+    }
+
+    /**
+     * Sets a table to vacant unless it still has orders in the kitchen queue or served orders waiting to be paid.
+     *
+     * @param tableNumber The table.
+     * @param leaving     An order of the table that is being removed from the queue and should not count, or null.
+     */
+    private void vacateIfNothingOpen(int tableNumber, Order leaving) {
+        if (openTabs.hasOpenTab(tableNumber)) {
+            return;
+        }
+        for (Order queued : orderQueueManager.getOrders()) {
+            if (queued.getTableNumber() == tableNumber && queued != leaving) {
+                return;
+            }
+        }
+        Table table = findTableByNumber(tableNumber);
+        if (table != null) {
+            setTableStatus(table, Table.TableStatus.VACANT);
+        }
+    }
+
+    /**
+     * Opens the kitchen display window, or brings it to the front if it is already open.
+     * The window starts from the current queue and then follows the order event stream.
+     */
+    @FXML
+    void handleOpenKitchenDisplayAction(ActionEvent event) {
+        if (kitchenDisplayWindow != null && kitchenDisplayWindow.isShowing()) {
+            kitchenDisplayWindow.toFront();
+            return;
+        }
+        kitchenDisplayWindow = new KitchenDisplayWindow(orderEventPublisher, orderQueueManager::getOrders);
+        kitchenDisplayWindow.show();
+        LOGGER.info("Kitchen display opened.");
+    }
+
     /**
      * Handles the action of clearing the current order details from the UI.
      */
@@ -486,15 +2214,39 @@ public class HelloController {
         selectedTableButton = null;
         selectedTableLabel.setText("None");
         waitStaffComboBox.getSelectionModel().clearSelection();
-        currentOrderItems.clear();
+        clearCurrentOrderItems();
         // orderTotalLabel is updated by the listener on currentOrderItems
 
         LOGGER.info("Current order UI state cleared.");
          checkSubmitButtonState(); // Ensure submit button is disabled
+         checkSettleButtonState();
+    }
+
+    /**
+     * Tells the user about the outcome of an action without interrupting them: information and warnings
+     * are shown as toasts (coalesced when repeated), errors in a modal dialog. Setting the
+     * {@value #MODAL_NOTIFICATIONS_PROPERTY} system property to true shows everything in a dialog.
+     *
+     * @param alertType       The type of notification (INFORMATION, WARNING or ERROR).
+     * @param title           The title; notifications with the same title are coalesced if they have a coalesced
+     *                        format, otherwise only if their message is the same too.
+     * @param message         The message.
+     * @param coalescedFormat The text shown for several coalesced notifications, with a %d for their number, or null.
+     */
+    private void notifyUser(Alert.AlertType alertType, String title, String message, String coalescedFormat) {
+        if (alertType == Alert.AlertType.ERROR || Boolean.getBoolean(MODAL_NOTIFICATIONS_PROPERTY)) {
+            showAlert(alertType, title, message);
+            return;
+        }
+        NotificationCenter.Severity severity = alertType == Alert.AlertType.WARNING
+                ? NotificationCenter.Severity.WARNING
+                : NotificationCenter.Severity.INFO;
+        notificationCenter.post(severity, title, message, coalescedFormat);
     }
 
     /**
-     * Helper method to show alerts to the user.
+     * Helper method to show modal alerts to the user. Blocks until dismissed, so reserved for errors;
+     * use {@link #notifyUser} for everything else.
      *
      * @param alertType The type of alert (e.g., INFORMATION, WARNING, ERROR).
      * @param title     The title of the alert window.
@@ -0,0 +1,426 @@
+package com.example.restrauntautomation;
+
+import com.example.restrauntautomation.manager.OrderEventPublisher;
+import com.example.restrauntautomation.manager.OrderEventSubscriber;
+import com.example.restrauntautomation.model.Modifier;
+import com.example.restrauntautomation.model.Order;
+import com.example.restrauntautomation.model.OrderEvent;
+import com.example.restrauntautomation.model.OrderItem;
+
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.geometry.Insets;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.stage.Stage;
+import javafx.util.Duration;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A separate kitchen display (KDS) window that shows open tickets per kitchen station, oldest first,
+ * with their age. It subscribes to the push stream of order events instead of polling the queue:
+ * events are collected off the FX thread and applied in batches with at most one pending
+ * {@link Platform#runLater} at a time, and new events are only requested once a batch has been
+ * applied, so a burst of events cannot flood the FX thread.
+ *
+ * <p>If the publisher drops events because the display fell too far behind, the display cancels its
+ * subscription, subscribes again and reloads its tickets from the order queue, so a lost REMOVED event
+ * cannot leave a ticket for an order that is no longer open.
+ */
+public class KitchenDisplayWindow {
+
+    private static final Logger LOGGER = Logger.getLogger(KitchenDisplayWindow.class.getName());
+    private static final int REQUEST_BATCH = 64;
+    private static final long LATE_TICKET_MINUTES = 10;
+    private static final String DEFAULT_STATION = "Kitchen";
+    private static final Map<String, String> STATION_BY_CATEGORY = new LinkedHashMap<>();
+
+    static {
+        STATION_BY_CATEGORY.put("Appetizers", "Starters");
+        STATION_BY_CATEGORY.put("Soups", "Starters");
+        STATION_BY_CATEGORY.put("Main Courses", "Grill");
+        STATION_BY_CATEGORY.put("Desserts", "Pastry");
+        STATION_BY_CATEGORY.put("Beverages", "Bar");
+    }
+
+    private final Stage stage;
+    private final Map<String, ObservableList<Ticket>> ticketsByStation = new LinkedHashMap<>();
+    private final Map<Long, List<Ticket>> ticketsByOrderId = new HashMap<>();
+    private final List<ListView<Ticket>> stationLists = new ArrayList<>();
+    private final OrderEventPublisher publisher;
+    private final Supplier<List<Order>> openOrders;
+    private final AtomicBoolean drainScheduled = new AtomicBoolean(false);
+    private final AtomicBoolean resyncRequested = new AtomicBoolean(false);
+    private final Timeline ageRefresh;
+    private volatile EventStream stream; // The current subscription; events of earlier ones are ignored
+
+    /**
+     * Creates the kitchen display window, subscribes it to the order events and shows the open orders
+     * as the initial tickets. Must be called on the JavaFX Application Thread.
+     *
+     * @param publisher  The order event publisher (must not be null).
+     * @param openOrders Supplies the orders currently in the queue, e.g. {@code orderQueueManager::getOrders}
+     *                   (must not be null). Called on the FX thread at startup and after events were dropped.
+     */
+    public KitchenDisplayWindow(OrderEventPublisher publisher, Supplier<List<Order>> openOrders) {
+        this.publisher = Objects.requireNonNull(publisher, "Event publisher cannot be null.");
+        this.openOrders = Objects.requireNonNull(openOrders, "Open orders supplier cannot be null.");
+        HBox stationColumns = new HBox(10);
+        stationColumns.setPadding(new Insets(10));
+        for (String station : new LinkedHashSet<>(STATION_BY_CATEGORY.values())) {
+            stationColumns.getChildren().add(createStationColumn(station));
+        }
+        stationColumns.getChildren().add(createStationColumn(DEFAULT_STATION));
+        connect();
+
+        stage = new Stage();
+        stage.setTitle("Kitchen Display");
+        Scene scene = new Scene(stationColumns, 1100, 600);
+        scene.getStylesheets().add(getClass().getResource("dark-theme.css").toExternalForm());
+        stage.setScene(scene);
+        stage.setOnHidden(event -> close());
+
+        // Ticket ages are re-rendered once a second; only visible cells are updated
+        ageRefresh = new Timeline(new KeyFrame(Duration.seconds(1), event -> refreshAges()));
+        ageRefresh.setCycleCount(Animation.INDEFINITE);
+    }
+
+    /**
+     * Shows the window and starts the age refresh.
+     */
+    public void show() {
+        ageRefresh.play();
+        stage.show();
+    }
+
+    /**
+     * Brings the window to the front.
+     */
+    public void toFront() {
+        stage.toFront();
+    }
+
+    /**
+     * Checks whether the window is currently showing.
+     *
+     * @return true if showing.
+     */
+    public boolean isShowing() {
+        return stage.isShowing();
+    }
+
+    /**
+     * Subscribes to the event stream, cancelling any earlier subscription, and reloads all tickets from the queue.
+     * The queue is read after subscribing, so no change falls between the two; an event for a change already in
+     * the snapshot is harmless, since adding a shown order and removing an absent one are both ignored.
+     */
+    private void connect() {
+        EventStream previous = stream;
+        if (previous != null) {
+            previous.cancel();
+        }
+        EventStream fresh = new EventStream();
+        stream = fresh;
+        publisher.subscribe(fresh);
+
+        ticketsByOrderId.clear();
+        for (ObservableList<Ticket> stationTickets : ticketsByStation.values()) {
+            stationTickets.clear();
+        }
+        for (Order order : openOrders.get()) {
+            addTickets(order);
+        }
+    }
+
+    /**
+     * Schedules a drain of the pending events on the FX thread unless one is already scheduled.
+     */
+    private void scheduleDrain() {
+        if (drainScheduled.compareAndSet(false, true)) {
+            Platform.runLater(this::drainEvents);
+        }
+    }
+
+    /**
+     * Applies all pending events on the FX thread, then requests as many new events as were applied.
+     * If events were dropped, the tickets are first rebuilt from the queue on a fresh subscription.
+     */
+    private void drainEvents() {
+        drainScheduled.set(false);
+        if (resyncRequested.getAndSet(false)) {
+            LOGGER.warning("Kitchen display missed order events, reloading tickets from the queue.");
+            connect();
+        }
+        EventStream current = stream;
+        int applied = 0;
+        OrderEvent event;
+        while ((event = current.pendingEvents.poll()) != null) {
+            if (event.getType() == OrderEvent.Type.ADDED) {
+                addTickets(event.getOrder());
+            } else if (event.getType() == OrderEvent.Type.AMENDED) {
+                replaceTickets(event.getOrder());
+            } else {
+                removeTickets(event.getOrder().getOrderId());
+            }
+            applied++;
+        }
+        current.request(applied);
+    }
+
+    /**
+     * Splits an order into one ticket per station and appends them (newest tickets go last).
+     *
+     * @param order The order.
+     */
+    private void addTickets(Order order) {
+        if (ticketsByOrderId.containsKey(order.getOrderId())) {
+            return;
+        }
+        Map<String, List<OrderItem>> linesByStation = new LinkedHashMap<>();
+        for (OrderItem item : order.getItems()) {
+            String station = STATION_BY_CATEGORY.getOrDefault(item.getMenuItem().getCategoryName(), DEFAULT_STATION);
+            linesByStation.computeIfAbsent(station, key -> new ArrayList<>()).add(item);
+        }
+        List<Ticket> tickets = new ArrayList<>(linesByStation.size());
+        for (Map.Entry<String, List<OrderItem>> entry : linesByStation.entrySet()) {
+            Ticket ticket = new Ticket(order, entry.getValue());
+            ticketsByStation.get(entry.getKey()).add(ticket);
+            tickets.add(ticket);
+        }
+        ticketsByOrderId.put(order.getOrderId(), tickets);
+    }
+
+    /**
+     * Redraws the tickets of an amended order. Each station's ticket keeps its place in the line; a station
+     * the order now needs gets a new ticket at the end, and one it no longer needs loses its ticket.
+     *
+     * @param order The amended order.
+     */
+    private void replaceTickets(Order order) {
+        List<Ticket> oldTickets = ticketsByOrderId.remove(order.getOrderId());
+        if (oldTickets == null) {
+            return; // Not shown, e.g. already completed
+        }
+        addTickets(order); // Appends the new tickets
+        List<Ticket> newTickets = ticketsByOrderId.get(order.getOrderId());
+        for (ObservableList<Ticket> stationTickets : ticketsByStation.values()) {
+            int oldIndex = indexOfAny(stationTickets, oldTickets);
+            if (oldIndex < 0) {
+                continue; // A new station's ticket stays at the end
+            }
+            int newIndex = indexOfAny(stationTickets, newTickets); // After oldIndex, as it was just appended
+            if (newIndex < 0) {
+                stationTickets.remove(oldIndex);
+            } else {
+                stationTickets.set(oldIndex, stationTickets.remove(newIndex));
+            }
+        }
+    }
+
+    /**
+     * Finds the first ticket of a station that is one of the given tickets.
+     *
+     * @param stationTickets The tickets of the station.
+     * @param tickets        The tickets to look for.
+     * @return The index of the ticket, or -1 if the station has none of them.
+     */
+    private static int indexOfAny(List<Ticket> stationTickets, List<Ticket> tickets) {
+        for (Ticket ticket : tickets) {
+            int index = stationTickets.indexOf(ticket);
+            if (index >= 0) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Removes all tickets of an order.
+     *
+     * @param orderId The order id.
+     */
+    private void removeTickets(long orderId) {
+        List<Ticket> tickets = ticketsByOrderId.remove(orderId);
+        if (tickets == null) {
+            return;
+        }
+        for (ObservableList<Ticket> stationTickets : ticketsByStation.values()) {
+            stationTickets.removeAll(tickets);
+        }
+    }
+
+    /**
+     * Builds the column for one station: a title and a virtualized ticket list.
+     *
+     * @param station The station name.
+     * @return The column node.
+     */
+    private VBox createStationColumn(String station) {
+        ObservableList<Ticket> tickets = FXCollections.observableArrayList();
+        ticketsByStation.put(station, tickets);
+
+        ListView<Ticket> ticketList = new ListView<>(tickets);
+        ticketList.setCellFactory(lv -> new ListCell<Ticket>() {
+            @Override
+            protected void updateItem(Ticket ticket, boolean empty) {
+                super.updateItem(ticket, empty);
+                getStyleClass().remove("kds-ticket-late");
+                if (empty || ticket == null) {
+                    setText(null);
+                } else {
+                    long ageSeconds = java.time.Duration.between(ticket.orderTime, LocalDateTime.now()).getSeconds();
+                    setText(String.format("Tbl %d | #%d | %d:%02d%n%s",
+                            ticket.tableNumber, ticket.orderId, ageSeconds / 60, ageSeconds % 60, ticket.lines));
+                    if (ageSeconds / 60 >= LATE_TICKET_MINUTES) {
+                        getStyleClass().add("kds-ticket-late");
+                    }
+                }
+            }
+        });
+        VBox.setVgrow(ticketList, Priority.ALWAYS);
+        stationLists.add(ticketList);
+
+        Label title = new Label(station);
+        title.setStyle("-fx-font-size: 16px; -fx-font-weight: bold;");
+        VBox column = new VBox(5, title, ticketList);
+        HBox.setHgrow(column, Priority.ALWAYS);
+        return column;
+    }
+
+    /**
+     * Re-renders the visible ticket cells so their ages stay current.
+     */
+    private void refreshAges() {
+        for (ListView<Ticket> stationList : stationLists) {
+            stationList.refresh();
+        }
+    }
+
+    /**
+     * Stops the age refresh and cancels the event subscription.
+     */
+    private void close() {
+        ageRefresh.stop();
+        stream.cancel();
+        LOGGER.info("Kitchen display closed.");
+    }
+
+    /**
+     * One subscription to the event stream. Events are collected off the FX thread into the subscription's own
+     * queue, so events still in flight for a cancelled subscription never reach the display.
+     */
+    private final class EventStream implements OrderEventSubscriber {
+        final Queue<OrderEvent> pendingEvents = new ConcurrentLinkedQueue<>();
+        private volatile Flow.Subscription subscription;
+        private volatile boolean cancelled;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (cancelled) {
+                subscription.cancel();
+            } else {
+                subscription.request(REQUEST_BATCH);
+            }
+        }
+
+        @Override
+        public void onNext(OrderEvent event) {
+            if (stream == this) {
+                pendingEvents.add(event);
+                scheduleDrain();
+            }
+        }
+
+        @Override
+        public void onEventDropped(OrderEvent dropped) {
+            if (stream == this && resyncRequested.compareAndSet(false, true)) {
+                scheduleDrain();
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            LOGGER.log(Level.SEVERE, "Kitchen display event stream failed.", throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            LOGGER.info("Kitchen display event stream completed.");
+        }
+
+        /**
+         * Requests more events once the given number have been applied.
+         *
+         * @param count The number of events applied.
+         */
+        void request(int count) {
+            Flow.Subscription current = subscription;
+            if (count > 0 && current != null) {
+                current.request(count);
+            }
+        }
+
+        /**
+         * Cancels the subscription, now or as soon as it is established.
+         */
+        void cancel() {
+            cancelled = true;
+            Flow.Subscription current = subscription;
+            if (current != null) {
+                current.cancel();
+            }
+        }
+    }
+
+    /**
+     * The part of an order prepared at one station.
+     */
+    private static final class Ticket {
+        final long orderId;
+        final int tableNumber;
+        final LocalDateTime orderTime;
+        final String lines;
+
+        Ticket(Order order, List<OrderItem> items) {
+            this.orderId = order.getOrderId();
+            this.tableNumber = order.getTableNumber();
+            this.orderTime = order.getOrderTime();
+            StringBuilder text = new StringBuilder();
+            for (OrderItem item : items) {
+                if (text.length() > 0) {
+                    text.append('\n');
+                }
+                text.append("  ").append(item.getQuantity()).append(" x ").append(item.getMenuItem().getName());
+                for (Modifier modifier : item.getModifiers()) {
+                    text.append("\n      - ").append(modifier.getName());
+                }
+            }
+            this.lines = text.toString();
+        }
+    }
+}
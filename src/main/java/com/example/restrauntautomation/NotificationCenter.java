@@ -0,0 +1,188 @@
+package com.example.restrauntautomation;
+
+import javafx.animation.PauseTransition;
+import javafx.scene.control.Label;
+import javafx.scene.layout.Pane;
+import javafx.util.Duration;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Shows short, non-modal notifications ("toasts") in a container of the main window, so staff can keep
+ * working instead of dismissing a dialog after every action. Each toast disappears by itself after a
+ * while, or when clicked.
+ *
+ * <p>Notifications are rate-limited: at most {@link #MAX_VISIBLE} toasts are shown at once, later ones
+ * wait in a bounded queue, and notifications beyond that are dropped and logged as warnings. A notification
+ * with the same key as a toast that is shown or waiting is coalesced into it instead of adding a toast,
+ * so a burst of submissions reads "12 orders submitted to the queue." rather than twelve toasts. Without a
+ * coalesced format only notifications with the same message are coalesced, since the toast can show just one.
+ *
+ * <p>All methods must be called on the JavaFX Application Thread.
+ */
+public class NotificationCenter {
+
+    /**
+     * How a notification is styled.
+     */
+    public enum Severity {
+        INFO("toast-info"),
+        WARNING("toast-warning");
+
+        private final String styleClass;
+
+        /**
+         * Creates a severity.
+         *
+         * @param styleClass The CSS style class of its toasts.
+         */
+        Severity(String styleClass) {
+            this.styleClass = styleClass;
+        }
+    }
+
+    private static final Logger LOGGER = Logger.getLogger(NotificationCenter.class.getName());
+    private static final int MAX_VISIBLE = 3;
+    private static final int MAX_PENDING = 20;
+
+    private final Pane container;
+    private final Duration displayTime;
+    private final Map<String, Toast> toastsByKey = new HashMap<>(); // Shown and waiting toasts, for coalescing
+    private final Deque<Toast> pendingToasts = new ArrayDeque<>();
+    private int visibleCount = 0;
+
+    /**
+     * Creates a notification center.
+     *
+     * @param container   The pane the toasts are added to, typically a VBox.
+     * @param displayTime How long a toast stays visible after its last update.
+     */
+    public NotificationCenter(Pane container, Duration displayTime) {
+        this.container = Objects.requireNonNull(container, "Container cannot be null.");
+        this.displayTime = Objects.requireNonNull(displayTime, "Display time cannot be null.");
+    }
+
+    /**
+     * Posts a notification.
+     *
+     * @param severity        The severity.
+     * @param key             Notifications with the same key are coalesced into one toast; without a coalesced
+     *                        format, only if their messages are the same too.
+     * @param message         The text shown for a single notification.
+     * @param coalescedFormat The text shown for several coalesced notifications, with a {@code %d} for
+     *                        their number, or null to show the message with a repeat count.
+     */
+    public void post(Severity severity, String key, String message, String coalescedFormat) {
+        Objects.requireNonNull(severity, "Severity cannot be null.");
+        Objects.requireNonNull(key, "Key cannot be null.");
+        Objects.requireNonNull(message, "Message cannot be null.");
+
+        String toastKey = coalescedFormat != null ? key : key + '\n' + message; // The toast shows the first message
+        Toast existing = toastsByKey.get(toastKey);
+        if (existing != null) {
+            existing.count++;
+            existing.updateText();
+            if (existing.timer != null) {
+                existing.timer.playFromStart(); // Keep a toast that is still being updated on screen
+            }
+            return;
+        }
+        Toast toast = new Toast(severity, toastKey, message, coalescedFormat);
+        if (visibleCount < MAX_VISIBLE) {
+            show(toast);
+        } else if (pendingToasts.size() < MAX_PENDING) {
+            toastsByKey.put(toastKey, toast);
+            pendingToasts.addLast(toast);
+        } else {
+            LOGGER.log(Level.WARNING, "Dropping notification, too many pending: {0}", message);
+        }
+    }
+
+    /**
+     * Gets the number of toasts waiting to be shown.
+     *
+     * @return The number of pending toasts.
+     */
+    public int getPendingCount() {
+        return pendingToasts.size();
+    }
+
+    /**
+     * Adds a toast to the container and starts its timer.
+     *
+     * @param toast The toast.
+     */
+    private void show(Toast toast) {
+        toastsByKey.put(toast.key, toast);
+        toast.label = new Label();
+        toast.label.setWrapText(true);
+        toast.label.getStyleClass().addAll("toast", toast.severity.styleClass);
+        toast.label.setOnMouseClicked(event -> dismiss(toast));
+        toast.updateText();
+        toast.timer = new PauseTransition(displayTime);
+        toast.timer.setOnFinished(event -> dismiss(toast));
+        container.getChildren().add(toast.label);
+        visibleCount++;
+        toast.timer.playFromStart();
+    }
+
+    /**
+     * Removes a shown toast and shows the next waiting one, if any.
+     *
+     * @param toast The toast.
+     */
+    private void dismiss(Toast toast) {
+        if (toast.label == null || !container.getChildren().remove(toast.label)) {
+            return; // Already dismissed
+        }
+        toast.timer.stop();
+        toastsByKey.remove(toast.key);
+        visibleCount--;
+        Toast next = pendingToasts.pollFirst();
+        if (next != null) {
+            show(next);
+        }
+    }
+
+    /**
+     * A notification, possibly coalesced from several, and its label once shown.
+     */
+    private static final class Toast {
+        private final Severity severity;
+        private final String key;
+        private final String message;
+        private final String coalescedFormat;
+        private int count = 1;
+        private Label label; // Null while waiting
+        private PauseTransition timer; // Null while waiting
+
+        Toast(Severity severity, String key, String message, String coalescedFormat) {
+            this.severity = severity;
+            this.key = key;
+            this.message = message;
+            this.coalescedFormat = coalescedFormat;
+        }
+
+        /**
+         * Shows the current text on the label, if the toast is shown.
+         */
+        void updateText() {
+            if (label == null) {
+                return;
+            }
+            if (count == 1) {
+                label.setText(message);
+            } else if (coalescedFormat != null) {
+                label.setText(String.format(coalescedFormat, count));
+            } else {
+                label.setText(message + " (x" + count + ")");
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.restrauntautomation;
+
+import com.example.restrauntautomation.archive.OrderArchive;
+import com.example.restrauntautomation.config.RuntimeConfig;
+import com.example.restrauntautomation.manager.MenuManager;
+import com.example.restrauntautomation.model.MenuItem;
+import com.example.restrauntautomation.report.SalesReport;
+import com.example.restrauntautomation.report.SalesReportEngine;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Command-line entry point that prints the end-of-day sales report from the order archive,
+ * without starting the JavaFX user interface.
+ *
+ * <p>Usage: {@code ReportLauncher [yyyy-MM-dd] [archiveDirectory]} (defaults: today, the configured archive
+ * directory). The report runs on the common fork/join pool unless {@code restaurant.report.parallelism} is set.
+ */
+public class ReportLauncher {
+    public static void main(String[] args) {
+        LocalDate day;
+        try {
+            day = args.length > 0 ? LocalDate.parse(args[0]) : LocalDate.now();
+        } catch (DateTimeParseException e) {
+            System.err.println("Invalid date '" + args[0] + "', expected yyyy-MM-dd.");
+            System.exit(2);
+            return;
+        }
+        RuntimeConfig config;
+        try {
+            config = RuntimeConfig.load();
+        } catch (IllegalArgumentException | UncheckedIOException e) {
+            System.err.println("Invalid configuration: " + e.getMessage());
+            System.exit(2);
+            return;
+        }
+        String archiveDirectory = args.length > 1 ? args[1] : config.getArchiveDirectory();
+
+        MenuManager menuManager = new MenuManager();
+        // Read-only, so a report run during service never recovers or truncates the terminal's live archive
+        try (OrderArchive archive = OrderArchive.openReadOnly(Paths.get(archiveDirectory), ZoneId.systemDefault())) {
+            ForkJoinPool pool = config.getReportParallelism() > 0 ? new ForkJoinPool(config.getReportParallelism()) : ForkJoinPool.commonPool();
+            SalesReportEngine engine = new SalesReportEngine(archive, menuManager, pool);
+            long start = System.nanoTime();
+            SalesReport report = engine.dailyReport(day);
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            printReport(day, report, engine.getCategoryNames(), archive, menuManager);
+            System.out.println("Report built in " + elapsedMillis + " ms.");
+        } catch (IOException e) {
+            System.err.println("Could not open order archive at " + archiveDirectory + ": " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Prints every section of the report to standard output.
+     */
+    private static void printReport(LocalDate day, SalesReport report, String[] categoryNames,
+                                    OrderArchive archive, MenuManager menuManager) {
+        System.out.println("=== Sales Report for " + day + " ===");
+        System.out.println("Orders: " + report.getOrderCount() + " | Lines: " + report.getLineCount()
+                + " | Revenue: " + formatCents(report.getRevenueCents())
+                + " | Discounts: " + formatCents(report.getDiscountCents()));
+
+        System.out.println("\n--- By Menu Item ---");
+        long[] byItem = report.getRevenueByItem();
+        long[] quantities = report.getQuantityByItem();
+        for (int itemId = 0; itemId < byItem.length; itemId++) {
+            if (quantities[itemId] > 0) {
+                MenuItem item = menuManager.getMenuItemById(itemId);
+                String name = item != null ? item.getName() : "Item #" + itemId + " (no longer on the menu)";
+                System.out.println("  " + name + " x " + quantities[itemId] + ": " + formatCents(byItem[itemId]));
+            }
+        }
+
+        System.out.println("\n--- By Category ---");
+        long[] byCategory = report.getRevenueByCategory();
+        for (int c = 0; c < byCategory.length; c++) {
+            if (byCategory[c] > 0 || c < byCategory.length - 1) { // The last, off-menu category only when used
+                System.out.println("  " + categoryNames[c] + ": " + formatCents(byCategory[c]));
+            }
+        }
+
+        System.out.println("\n--- By Wait Staff ---");
+        long[] byStaff = report.getRevenueByStaff();
+        for (int code = 0; code < byStaff.length; code++) {
+            if (byStaff[code] > 0) {
+                System.out.println("  " + archive.getStaffId(code) + ": " + formatCents(byStaff[code]));
+            }
+        }
+
+        System.out.println("\n--- By Hour ---");
+        long[] byHour = report.getRevenueByHour();
+        for (int hour = 0; hour < byHour.length; hour++) {
+            if (byHour[hour] > 0) {
+                System.out.println(String.format("  %02d:00: %s", hour, formatCents(byHour[hour])));
+            }
+        }
+
+        System.out.println("\n--- By Table ---");
+        long[] byTable = report.getRevenueByTable();
+        for (int table = 1; table < byTable.length; table++) {
+            if (byTable[table] > 0) {
+                System.out.println("  Table " + table + ": " + formatCents(byTable[table]));
+            }
+        }
+    }
+
+    /**
+     * Formats an amount in cents as dollars, with a leading minus sign when negative (e.g. -$0.50).
+     */
+    private static String formatCents(long cents) {
+        return String.format("%s$%d.%02d", cents < 0 ? "-" : "", Math.abs(cents / 100), Math.abs(cents % 100));
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.restrauntautomation;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Logs how long each startup phase took, measured from the moment the application class was loaded.
+ * Look for "Startup phase" lines in the log to compare time-to-first-frame between builds.
+ */
+final class StartupTimer {
+
+    private static final Logger LOGGER = Logger.getLogger(StartupTimer.class.getName());
+    private static final long START_NANOS = System.nanoTime();
+    private static long lastNanos = START_NANOS;
+
+    private StartupTimer() {
+        // Static helpers only
+    }
+
+    /**
+     * Starts the clock. Call as early as possible; later calls have no effect.
+     */
+    static void start() {
+        // Loading this class captures START_NANOS
+    }
+
+    /**
+     * Logs that a startup phase has finished, with the time since start and since the previous phase.
+     *
+     * @param phase The name of the phase.
+     */
+    static synchronized void mark(String phase) {
+        long now = System.nanoTime();
+        LOGGER.log(Level.INFO, "Startup phase ''{0}'' done at {1} ms (+{2} ms) on {3}.", new Object[]{
+                phase, (now - START_NANOS) / 1_000_000, (now - lastNanos) / 1_000_000, Thread.currentThread().getName()});
+        lastNanos = now;
+    }
+}
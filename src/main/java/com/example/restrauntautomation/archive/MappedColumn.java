@@ -0,0 +1,193 @@
+package com.example.restrauntautomation.archive;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A single fixed-width column of an {@link OrderArchive}, stored in its own memory-mapped file.
+ * The file starts with a 16-byte header (magic, element width, committed element count) followed
+ * by the packed values. The mapping lives outside the Java heap and grows by remapping a larger region.
+ *
+ * <p>One thread appends at a time (the archive serializes writers); readers may access any index
+ * below the committed count concurrently. A single column file is limited to 2 GiB.
+ *
+ * <p>A column opened read-only maps the file as it is at that moment and never writes to it: its count is
+ * the committed count when it was opened, so another process can keep appending to the same file.
+ */
+class MappedColumn implements Closeable {
+
+    private static final int MAGIC = 0x4F524443; // "ORDC"
+    private static final int HEADER_SIZE = 16;
+    private static final int COUNT_OFFSET = 8;
+    private static final long INITIAL_CAPACITY_BYTES = 64 * 1024;
+
+    private final FileChannel channel;
+    private final int width;
+    private final boolean readOnly;
+    private volatile MappedByteBuffer buffer;
+    private long size; // Number of values written, may run ahead of the committed count during an append
+
+    /**
+     * Opens or creates a column file for reading and appending.
+     *
+     * @param file  The column file.
+     * @param width The width of one value in bytes (4 or 8).
+     * @throws IOException If the file cannot be opened or has an incompatible header.
+     */
+    MappedColumn(Path file, int width) throws IOException {
+        this(file, width, false);
+    }
+
+    /**
+     * Opens a column file, or creates it unless opening read-only.
+     *
+     * @param file     The column file.
+     * @param width    The width of one value in bytes (4 or 8).
+     * @param readOnly true to map the existing file read-only, without writing its header.
+     * @throws IOException If the file cannot be opened or has an incompatible header.
+     */
+    MappedColumn(Path file, int width, boolean readOnly) throws IOException {
+        this.channel = readOnly
+                ? FileChannel.open(file, StandardOpenOption.READ)
+                : FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.width = width;
+        this.readOnly = readOnly;
+        boolean isNew = channel.size() < HEADER_SIZE;
+        if (readOnly) {
+            if (isNew) {
+                channel.close();
+                throw new IOException("Archive column " + file + " is missing its header.");
+            }
+            this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(channel.size(), Integer.MAX_VALUE));
+        } else {
+            long capacity = Math.max(channel.size(), INITIAL_CAPACITY_BYTES);
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        }
+        if (isNew) {
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, width);
+            buffer.putLong(COUNT_OFFSET, 0L);
+        } else if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != width) {
+            channel.close();
+            throw new IOException("Archive column " + file + " has an unexpected header.");
+        }
+        // A read-only view never looks past what was committed, and mapped, when it was opened
+        long committed = buffer.getLong(COUNT_OFFSET);
+        this.size = readOnly ? Math.min(committed, (buffer.capacity() - HEADER_SIZE) / width) : committed;
+    }
+
+    /**
+     * Gets the number of committed values.
+     *
+     * @return The committed count.
+     */
+    long count() {
+        return readOnly ? size : buffer.getLong(COUNT_OFFSET);
+    }
+
+    /**
+     * Publishes all values appended so far by writing the committed count to the header.
+     */
+    void commit() {
+        buffer.putLong(COUNT_OFFSET, size);
+    }
+
+    /**
+     * Discards uncommitted values and truncates the column to the given count.
+     *
+     * @param count The new committed count.
+     */
+    void truncate(long count) {
+        size = count;
+        commit();
+    }
+
+    /**
+     * Appends an int value. Only valid for 4-byte columns.
+     *
+     * @param value The value to append.
+     * @throws IOException If the mapping cannot be grown.
+     */
+    void appendInt(int value) throws IOException {
+        ensureCapacity();
+        buffer.putInt(offset(size++), value);
+    }
+
+    /**
+     * Appends a long value. Only valid for 8-byte columns.
+     *
+     * @param value The value to append.
+     * @throws IOException If the mapping cannot be grown.
+     */
+    void appendLong(long value) throws IOException {
+        ensureCapacity();
+        buffer.putLong(offset(size++), value);
+    }
+
+    /**
+     * Reads an int value.
+     *
+     * @param index The value index.
+     * @return The value.
+     */
+    int getInt(long index) {
+        return buffer.getInt(offset(index));
+    }
+
+    /**
+     * Reads a long value.
+     *
+     * @param index The value index.
+     * @return The value.
+     */
+    long getLong(long index) {
+        return buffer.getLong(offset(index));
+    }
+
+    /**
+     * Flushes dirty pages of the mapping to the storage device.
+     */
+    void force() {
+        if (!readOnly) {
+            buffer.force();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    /**
+     * Computes the byte offset of a value.
+     *
+     * @param index The value index.
+     * @return The byte offset within the file.
+     */
+    private int offset(long index) {
+        return Math.toIntExact(HEADER_SIZE + index * width);
+    }
+
+    /**
+     * Remaps the file with twice the capacity if the next value would not fit.
+     *
+     * @throws IOException If the file cannot be grown.
+     */
+    private void ensureCapacity() throws IOException {
+        long required = HEADER_SIZE + (size + 1) * width;
+        int capacity = buffer.capacity();
+        if (required <= capacity) {
+            return;
+        }
+        long newCapacity = Math.min((long) capacity * 2, Integer.MAX_VALUE);
+        if (required > newCapacity) {
+            throw new IOException("Archive column is full (2 GiB limit reached).");
+        }
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, newCapacity);
+    }
+}
@@ -0,0 +1,566 @@
+package com.example.restrauntautomation.archive;
+
+import com.example.restrauntautomation.model.MenuItem;
+import com.example.restrauntautomation.model.Order;
+import com.example.restrauntautomation.model.OrderItem;
+import com.example.restrauntautomation.model.StringDictionary;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.ToIntFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Append-only, columnar archive of completed orders kept in memory-mapped files.
+ * Each column lives in its own file inside the archive directory, so the data survives restarts
+ * and stays off the Java heap. Orders are identified by their position in the archive (0 to count - 1)
+ * and lines by their global position; each order owns a contiguous run of lines.
+ *
+ * <p>Order columns: order id, table number, staff code, order time, completion time (epoch millis),
+ * discount in cents, first line, line count. The discount column was added later: an archive written before it
+ * gets the file filled with zero discounts when it is next opened for writing, and reads as zero when opened read-only. Line columns: catalog item id, quantity, amount in cents.
+ * Staff ids are dictionary-encoded into small int codes stored in {@code staff.dict}. These codes are stable
+ * across restarts, unlike the process-wide {@link StringDictionary#STAFF_IDS} codes, which are mapped to them
+ * through an array so appending an order does not hash its staff id.
+ *
+ * <p>Appends are serialized; readers can scan concurrently without locking up to the
+ * count returned by {@link #getOrderCount()}. A reader in another process, such as the report launcher, opens the
+ * archive with {@link #openReadOnly(Path, ZoneId)}, which sees the orders committed when it was opened and never
+ * writes to the files of the live archive.
+ */
+public class OrderArchive implements Closeable {
+
+    private static final Logger LOGGER = Logger.getLogger(OrderArchive.class.getName());
+    private static final String STAFF_DICTIONARY_FILE = "staff.dict";
+    private static final String DISCOUNT_FILE = "discount.col";
+
+    private final Path directory;
+    private final ZoneId zone;
+    private final boolean readOnly;
+
+    // Order columns
+    private final MappedColumn orderIds;
+    private final MappedColumn tableNumbers;
+    private final MappedColumn staffCodes;
+    private final MappedColumn orderTimes;
+    private final MappedColumn completedTimes;
+    private final MappedColumn discounts; // null in a read-only archive written before discounts were archived
+    private final MappedColumn firstLines;
+    private final MappedColumn lineCounts;
+
+    // Line columns
+    private final MappedColumn itemIds;
+    private final MappedColumn quantities;
+    private final MappedColumn amounts;
+
+    private final List<String> staffIdsByCode = new ArrayList<>();
+    private final Map<String, Integer> staffCodesById = new HashMap<>();
+    private int[] staffCodesByProcessCode = new int[0]; // StringDictionary.STAFF_IDS code -> archive code, -1 if not mapped yet
+    private boolean closed; // Guarded by this
+
+    /**
+     * Opens or creates an archive in the given directory, using the system time zone for timestamps.
+     *
+     * @param directory The archive directory (created if missing).
+     * @throws IOException If the archive files cannot be opened.
+     */
+    public OrderArchive(Path directory) throws IOException {
+        this(directory, ZoneId.systemDefault());
+    }
+
+    /**
+     * Opens or creates an archive in the given directory.
+     *
+     * @param directory The archive directory (created if missing).
+     * @param zone      The time zone used to convert order times to epoch millis.
+     * @throws IOException If the archive files cannot be opened.
+     */
+    public OrderArchive(Path directory, ZoneId zone) throws IOException {
+        this(directory, zone, false);
+    }
+
+    /**
+     * Opens an existing archive for reading only. Nothing is recovered or written, so this is safe while
+     * the archive is being appended to by another process; orders appended after opening are not seen.
+     *
+     * @param directory The archive directory (must exist).
+     * @param zone      The time zone used to convert epoch millis back to local times.
+     * @return The read-only archive.
+     * @throws IOException If the archive files are missing or cannot be opened.
+     */
+    public static OrderArchive openReadOnly(Path directory, ZoneId zone) throws IOException {
+        return new OrderArchive(directory, zone, true);
+    }
+
+    /**
+     * Opens an archive.
+     *
+     * @param directory The archive directory.
+     * @param zone      The time zone of the archive.
+     * @param readOnly  true to map the existing columns read-only, without recovery.
+     * @throws IOException If the archive files cannot be opened.
+     */
+    private OrderArchive(Path directory, ZoneId zone, boolean readOnly) throws IOException {
+        this.directory = Objects.requireNonNull(directory, "Archive directory cannot be null.");
+        this.zone = Objects.requireNonNull(zone, "Time zone cannot be null.");
+        this.readOnly = readOnly;
+        if (!readOnly) {
+            Files.createDirectories(directory);
+        }
+
+        // Order columns are opened before line columns, and lineCounts last of them, so a read-only
+        // snapshot holds every line of every order it counts
+        this.orderIds = new MappedColumn(directory.resolve("order_id.col"), Long.BYTES, readOnly);
+        this.tableNumbers = new MappedColumn(directory.resolve("table.col"), Integer.BYTES, readOnly);
+        this.staffCodes = new MappedColumn(directory.resolve("staff.col"), Integer.BYTES, readOnly);
+        this.orderTimes = new MappedColumn(directory.resolve("order_time.col"), Long.BYTES, readOnly);
+        this.completedTimes = new MappedColumn(directory.resolve("completed_time.col"), Long.BYTES, readOnly);
+        Path discountFile = directory.resolve(DISCOUNT_FILE);
+        boolean discountsMissing = !Files.exists(discountFile);
+        this.discounts = readOnly && discountsMissing ? null : new MappedColumn(discountFile, Long.BYTES, readOnly);
+        this.firstLines = new MappedColumn(directory.resolve("first_line.col"), Integer.BYTES, readOnly);
+        this.lineCounts = new MappedColumn(directory.resolve("line_count.col"), Integer.BYTES, readOnly);
+        this.itemIds = new MappedColumn(directory.resolve("item_id.col"), Integer.BYTES, readOnly);
+        this.quantities = new MappedColumn(directory.resolve("quantity.col"), Integer.BYTES, readOnly);
+        this.amounts = new MappedColumn(directory.resolve("amount.col"), Long.BYTES, readOnly);
+
+        loadStaffDictionary();
+        if (!readOnly) {
+            recover(discountsMissing);
+        }
+        LOGGER.log(Level.INFO, "Order archive opened {0}at {1} with {2} orders and {3} lines.",
+                new Object[]{readOnly ? "read-only " : "", directory, getOrderCount(), getLineCount()});
+    }
+
+    /**
+     * Appends a completed order to the archive.
+     *
+     * @param order         The completed order (must not be null).
+     * @param completedTime The time the order was completed.
+     * @param itemIdMapping Maps a MenuItem to its catalog id (e.g. {@code MenuManager::getMenuItemId}).
+     * @return The archive position of the appended order.
+     * @throws IOException If the archive cannot be written.
+     * @throws IllegalStateException If the archive is open read-only or closed.
+     */
+    public synchronized int append(Order order, LocalDateTime completedTime, ToIntFunction<MenuItem> itemIdMapping) throws IOException {
+        Objects.requireNonNull(order, "Cannot archive a null Order.");
+        Objects.requireNonNull(completedTime, "Completion time cannot be null.");
+        if (readOnly) {
+            throw new IllegalStateException("Order archive at " + directory + " is open read-only.");
+        }
+        if (closed) {
+            throw new IllegalStateException("Order archive at " + directory + " is closed.");
+        }
+        List<OrderItem> items = order.getItems();
+        // Everything that can be rejected is resolved before the first write
+        int[] lineItemIds = new int[items.size()];
+        for (int i = 0; i < lineItemIds.length; i++) {
+            MenuItem menuItem = items.get(i).getMenuItem();
+            lineItemIds[i] = itemIdMapping.applyAsInt(menuItem);
+            if (lineItemIds[i] < 0) {
+                throw new IllegalArgumentException("MenuItem '" + menuItem.getName() + "' has no catalog id.");
+            }
+        }
+        int staffCode = staffCode(order);
+        int orderCount = getOrderCount();
+        int firstLine = getLineCount();
+
+        try {
+            // Lines are written and committed first; the order row is committed last so a crash
+            // mid-append leaves only orphan lines, which recover() discards.
+            for (int i = 0; i < lineItemIds.length; i++) {
+                itemIds.appendInt(lineItemIds[i]);
+                quantities.appendInt(items.get(i).getQuantity());
+                amounts.appendLong(items.get(i).getTotalPriceInCents());
+            }
+            itemIds.commit();
+            quantities.commit();
+            amounts.commit();
+
+            orderIds.appendLong(order.getOrderId());
+            tableNumbers.appendInt(order.getTableNumber());
+            staffCodes.appendInt(staffCode);
+            orderTimes.appendLong(toEpochMillis(order.getOrderTime()));
+            completedTimes.appendLong(toEpochMillis(completedTime));
+            discounts.appendLong(order.getDiscountCents());
+            firstLines.appendInt(firstLine);
+            lineCounts.appendInt(items.size());
+            orderIds.commit();
+            tableNumbers.commit();
+            staffCodes.commit();
+            orderTimes.commit();
+            completedTimes.commit();
+            discounts.commit();
+            firstLines.commit();
+            lineCounts.commit(); // Publishes the order to readers
+        } catch (IOException | RuntimeException e) {
+            rollBack(orderCount, firstLine);
+            throw e;
+        }
+
+        return getOrderCount() - 1;
+    }
+
+    /**
+     * Gets the number of archived orders.
+     *
+     * @return The order count.
+     */
+    public int getOrderCount() {
+        return (int) lineCounts.count();
+    }
+
+    /**
+     * Gets the number of archived order lines.
+     *
+     * @return The line count.
+     */
+    public int getLineCount() {
+        return (int) amounts.count();
+    }
+
+    /**
+     * Gets the order id of an archived order.
+     *
+     * @param order The archive position of the order.
+     * @return The order id.
+     */
+    public long getOrderId(int order) {
+        return orderIds.getLong(order);
+    }
+
+    /**
+     * Gets the table number of an archived order.
+     *
+     * @param order The archive position of the order.
+     * @return The table number.
+     */
+    public int getTableNumber(int order) {
+        return tableNumbers.getInt(order);
+    }
+
+    /**
+     * Gets the dictionary code of the staff member who took an archived order.
+     *
+     * @param order The archive position of the order.
+     * @return The staff code, see {@link #getStaffId(int)}.
+     */
+    public int getStaffCode(int order) {
+        return staffCodes.getInt(order);
+    }
+
+    /**
+     * Gets the order time of an archived order.
+     *
+     * @param order The archive position of the order.
+     * @return The order time in epoch millis.
+     */
+    public long getOrderTimeMillis(int order) {
+        return orderTimes.getLong(order);
+    }
+
+    /**
+     * Gets the completion time of an archived order.
+     *
+     * @param order The archive position of the order.
+     * @return The completion time in epoch millis.
+     */
+    public long getCompletedTimeMillis(int order) {
+        return completedTimes.getLong(order);
+    }
+
+    /**
+     * Gets the discount of an archived order. Line amounts are before the discount, so the amount
+     * the order was closed at is the sum of its line amounts minus this.
+     *
+     * @param order The archive position of the order.
+     * @return The discount in cents, 0 if the archive predates archived discounts.
+     */
+    public long getDiscountCents(int order) {
+        return discounts == null ? 0 : discounts.getLong(order);
+    }
+
+    /**
+     * Gets the position of the first line of an archived order.
+     *
+     * @param order The archive position of the order.
+     * @return The global line position.
+     */
+    public int getFirstLine(int order) {
+        return firstLines.getInt(order);
+    }
+
+    /**
+     * Gets the number of lines of an archived order.
+     *
+     * @param order The archive position of the order.
+     * @return The line count.
+     */
+    public int getLineCount(int order) {
+        return lineCounts.getInt(order);
+    }
+
+    /**
+     * Gets the catalog item id of an archived line.
+     *
+     * @param line The global line position.
+     * @return The catalog item id.
+     */
+    public int getItemId(int line) {
+        return itemIds.getInt(line);
+    }
+
+    /**
+     * Gets the quantity of an archived line.
+     *
+     * @param line The global line position.
+     * @return The quantity.
+     */
+    public int getQuantity(int line) {
+        return quantities.getInt(line);
+    }
+
+    /**
+     * Gets the amount (price times quantity) of an archived line.
+     *
+     * @param line The global line position.
+     * @return The amount in cents.
+     */
+    public long getAmountCents(int line) {
+        return amounts.getLong(line);
+    }
+
+    /**
+     * Resolves a staff code back to the staff id.
+     *
+     * @param staffCode The staff code.
+     * @return The staff id, or null if the code is unknown.
+     */
+    public synchronized String getStaffId(int staffCode) {
+        return staffCode >= 0 && staffCode < staffIdsByCode.size() ? staffIdsByCode.get(staffCode) : null;
+    }
+
+    /**
+     * Gets the number of distinct staff codes. Valid codes are 0 to count - 1.
+     *
+     * @return The number of staff codes.
+     */
+    public synchronized int getStaffCodeCount() {
+        return staffIdsByCode.size();
+    }
+
+    /**
+     * Gets the time zone used for the archived timestamps.
+     *
+     * @return The archive time zone.
+     */
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    /**
+     * Finds the first archived order completed at or after the given time, using binary search
+     * over the completion-time column (orders are appended in completion order).
+     *
+     * @param epochMillis The time in epoch millis.
+     * @return The archive position of the first such order, or the order count if there is none.
+     */
+    public int findFirstCompletedAtOrAfter(long epochMillis) {
+        int low = 0;
+        int high = getOrderCount();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (completedTimes.getLong(mid) < epochMillis) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Flushes all columns to the storage device. Does nothing once the archive is closed.
+     */
+    public synchronized void flush() {
+        if (closed) {
+            return;
+        }
+        for (MappedColumn column : columns()) {
+            column.force();
+        }
+    }
+
+    /**
+     * Flushes and closes all column files. Closing a closed archive does nothing.
+     *
+     * @throws IOException If a column cannot be closed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (MappedColumn column : columns()) {
+            column.close();
+        }
+        LOGGER.log(Level.INFO, "Order archive at {0} closed.", directory);
+    }
+
+    /**
+     * Lists all column files.
+     *
+     * @return The columns.
+     */
+    private MappedColumn[] columns() {
+        MappedColumn[] columns = {orderIds, tableNumbers, staffCodes, orderTimes, completedTimes, discounts,
+                firstLines, lineCounts, itemIds, quantities, amounts};
+        return Arrays.stream(columns).filter(Objects::nonNull).toArray(MappedColumn[]::new);
+    }
+
+    /**
+     * Lists the order columns of a writable archive.
+     *
+     * @return The order columns.
+     */
+    private MappedColumn[] orderColumns() {
+        return new MappedColumn[]{orderIds, tableNumbers, staffCodes, orderTimes, completedTimes, discounts,
+                firstLines, lineCounts};
+    }
+
+    /**
+     * Undoes a failed append: every column is cut back to the orders and lines committed before it,
+     * so that the next append starts from a consistent archive.
+     *
+     * @param orders The number of orders before the append.
+     * @param lines  The number of lines before the append.
+     */
+    private void rollBack(long orders, long lines) {
+        for (MappedColumn column : orderColumns()) {
+            column.truncate(orders);
+        }
+        for (MappedColumn column : new MappedColumn[]{itemIds, quantities, amounts}) {
+            column.truncate(lines);
+        }
+        LOGGER.log(Level.WARNING, "Rolled back a failed append at order {0}.", orders);
+    }
+
+    /**
+     * Brings every column back to a consistent state after an interrupted append:
+     * order columns are cut to the shortest one, and lines not owned by a committed order are dropped.
+     * A discount column created just now for an older archive is first filled with zeros.
+     *
+     * @param discountsCreated true if the discount column did not exist before opening.
+     * @throws IOException If the discount column cannot be filled.
+     */
+    private void recover(boolean discountsCreated) throws IOException {
+        if (discountsCreated && lineCounts.count() > 0) {
+            LOGGER.log(Level.INFO, "Adding zero discounts for {0} orders archived before discounts.", lineCounts.count());
+            for (long i = 0; i < lineCounts.count(); i++) {
+                discounts.appendLong(0L);
+            }
+            discounts.commit();
+        }
+        long orders = Long.MAX_VALUE;
+        for (MappedColumn column : orderColumns()) {
+            orders = Math.min(orders, column.count());
+        }
+        for (MappedColumn column : orderColumns()) {
+            if (column.count() != orders) {
+                column.truncate(orders);
+            }
+        }
+        long lines = orders == 0 ? 0 : (long) firstLines.getInt(orders - 1) + lineCounts.getInt(orders - 1);
+        for (MappedColumn column : new MappedColumn[]{itemIds, quantities, amounts}) {
+            if (column.count() != lines) {
+                LOGGER.log(Level.WARNING, "Discarding incomplete archive lines beyond position {0}.", lines);
+                column.truncate(lines);
+            }
+        }
+    }
+
+    /**
+     * Loads the staff dictionary file, one staff id per line with the line number as its code.
+     *
+     * @throws IOException If the dictionary exists but cannot be read.
+     */
+    private void loadStaffDictionary() throws IOException {
+        Path file = directory.resolve(STAFF_DICTIONARY_FILE);
+        if (!Files.exists(file)) {
+            return;
+        }
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            String staffId = StringDictionary.STAFF_IDS.intern(line); // Shared with the live orders' staff ids
+            staffCodesById.put(staffId, staffIdsByCode.size());
+            staffIdsByCode.add(staffId);
+        }
+    }
+
+    /**
+     * Gets the archive code for the staff member of an order, through the order's process-wide staff code.
+     *
+     * @param order The order.
+     * @return The staff code.
+     * @throws IOException If the dictionary file cannot be written.
+     */
+    private int staffCode(Order order) throws IOException {
+        int processCode = order.getWaitStaffCode();
+        if (processCode < staffCodesByProcessCode.length && staffCodesByProcessCode[processCode] >= 0) {
+            return staffCodesByProcessCode[processCode];
+        }
+        int code = staffCode(order.getWaitStaffId());
+        if (processCode >= staffCodesByProcessCode.length) {
+            int oldLength = staffCodesByProcessCode.length;
+            staffCodesByProcessCode = Arrays.copyOf(staffCodesByProcessCode, Math.max(processCode + 1, oldLength * 2));
+            Arrays.fill(staffCodesByProcessCode, oldLength, staffCodesByProcessCode.length, -1);
+        }
+        staffCodesByProcessCode[processCode] = code;
+        return code;
+    }
+
+    /**
+     * Gets the code for a staff id, appending it to the dictionary file if it is new.
+     *
+     * @param staffId The staff id.
+     * @return The staff code.
+     * @throws IOException If the dictionary file cannot be written.
+     */
+    private int staffCode(String staffId) throws IOException {
+        Integer code = staffCodesById.get(staffId);
+        if (code != null) {
+            return code;
+        }
+        Files.write(directory.resolve(STAFF_DICTIONARY_FILE),
+                Collections.singletonList(staffId), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        int newCode = staffIdsByCode.size();
+        staffCodesById.put(staffId, newCode);
+        staffIdsByCode.add(staffId);
+        return newCode;
+    }
+
+    /**
+     * Converts a local date-time to epoch millis in the archive time zone.
+     *
+     * @param time The local date-time.
+     * @return The epoch millis.
+     */
+    private long toEpochMillis(LocalDateTime time) {
+        return time.atZone(zone).toInstant().toEpochMilli();
+    }
+}
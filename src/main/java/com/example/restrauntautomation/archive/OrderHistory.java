@@ -0,0 +1,268 @@
+package com.example.restrauntautomation.archive;
+
+import com.example.restrauntautomation.model.CompactOrder;
+import com.example.restrauntautomation.model.MenuItem;
+import com.example.restrauntautomation.model.Order;
+import com.example.restrauntautomation.model.StringDictionary;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * In-memory history of the orders completed during the current shift, for reprints, voids and disputes.
+ *
+ * <p>Orders are kept as {@link CompactOrder}s in a skip list ordered by order time (then order ID), with one
+ * skip list per table and one per wait staff member alongside it. A query such as "orders for table 12 in the
+ * last hour" seeks to the start of the range in its table's list and walks it, in O(log n + k) for k results.
+ * Orders are also indexed by ID.
+ *
+ * <p>Orders placed more than the retention period before the newest recorded order are dropped from memory
+ * as new orders are recorded. Older orders are served by the {@link OrderArchive}, which every completed order
+ * is appended to as well.
+ *
+ * <p>Recording is serialized; queries read the skip lists without locking and may run on any thread.
+ */
+public class OrderHistory {
+
+    private static final Logger LOGGER = Logger.getLogger(OrderHistory.class.getName());
+
+    private final Duration retention;
+    private final ToIntFunction<MenuItem> itemIds;
+    private final IntFunction<MenuItem> catalog;
+    private final ConcurrentSkipListMap<TimeKey, CompactOrder> byTime = new ConcurrentSkipListMap<>();
+    private final Map<Integer, ConcurrentSkipListMap<TimeKey, CompactOrder>> byTable = new ConcurrentHashMap<>();
+    private final Map<Integer, ConcurrentSkipListMap<TimeKey, CompactOrder>> byStaffCode = new ConcurrentHashMap<>();
+    private final Map<Long, CompactOrder> byId = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs an empty OrderHistory.
+     *
+     * @param retention How long after an order was placed it is kept in memory, e.g. the length of a shift.
+     * @param itemIds   Maps a MenuItem to its catalog id (e.g. {@code MenuManager::getMenuItemId}).
+     * @param catalog   Resolves a catalog id back to its MenuItem (e.g. {@code MenuManager::getMenuItemById}).
+     */
+    public OrderHistory(Duration retention, ToIntFunction<MenuItem> itemIds, IntFunction<MenuItem> catalog) {
+        Objects.requireNonNull(retention, "Retention cannot be null.");
+        if (retention.isNegative() || retention.isZero()) {
+            throw new IllegalArgumentException("Retention must be positive.");
+        }
+        this.retention = retention;
+        this.itemIds = Objects.requireNonNull(itemIds, "Item id mapping cannot be null.");
+        this.catalog = Objects.requireNonNull(catalog, "Catalog cannot be null.");
+    }
+
+    /**
+     * Records a completed order, replacing any earlier record of the same order, and drops orders
+     * that have fallen out of the retention period.
+     *
+     * @param order The completed order (must not be null).
+     */
+    public synchronized void record(Order order) {
+        CompactOrder compact = CompactOrder.of(Objects.requireNonNull(order, "Cannot record a null Order."), itemIds, catalog);
+        CompactOrder previous = byId.get(compact.getOrderId());
+        if (previous != null) {
+            unindex(previous);
+        }
+        TimeKey key = TimeKey.of(compact);
+        byTime.put(key, compact);
+        byTable.computeIfAbsent(compact.getTableNumber(), t -> new ConcurrentSkipListMap<>()).put(key, compact);
+        byStaffCode.computeIfAbsent(compact.getWaitStaffCode(), s -> new ConcurrentSkipListMap<>()).put(key, compact);
+        byId.put(compact.getOrderId(), compact);
+
+        evictBefore(byTime.lastKey().toTime().minus(retention));
+    }
+
+    /**
+     * Drops every order placed before a cutoff from memory. They stay in the archive.
+     *
+     * @param cutoff The earliest order time to keep.
+     * @return The number of orders dropped.
+     */
+    public synchronized int evictBefore(LocalDateTime cutoff) {
+        ConcurrentNavigableMap<TimeKey, CompactOrder> expired = byTime.headMap(TimeKey.lowerBound(cutoff));
+        int evicted = 0;
+        for (CompactOrder order : new ArrayList<>(expired.values())) { // Copied, as unindex removes from byTime
+            unindex(order);
+            evicted++;
+        }
+        if (evicted > 0) {
+            LOGGER.log(Level.FINE, "Dropped {0} orders placed before {1} from the order history.", new Object[]{evicted, cutoff});
+        }
+        return evicted;
+    }
+
+    /**
+     * Gets a recorded order by ID.
+     *
+     * @param orderId The ID of the order.
+     * @return The order, or null if it is not in the history.
+     */
+    public CompactOrder getOrder(long orderId) {
+        return byId.get(orderId);
+    }
+
+    /**
+     * Finds the orders placed in a time range, oldest first.
+     *
+     * @param from The start of the range (inclusive).
+     * @param to   The end of the range (exclusive).
+     * @return An unmodifiable list of orders.
+     */
+    public List<CompactOrder> findBetween(LocalDateTime from, LocalDateTime to) {
+        return range(byTime, from, to);
+    }
+
+    /**
+     * Finds the orders for a table placed in a time range, oldest first.
+     *
+     * @param tableNumber The table number.
+     * @param from        The start of the range (inclusive).
+     * @param to          The end of the range (exclusive).
+     * @return An unmodifiable list of orders.
+     */
+    public List<CompactOrder> findByTable(int tableNumber, LocalDateTime from, LocalDateTime to) {
+        return range(byTable.get(tableNumber), from, to);
+    }
+
+    /**
+     * Finds the orders taken by a wait staff member in a time range, oldest first.
+     *
+     * @param staffId The ID of the wait staff member.
+     * @param from    The start of the range (inclusive).
+     * @param to      The end of the range (exclusive).
+     * @return An unmodifiable list of orders.
+     */
+    public List<CompactOrder> findByStaff(String staffId, LocalDateTime from, LocalDateTime to) {
+        int staffCode = StringDictionary.STAFF_IDS.lookup(staffId);
+        return staffCode < 0 ? Collections.emptyList() : range(byStaffCode.get(staffCode), from, to);
+    }
+
+    /**
+     * Gets the number of orders in the history.
+     *
+     * @return The order count.
+     */
+    public int size() {
+        return byId.size();
+    }
+
+    /**
+     * Collects the orders of an index in a time range.
+     *
+     * @param index The index, or null if it has never had an order.
+     * @param from  The start of the range (inclusive).
+     * @param to    The end of the range (exclusive).
+     * @return An unmodifiable list of orders.
+     */
+    private static List<CompactOrder> range(ConcurrentSkipListMap<TimeKey, CompactOrder> index, LocalDateTime from, LocalDateTime to) {
+        Objects.requireNonNull(from, "Range start cannot be null.");
+        Objects.requireNonNull(to, "Range end cannot be null.");
+        if (index == null || !from.isBefore(to)) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(new ArrayList<>(
+                index.subMap(TimeKey.lowerBound(from), TimeKey.lowerBound(to)).values()));
+    }
+
+    /**
+     * Removes an order from every index.
+     *
+     * @param order The order.
+     */
+    private void unindex(CompactOrder order) {
+        TimeKey key = TimeKey.of(order);
+        byTime.remove(key);
+        removeFrom(byTable, order.getTableNumber(), key);
+        removeFrom(byStaffCode, order.getWaitStaffCode(), key);
+        byId.remove(order.getOrderId());
+    }
+
+    /**
+     * Removes an entry from a secondary index, dropping the index's list once it is empty.
+     *
+     * @param indexes The secondary index.
+     * @param value   The table number or staff code.
+     * @param key     The key of the order.
+     */
+    private static void removeFrom(Map<Integer, ConcurrentSkipListMap<TimeKey, CompactOrder>> indexes, int value, TimeKey key) {
+        ConcurrentSkipListMap<TimeKey, CompactOrder> index = indexes.get(value);
+        if (index != null) {
+            index.remove(key);
+            if (index.isEmpty()) {
+                indexes.remove(value);
+            }
+        }
+    }
+
+    /**
+     * Skip list key: the order time as UTC-neutral seconds and nanos, then the order ID so that orders
+     * placed in the same instant are all kept.
+     */
+    private static final class TimeKey implements Comparable<TimeKey> {
+        final long epochSecond;
+        final int nanos;
+        final long orderId;
+
+        TimeKey(long epochSecond, int nanos, long orderId) {
+            this.epochSecond = epochSecond;
+            this.nanos = nanos;
+            this.orderId = orderId;
+        }
+
+        static TimeKey of(CompactOrder order) {
+            LocalDateTime time = order.getOrderTime();
+            return new TimeKey(time.toEpochSecond(ZoneOffset.UTC), time.getNano(), order.getOrderId());
+        }
+
+        /**
+         * Creates a key that sorts before every order placed at or after a time.
+         *
+         * @param time The time.
+         * @return The key.
+         */
+        static TimeKey lowerBound(LocalDateTime time) {
+            return new TimeKey(time.toEpochSecond(ZoneOffset.UTC), time.getNano(), Long.MIN_VALUE);
+        }
+
+        LocalDateTime toTime() {
+            return LocalDateTime.ofEpochSecond(epochSecond, nanos, ZoneOffset.UTC);
+        }
+
+        @Override
+        public int compareTo(TimeKey other) {
+            if (epochSecond != other.epochSecond) {
+                return Long.compare(epochSecond, other.epochSecond);
+            }
+            if (nanos != other.nanos) {
+                return Integer.compare(nanos, other.nanos);
+            }
+            return Long.compare(orderId, other.orderId);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof TimeKey)) return false;
+            TimeKey other = (TimeKey) o;
+            return epochSecond == other.epochSecond && nanos == other.nanos && orderId == other.orderId;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(epochSecond, nanos, orderId);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.restrauntautomation.audit;
+
+/**
+ * Receives the entries of an {@link AmendmentLog} as they are appended.
+ */
+public interface AmendmentListener {
+
+    /**
+     * Called after an entry is appended, while the log is locked, so entries arrive one at a time in
+     * sequence order. Implementations should return quickly, e.g. by queueing the entry to be stored.
+     *
+     * @param amendment The new entry.
+     */
+    void amendmentAppended(OrderAmendment amendment);
+}
@@ -0,0 +1,441 @@
+package com.example.restrauntautomation.audit;
+
+import com.example.restrauntautomation.manager.OrderQueueListener;
+import com.example.restrauntautomation.model.MenuItem;
+import com.example.restrauntautomation.model.Modifier;
+import com.example.restrauntautomation.model.Order;
+import com.example.restrauntautomation.model.OrderItem;
+import com.example.restrauntautomation.model.StringDictionary;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Append-only audit log of every change to an order: who placed it, added or removed a line, voided it or
+ * refunded it, and when. Changes to queued orders go through this log, which applies them to the order and
+ * records them in one step, so nothing changes an order without a trace.
+ *
+ * <p>Registered as a queue listener, the log records a {@link OrderAmendment.Type#PLACED} entry with the
+ * order's lines and discount for every order as it is queued. Folding an order's entries with
+ * {@link #replay(long)} rebuilds the order as it stands now, which is how disputes are checked against the
+ * live order.
+ *
+ * <p>{@link AmendmentListener}s are told of every entry as it is appended, e.g. to store it; entries loaded
+ * back with {@link #restore(List)} are not passed to them again.
+ *
+ * <p>Entries are kept in fixed-size chunks, so appending never copies earlier entries, and each entry links
+ * to the previous entry of the same order. Appending is one array store and one hash map update; an order's
+ * history is found from its latest entry and followed back in O(k) for k entries. All methods are
+ * synchronized on the log.
+ */
+public class AmendmentLog implements OrderQueueListener {
+
+    private static final Logger LOGGER = Logger.getLogger(AmendmentLog.class.getName());
+    private static final int CHUNK_BITS = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+    private final Clock clock;
+    private OrderAmendment[][] chunks = new OrderAmendment[16][];
+    private int size;
+    private final Map<Long, Integer> latestByOrder = new HashMap<>(); // Order ID -> sequence of its latest entry
+    private final List<AmendmentListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Constructs an empty AmendmentLog using the system clock.
+     */
+    public AmendmentLog() {
+        this(Clock.systemDefaultZone());
+    }
+
+    /**
+     * Constructs an empty AmendmentLog with the given clock.
+     *
+     * @param clock The clock used to timestamp entries.
+     */
+    public AmendmentLog(Clock clock) {
+        this.clock = Objects.requireNonNull(clock, "Clock cannot be null.");
+    }
+
+    /**
+     * Adds a listener told of every entry appended from now on.
+     *
+     * @param listener The listener (must not be null).
+     */
+    public void addListener(AmendmentListener listener) {
+        listeners.add(Objects.requireNonNull(listener, "Listener cannot be null."));
+    }
+
+    /**
+     * Adds an item to a queued order and records who added it.
+     *
+     * @param order     The order (must not be paid or voided).
+     * @param staffId   The ID of the staff member making the change.
+     * @param menuItem  The MenuItem to add.
+     * @param quantity  The quantity to add (must be positive).
+     * @param modifiers The modifiers of the line (must not be null).
+     */
+    public synchronized void addItem(Order order, String staffId, MenuItem menuItem, int quantity, List<Modifier> modifiers) {
+        int staffCode = checkAmendable(order, staffId);
+        OrderItem line = new OrderItem(menuItem, quantity, modifiers); // Validates before the order is touched
+        order.addItem(menuItem, quantity, modifiers);
+        append(OrderAmendment.Type.ITEM_ADDED, order, staffCode, Collections.singletonList(line), 0, null);
+    }
+
+    /**
+     * Removes an item without modifiers from a queued order and records who removed it.
+     *
+     * @param order    The order (must not be paid or voided).
+     * @param staffId  The ID of the staff member making the change.
+     * @param menuItem The MenuItem to remove.
+     * @return true if the item was found and removed, false otherwise (nothing is recorded).
+     */
+    public synchronized boolean removeItem(Order order, String staffId, MenuItem menuItem) {
+        Objects.requireNonNull(menuItem, "Cannot remove a null MenuItem from the order.");
+        int staffCode = checkAmendable(order, staffId);
+        OrderItem removed = null;
+        for (int i = 0; i < order.getItemCount() && removed == null; i++) {
+            OrderItem line = order.getItem(i);
+            if (line.getMenuItem().equals(menuItem) && line.getModifiers().isEmpty()) {
+                removed = new OrderItem(menuItem, line.getQuantity());
+            }
+        }
+        if (removed == null || !order.removeItem(menuItem)) {
+            return false;
+        }
+        append(OrderAmendment.Type.ITEM_REMOVED, order, staffCode, Collections.singletonList(removed), 0, null);
+        return true;
+    }
+
+    /**
+     * Changes the discount of a queued order, e.g. when it is repriced, and records who or what changed it.
+     * Nothing is recorded if the discount stays the same.
+     *
+     * @param order         The order (must not be paid or voided).
+     * @param staffId       The ID of the staff member, or of the process, making the change.
+     * @param discountCents The new discount in cents (zero or more).
+     * @return true if the discount changed.
+     */
+    public synchronized boolean changeDiscount(Order order, String staffId, long discountCents) {
+        int staffCode = checkAmendable(order, staffId);
+        if (discountCents == order.getDiscountCents()) {
+            return false;
+        }
+        order.setDiscountCents(discountCents); // Validates the amount
+        append(OrderAmendment.Type.DISCOUNT_CHANGED, order, staffCode, Collections.emptyList(), discountCents, null);
+        return true;
+    }
+
+    /**
+     * Voids an unpaid order: marks it as cancelled and records who voided it and why.
+     *
+     * @param order   The order (must not be paid or voided).
+     * @param staffId The ID of the staff member voiding it.
+     * @param reason  Why the order was voided (must not be blank).
+     */
+    public synchronized void voidOrder(Order order, String staffId, String reason) {
+        checkReason(reason);
+        int staffCode = checkAmendable(order, staffId);
+        order.setStatus(Order.OrderStatus.CANCELLED);
+        append(OrderAmendment.Type.VOIDED, order, staffCode, Collections.emptyList(), 0, reason);
+        LOGGER.log(Level.INFO, "Order {0} voided by {1}: {2}", new Object[]{order.getOrderId(), staffId, reason});
+    }
+
+    /**
+     * Records a refund on a paid order. The refunds of an order cannot add up to more than it was charged
+     * (its subtotal less its discount).
+     *
+     * @param order       The paid order.
+     * @param staffId     The ID of the staff member giving the refund.
+     * @param amountCents The amount refunded in cents (positive).
+     * @param reason      Why the refund was given (must not be blank).
+     */
+    public synchronized void refund(Order order, String staffId, long amountCents, String reason) {
+        Objects.requireNonNull(order, "Order cannot be null.");
+        int staffCode = staffCodeOf(staffId);
+        checkReason(reason);
+        if (order.getStatus() != Order.OrderStatus.PAID) {
+            throw new IllegalArgumentException("Only paid orders can be refunded; order " + order.getOrderId() + " is " + order.getStatus() + ".");
+        }
+        if (amountCents <= 0) {
+            throw new IllegalArgumentException("Refund must be positive.");
+        }
+        long refundable = order.getSubtotalCents() - order.getDiscountCents() - getRefundedCents(order.getOrderId());
+        if (amountCents > refundable) {
+            throw new IllegalArgumentException("Refund of " + amountCents + " cents exceeds the " + refundable
+                    + " cents still refundable on order " + order.getOrderId() + ".");
+        }
+        ensurePlaced(order);
+        append(OrderAmendment.Type.REFUNDED, order, staffCode, Collections.emptyList(), amountCents, reason);
+        LOGGER.log(Level.INFO, "Refunded {0} cents on order {1} by {2}: {3}", new Object[]{amountCents, order.getOrderId(), staffId, reason});
+    }
+
+    /**
+     * Gets the entries of an order, oldest first.
+     *
+     * @param orderId The ID of the order.
+     * @return An unmodifiable list of entries; empty if the order has none.
+     */
+    public synchronized List<OrderAmendment> getAmendments(long orderId) {
+        Integer latest = latestByOrder.get(orderId);
+        if (latest == null) {
+            return Collections.emptyList();
+        }
+        List<OrderAmendment> amendments = new ArrayList<>();
+        for (int sequence = latest; sequence >= 0; sequence = amendments.get(amendments.size() - 1).getPreviousInOrder()) {
+            amendments.add(entry(sequence));
+        }
+        Collections.reverse(amendments);
+        return Collections.unmodifiableList(amendments);
+    }
+
+    /**
+     * Gets the total refunded on an order.
+     *
+     * @param orderId The ID of the order.
+     * @return The refunded amount in cents.
+     */
+    public synchronized long getRefundedCents(long orderId) {
+        long refunded = 0;
+        Integer latest = latestByOrder.get(orderId);
+        for (int sequence = latest == null ? -1 : latest; sequence >= 0; sequence = entry(sequence).getPreviousInOrder()) {
+            if (entry(sequence).getType() == OrderAmendment.Type.REFUNDED) {
+                refunded += entry(sequence).getAmountCents();
+            }
+        }
+        return refunded;
+    }
+
+    /**
+     * Rebuilds an order by folding its entries: the order as placed, with every later line change and void
+     * applied. Status changes other than voids are not amendments, so the rebuilt order is either placed or
+     * cancelled.
+     *
+     * @param orderId The ID of the order.
+     * @return A new Order, or null if the order has no entries.
+     */
+    public synchronized Order replay(long orderId) {
+        Order order = null;
+        for (OrderAmendment amendment : getAmendments(orderId)) {
+            switch (amendment.getType()) {
+                case PLACED:
+                    order = new Order(orderId, amendment.getTableNumber(), amendment.getStaffId(),
+                            amendment.getOrderTime(), Order.OrderStatus.PLACED);
+                    order.addItems(amendment.getLines());
+                    order.setDiscountCents(amendment.getAmountCents());
+                    break;
+                case ITEM_ADDED:
+                    for (OrderItem line : amendment.getLines()) {
+                        order.addItem(line.getMenuItem(), line.getQuantity(), line.getModifiers());
+                    }
+                    break;
+                case ITEM_REMOVED:
+                    for (OrderItem line : amendment.getLines()) {
+                        order.removeItem(line.getMenuItem());
+                    }
+                    break;
+                case DISCOUNT_CHANGED:
+                    order.setDiscountCents(amendment.getAmountCents());
+                    break;
+                case VOIDED:
+                    order.setStatus(Order.OrderStatus.CANCELLED);
+                    break;
+                default: // Refunds return money but do not change the order
+                    break;
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Loads stored entries into an empty log, e.g. at startup, keeping their order, staff and timestamps.
+     * Each order's entries must start with its placed entry. Listeners are not told of restored entries.
+     *
+     * @param amendments The entries, oldest first (see {@link OrderAmendment#of}).
+     * @throws IllegalStateException If the log already has entries.
+     */
+    public synchronized void restore(List<OrderAmendment> amendments) {
+        if (size > 0) {
+            throw new IllegalStateException("Entries can only be restored into an empty log.");
+        }
+        Set<Long> placedOrders = new HashSet<>();
+        for (OrderAmendment amendment : amendments) {
+            boolean placed = !placedOrders.add(amendment.getOrderId());
+            if (placed == (amendment.getType() == OrderAmendment.Type.PLACED)) {
+                throw new IllegalArgumentException("Order " + amendment.getOrderId() + (placed ? " is placed twice." : " is amended before it is placed."));
+            }
+        }
+        for (OrderAmendment amendment : amendments) {
+            store(amendment.getType(), amendment.getOrderId(), amendment.getStaffCode(), amendment.getTimestampMillis(),
+                    amendment.getTableNumber(), amendment.getOrderTime(), amendment.getLines(), amendment.getAmountCents(),
+                    amendment.getReason());
+        }
+        LOGGER.log(Level.INFO, "Restored {0} order amendments.", size);
+    }
+
+    /**
+     * Gets an entry by its sequence number.
+     *
+     * @param sequence The sequence number (0 to size - 1).
+     * @return The entry.
+     */
+    public synchronized OrderAmendment get(int sequence) {
+        if (sequence < 0 || sequence >= size) {
+            throw new IllegalArgumentException("No amendment with sequence " + sequence + ".");
+        }
+        return entry(sequence);
+    }
+
+    /**
+     * Gets the number of entries in the log.
+     *
+     * @return The entry count.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    @Override
+    public synchronized void ordersAdded(List<Order> orders) {
+        for (Order order : orders) {
+            ensurePlaced(order);
+        }
+    }
+
+    @Override
+    public void orderRemoved(Order order) {
+        // Completing an order is not an amendment
+    }
+
+    /**
+     * Records the order as placed, with its current lines and discount, unless it already has entries.
+     *
+     * @param order The order.
+     */
+    private void ensurePlaced(Order order) {
+        if (latestByOrder.containsKey(order.getOrderId())) {
+            return;
+        }
+        List<OrderItem> lines = new ArrayList<>(order.getItemCount());
+        for (int i = 0; i < order.getItemCount(); i++) {
+            OrderItem line = order.getItem(i);
+            lines.add(new OrderItem(line.getMenuItem(), line.getQuantity(), line.getModifiers()));
+        }
+        append(OrderAmendment.Type.PLACED, order, order.getWaitStaffCode(), lines, order.getDiscountCents(), null);
+    }
+
+    /**
+     * Checks that an order can still be changed, and records it as placed if this is its first entry.
+     *
+     * @param order   The order.
+     * @param staffId The ID of the staff member making the change.
+     * @return The staff member's code.
+     */
+    private int checkAmendable(Order order, String staffId) {
+        Objects.requireNonNull(order, "Order cannot be null.");
+        int staffCode = staffCodeOf(staffId);
+        if (order.getStatus() == Order.OrderStatus.PAID || order.getStatus() == Order.OrderStatus.CANCELLED) {
+            throw new IllegalArgumentException("Order " + order.getOrderId() + " is " + order.getStatus() + " and can no longer be changed.");
+        }
+        ensurePlaced(order);
+        return staffCode;
+    }
+
+    /**
+     * Validates a staff ID and gets its code.
+     *
+     * @param staffId The staff ID.
+     * @return The code in {@link StringDictionary#STAFF_IDS}.
+     */
+    private static int staffCodeOf(String staffId) {
+        if (staffId == null || staffId.isBlank()) {
+            throw new IllegalArgumentException("Staff ID cannot be null or empty.");
+        }
+        return StringDictionary.STAFF_IDS.codeOf(staffId.trim());
+    }
+
+    /**
+     * Validates the reason for a void or refund.
+     *
+     * @param reason The reason.
+     */
+    private static void checkReason(String reason) {
+        if (reason == null || reason.isBlank()) {
+            throw new IllegalArgumentException("A reason is required.");
+        }
+    }
+
+    /**
+     * Appends an entry, makes it the order's latest and tells the listeners.
+     *
+     * @param type        The amendment type.
+     * @param order       The order; for a placed entry, its table and order time are recorded.
+     * @param staffCode   The code of the staff member.
+     * @param lines       The lines of the entry (not shared with anyone else).
+     * @param amountCents The discount or refund in cents.
+     * @param reason      The reason, or null.
+     */
+    private void append(OrderAmendment.Type type, Order order, int staffCode, List<OrderItem> lines, long amountCents, String reason) {
+        boolean placed = type == OrderAmendment.Type.PLACED;
+        OrderAmendment amendment = store(type, order.getOrderId(), staffCode, clock.millis(), placed ? order.getTableNumber() : 0,
+                placed ? order.getOrderTime() : null, lines, amountCents, reason);
+        for (AmendmentListener listener : listeners) {
+            listener.amendmentAppended(amendment);
+        }
+    }
+
+    /**
+     * Stores an entry at the end of the log and makes it the order's latest.
+     *
+     * @param type            The amendment type.
+     * @param orderId         The ID of the order.
+     * @param staffCode       The code of the staff member.
+     * @param timestampMillis When the change was made.
+     * @param tableNumber     The table of a placed order, 0 otherwise.
+     * @param orderTime       The order time of a placed order, null otherwise.
+     * @param lines           The lines of the entry (not shared with anyone else).
+     * @param amountCents     The discount or refund in cents.
+     * @param reason          The reason, or null.
+     * @return The stored entry.
+     */
+    private OrderAmendment store(OrderAmendment.Type type, long orderId, int staffCode, long timestampMillis, int tableNumber,
+                                 LocalDateTime orderTime, List<OrderItem> lines, long amountCents, String reason) {
+        if (size == Integer.MAX_VALUE) {
+            throw new IllegalStateException("Amendment log is full.");
+        }
+        int chunk = size >>> CHUNK_BITS;
+        if (chunk == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunks.length * 2); // Copies chunk references only
+        }
+        if (chunks[chunk] == null) {
+            chunks[chunk] = new OrderAmendment[CHUNK_SIZE];
+        }
+        Integer previous = latestByOrder.put(orderId, size);
+        OrderAmendment amendment = new OrderAmendment(size, previous == null ? -1 : previous, type, orderId, staffCode,
+                timestampMillis, tableNumber, orderTime, lines, amountCents, reason);
+        chunks[chunk][size & (CHUNK_SIZE - 1)] = amendment;
+        size++;
+        return amendment;
+    }
+
+    /**
+     * Reads an entry without bounds checks.
+     *
+     * @param sequence The sequence number.
+     * @return The entry.
+     */
+    private OrderAmendment entry(int sequence) {
+        return chunks[sequence >>> CHUNK_BITS][sequence & (CHUNK_SIZE - 1)];
+    }
+}
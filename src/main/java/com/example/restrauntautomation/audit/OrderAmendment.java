@@ -0,0 +1,218 @@
+package com.example.restrauntautomation.audit;
+
+import com.example.restrauntautomation.model.OrderItem;
+import com.example.restrauntautomation.model.StringDictionary;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * An immutable entry of the {@link AmendmentLog}: one change to an order, who made it and when.
+ *
+ * <p>Which fields are used depends on the type. A {@link Type#PLACED} entry is the order as it was queued:
+ * its table, order time, lines and discount. {@link Type#ITEM_ADDED} and {@link Type#ITEM_REMOVED} carry the
+ * one line added or removed, {@link Type#DISCOUNT_CHANGED} the new discount, {@link Type#REFUNDED} the amount
+ * refunded, and {@link Type#VOIDED} nothing but the reason.
+ */
+public class OrderAmendment {
+
+    private final int sequence;
+    private final int previousInOrder; // Sequence of the order's previous entry, -1 for its first
+    private final Type type;
+    private final long orderId;
+    private final int staffCode; // In StringDictionary.STAFF_IDS
+    private final long timestampMillis;
+    private final int tableNumber;
+    private final LocalDateTime orderTime;
+    private final List<OrderItem> lines; // Private copies, never handed out
+    private final long amountCents;
+    private final String reason;
+
+    OrderAmendment(int sequence, int previousInOrder, Type type, long orderId, int staffCode, long timestampMillis,
+                   int tableNumber, LocalDateTime orderTime, List<OrderItem> lines, long amountCents, String reason) {
+        this.sequence = sequence;
+        this.previousInOrder = previousInOrder;
+        this.type = type;
+        this.orderId = orderId;
+        this.staffCode = staffCode;
+        this.timestampMillis = timestampMillis;
+        this.tableNumber = tableNumber;
+        this.orderTime = orderTime;
+        this.lines = lines;
+        this.amountCents = amountCents;
+        this.reason = reason;
+    }
+
+    /**
+     * Creates an entry that is not in a log yet, e.g. one loaded from the database to be restored with
+     * {@link AmendmentLog#restore(List)}, which gives it its sequence number.
+     *
+     * @param type            What changed (must not be null).
+     * @param orderId         The ID of the amended order.
+     * @param staffId         The ID of the staff member who made the change (must not be blank).
+     * @param timestampMillis When the change was made, in epoch millis.
+     * @param tableNumber     The table of a placed order, 0 for other types.
+     * @param orderTime       The order time of a placed order (required for placed entries), null for other types.
+     * @param lines           The lines placed, added or removed (must not be null).
+     * @param amountCents     The discount or refund in cents.
+     * @param reason          The reason for a void or refund, or null.
+     * @return The entry, with sequence -1.
+     */
+    public static OrderAmendment of(Type type, long orderId, String staffId, long timestampMillis, int tableNumber,
+                                    LocalDateTime orderTime, List<OrderItem> lines, long amountCents, String reason) {
+        Objects.requireNonNull(type, "Amendment type cannot be null.");
+        Objects.requireNonNull(lines, "Lines cannot be null.");
+        if (staffId == null || staffId.isBlank()) {
+            throw new IllegalArgumentException("Staff ID cannot be null or empty.");
+        }
+        if (type == Type.PLACED && orderTime == null) {
+            throw new IllegalArgumentException("A placed entry needs the order time.");
+        }
+        List<OrderItem> copies = new ArrayList<>(lines.size());
+        for (OrderItem line : lines) {
+            copies.add(new OrderItem(line.getMenuItem(), line.getQuantity(), line.getModifiers()));
+        }
+        return new OrderAmendment(-1, -1, type, orderId, StringDictionary.STAFF_IDS.codeOf(staffId.trim()), timestampMillis,
+                tableNumber, orderTime, copies, amountCents, reason);
+    }
+
+    /**
+     * Gets the position of the entry in the log (0, 1, 2, ... in order of appending).
+     *
+     * @return The sequence number.
+     */
+    public int getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Gets the sequence number of the previous entry for the same order.
+     *
+     * @return The sequence number, or -1 if this is the order's first entry.
+     */
+    int getPreviousInOrder() {
+        return previousInOrder;
+    }
+
+    /**
+     * Gets what changed.
+     *
+     * @return The amendment type.
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Gets the ID of the amended order.
+     *
+     * @return The order ID.
+     */
+    public long getOrderId() {
+        return orderId;
+    }
+
+    /**
+     * Gets the ID of the staff member who made the change.
+     *
+     * @return The staff ID.
+     */
+    public String getStaffId() {
+        return StringDictionary.STAFF_IDS.valueOf(staffCode);
+    }
+
+    /**
+     * Gets the code of the staff member who made the change.
+     *
+     * @return The code in {@link StringDictionary#STAFF_IDS}.
+     */
+    int getStaffCode() {
+        return staffCode;
+    }
+
+    /**
+     * Gets when the change was made.
+     *
+     * @return The time in epoch millis.
+     */
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    /**
+     * Gets the table of a placed order.
+     *
+     * @return The table number, or 0 unless the type is {@link Type#PLACED}.
+     */
+    public int getTableNumber() {
+        return tableNumber;
+    }
+
+    /**
+     * Gets the order time of a placed order.
+     *
+     * @return The order time, or null unless the type is {@link Type#PLACED}.
+     */
+    public LocalDateTime getOrderTime() {
+        return orderTime;
+    }
+
+    /**
+     * Gets the lines placed, added or removed. Each call returns new copies, so the entry cannot be changed.
+     *
+     * @return The lines; empty for discount changes, voids and refunds.
+     */
+    public List<OrderItem> getLines() {
+        List<OrderItem> copies = new ArrayList<>(lines.size());
+        for (OrderItem line : lines) {
+            copies.add(new OrderItem(line.getMenuItem(), line.getQuantity(), line.getModifiers()));
+        }
+        return copies;
+    }
+
+    /**
+     * Gets the discount of a placed order, the new discount of a discount change, or the amount of a refund.
+     *
+     * @return The amount in cents, or 0 for other types.
+     */
+    public long getAmountCents() {
+        return amountCents;
+    }
+
+    /**
+     * Gets the reason given for a void or refund.
+     *
+     * @return The reason, or null.
+     */
+    public String getReason() {
+        return reason;
+    }
+
+    @Override
+    public String toString() {
+        return "OrderAmendment{" +
+               "sequence=" + sequence +
+               ", type=" + type +
+               ", orderId=" + orderId +
+               ", staffId='" + getStaffId() + '\'' +
+               ", timestampMillis=" + timestampMillis +
+               ", lines=" + lines +
+               ", amountCents=" + amountCents +
+               (reason == null ? "" : ", reason='" + reason + '\'') +
+               '}';
+    }
+
+    /**
+     * The kinds of change recorded in the log.
+     */
+    public enum Type {
+        PLACED,       // Order queued, with its initial lines and discount
+        ITEM_ADDED,   // Line added to a queued order
+        ITEM_REMOVED, // Line without modifiers removed from a queued order
+        DISCOUNT_CHANGED, // Queued order repriced, e.g. when a happy hour starts or ends
+        VOIDED,       // Order cancelled before payment
+        REFUNDED      // Money returned on a paid order
+    }
+}
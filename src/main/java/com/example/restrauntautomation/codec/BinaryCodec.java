@@ -0,0 +1,175 @@
+package com.example.restrauntautomation.codec;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Low-level primitives for the binary model format: unsigned and zig-zag varints, and
+ * length-prefixed UTF-8 strings written straight into a {@link ByteBuffer} without an intermediate byte array.
+ * Writers throw {@link java.nio.BufferOverflowException} if the buffer is too small; readers throw
+ * {@link IllegalArgumentException} on malformed input.
+ */
+public final class BinaryCodec {
+
+    private BinaryCodec() {
+        // Static helpers only
+    }
+
+    /**
+     * Writes an unsigned varint (7 bits per byte, high bit set on all but the last byte).
+     *
+     * @param buffer The target buffer.
+     * @param value  The value, treated as unsigned.
+     */
+    public static void writeVarLong(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    /**
+     * Reads an unsigned varint.
+     *
+     * @param buffer The source buffer.
+     * @return The value.
+     */
+    public static long readVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint: more than 10 bytes.");
+    }
+
+    /**
+     * Writes a non-negative int as an unsigned varint.
+     *
+     * @param buffer The target buffer.
+     * @param value  The value (must not be negative).
+     */
+    public static void writeVarInt(ByteBuffer buffer, int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Varint value cannot be negative: " + value);
+        }
+        writeVarLong(buffer, value);
+    }
+
+    /**
+     * Reads a non-negative int written with {@link #writeVarInt}.
+     *
+     * @param buffer The source buffer.
+     * @return The value.
+     */
+    public static int readVarInt(ByteBuffer buffer) {
+        long value = readVarLong(buffer);
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Varint out of int range: " + value);
+        }
+        return (int) value;
+    }
+
+    /**
+     * Writes a signed long with zig-zag encoding, so small negative values stay short.
+     *
+     * @param buffer The target buffer.
+     * @param value  The value.
+     */
+    public static void writeZigZagLong(ByteBuffer buffer, long value) {
+        writeVarLong(buffer, (value << 1) ^ (value >> 63));
+    }
+
+    /**
+     * Reads a signed long written with {@link #writeZigZagLong}.
+     *
+     * @param buffer The source buffer.
+     * @return The value.
+     */
+    public static long readZigZagLong(ByteBuffer buffer) {
+        long raw = readVarLong(buffer);
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    /**
+     * Writes a string as a varint byte length followed by its UTF-8 bytes, encoding directly into the buffer.
+     *
+     * @param buffer The target buffer.
+     * @param value  The string (must not be null).
+     */
+    public static void writeString(ByteBuffer buffer, String value) {
+        int length = value.length();
+        writeVarInt(buffer, utf8Length(value));
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | (c >> 6)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer.put((byte) (0xF0 | (codePoint >> 18)));
+                buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+            } else {
+                buffer.put((byte) (0xE0 | (c >> 12)));
+                buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+
+    /**
+     * Reads a string written with {@link #writeString}.
+     *
+     * @param buffer The source buffer.
+     * @return The string.
+     */
+    public static String readString(ByteBuffer buffer) {
+        int length = readVarInt(buffer);
+        if (length > buffer.remaining()) {
+            throw new IllegalArgumentException("String length " + length + " exceeds remaining input.");
+        }
+        String value;
+        if (buffer.hasArray()) {
+            value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+        } else {
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return value;
+    }
+
+    /**
+     * Computes the UTF-8 encoded length of a string without encoding it.
+     *
+     * @param value The string.
+     * @return The number of UTF-8 bytes.
+     */
+    private static int utf8Length(String value) {
+        int length = value.length();
+        int bytes = 0;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                bytes += 1;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,342 @@
+package com.example.restrauntautomation.codec;
+
+import com.example.restrauntautomation.model.MenuItem;
+import com.example.restrauntautomation.model.Modifier;
+import com.example.restrauntautomation.model.Order;
+import com.example.restrauntautomation.model.OrderItem;
+import com.example.restrauntautomation.model.Table;
+import com.example.restrauntautomation.model.WaitStaff;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+import static com.example.restrauntautomation.codec.BinaryCodec.readString;
+import static com.example.restrauntautomation.codec.BinaryCodec.readVarInt;
+import static com.example.restrauntautomation.codec.BinaryCodec.readVarLong;
+import static com.example.restrauntautomation.codec.BinaryCodec.readZigZagLong;
+import static com.example.restrauntautomation.codec.BinaryCodec.writeString;
+import static com.example.restrauntautomation.codec.BinaryCodec.writeVarInt;
+import static com.example.restrauntautomation.codec.BinaryCodec.writeVarLong;
+import static com.example.restrauntautomation.codec.BinaryCodec.writeZigZagLong;
+
+/**
+ * Schema-versioned binary encoding of the restaurant models, written into caller-supplied (reusable)
+ * {@link ByteBuffer}s. Every record starts with a schema version byte and a record tag byte.
+ * Ids, counts and quantities are varints; order lines reference menu items by catalog id
+ * instead of repeating their names and descriptions.
+ *
+ * <p>Record layouts (schema version 3; version 2 records, whose orders have no discount, and version 1 records,
+ * whose lines have no modifiers either, are still read):
+ * <ul>
+ *   <li>Order: id, table, staff id, order time (epoch second UTC, nanos), status, discount in cents, line count,
+ *       then per line the OrderItem body</li>
+ *   <li>OrderItem: item id, quantity, modifier count, then per modifier name and price change in cents</li>
+ *   <li>MenuItem: catalog id, name, description, price (unscaled value, scale), category name</li>
+ *   <li>Table: number, capacity, status</li>
+ *   <li>WaitStaff: staff id, name</li>
+ * </ul>
+ */
+public final class ModelCodec {
+
+    public static final byte SCHEMA_VERSION = 3;
+    static final byte FIRST_MODIFIER_VERSION = 2; // Lines carry modifiers from this version on
+    static final byte FIRST_DISCOUNT_VERSION = 3; // Orders carry their pricing discount from this version on
+
+    static final byte TAG_ORDER = 1;
+    static final byte TAG_ORDER_ITEM = 2;
+    static final byte TAG_MENU_ITEM = 3;
+    static final byte TAG_TABLE = 4;
+    static final byte TAG_WAIT_STAFF = 5;
+
+    private ModelCodec() {
+        // Static helpers only
+    }
+
+    /**
+     * Encodes an order, including its pricing discount.
+     *
+     * @param order   The order.
+     * @param buffer  The target buffer.
+     * @param itemIds Maps a MenuItem to its catalog id (e.g. {@code MenuManager::getMenuItemId}).
+     */
+    public static void encodeOrder(Order order, ByteBuffer buffer, ToIntFunction<MenuItem> itemIds) {
+        writeHeader(buffer, TAG_ORDER);
+        writeVarLong(buffer, order.getOrderId());
+        writeVarInt(buffer, order.getTableNumber());
+        writeString(buffer, order.getWaitStaffId());
+        LocalDateTime orderTime = order.getOrderTime();
+        writeZigZagLong(buffer, orderTime.toEpochSecond(ZoneOffset.UTC));
+        writeVarInt(buffer, orderTime.getNano());
+        buffer.put((byte) order.getStatus().ordinal());
+        writeVarLong(buffer, order.getDiscountCents());
+        List<OrderItem> items = order.getItems();
+        writeVarInt(buffer, items.size());
+        for (int i = 0; i < items.size(); i++) {
+            writeLine(items.get(i), buffer, itemIds);
+        }
+    }
+
+    /**
+     * Decodes an order.
+     *
+     * @param buffer  The source buffer.
+     * @param catalog Resolves a catalog id to its MenuItem (e.g. {@code MenuManager::getMenuItemById}).
+     * @return The order, with its original ID; records older than {@link #FIRST_DISCOUNT_VERSION} have no discount.
+     */
+    public static Order decodeOrder(ByteBuffer buffer, IntFunction<MenuItem> catalog) {
+        byte version = readHeader(buffer, TAG_ORDER);
+        long orderId = readVarLong(buffer);
+        int tableNumber = readVarInt(buffer);
+        String waitStaffId = readString(buffer);
+        LocalDateTime orderTime = LocalDateTime.ofEpochSecond(readZigZagLong(buffer), readVarInt(buffer), ZoneOffset.UTC);
+        Order.OrderStatus status = readEnum(buffer, Order.OrderStatus.values());
+        Order order = new Order(orderId, tableNumber, waitStaffId, orderTime, status);
+        if (version >= FIRST_DISCOUNT_VERSION) {
+            order.setDiscountCents(readVarLong(buffer));
+        }
+        int lineCount = readVarInt(buffer);
+        for (int i = 0; i < lineCount; i++) {
+            MenuItem menuItem = resolve(catalog, readVarInt(buffer));
+            int quantity = readVarInt(buffer);
+            order.addItem(menuItem, quantity, readModifiers(buffer, version));
+        }
+        return order;
+    }
+
+    /**
+     * Encodes a single order line.
+     *
+     * @param item    The order line.
+     * @param buffer  The target buffer.
+     * @param itemIds Maps a MenuItem to its catalog id.
+     */
+    public static void encodeOrderItem(OrderItem item, ByteBuffer buffer, ToIntFunction<MenuItem> itemIds) {
+        writeHeader(buffer, TAG_ORDER_ITEM);
+        writeLine(item, buffer, itemIds);
+    }
+
+    /**
+     * Decodes a single order line.
+     *
+     * @param buffer  The source buffer.
+     * @param catalog Resolves a catalog id to its MenuItem.
+     * @return The order line.
+     */
+    public static OrderItem decodeOrderItem(ByteBuffer buffer, IntFunction<MenuItem> catalog) {
+        byte version = readHeader(buffer, TAG_ORDER_ITEM);
+        MenuItem menuItem = resolve(catalog, readVarInt(buffer));
+        int quantity = readVarInt(buffer);
+        return new OrderItem(menuItem, quantity, readModifiers(buffer, version));
+    }
+
+    /**
+     * Encodes a menu item together with its catalog id.
+     *
+     * @param item   The menu item.
+     * @param itemId The item's catalog id.
+     * @param buffer The target buffer.
+     */
+    public static void encodeMenuItem(MenuItem item, int itemId, ByteBuffer buffer) {
+        writeHeader(buffer, TAG_MENU_ITEM);
+        writeVarInt(buffer, itemId);
+        writeString(buffer, item.getName());
+        writeString(buffer, item.getDescription());
+        BigDecimal price = item.getPrice();
+        writeZigZagLong(buffer, price.unscaledValue().longValueExact());
+        writeVarInt(buffer, price.scale());
+        writeString(buffer, item.getCategoryName());
+    }
+
+    /**
+     * Decodes a menu item. Use {@link #peekMenuItemId} to read its catalog id.
+     *
+     * @param buffer The source buffer.
+     * @return The menu item.
+     */
+    public static MenuItem decodeMenuItem(ByteBuffer buffer) {
+        readHeader(buffer, TAG_MENU_ITEM);
+        readVarInt(buffer); // Catalog id
+        String name = readString(buffer);
+        String description = readString(buffer);
+        BigDecimal price = new BigDecimal(BigInteger.valueOf(readZigZagLong(buffer)), readVarInt(buffer));
+        String categoryName = readString(buffer);
+        return new MenuItem(name, description, price, categoryName);
+    }
+
+    /**
+     * Reads the catalog id of an encoded menu item without consuming it.
+     *
+     * @param buffer The source buffer, positioned at a menu item record.
+     * @return The catalog id.
+     */
+    public static int peekMenuItemId(ByteBuffer buffer) {
+        ByteBuffer view = buffer.duplicate();
+        readHeader(view, TAG_MENU_ITEM);
+        return readVarInt(view);
+    }
+
+    /**
+     * Encodes a table.
+     *
+     * @param table  The table.
+     * @param buffer The target buffer.
+     */
+    public static void encodeTable(Table table, ByteBuffer buffer) {
+        writeHeader(buffer, TAG_TABLE);
+        writeVarInt(buffer, table.getTableNumber());
+        writeVarInt(buffer, table.getCapacity());
+        buffer.put((byte) table.getStatus().ordinal());
+    }
+
+    /**
+     * Decodes a table.
+     *
+     * @param buffer The source buffer.
+     * @return The table.
+     */
+    public static Table decodeTable(ByteBuffer buffer) {
+        readHeader(buffer, TAG_TABLE);
+        Table table = new Table(readVarInt(buffer), readVarInt(buffer));
+        table.setStatus(readEnum(buffer, Table.TableStatus.values()));
+        return table;
+    }
+
+    /**
+     * Encodes a wait staff member.
+     *
+     * @param staff  The wait staff member.
+     * @param buffer The target buffer.
+     */
+    public static void encodeWaitStaff(WaitStaff staff, ByteBuffer buffer) {
+        writeHeader(buffer, TAG_WAIT_STAFF);
+        writeString(buffer, staff.getStaffId());
+        writeString(buffer, staff.getName());
+    }
+
+    /**
+     * Decodes a wait staff member.
+     *
+     * @param buffer The source buffer.
+     * @return The wait staff member.
+     */
+    public static WaitStaff decodeWaitStaff(ByteBuffer buffer) {
+        readHeader(buffer, TAG_WAIT_STAFF);
+        return new WaitStaff(readString(buffer), readString(buffer));
+    }
+
+    /**
+     * Writes the schema version and record tag.
+     *
+     * @param buffer The target buffer.
+     * @param tag    The record tag.
+     */
+    private static void writeHeader(ByteBuffer buffer, byte tag) {
+        buffer.put(SCHEMA_VERSION);
+        buffer.put(tag);
+    }
+
+    /**
+     * Reads and checks the schema version and record tag.
+     *
+     * @param buffer      The source buffer.
+     * @param expectedTag The record tag the caller expects.
+     * @return The schema version of the record (1 to {@link #SCHEMA_VERSION}).
+     */
+    private static byte readHeader(ByteBuffer buffer, byte expectedTag) {
+        byte version = buffer.get();
+        if (version < 1 || version > SCHEMA_VERSION) {
+            throw new IllegalArgumentException("Unsupported schema version " + version + ".");
+        }
+        byte tag = buffer.get();
+        if (tag != expectedTag) {
+            throw new IllegalArgumentException("Expected record tag " + expectedTag + " but found " + tag + ".");
+        }
+        return version;
+    }
+
+    /**
+     * Writes an order line body: catalog id, quantity and modifiers.
+     *
+     * @param item    The order line.
+     * @param buffer  The target buffer.
+     * @param itemIds Maps a MenuItem to its catalog id.
+     */
+    private static void writeLine(OrderItem item, ByteBuffer buffer, ToIntFunction<MenuItem> itemIds) {
+        int itemId = itemIds.applyAsInt(item.getMenuItem());
+        if (itemId < 0) {
+            throw new IllegalArgumentException("MenuItem '" + item.getMenuItem().getName() + "' has no catalog id.");
+        }
+        writeVarInt(buffer, itemId);
+        writeVarInt(buffer, item.getQuantity());
+        List<Modifier> modifiers = item.getModifiers();
+        writeVarInt(buffer, modifiers.size());
+        for (int i = 0; i < modifiers.size(); i++) {
+            writeString(buffer, modifiers.get(i).getName());
+            writeZigZagLong(buffer, modifiers.get(i).getPriceDeltaCents());
+        }
+    }
+
+    /**
+     * Reads the modifiers of an order line body; records older than {@link #FIRST_MODIFIER_VERSION} have none.
+     *
+     * @param buffer  The source buffer.
+     * @param version The schema version of the record.
+     * @return The modifiers.
+     */
+    private static List<Modifier> readModifiers(ByteBuffer buffer, byte version) {
+        if (version < FIRST_MODIFIER_VERSION) {
+            return Collections.emptyList();
+        }
+        int count = readVarInt(buffer);
+        if (count == 0) {
+            return Collections.emptyList();
+        }
+        if (count > buffer.remaining()) {
+            throw new IllegalArgumentException("Modifier count " + count + " exceeds the remaining data.");
+        }
+        List<Modifier> modifiers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String name = readString(buffer);
+            modifiers.add(new Modifier(name, readZigZagLong(buffer)));
+        }
+        return modifiers;
+    }
+
+    /**
+     * Resolves a catalog id, rejecting unknown ids.
+     *
+     * @param catalog Resolves a catalog id to its MenuItem.
+     * @param itemId  The catalog id.
+     * @return The menu item.
+     */
+    private static MenuItem resolve(IntFunction<MenuItem> catalog, int itemId) {
+        MenuItem menuItem = catalog.apply(itemId);
+        if (menuItem == null) {
+            throw new IllegalArgumentException("Unknown menu item id " + itemId + ".");
+        }
+        return menuItem;
+    }
+
+    /**
+     * Reads an enum constant stored as its ordinal byte.
+     *
+     * @param buffer The source buffer.
+     * @param values The enum's constants.
+     * @return The constant.
+     */
+    private static <E extends Enum<E>> E readEnum(ByteBuffer buffer, E[] values) {
+        int ordinal = buffer.get();
+        if (ordinal < 0 || ordinal >= values.length) {
+            throw new IllegalArgumentException("Invalid enum ordinal " + ordinal + ".");
+        }
+        return values[ordinal];
+    }
+}
@@ -0,0 +1,360 @@
+package com.example.restrauntautomation.config;
+
+import com.example.restrauntautomation.manager.OrderEventPublisher;
+import com.example.restrauntautomation.manager.OrderQueueBackend;
+import com.example.restrauntautomation.manager.WaitStaffManager;
+import com.example.restrauntautomation.persistence.SqlDatabase;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The settings chosen at startup: the floor plan, where data is kept, which data structures back the
+ * order queue, how the archive is synced, and the sizes of buffers and thread pools. Lets a terminal be
+ * run with a different backend or size for a performance comparison without rebuilding.
+ *
+ * <p>Settings are read from a properties file ({@value #DEFAULT_FILE} in the working directory, or the file
+ * named by the {@value #FILE_PROPERTY} system property), and system properties with the same keys override
+ * the file, e.g. {@code -Drestaurant.queue.backend=INDEXED}. Missing keys take their defaults, which are the
+ * values the application used before it was configurable. Invalid values are rejected with the key named,
+ * and so is a file named by {@value #FILE_PROPERTY} that does not exist.
+ */
+public final class RuntimeConfig {
+
+    private static final Logger LOGGER = Logger.getLogger(RuntimeConfig.class.getName());
+
+    /** The system property naming the configuration file. */
+    public static final String FILE_PROPERTY = "restaurant.config";
+    /** The configuration file used when {@value #FILE_PROPERTY} is not set. */
+    public static final String DEFAULT_FILE = "restaurant.properties";
+
+    static final String TABLES = "restaurant.floor.tables";
+    static final String SEATS_PER_TABLE = "restaurant.floor.seatsPerTable";
+    static final String STAFF_FILE = "restaurant.staff.file";
+    static final String QUEUE_BACKEND = "restaurant.queue.backend";
+    static final String ARCHIVE_DIRECTORY = "restaurant.archive.directory";
+    static final String ARCHIVE_JOURNAL = "restaurant.archive.journal";
+    static final String HISTORY_HOURS = "restaurant.history.hours";
+    static final String DATABASE_URL = "restaurant.db.url";
+    static final String DATABASE_QUEUE_CAPACITY = "restaurant.db.queueCapacity";
+    static final String EVENT_BUFFER_SIZE = "restaurant.events.bufferSize";
+    static final String REPORT_PARALLELISM = "restaurant.report.parallelism";
+    private static final int MAX_BASIS_POINTS = 10_000; // 100%
+
+    static final String TAX_BASIS_POINTS = "restaurant.settlement.taxBasisPoints";
+    static final String SERVICE_CHARGE_BASIS_POINTS = "restaurant.settlement.serviceChargeBasisPoints";
+
+    private final int tables;
+    private final int seatsPerTable;
+    private final String staffFile;
+    private final OrderQueueBackend queueBackend;
+    private final String archiveDirectory;
+    private final JournalMode archiveJournal;
+    private final Duration historyRetention;
+    private final String databaseUrl;
+    private final int databaseQueueCapacity;
+    private final int eventBufferSize;
+    private final int reportParallelism;
+    private final int taxBasisPoints;
+    private final int serviceChargeBasisPoints;
+
+    private RuntimeConfig(Properties properties) {
+        this.tables = intValue(properties, TABLES, 30, 1);
+        this.seatsPerTable = intValue(properties, SEATS_PER_TABLE, 4, 1);
+        this.staffFile = stringValue(properties, STAFF_FILE, WaitStaffManager.DEFAULT_FILE_PATH);
+        this.queueBackend = enumValue(properties, QUEUE_BACKEND, OrderQueueBackend.class, OrderQueueBackend.LINKED_LIST);
+        this.archiveDirectory = stringValue(properties, ARCHIVE_DIRECTORY, "order-archive");
+        this.archiveJournal = enumValue(properties, ARCHIVE_JOURNAL, JournalMode.class, JournalMode.SYNC);
+        this.historyRetention = Duration.ofHours(intValue(properties, HISTORY_HOURS, 12, 1));
+        this.databaseUrl = stringValue(properties, DATABASE_URL, SqlDatabase.DEFAULT_URL);
+        this.databaseQueueCapacity = intValue(properties, DATABASE_QUEUE_CAPACITY, SqlDatabase.DEFAULT_QUEUE_CAPACITY, 1);
+        this.eventBufferSize = intValue(properties, EVENT_BUFFER_SIZE, OrderEventPublisher.DEFAULT_BUFFER_SIZE, 1);
+        this.reportParallelism = intValue(properties, REPORT_PARALLELISM, 0, 0);
+        this.taxBasisPoints = intValue(properties, TAX_BASIS_POINTS, 0, 0, MAX_BASIS_POINTS);
+        this.serviceChargeBasisPoints = intValue(properties, SERVICE_CHARGE_BASIS_POINTS, 0, 0, MAX_BASIS_POINTS);
+    }
+
+    /**
+     * Loads the configuration from the configuration file, overridden by system properties. The default
+     * file is optional; a file named by {@value #FILE_PROPERTY} must exist.
+     *
+     * @return The configuration.
+     * @throws IllegalArgumentException If a setting is invalid, or the named configuration file does not exist.
+     * @throws UncheckedIOException     If the configuration file exists but cannot be read.
+     */
+    public static RuntimeConfig load() {
+        String named = System.getProperty(FILE_PROPERTY);
+        Path file = Paths.get(named != null ? named : DEFAULT_FILE);
+        Properties properties = new Properties();
+        if (named != null && !Files.exists(file)) {
+            throw new IllegalArgumentException("Configuration file " + file.toAbsolutePath() + " named by " + FILE_PROPERTY + " does not exist.");
+        }
+        if (Files.exists(file)) {
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read configuration file " + file, e);
+            }
+            LOGGER.log(Level.INFO, "Loaded configuration from {0}.", file);
+        }
+        for (String key : System.getProperties().stringPropertyNames()) {
+            properties.setProperty(key, System.getProperty(key));
+        }
+        return fromProperties(properties);
+    }
+
+    /**
+     * Builds a configuration from properties. Keys that are not settings are ignored.
+     *
+     * @param properties The properties (must not be null).
+     * @return The configuration.
+     * @throws IllegalArgumentException If a setting is invalid.
+     */
+    public static RuntimeConfig fromProperties(Properties properties) {
+        return new RuntimeConfig(Objects.requireNonNull(properties, "Properties cannot be null."));
+    }
+
+    /**
+     * Gets the default configuration.
+     *
+     * @return The configuration with every setting at its default.
+     */
+    public static RuntimeConfig defaults() {
+        return new RuntimeConfig(new Properties());
+    }
+
+    /**
+     * Gets the number of tables on the floor.
+     *
+     * @return The table count.
+     */
+    public int getTables() {
+        return tables;
+    }
+
+    /**
+     * Gets the number of seats at each table.
+     *
+     * @return The seat count.
+     */
+    public int getSeatsPerTable() {
+        return seatsPerTable;
+    }
+
+    /**
+     * Gets the CSV file wait staff are loaded from when there is no database.
+     *
+     * @return The file path.
+     */
+    public String getStaffFile() {
+        return staffFile;
+    }
+
+    /**
+     * Gets the data structure the order queue is kept in.
+     *
+     * @return The queue backend.
+     */
+    public OrderQueueBackend getQueueBackend() {
+        return queueBackend;
+    }
+
+    /**
+     * Gets the directory of the order archive.
+     *
+     * @return The directory path.
+     */
+    public String getArchiveDirectory() {
+        return archiveDirectory;
+    }
+
+    /**
+     * Gets when archived orders are forced to disk.
+     *
+     * @return The journal mode.
+     */
+    public JournalMode getArchiveJournal() {
+        return archiveJournal;
+    }
+
+    /**
+     * Gets how long completed orders stay in the in-memory order history.
+     *
+     * @return The retention period.
+     */
+    public Duration getHistoryRetention() {
+        return historyRetention;
+    }
+
+    /**
+     * Gets the JDBC URL of the database.
+     *
+     * @return The URL.
+     */
+    public String getDatabaseUrl() {
+        return databaseUrl;
+    }
+
+    /**
+     * Gets the number of database writes that can be queued before further writes are dropped.
+     *
+     * @return The queue capacity.
+     */
+    public int getDatabaseQueueCapacity() {
+        return databaseQueueCapacity;
+    }
+
+    /**
+     * Gets the number of order events buffered for each slow subscriber, such as the kitchen display.
+     *
+     * @return The buffer size.
+     */
+    public int getEventBufferSize() {
+        return eventBufferSize;
+    }
+
+    /**
+     * Gets the number of threads that build sales reports.
+     *
+     * @return The parallelism, or 0 to use the common fork/join pool.
+     */
+    public int getReportParallelism() {
+        return reportParallelism;
+    }
+
+    /**
+     * Gets the tax rate charged when a bill is settled.
+     *
+     * @return The tax rate in basis points (0 for none).
+     */
+    public int getTaxBasisPoints() {
+        return taxBasisPoints;
+    }
+
+    /**
+     * Gets the service charge added when a bill is settled.
+     *
+     * @return The service charge rate in basis points (0 for none).
+     */
+    public int getServiceChargeBasisPoints() {
+        return serviceChargeBasisPoints;
+    }
+
+    /**
+     * Reads an integer setting.
+     *
+     * @param properties   The properties.
+     * @param key          The key.
+     * @param defaultValue The value if the key is missing.
+     * @param min          The smallest valid value.
+     * @return The value.
+     */
+    private static int intValue(Properties properties, String key, int defaultValue, int min) {
+        return intValue(properties, key, defaultValue, min, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Reads an integer setting that has an upper bound.
+     *
+     * @param properties   The properties.
+     * @param key          The key.
+     * @param defaultValue The value if the key is missing.
+     * @param min          The smallest valid value.
+     * @param max          The largest valid value.
+     * @return The value.
+     */
+    private static int intValue(Properties properties, String key, int defaultValue, int min, int max) {
+        String text = properties.getProperty(key);
+        if (text == null || text.isBlank()) {
+            return defaultValue;
+        }
+        int value;
+        try {
+            value = Integer.parseInt(text.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Setting " + key + " must be a whole number, was '" + text + "'.", e);
+        }
+        if (value < min) {
+            throw new IllegalArgumentException("Setting " + key + " must be at least " + min + ", was " + value + ".");
+        }
+        if (value > max) {
+            throw new IllegalArgumentException("Setting " + key + " must be at most " + max + ", was " + value + ".");
+        }
+        return value;
+    }
+
+    /**
+     * Reads a string setting.
+     *
+     * @param properties   The properties.
+     * @param key          The key.
+     * @param defaultValue The value if the key is missing or blank.
+     * @return The value.
+     */
+    private static String stringValue(Properties properties, String key, String defaultValue) {
+        String text = properties.getProperty(key);
+        return text == null || text.isBlank() ? defaultValue : text.trim();
+    }
+
+    /**
+     * Reads an enum setting by constant name, ignoring case.
+     *
+     * @param properties   The properties.
+     * @param key          The key.
+     * @param type         The enum type.
+     * @param defaultValue The value if the key is missing.
+     * @param <E>          The enum type.
+     * @return The value.
+     */
+    private static <E extends Enum<E>> E enumValue(Properties properties, String key, Class<E> type, E defaultValue) {
+        String text = properties.getProperty(key);
+        if (text == null || text.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Enum.valueOf(type, text.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Setting " + key + " must be one of " + Arrays.toString(type.getEnumConstants())
+                    + ", was '" + text + "'.", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "RuntimeConfig{" +
+               TABLES + "=" + tables +
+               ", " + SEATS_PER_TABLE + "=" + seatsPerTable +
+               ", " + STAFF_FILE + "=" + staffFile +
+               ", " + QUEUE_BACKEND + "=" + queueBackend +
+               ", " + ARCHIVE_DIRECTORY + "=" + archiveDirectory +
+               ", " + ARCHIVE_JOURNAL + "=" + archiveJournal +
+               ", " + HISTORY_HOURS + "=" + historyRetention.toHours() +
+               ", " + DATABASE_URL + "=" + databaseUrl +
+               ", " + DATABASE_QUEUE_CAPACITY + "=" + databaseQueueCapacity +
+               ", " + EVENT_BUFFER_SIZE + "=" + eventBufferSize +
+               ", " + REPORT_PARALLELISM + "=" + reportParallelism +
+               ", " + TAX_BASIS_POINTS + "=" + taxBasisPoints +
+               ", " + SERVICE_CHARGE_BASIS_POINTS + "=" + serviceChargeBasisPoints +
+               '}';
+    }
+
+    /**
+     * When orders appended to the archive are forced from memory to disk.
+     */
+    public enum JournalMode {
+        SYNC,  // After every order, so a power cut loses nothing
+        ASYNC  // When the operating system writes them back, and on exit; faster, but a power cut can lose recent orders
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.restrauntautomation.inventory;
+
+import java.util.Objects;
+
+/**
+ * A stocked ingredient, counted in whole units of its own choosing (grams, millilitres, pieces).
+ * Its stock is low once it falls below the low-stock threshold; the menu items that use it are then 86'd.
+ */
+public class Ingredient {
+
+    private final String name;
+    private final String unit;
+    private final long lowStockThreshold;
+
+    /**
+     * Constructs an ingredient.
+     *
+     * @param name              The name of the ingredient (must not be empty).
+     * @param unit              The unit stock is counted in, e.g. "g" or "pcs".
+     * @param lowStockThreshold The stock below which the ingredient is low (not negative).
+     */
+    public Ingredient(String name, String unit, long lowStockThreshold) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("Ingredient name cannot be null or empty.");
+        }
+        if (lowStockThreshold < 0) {
+            throw new IllegalArgumentException("Low-stock threshold cannot be negative.");
+        }
+        this.name = name.trim();
+        this.unit = unit != null ? unit : "";
+        this.lowStockThreshold = lowStockThreshold;
+    }
+
+    /**
+     * Gets the name of the ingredient.
+     *
+     * @return The name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the unit stock is counted in.
+     *
+     * @return The unit, possibly empty.
+     */
+    public String getUnit() {
+        return unit;
+    }
+
+    /**
+     * Gets the stock below which the ingredient is low.
+     *
+     * @return The threshold in units.
+     */
+    public long getLowStockThreshold() {
+        return lowStockThreshold;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    /**
+     * Checks if this Ingredient is equal to another object, by name.
+     *
+     * @param o The object to compare with.
+     * @return true if both have the same name.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return name.equals(((Ingredient) o).name);
+    }
+
+    /**
+     * Generates a hash code for the Ingredient.
+     *
+     * @return The hash code.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(name);
+    }
+}
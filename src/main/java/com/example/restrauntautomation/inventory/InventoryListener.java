@@ -0,0 +1,34 @@
+package com.example.restrauntautomation.inventory;
+
+import com.example.restrauntautomation.model.MenuItem;
+
+import java.util.List;
+
+/**
+ * Receives notifications when ingredient stock changes or runs low and when menu items are 86'd or offered again.
+ * Notifications are delivered on the thread that changed the stock, after the inventory lock is released.
+ */
+public interface InventoryListener {
+
+    /**
+     * Called after the stock of ingredients changed, e.g. to store the new levels.
+     *
+     * @param ingredients The ingredients whose stock changed; read their levels with {@link InventoryManager#getStock}.
+     */
+    void stockChanged(List<Ingredient> ingredients);
+
+    /**
+     * Called when an ingredient's stock falls below its low-stock threshold.
+     *
+     * @param ingredient The ingredient.
+     * @param stock      Its stock when it became low.
+     */
+    void ingredientLow(Ingredient ingredient, long stock);
+
+    /**
+     * Called after menu items were marked unavailable or available again in the menu.
+     *
+     * @param items The items whose availability changed.
+     */
+    void availabilityChanged(List<MenuItem> items);
+}
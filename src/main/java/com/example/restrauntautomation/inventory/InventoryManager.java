@@ -0,0 +1,539 @@
+package com.example.restrauntautomation.inventory;
+
+import com.example.restrauntautomation.manager.MenuManager;
+import com.example.restrauntautomation.manager.OrderQueueListener;
+import com.example.restrauntautomation.model.MenuItem;
+import com.example.restrauntautomation.model.Order;
+import com.example.restrauntautomation.model.OrderItem;
+import com.example.restrauntautomation.persistence.InventoryRepository;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Tracks ingredient stock, depletes it as orders are queued and gives it back when a queued order is voided.
+ *
+ * <p>Each ingredient's stock is a {@link LongAdder}, so terminals that queue orders at the same time
+ * update striped cells instead of contending on one counter. Recipes are compiled into flat tables indexed
+ * by catalog item id, so depleting an order is a walk over its lines with no lookups by name.
+ *
+ * <p>When an ingredient falls below its low-stock threshold it joins the low-stock set and every menu item
+ * that uses it is marked unavailable in the {@link MenuManager}; receiving stock reverses both. Only these
+ * crossings take the inventory lock, and the low-stock set is kept up to date by them, so reading it never
+ * scans the ingredients or the menu. Restocking offers an item again even if it was 86'd by hand.
+ *
+ * <p>Stock is changed by orders, by deliveries ({@link #receive}) and by stock counts ({@link #adjustTo});
+ * listeners are told which ingredients changed, which is how {@link #load} keeps the stored levels current.
+ */
+public class InventoryManager implements OrderQueueListener {
+
+    private static final Logger LOGGER = Logger.getLogger(InventoryManager.class.getName());
+
+    private final MenuManager menuManager;
+    private final List<Ingredient> ingredients;
+    private final Map<String, Integer> ingredientIds;
+    private final LongAdder[] stock; // Per ingredient
+    private final long[] thresholds; // Per ingredient
+    private final int[] recipeStart; // Per catalog item id, into recipeIngredients and recipeQuantities
+    private final int[] recipeIngredients;
+    private final long[] recipeQuantities;
+    private final int[] usedByStart; // Per ingredient, into usedByItems
+    private final int[] usedByItems; // Catalog item ids
+    private final AtomicIntegerArray lowFlags; // Per ingredient, 1 while low; changed under the lock, read without it
+    private final int[] lowIngredientCounts; // Per catalog item id: how many of its ingredients are low; guarded by this
+    private final Set<Ingredient> lowStock = new LinkedHashSet<>(); // Guarded by this
+    private final List<InventoryListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Creates an inventory and marks the items whose ingredients are already low as unavailable.
+     *
+     * @param menuManager  The menu whose items are 86'd.
+     * @param ingredients  The stocked ingredients (names must be unique).
+     * @param recipes      The recipes of the menu items; items without a recipe are never 86'd by the inventory.
+     * @param openingStock The stock of each ingredient by name; missing ingredients start at 0.
+     */
+    public InventoryManager(MenuManager menuManager, List<Ingredient> ingredients, List<Recipe> recipes,
+                            Map<String, Long> openingStock) {
+        this.menuManager = Objects.requireNonNull(menuManager, "Menu manager cannot be null.");
+        Objects.requireNonNull(ingredients, "Ingredients cannot be null.");
+        Objects.requireNonNull(recipes, "Recipes cannot be null.");
+        Objects.requireNonNull(openingStock, "Opening stock cannot be null.");
+        this.ingredients = Collections.unmodifiableList(new ArrayList<>(ingredients));
+        this.ingredientIds = new HashMap<>();
+        int ingredientCount = ingredients.size();
+        this.stock = new LongAdder[ingredientCount];
+        this.thresholds = new long[ingredientCount];
+        for (int i = 0; i < ingredientCount; i++) {
+            Ingredient ingredient = Objects.requireNonNull(ingredients.get(i), "Ingredient cannot be null.");
+            if (ingredientIds.put(ingredient.getName(), i) != null) {
+                throw new IllegalArgumentException("Ingredient listed twice: " + ingredient.getName());
+            }
+            stock[i] = new LongAdder();
+            thresholds[i] = ingredient.getLowStockThreshold();
+        }
+        for (Map.Entry<String, Long> entry : openingStock.entrySet()) {
+            stock[idOf(entry.getKey())].add(entry.getValue());
+        }
+
+        int itemCount = menuManager.getMenuItemCount();
+        Recipe[] recipeByItem = new Recipe[itemCount];
+        int entryCount = 0;
+        for (Recipe recipe : recipes) {
+            int itemId = menuManager.getMenuItemId(Objects.requireNonNull(recipe, "Recipe cannot be null.").getMenuItem());
+            if (itemId < 0) {
+                throw new IllegalArgumentException("Recipe for an item that is not on the menu: " + recipe.getMenuItem().getName());
+            }
+            if (recipeByItem[itemId] != null) {
+                throw new IllegalArgumentException("Menu item has two recipes: " + recipe.getMenuItem().getName());
+            }
+            recipeByItem[itemId] = recipe;
+            entryCount += recipe.getIngredients().size();
+        }
+        this.recipeStart = new int[itemCount + 1];
+        this.recipeIngredients = new int[entryCount];
+        this.recipeQuantities = new long[entryCount];
+        int[] usedByCounts = new int[ingredientCount];
+        int entry = 0;
+        for (int item = 0; item < itemCount; item++) {
+            recipeStart[item] = entry;
+            if (recipeByItem[item] == null) {
+                continue;
+            }
+            for (Map.Entry<String, Long> ingredient : recipeByItem[item].getIngredients().entrySet()) {
+                recipeIngredients[entry] = idOf(ingredient.getKey());
+                recipeQuantities[entry] = ingredient.getValue();
+                usedByCounts[recipeIngredients[entry]]++;
+                entry++;
+            }
+        }
+        recipeStart[itemCount] = entry;
+
+        this.usedByStart = new int[ingredientCount + 1];
+        for (int i = 0; i < ingredientCount; i++) {
+            usedByStart[i + 1] = usedByStart[i] + usedByCounts[i];
+        }
+        this.usedByItems = new int[entryCount];
+        int[] next = usedByStart.clone();
+        for (int item = 0; item < itemCount; item++) {
+            for (int k = recipeStart[item]; k < recipeStart[item + 1]; k++) {
+                usedByItems[next[recipeIngredients[k]]++] = item;
+            }
+        }
+
+        this.lowFlags = new AtomicIntegerArray(ingredientCount);
+        this.lowIngredientCounts = new int[itemCount];
+        for (int i = 0; i < ingredientCount; i++) {
+            updateLowState(i);
+        }
+        LOGGER.log(Level.INFO, "Inventory created with {0} ingredients and {1} recipes; {2} ingredients are low.",
+                new Object[]{ingredientCount, recipes.size(), lowStock.size()});
+    }
+
+    /**
+     * Creates the default inventory with the stock levels stored in the database, and keeps them stored as
+     * stock changes. On the first run nothing is stored yet, so the default opening stock is stored.
+     * If the stored levels cannot be read, the inventory starts fully stocked.
+     *
+     * @param menuManager The default menu.
+     * @param repository  The repository the stock levels are stored in.
+     * @return The inventory.
+     */
+    public static InventoryManager load(MenuManager menuManager, InventoryRepository repository) {
+        Map<String, Long> storedStock;
+        try {
+            storedStock = repository.findStock();
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error reading stock levels from the database, starting fully stocked.", e);
+            storedStock = Collections.emptyMap();
+        }
+        InventoryManager inventory = createDefault(menuManager, storedStock);
+        if (storedStock.size() != inventory.getIngredients().size()) {
+            repository.saveStock(inventory, inventory.getIngredients()); // First run, or ingredients added since
+        }
+        inventory.addListener(new InventoryListener() {
+            @Override
+            public void stockChanged(List<Ingredient> ingredients) {
+                repository.saveStock(inventory, ingredients);
+            }
+
+            @Override
+            public void ingredientLow(Ingredient ingredient, long stock) {
+            }
+
+            @Override
+            public void availabilityChanged(List<MenuItem> items) {
+            }
+        });
+        return inventory;
+    }
+
+    /**
+     * Creates the hardcoded default inventory for the default menu, fully stocked.
+     *
+     * @param menuManager The default menu.
+     * @return The inventory.
+     */
+    public static InventoryManager createDefault(MenuManager menuManager) {
+        return createDefault(menuManager, Collections.emptyMap());
+    }
+
+    /**
+     * Creates the hardcoded default inventory for the default menu.
+     *
+     * @param menuManager The default menu.
+     * @param storedStock Stock levels by ingredient name that replace the default opening stock;
+     *                    levels of ingredients no longer stocked are ignored.
+     * @return The inventory.
+     */
+    public static InventoryManager createDefault(MenuManager menuManager, Map<String, Long> storedStock) {
+        List<Ingredient> ingredients = new ArrayList<>();
+        Map<String, Long> openingStock = new LinkedHashMap<>();
+        stocked(ingredients, openingStock, "Spring roll wrappers", "pcs", 20, 200);
+        stocked(ingredients, openingStock, "Vegetables", "g", 2_000, 20_000);
+        stocked(ingredients, openingStock, "Cooking oil", "ml", 1_000, 10_000);
+        stocked(ingredients, openingStock, "Bread", "pcs", 10, 80);
+        stocked(ingredients, openingStock, "Garlic", "g", 100, 1_000);
+        stocked(ingredients, openingStock, "Butter", "g", 500, 5_000);
+        stocked(ingredients, openingStock, "Tomatoes", "g", 2_000, 20_000);
+        stocked(ingredients, openingStock, "Basil", "g", 50, 500);
+        stocked(ingredients, openingStock, "Squid", "g", 1_000, 6_000);
+        stocked(ingredients, openingStock, "Flour", "g", 2_000, 20_000);
+        stocked(ingredients, openingStock, "Cream", "ml", 500, 5_000);
+        stocked(ingredients, openingStock, "Chicken", "g", 2_000, 15_000);
+        stocked(ingredients, openingStock, "Noodles", "g", 500, 5_000);
+        stocked(ingredients, openingStock, "Lentils", "g", 500, 5_000);
+        stocked(ingredients, openingStock, "Onions", "g", 1_000, 10_000);
+        stocked(ingredients, openingStock, "Cheese", "g", 500, 6_000);
+        stocked(ingredients, openingStock, "Salmon", "g", 1_000, 6_000);
+        stocked(ingredients, openingStock, "Beef", "g", 1_500, 9_000);
+        stocked(ingredients, openingStock, "Potatoes", "g", 2_000, 20_000);
+        stocked(ingredients, openingStock, "Pasta", "g", 1_000, 8_000);
+        stocked(ingredients, openingStock, "Chocolate", "g", 300, 3_000);
+        stocked(ingredients, openingStock, "Eggs", "pcs", 12, 120);
+        stocked(ingredients, openingStock, "Sugar", "g", 500, 5_000);
+        stocked(ingredients, openingStock, "Apples", "g", 1_000, 8_000);
+        stocked(ingredients, openingStock, "Ice cream", "ml", 1_000, 10_000);
+        stocked(ingredients, openingStock, "Mascarpone", "g", 250, 2_000);
+        stocked(ingredients, openingStock, "Coffee beans", "g", 200, 2_000);
+        stocked(ingredients, openingStock, "Cola", "ml", 2_000, 20_000);
+        stocked(ingredients, openingStock, "Lemons", "pcs", 10, 100);
+        stocked(ingredients, openingStock, "Tea", "g", 50, 500);
+        stocked(ingredients, openingStock, "Mineral water", "bottles", 12, 96);
+        for (Map.Entry<String, Long> stored : storedStock.entrySet()) {
+            if (openingStock.replace(stored.getKey(), stored.getValue()) == null) {
+                LOGGER.log(Level.WARNING, "Ignoring stored stock of {0}, which is no longer stocked.", stored.getKey());
+            }
+        }
+
+        List<Recipe> recipes = new ArrayList<>();
+        recipes.add(recipe(menuManager, "Appetizers", "Spring Rolls", "Spring roll wrappers", 3L, "Vegetables", 150L, "Cooking oil", 30L));
+        recipes.add(recipe(menuManager, "Appetizers", "Garlic Bread", "Bread", 1L, "Garlic", 10L, "Butter", 20L));
+        recipes.add(recipe(menuManager, "Appetizers", "Bruschetta", "Bread", 1L, "Tomatoes", 100L, "Garlic", 5L, "Basil", 5L));
+        recipes.add(recipe(menuManager, "Appetizers", "Calamari Rings", "Squid", 200L, "Flour", 40L, "Cooking oil", 50L));
+        recipes.add(recipe(menuManager, "Soups", "Tomato Soup", "Tomatoes", 300L, "Cream", 50L));
+        recipes.add(recipe(menuManager, "Soups", "Chicken Noodle Soup", "Chicken", 100L, "Noodles", 80L, "Vegetables", 80L));
+        recipes.add(recipe(menuManager, "Soups", "Lentil Soup", "Lentils", 120L, "Vegetables", 80L));
+        recipes.add(recipe(menuManager, "Soups", "French Onion Soup", "Onions", 250L, "Bread", 1L, "Cheese", 40L));
+        recipes.add(recipe(menuManager, "Main Courses", "Grilled Salmon", "Salmon", 220L, "Vegetables", 150L));
+        recipes.add(recipe(menuManager, "Main Courses", "Steak Frites", "Beef", 300L, "Potatoes", 250L, "Cooking oil", 60L));
+        recipes.add(recipe(menuManager, "Main Courses", "Chicken Parmesan", "Chicken", 250L, "Flour", 30L, "Tomatoes", 120L, "Cheese", 60L));
+        recipes.add(recipe(menuManager, "Main Courses", "Vegetarian Pasta", "Pasta", 150L, "Vegetables", 150L, "Tomatoes", 150L));
+        recipes.add(recipe(menuManager, "Desserts", "Chocolate Cake", "Chocolate", 60L, "Flour", 50L, "Eggs", 1L, "Sugar", 40L));
+        recipes.add(recipe(menuManager, "Desserts", "Apple Pie", "Apples", 150L, "Flour", 60L, "Butter", 30L, "Sugar", 30L));
+        recipes.add(recipe(menuManager, "Desserts", "Ice Cream Sundae", "Ice cream", 200L, "Chocolate", 20L));
+        recipes.add(recipe(menuManager, "Desserts", "Tiramisu", "Mascarpone", 100L, "Eggs", 1L, "Coffee beans", 10L, "Sugar", 20L));
+        recipes.add(recipe(menuManager, "Beverages", "Cola", "Cola", 330L));
+        recipes.add(recipe(menuManager, "Beverages", "Lemonade", "Lemons", 2L, "Sugar", 30L));
+        recipes.add(recipe(menuManager, "Beverages", "Iced Tea", "Tea", 5L, "Sugar", 15L));
+        recipes.add(recipe(menuManager, "Beverages", "Coffee", "Coffee beans", 15L));
+        recipes.add(recipe(menuManager, "Beverages", "Mineral Water", "Mineral water", 1L));
+        return new InventoryManager(menuManager, ingredients, recipes, openingStock);
+    }
+
+    /**
+     * Registers a listener for low stock and availability changes.
+     *
+     * @param listener The listener to add (must not be null).
+     */
+    public void addListener(InventoryListener listener) {
+        listeners.add(Objects.requireNonNull(listener, "Listener cannot be null."));
+    }
+
+    /**
+     * Unregisters a previously added listener.
+     *
+     * @param listener The listener to remove.
+     */
+    public void removeListener(InventoryListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Depletes the stock used by an order, per its menu items' recipes. Stock can go negative when more is
+     * ordered than was counted; the items stay 86'd until enough is received.
+     *
+     * @param order The order.
+     */
+    public void consume(Order order) {
+        applyRecipes(order, -1);
+    }
+
+    /**
+     * Gives back the stock depleted for an order that will not be made, e.g. because it was voided.
+     * Items 86'd only because of that order are offered again.
+     *
+     * @param order The order.
+     */
+    public void restore(Order order) {
+        applyRecipes(order, 1);
+        LOGGER.log(Level.INFO, "Restored the stock of order {0}.", order.getOrderId());
+    }
+
+    /**
+     * Adds received stock of an ingredient, e.g. from a delivery.
+     *
+     * @param ingredientName The name of the ingredient.
+     * @param units          The quantity received (must be positive).
+     */
+    public void receive(String ingredientName, long units) {
+        if (units <= 0) {
+            throw new IllegalArgumentException("Received quantity must be positive.");
+        }
+        int ingredient = idOf(ingredientName);
+        stock[ingredient].add(units);
+        LOGGER.log(Level.INFO, "Received {0} {1} of {2}.", new Object[]{units, ingredients.get(ingredient).getUnit(), ingredientName});
+        stockChanged(ingredient);
+    }
+
+    /**
+     * Sets the stock of an ingredient to what was counted on the shelf, correcting waste and miscounts.
+     * Orders depleting the ingredient at the same moment are applied on top of the counted level.
+     *
+     * @param ingredientName The name of the ingredient.
+     * @param countedUnits   The counted stock (not negative).
+     */
+    public void adjustTo(String ingredientName, long countedUnits) {
+        if (countedUnits < 0) {
+            throw new IllegalArgumentException("Counted stock cannot be negative.");
+        }
+        int ingredient = idOf(ingredientName);
+        long previous;
+        synchronized (stock[ingredient]) { // Serializes counts, so two counts cannot both apply their difference
+            previous = stock[ingredient].sum();
+            stock[ingredient].add(countedUnits - previous);
+        }
+        LOGGER.log(Level.INFO, "Stock of {0} counted at {1} {2} (was {3}).",
+                new Object[]{ingredientName, countedUnits, ingredients.get(ingredient).getUnit(), previous});
+        stockChanged(ingredient);
+    }
+
+    /**
+     * Gets the current stock of an ingredient.
+     *
+     * @param ingredientName The name of the ingredient.
+     * @return The stock in the ingredient's unit; negative if more was used than counted.
+     */
+    public long getStock(String ingredientName) {
+        return stock[idOf(ingredientName)].sum();
+    }
+
+    /**
+     * Gets the stocked ingredients.
+     *
+     * @return An unmodifiable list of the ingredients.
+     */
+    public List<Ingredient> getIngredients() {
+        return ingredients;
+    }
+
+    /**
+     * Gets the ingredients that are below their low-stock threshold, in the order they became low.
+     * Reads the maintained low-stock set; nothing is scanned.
+     *
+     * @return An unmodifiable snapshot of the low ingredients.
+     */
+    public synchronized List<Ingredient> getLowStockIngredients() {
+        return Collections.unmodifiableList(new ArrayList<>(lowStock));
+    }
+
+    @Override
+    public void ordersAdded(List<Order> orders) {
+        for (Order order : orders) {
+            consume(order);
+        }
+    }
+
+    @Override
+    public void orderRemoved(Order order) {
+        if (order.getStatus() == Order.OrderStatus.CANCELLED) {
+            restore(order); // Voided before it was made; completed and paid orders used their stock
+        }
+    }
+
+    /**
+     * Adds or takes off the recipe quantities of an order's lines, updates the low state of every ingredient
+     * that crossed its threshold and tells the listeners which ingredients changed.
+     *
+     * @param order The order.
+     * @param sign  -1 to deplete the stock, 1 to give it back.
+     */
+    private void applyRecipes(Order order, int sign) {
+        List<Ingredient> changed = new ArrayList<>();
+        for (int i = 0; i < order.getItemCount(); i++) {
+            OrderItem line = order.getItem(i);
+            int itemId = menuManager.getMenuItemId(line.getMenuItem());
+            if (itemId < 0) {
+                continue; // Not on this menu; nothing to deplete
+            }
+            for (int k = recipeStart[itemId]; k < recipeStart[itemId + 1]; k++) {
+                int ingredient = recipeIngredients[k];
+                stock[ingredient].add(sign * recipeQuantities[k] * line.getQuantity());
+                boolean low = stock[ingredient].sum() < thresholds[ingredient];
+                if (low != (lowFlags.get(ingredient) == 1)) {
+                    updateLowState(ingredient);
+                }
+                if (!changed.contains(ingredients.get(ingredient))) {
+                    changed.add(ingredients.get(ingredient));
+                }
+            }
+        }
+        if (!changed.isEmpty()) {
+            List<Ingredient> changedView = Collections.unmodifiableList(changed);
+            for (InventoryListener listener : listeners) {
+                listener.stockChanged(changedView);
+            }
+        }
+    }
+
+    /**
+     * Updates the low state of an ingredient whose stock was changed by a delivery or count,
+     * then tells the listeners.
+     *
+     * @param ingredient The ingredient id.
+     */
+    private void stockChanged(int ingredient) {
+        if ((stock[ingredient].sum() < thresholds[ingredient]) != (lowFlags.get(ingredient) == 1)) {
+            updateLowState(ingredient);
+        }
+        List<Ingredient> changed = Collections.singletonList(ingredients.get(ingredient));
+        for (InventoryListener listener : listeners) {
+            listener.stockChanged(changed);
+        }
+    }
+
+    /**
+     * Brings an ingredient's low flag, the low-stock set and the availability of the items that use it
+     * in line with its stock, then notifies listeners. The stock is re-read after every change so that a
+     * concurrent update that saw the old flag is not missed.
+     *
+     * @param ingredient The ingredient id.
+     */
+    private void updateLowState(int ingredient) {
+        Set<MenuItem> changedItems = new LinkedHashSet<>();
+        boolean becameLow = false;
+        long current;
+        synchronized (this) {
+            while (true) {
+                current = stock[ingredient].sum();
+                boolean low = current < thresholds[ingredient];
+                if (low == (lowFlags.get(ingredient) == 1)) {
+                    break;
+                }
+                lowFlags.set(ingredient, low ? 1 : 0);
+                if (low) {
+                    lowStock.add(ingredients.get(ingredient));
+                } else {
+                    lowStock.remove(ingredients.get(ingredient));
+                }
+                becameLow = low;
+                for (int k = usedByStart[ingredient]; k < usedByStart[ingredient + 1]; k++) {
+                    int itemId = usedByItems[k];
+                    lowIngredientCounts[itemId] += low ? 1 : -1;
+                    if (lowIngredientCounts[itemId] == (low ? 1 : 0)) { // First low ingredient, or last one restocked
+                        MenuItem item = menuManager.getMenuItemById(itemId);
+                        if (menuManager.setItemAvailable(item, !low)) {
+                            changedItems.add(item);
+                        }
+                    }
+                }
+            }
+        }
+        if (becameLow) {
+            Ingredient low = ingredients.get(ingredient);
+            LOGGER.log(Level.WARNING, "Ingredient {0} is low: {1} {2} left.", new Object[]{low.getName(), current, low.getUnit()});
+            for (InventoryListener listener : listeners) {
+                listener.ingredientLow(low, current);
+            }
+        }
+        if (!changedItems.isEmpty()) {
+            List<MenuItem> items = Collections.unmodifiableList(new ArrayList<>(changedItems));
+            for (InventoryListener listener : listeners) {
+                listener.availabilityChanged(items);
+            }
+        }
+    }
+
+    /**
+     * Gets the id of an ingredient.
+     *
+     * @param ingredientName The name of the ingredient.
+     * @return The ingredient id.
+     */
+    private int idOf(String ingredientName) {
+        Integer id = ingredientIds.get(ingredientName);
+        if (id == null) {
+            throw new IllegalArgumentException("Unknown ingredient: " + ingredientName);
+        }
+        return id;
+    }
+
+    /**
+     * Adds an ingredient of the default inventory with its opening stock.
+     *
+     * @param ingredients  Receives the ingredient.
+     * @param openingStock Receives its opening stock.
+     * @param name         The name of the ingredient.
+     * @param unit         The unit stock is counted in.
+     * @param threshold    The low-stock threshold.
+     * @param units        The opening stock.
+     */
+    private static void stocked(List<Ingredient> ingredients, Map<String, Long> openingStock,
+                                String name, String unit, long threshold, long units) {
+        ingredients.add(new Ingredient(name, unit, threshold));
+        openingStock.put(name, units);
+    }
+
+    /**
+     * Builds a recipe of the default inventory.
+     *
+     * @param menuManager The menu.
+     * @param category    The category of the item.
+     * @param itemName    The name of the item.
+     * @param ingredients Alternating ingredient names and quantities (Long).
+     * @return The recipe.
+     */
+    private static Recipe recipe(MenuManager menuManager, String category, String itemName, Object... ingredients) {
+        MenuItem item = menuManager.getMenuItemByName(category, itemName);
+        if (item == null) {
+            throw new IllegalArgumentException("No menu item '" + itemName + "' in category '" + category + "'.");
+        }
+        Map<String, Long> quantities = new LinkedHashMap<>();
+        for (int i = 0; i < ingredients.length; i += 2) {
+            quantities.put((String) ingredients[i], (Long) ingredients[i + 1]);
+        }
+        return new Recipe(item, quantities);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.restrauntautomation.inventory;
+
+import com.example.restrauntautomation.model.MenuItem;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The ingredients used by one unit of a menu item, by ingredient name and quantity in the ingredient's unit.
+ */
+public class Recipe {
+
+    private final MenuItem menuItem;
+    private final Map<String, Long> ingredients;
+
+    /**
+     * Constructs a recipe.
+     *
+     * @param menuItem    The menu item the recipe makes.
+     * @param ingredients The quantity of each ingredient per unit of the item (each must be positive).
+     */
+    public Recipe(MenuItem menuItem, Map<String, Long> ingredients) {
+        this.menuItem = Objects.requireNonNull(menuItem, "Menu item cannot be null.");
+        Objects.requireNonNull(ingredients, "Ingredients cannot be null.");
+        if (ingredients.isEmpty()) {
+            throw new IllegalArgumentException("Recipe for '" + menuItem.getName() + "' needs at least one ingredient.");
+        }
+        for (Map.Entry<String, Long> entry : ingredients.entrySet()) {
+            if (entry.getKey() == null || entry.getValue() == null || entry.getValue() <= 0) {
+                throw new IllegalArgumentException("Recipe for '" + menuItem.getName() + "' has an invalid ingredient: " + entry);
+            }
+        }
+        this.ingredients = Collections.unmodifiableMap(new LinkedHashMap<>(ingredients));
+    }
+
+    /**
+     * Gets the menu item the recipe makes.
+     *
+     * @return The menu item.
+     */
+    public MenuItem getMenuItem() {
+        return menuItem;
+    }
+
+    /**
+     * Gets the ingredients used by one unit of the item.
+     *
+     * @return An unmodifiable map of ingredient name to quantity, in the order given.
+     */
+    public Map<String, Long> getIngredients() {
+        return ingredients;
+    }
+
+    @Override
+    public String toString() {
+        return "Recipe{" +
+               "menuItem=" + menuItem.getName() +
+               ", ingredients=" + ingredients +
+               '}';
+    }
+}
@@ -0,0 +1,325 @@
+package com.example.restrauntautomation.manager;
+
+import com.example.restrauntautomation.model.MenuItem;
+import com.example.restrauntautomation.model.Order;
+import com.example.restrauntautomation.model.OrderEta;
+import com.example.restrauntautomation.model.OrderItem;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Predicts when queued orders will be ready, learning from the orders the kitchen completes.
+ *
+ * <p>An order's ETA is the wait for the orders queued ahead of it plus its own prep time. The wait is the
+ * queue depth times the kitchen's completion interval (how long it takes, on average, to clear one order
+ * while busy). The prep time is that of its slowest item: each menu item keeps a running mean (EWMA) and a
+ * P² estimate of its 90th percentile, a fixed handful of numbers however many orders it has been in.
+ * Items start from a per-category prior until they have been seen.
+ *
+ * <p>When an order is completed, its wait as predicted at queue time is subtracted from how long it took,
+ * and the rest is shared out over its items in proportion to their current estimates. Predictions are a
+ * lookup per order line, cheap enough to run for every order as it is queued.
+ */
+public class EtaEstimator implements OrderQueueListener {
+
+    private static final Logger LOGGER = Logger.getLogger(EtaEstimator.class.getName());
+    private static final long MILLIS_PER_MINUTE = 60_000L;
+    private static final double SMOOTHING = 0.2; // EWMA weight of a new observation
+    private static final double LATEST_QUANTILE = 0.9;
+    private static final double PRIOR_SPREAD = 1.5; // 90th percentile as a multiple of the mean until P² has enough samples
+    private static final long DEFAULT_PRIOR_MINUTES = 10;
+    private static final long COMPLETION_INTERVAL_PRIOR_MINUTES = 3;
+    private static final Map<String, Long> PRIOR_MINUTES_BY_CATEGORY = new LinkedHashMap<>();
+
+    static {
+        PRIOR_MINUTES_BY_CATEGORY.put("Appetizers", 8L);
+        PRIOR_MINUTES_BY_CATEGORY.put("Soups", 6L);
+        PRIOR_MINUTES_BY_CATEGORY.put("Main Courses", 18L);
+        PRIOR_MINUTES_BY_CATEGORY.put("Desserts", 6L);
+        PRIOR_MINUTES_BY_CATEGORY.put("Beverages", 2L);
+    }
+
+    private final Clock clock;
+    private final Map<MenuItem, PrepStats> statsByItem = new HashMap<>();
+    private final Map<Long, OrderEta> openOrders = new HashMap<>(); // ETA of every queued order; its size is the queue depth
+    private double completionIntervalMillis = COMPLETION_INTERVAL_PRIOR_MINUTES * MILLIS_PER_MINUTE;
+    private long lastCompletionMillis = -1; // -1 until the kitchen has been busy since a completion
+
+    /**
+     * Constructs an EtaEstimator using the system clock.
+     */
+    public EtaEstimator() {
+        this(Clock.systemDefaultZone());
+    }
+
+    /**
+     * Constructs an EtaEstimator with the given clock.
+     *
+     * @param clock The clock used to time completions and predictions.
+     */
+    public EtaEstimator(Clock clock) {
+        this.clock = Objects.requireNonNull(clock, "Clock cannot be null.");
+    }
+
+    /**
+     * Predicts when an order would be ready if it were queued now, behind every open order.
+     *
+     * @param order The order.
+     * @return The predicted ETA.
+     */
+    public synchronized OrderEta estimate(Order order) {
+        return predict(order, openOrders.size(), clock.millis());
+    }
+
+    /**
+     * Gets the ETA predicted for a queued order when it was queued.
+     *
+     * @param orderId The ID of the order.
+     * @return The ETA, or null if the order is not in the queue.
+     */
+    public synchronized OrderEta getEta(long orderId) {
+        return openOrders.get(orderId);
+    }
+
+    /**
+     * Gets the learned mean prep time of a menu item.
+     *
+     * @param item The menu item.
+     * @return The mean prep time in millis; the category prior if the item has not been completed yet.
+     */
+    public synchronized long getMeanPrepMillis(MenuItem item) {
+        return Math.round(statsFor(item).meanMillis);
+    }
+
+    @Override
+    public synchronized void ordersAdded(List<Order> orders) {
+        long now = clock.millis();
+        for (Order order : orders) {
+            openOrders.put(order.getOrderId(), predict(order, openOrders.size(), now));
+        }
+    }
+
+    @Override
+    public synchronized void orderRemoved(Order order) {
+        OrderEta eta = openOrders.remove(order.getOrderId());
+        if (eta == null) {
+            return; // Not queued while this estimator was listening
+        }
+        if (order.getStatus() == Order.OrderStatus.CANCELLED || order.getStatus() == Order.OrderStatus.PAID) {
+            return; // Voided or closed by settlement, so the kitchen did not report finishing it
+        }
+        long now = clock.millis();
+        if (lastCompletionMillis >= 0) {
+            completionIntervalMillis += SMOOTHING * ((now - lastCompletionMillis) - completionIntervalMillis);
+        }
+        // Only an interval during which the queue never ran empty measures how fast the kitchen clears orders
+        lastCompletionMillis = openOrders.isEmpty() ? -1 : now;
+
+        long placedMillis = order.getOrderTime().atZone(clock.getZone()).toInstant().toEpochMilli();
+        long prepMillis = Math.max(0, now - placedMillis - eta.getWaitMillis());
+        learnPrep(order, prepMillis);
+        LOGGER.log(Level.FINE, "Order {0} took {1} ms to prep (predicted {2} ms).",
+                new Object[]{order.getOrderId(), prepMillis, eta.getPrepMillis()});
+    }
+
+    /**
+     * Predicts an order's ETA.
+     *
+     * @param order       The order.
+     * @param ordersAhead The number of orders queued ahead of it.
+     * @param nowMillis   The current time in epoch millis.
+     * @return The ETA.
+     */
+    private OrderEta predict(Order order, int ordersAhead, long nowMillis) {
+        double prepMillis = 0;
+        double latestPrepMillis = 0;
+        for (int i = 0; i < order.getItemCount(); i++) {
+            PrepStats stats = statsFor(order.getItem(i).getMenuItem());
+            prepMillis = Math.max(prepMillis, stats.meanMillis);
+            latestPrepMillis = Math.max(latestPrepMillis, stats.latestMillis());
+        }
+        long waitMillis = Math.round(ordersAhead * completionIntervalMillis);
+        LocalDateTime now = LocalDateTime.ofInstant(Instant.ofEpochMilli(nowMillis), clock.getZone());
+        return new OrderEta(order.getOrderId(),
+                now.plus(waitMillis + Math.round(prepMillis), ChronoUnit.MILLIS),
+                now.plus(waitMillis + Math.round(latestPrepMillis), ChronoUnit.MILLIS),
+                waitMillis, Math.round(prepMillis));
+    }
+
+    /**
+     * Shares an order's measured prep time out over its items: the item expected to take longest gets the
+     * whole time, the others the same fraction of it as their estimate is of the longest.
+     *
+     * @param order      The completed order.
+     * @param prepMillis Its measured prep time in millis.
+     */
+    private void learnPrep(Order order, long prepMillis) {
+        double slowestMillis = 0;
+        for (int i = 0; i < order.getItemCount(); i++) {
+            slowestMillis = Math.max(slowestMillis, statsFor(order.getItem(i).getMenuItem()).meanMillis);
+        }
+        if (slowestMillis <= 0) {
+            return;
+        }
+        Set<MenuItem> learned = new HashSet<>();
+        for (int i = 0; i < order.getItemCount(); i++) {
+            OrderItem line = order.getItem(i);
+            if (learned.add(line.getMenuItem())) { // Once per item, however many lines it is on
+                PrepStats stats = statsFor(line.getMenuItem());
+                stats.add(prepMillis * stats.meanMillis / slowestMillis);
+            }
+        }
+    }
+
+    /**
+     * Gets the prep statistics of an item, starting them from its category prior on first use.
+     *
+     * @param item The menu item.
+     * @return The item's statistics.
+     */
+    private PrepStats statsFor(MenuItem item) {
+        PrepStats stats = statsByItem.get(item);
+        if (stats == null) {
+            long priorMinutes = PRIOR_MINUTES_BY_CATEGORY.getOrDefault(item.getCategoryName(), DEFAULT_PRIOR_MINUTES);
+            stats = new PrepStats(priorMinutes * MILLIS_PER_MINUTE);
+            statsByItem.put(item, stats);
+        }
+        return stats;
+    }
+
+    /**
+     * Prep time statistics of one menu item: an exponentially weighted mean and a P² estimate of the
+     * 90th percentile, in millis.
+     */
+    private static final class PrepStats {
+        double meanMillis;
+        final P2Quantile latest = new P2Quantile(LATEST_QUANTILE);
+
+        PrepStats(double priorMillis) {
+            this.meanMillis = priorMillis;
+        }
+
+        void add(double millis) {
+            meanMillis += SMOOTHING * (millis - meanMillis);
+            latest.add(millis);
+        }
+
+        double latestMillis() {
+            double quantile = latest.value();
+            return Double.isNaN(quantile) ? meanMillis * PRIOR_SPREAD : Math.max(quantile, meanMillis);
+        }
+    }
+
+    /**
+     * The P² algorithm (Jain and Chlamtac) for a running quantile estimate in constant space: five markers
+     * track the minimum, the maximum, the quantile and the points half-way to it, and are nudged towards
+     * their ideal positions with a piecewise-parabolic fit as observations arrive.
+     * Package-private so its accuracy can be tested on its own.
+     */
+    static final class P2Quantile {
+        private static final int MARKERS = 5;
+
+        private final double[] heights = new double[MARKERS];
+        private final int[] positions = new int[MARKERS];
+        private final double[] desired = new double[MARKERS];
+        private final double[] increments;
+        private final double quantile;
+        private int count;
+
+        P2Quantile(double quantile) {
+            this.quantile = quantile;
+            this.increments = new double[]{0, quantile / 2, quantile, (1 + quantile) / 2, 1};
+        }
+
+        /**
+         * Gets the estimate.
+         *
+         * @return The estimated quantile, or NaN until five observations have been added.
+         */
+        double value() {
+            return count < MARKERS ? Double.NaN : heights[2];
+        }
+
+        /**
+         * Adds an observation.
+         *
+         * @param x The observation.
+         */
+        void add(double x) {
+            if (count < MARKERS) {
+                heights[count++] = x;
+                if (count == MARKERS) {
+                    Arrays.sort(heights);
+                    for (int i = 0; i < MARKERS; i++) {
+                        positions[i] = i + 1;
+                    }
+                    desired[0] = 1;
+                    desired[1] = 1 + 2 * quantile;
+                    desired[2] = 1 + 4 * quantile;
+                    desired[3] = 3 + 2 * quantile;
+                    desired[4] = 5;
+                }
+                return;
+            }
+            count++;
+            int cell;
+            if (x < heights[0]) {
+                heights[0] = x;
+                cell = 0;
+            } else if (x >= heights[MARKERS - 1]) {
+                heights[MARKERS - 1] = x;
+                cell = MARKERS - 2;
+            } else {
+                cell = 0;
+                while (x >= heights[cell + 1]) {
+                    cell++;
+                }
+            }
+            for (int i = cell + 1; i < MARKERS; i++) {
+                positions[i]++;
+            }
+            for (int i = 0; i < MARKERS; i++) {
+                desired[i] += increments[i];
+            }
+            for (int i = 1; i < MARKERS - 1; i++) {
+                double offset = desired[i] - positions[i];
+                if ((offset >= 1 && positions[i + 1] - positions[i] > 1) || (offset <= -1 && positions[i - 1] - positions[i] < -1)) {
+                    int step = offset > 0 ? 1 : -1;
+                    double parabolic = parabolic(i, step);
+                    heights[i] = heights[i - 1] < parabolic && parabolic < heights[i + 1]
+                            ? parabolic
+                            : heights[i] + step * (heights[i + step] - heights[i]) / (positions[i + step] - positions[i]);
+                    positions[i] += step;
+                }
+            }
+        }
+
+        /**
+         * Predicts a marker's new height with the piecewise-parabolic formula.
+         *
+         * @param i    The marker.
+         * @param step +1 or -1, the direction the marker moves.
+         * @return The predicted height.
+         */
+        private double parabolic(int i, int step) {
+            double left = positions[i] - positions[i - 1];
+            double right = positions[i + 1] - positions[i];
+            return heights[i] + step / (double) (positions[i + 1] - positions[i - 1])
+                    * ((left + step) * (heights[i + 1] - heights[i]) / right
+                    + (right - step) * (heights[i] - heights[i - 1]) / left);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.restrauntautomation.manager;
+
+import com.example.restrauntautomation.model.Order;
+
+import java.util.AbstractQueue;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+
+/**
+ * A first in, first out queue of orders backed by a linked hash set, so that finding and removing an order
+ * anywhere in the queue is a hash lookup instead of a scan. Orders are equal by ID, so an order that is
+ * already queued is rejected by {@link #offer(Order)}. Not thread-safe.
+ */
+class IndexedOrderQueue extends AbstractQueue<Order> {
+
+    private final LinkedHashSet<Order> orders = new LinkedHashSet<>();
+
+    @Override
+    public boolean offer(Order order) {
+        return orders.add(Objects.requireNonNull(order, "Cannot queue a null Order."));
+    }
+
+    @Override
+    public Order poll() {
+        Iterator<Order> iterator = orders.iterator();
+        if (!iterator.hasNext()) {
+            return null;
+        }
+        Order head = iterator.next();
+        iterator.remove();
+        return head;
+    }
+
+    @Override
+    public Order peek() {
+        Iterator<Order> iterator = orders.iterator();
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        return orders.remove(o);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return orders.contains(o);
+    }
+
+    @Override
+    public Iterator<Order> iterator() {
+        return orders.iterator();
+    }
+
+    @Override
+    public int size() {
+        return orders.size();
+    }
+
+    @Override
+    public void clear() {
+        orders.clear();
+    }
+}
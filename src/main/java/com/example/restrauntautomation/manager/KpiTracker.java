@@ -0,0 +1,352 @@
+package com.example.restrauntautomation.manager;
+
+import com.example.restrauntautomation.model.KpiSnapshot;
+import com.example.restrauntautomation.model.Order;
+import com.example.restrauntautomation.model.Table;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Maintains live dashboard KPIs (revenue, open orders, average ticket, table turn time)
+ * incrementally from order queue events, instead of rescanning the queue on every refresh.
+ * Table turn time runs from a table being seated (set OCCUPIED) to it being VACANT again and is fed by
+ * {@link #tableStatusChanged(int, Table.TableStatus)}. Shift totals run from {@link #startShift()}, or from
+ * construction until a shift is started.
+ *
+ * <p>Revenue is booked net of the order's pricing discount when the order is queued, and rebooked by
+ * {@link #orderRepriced(Order)} when its discount or its items change. Voiding an order takes its revenue and its count back
+ * out of the window, shift and day it was booked in, as far as those are still current; completed and paid
+ * orders keep theirs.
+ *
+ * <p>Each event updates a 15-slot ring of per-minute counters plus shift and day totals in O(1).
+ * After every update an immutable {@link KpiSnapshot} is published through a volatile field,
+ * so readers such as the UI get a consistent view without taking any lock.
+ */
+public class KpiTracker implements OrderQueueListener {
+
+    private static final Logger LOGGER = Logger.getLogger(KpiTracker.class.getName());
+    private static final int WINDOW_MINUTES = 15;
+    private static final long MILLIS_PER_MINUTE = 60_000L;
+
+    private final Clock clock;
+
+    // Ring of per-minute counters for the rolling 15 minute window, indexed by minute % WINDOW_MINUTES
+    private final long[] bucketMinute = new long[WINDOW_MINUTES];
+    private final long[] bucketRevenue = new long[WINDOW_MINUTES];
+    private final int[] bucketOrders = new int[WINDOW_MINUTES];
+    private final int[] bucketCompleted = new int[WINDOW_MINUTES];
+    private final int[] bucketTurns = new int[WINDOW_MINUTES];
+    private final long[] bucketTurnMillis = new long[WINDOW_MINUTES];
+
+    private final Map<Integer, Long> seatedAtMillis = new HashMap<>(); // Table number -> when it was seated
+    private final Map<Long, Booking> openBookings = new HashMap<>(); // Order ID -> what its queueing booked
+
+    private final Counters shift = new Counters();
+    private final Counters day = new Counters();
+    private LocalDate currentDay;
+    private long shiftStartMillis;
+    private int shiftNumber; // Tells bookings of an earlier shift from this one's
+    private int openOrders;
+
+    private volatile KpiSnapshot snapshot;
+
+    /**
+     * Constructs a KpiTracker using the system clock.
+     */
+    public KpiTracker() {
+        this(Clock.systemDefaultZone());
+    }
+
+    /**
+     * Constructs a KpiTracker with the given clock.
+     *
+     * @param clock The clock used to time events and windows.
+     */
+    public KpiTracker(Clock clock) {
+        this.clock = Objects.requireNonNull(clock, "Clock cannot be null.");
+        this.currentDay = LocalDate.now(clock);
+        this.shiftStartMillis = clock.millis();
+        Arrays.fill(bucketMinute, -1L);
+        publish(clock.millis());
+    }
+
+    /**
+     * Gets the most recently published snapshot. Never blocks.
+     *
+     * @return The current KPI snapshot.
+     */
+    public KpiSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Republishes the snapshot at the current time so the rolling window ages out
+     * old minutes even when no orders are arriving.
+     *
+     * @return The new snapshot.
+     */
+    public synchronized KpiSnapshot refresh() {
+        long now = clock.millis();
+        rollDay();
+        publish(now);
+        return snapshot;
+    }
+
+    /**
+     * Starts a new shift, resetting the shift totals. Tables seated before the start still count as
+     * turned in the new shift when they are vacated.
+     */
+    public synchronized void startShift() {
+        shift.reset();
+        shiftNumber++;
+        shiftStartMillis = clock.millis();
+        publish(shiftStartMillis);
+        LOGGER.info("KPI shift totals reset.");
+    }
+
+    /**
+     * Gets when the current shift started.
+     *
+     * @return The shift start in epoch millis.
+     */
+    public synchronized long getShiftStartMillis() {
+        return shiftStartMillis;
+    }
+
+    /**
+     * Records a table status change for the turn time. Seating a table (OCCUPIED) starts its turn, unless it is
+     * already seated; the table becoming VACANT ends the turn. Other statuses, such as NEEDS_CLEANING, leave the
+     * turn running.
+     *
+     * @param tableNumber The table number.
+     * @param status      The new status (must not be null).
+     */
+    public synchronized void tableStatusChanged(int tableNumber, Table.TableStatus status) {
+        Objects.requireNonNull(status, "Table status cannot be null.");
+        long now = clock.millis();
+        if (status == Table.TableStatus.OCCUPIED) {
+            seatedAtMillis.putIfAbsent(tableNumber, now);
+            return;
+        }
+        if (status != Table.TableStatus.VACANT) {
+            return;
+        }
+        Long seatedAt = seatedAtMillis.remove(tableNumber);
+        if (seatedAt == null) {
+            return; // Not seated since launch, so there is no turn to measure
+        }
+        rollDay();
+        long turnMillis = Math.max(0, now - seatedAt);
+        int slot = slotFor(now);
+        bucketTurns[slot]++;
+        bucketTurnMillis[slot] += turnMillis;
+        shift.tableTurns++;
+        shift.turnMillis += turnMillis;
+        day.tableTurns++;
+        day.turnMillis += turnMillis;
+        LOGGER.log(Level.FINE, "Table {0} turned in {1} ms.", new Object[]{tableNumber, turnMillis});
+        publish(now);
+    }
+
+    @Override
+    public synchronized void ordersAdded(List<Order> orders) {
+        long now = clock.millis();
+        rollDay();
+        int slot = slotFor(now);
+        for (Order order : orders) {
+            long revenue = revenueCents(order);
+            bucketRevenue[slot] += revenue;
+            bucketOrders[slot]++;
+            shift.revenueCents += revenue;
+            shift.orders++;
+            day.revenueCents += revenue;
+            day.orders++;
+            openOrders++;
+            openBookings.put(order.getOrderId(), new Booking(bucketMinute[slot], shiftNumber, currentDay, revenue));
+        }
+        publish(now);
+    }
+
+    /**
+     * Rebooks the revenue of a queued order whose price changed, e.g. when a happy hour starts or items are added
+     * to or removed from it. The difference
+     * goes to the window, shift and day the order was booked in, as far as those are still current.
+     *
+     * @param order The repriced order (must not be null).
+     */
+    public synchronized void orderRepriced(Order order) {
+        Objects.requireNonNull(order, "Order cannot be null.");
+        Booking booking = openBookings.get(order.getOrderId());
+        if (booking == null) {
+            return; // Queued before this tracker was, or already removed
+        }
+        long now = clock.millis();
+        rollDay();
+        long revenue = revenueCents(order);
+        unbook(booking, booking.revenueCents - revenue, 0);
+        booking.revenueCents = revenue;
+        publish(now);
+    }
+
+    @Override
+    public synchronized void orderRemoved(Order order) {
+        long now = clock.millis();
+        rollDay();
+        Booking booking = openBookings.remove(order.getOrderId());
+        if (order.getStatus() == Order.OrderStatus.CANCELLED || order.getStatus() == Order.OrderStatus.PAID) {
+            // Voided, or settled and closed by the bill rather than by the kitchen, so not completed
+            if (order.getStatus() == Order.OrderStatus.CANCELLED && booking != null) {
+                unbook(booking, booking.revenueCents, 1); // A voided order was never a sale
+            }
+            openOrders = Math.max(0, openOrders - 1);
+            publish(now);
+            return;
+        }
+        int slot = slotFor(now);
+        bucketCompleted[slot]++;
+        shift.completedOrders++;
+        day.completedOrders++;
+        openOrders = Math.max(0, openOrders - 1);
+        publish(now);
+    }
+
+    /**
+     * Takes revenue and orders back out of the window minute, shift and day an order was booked in, skipping
+     * those that have since been rolled over.
+     *
+     * @param booking      What the order booked.
+     * @param revenueCents The revenue to take back, negative to add.
+     * @param orders       The number of orders to take back.
+     */
+    private void unbook(Booking booking, long revenueCents, int orders) {
+        int slot = (int) (booking.minute % WINDOW_MINUTES);
+        if (bucketMinute[slot] == booking.minute) {
+            bucketRevenue[slot] -= revenueCents;
+            bucketOrders[slot] -= orders;
+        }
+        if (booking.shiftNumber == shiftNumber) {
+            shift.revenueCents -= revenueCents;
+            shift.orders -= orders;
+        }
+        if (booking.day.equals(currentDay)) {
+            day.revenueCents -= revenueCents;
+            day.orders -= orders;
+        }
+    }
+
+    /**
+     * Gets the ring slot for the minute containing the given time, clearing it if it still
+     * holds counters from an older minute.
+     *
+     * @param nowMillis The current time in epoch millis.
+     * @return The slot index.
+     */
+    private int slotFor(long nowMillis) {
+        long minute = nowMillis / MILLIS_PER_MINUTE;
+        int slot = (int) (minute % WINDOW_MINUTES);
+        if (bucketMinute[slot] != minute) {
+            bucketMinute[slot] = minute;
+            bucketRevenue[slot] = 0;
+            bucketOrders[slot] = 0;
+            bucketCompleted[slot] = 0;
+            bucketTurns[slot] = 0;
+            bucketTurnMillis[slot] = 0;
+        }
+        return slot;
+    }
+
+    /**
+     * Resets the day totals when the calendar day has changed since the last event.
+     */
+    private void rollDay() {
+        LocalDate today = LocalDate.now(clock);
+        if (!today.equals(currentDay)) {
+            currentDay = today;
+            day.reset();
+        }
+    }
+
+    /**
+     * Builds and publishes a new snapshot. Summing the ring is a fixed 15 steps.
+     *
+     * @param nowMillis The current time in epoch millis.
+     */
+    private void publish(long nowMillis) {
+        long currentMinute = nowMillis / MILLIS_PER_MINUTE;
+        long revenue = 0;
+        int orders = 0;
+        int completed = 0;
+        int turns = 0;
+        long turnMillis = 0;
+        for (int slot = 0; slot < WINDOW_MINUTES; slot++) {
+            if (bucketMinute[slot] > currentMinute - WINDOW_MINUTES) {
+                revenue += bucketRevenue[slot];
+                orders += bucketOrders[slot];
+                completed += bucketCompleted[slot];
+                turns += bucketTurns[slot];
+                turnMillis += bucketTurnMillis[slot];
+            }
+        }
+        snapshot = new KpiSnapshot(nowMillis, openOrders,
+                new KpiSnapshot.Stats(revenue, orders, completed, turns, turnMillis),
+                shift.toStats(), day.toStats());
+    }
+
+    /**
+     * Gets the revenue of an order: its lines less its pricing discount.
+     *
+     * @param order The order.
+     * @return The order total in cents.
+     */
+    private static long revenueCents(Order order) {
+        return Math.max(0, order.getSubtotalCents() - order.getDiscountCents());
+    }
+
+    /**
+     * What queueing an order booked, so a void or a new price can be taken back out of the same totals.
+     */
+    private static final class Booking {
+        final long minute;
+        final int shiftNumber;
+        final LocalDate day;
+        long revenueCents;
+
+        Booking(long minute, int shiftNumber, LocalDate day, long revenueCents) {
+            this.minute = minute;
+            this.shiftNumber = shiftNumber;
+            this.day = day;
+            this.revenueCents = revenueCents;
+        }
+    }
+
+    /**
+     * Mutable running totals for the shift and day windows.
+     */
+    private static final class Counters {
+        long revenueCents;
+        int orders;
+        int completedOrders;
+        int tableTurns;
+        long turnMillis;
+
+        void reset() {
+            revenueCents = 0;
+            orders = 0;
+            completedOrders = 0;
+            tableTurns = 0;
+            turnMillis = 0;
+        }
+
+        KpiSnapshot.Stats toStats() {
+            return new KpiSnapshot.Stats(revenueCents, orders, completedOrders, tableTurns, turnMillis);
+        }
+    }
+}
@@ -2,33 +2,91 @@ package com.example.restrauntautomation.manager;
 
 import com.example.restrauntautomation.model.MenuCategory;
 import com.example.restrauntautomation.model.MenuItem;
+import com.example.restrauntautomation.model.OrderItem;
+import com.example.restrauntautomation.persistence.MenuRepository;
 
 import java.math.BigDecimal;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Manages the creation and access of the restaurant's menu.
- * For this version, the menu is hardcoded.
+ * The menu is loaded from the database when one is available; the hardcoded default menu
+ * is used (and stored) otherwise.
  */
 public class MenuManager {
 
     private static final Logger LOGGER = Logger.getLogger(MenuManager.class.getName());
-    private final Map<String, MenuCategory> categories;
+    private final Map<String, MenuCategory> categories; // In the order the categories were added
+    private final List<MenuItem> itemsById; // Catalog id -> item, ids are dense and assigned in menu order
+    private final Map<MenuItem, Integer> idsByItem;
+    private final Set<MenuItem> unavailableItems = ConcurrentHashMap.newKeySet(); // 86'd items; changed from any thread
 
     /**
      * Constructs a MenuManager and initializes the default menu.
      */
     public MenuManager() {
-        this.categories = new HashMap<>();
+        this.categories = new LinkedHashMap<>();
+        this.itemsById = new ArrayList<>();
+        this.idsByItem = new HashMap<>();
         createDefaultMenu();
+        buildCatalog();
         LOGGER.info("Default menu created successfully.");
     }
 
+    /**
+     * Constructs a MenuManager from a stored catalog. Categories are created as their items appear.
+     *
+     * @param catalog The menu items, where each item's index is its catalog id.
+     */
+    public MenuManager(List<MenuItem> catalog) {
+        this.categories = new LinkedHashMap<>();
+        this.itemsById = new ArrayList<>(catalog.size());
+        this.idsByItem = new HashMap<>();
+        for (MenuItem item : catalog) {
+            if (idsByItem.putIfAbsent(item, itemsById.size()) != null) {
+                throw new IllegalArgumentException("Menu item is listed twice in the catalog: " + item);
+            }
+            itemsById.add(item);
+            categories.computeIfAbsent(item.getCategoryName(), MenuCategory::new).addItem(item);
+        }
+        LOGGER.log(Level.INFO, "Menu created from a catalog of {0} items.", itemsById.size());
+    }
+
+    /**
+     * Loads the menu from the database. If nothing is stored yet the default menu is used and its
+     * catalog is stored, so catalog ids stay fixed from then on even if the default menu changes.
+     * If the database cannot be read the default menu is used without storing it.
+     *
+     * @param repository The menu repository.
+     * @return The menu.
+     */
+    public static MenuManager load(MenuRepository repository) {
+        try {
+            List<MenuItem> stored = repository.findAll();
+            if (!stored.isEmpty()) {
+                LOGGER.log(Level.INFO, "Loaded {0} menu items from the database.", stored.size());
+                return new MenuManager(stored);
+            }
+        } catch (SQLException | IllegalArgumentException e) {
+            LOGGER.log(Level.SEVERE, "Error reading the menu from the database, using the default menu.", e);
+            return new MenuManager();
+        }
+        MenuManager defaults = new MenuManager();
+        repository.saveCatalog(defaults);
+        return defaults;
+    }
+
     /**
      * Creates the hardcoded default menu with categories and items.
      */
@@ -86,7 +144,21 @@ public class MenuManager {
     }
 
     /**
-     * Gets a list of all menu categories.
+     * Assigns a dense catalog id to every menu item, walking the categories in the order they were added.
+     * Ids are only fixed once the catalog has been stored (see {@link #load(MenuRepository)}): adding an item
+     * to the default menu shifts the ids of every item after it, including those of later categories.
+     */
+    private void buildCatalog() {
+        for (MenuCategory category : categories.values()) {
+            for (MenuItem item : category.getItems()) {
+                idsByItem.put(item, itemsById.size());
+                itemsById.add(item);
+            }
+        }
+    }
+
+    /**
+     * Gets a list of all menu categories, in the order they were added.
      *
      * @return An unmodifiable list of MenuCategory objects.
      */
@@ -122,4 +194,103 @@ public class MenuManager {
         }
         return null; // Item or category not found
     }
+
+    /**
+     * Gets a menu item by its catalog id.
+     *
+     * @param itemId The catalog id of the item.
+     * @return The MenuItem object, or null if the id is unknown.
+     */
+    public MenuItem getMenuItemById(int itemId) {
+        if (itemId < 0 || itemId >= itemsById.size()) {
+            return null;
+        }
+        return itemsById.get(itemId);
+    }
+
+    /**
+     * Gets the catalog id of a menu item.
+     *
+     * @param item The MenuItem to look up.
+     * @return The catalog id, or -1 if the item is not on this menu.
+     */
+    public int getMenuItemId(MenuItem item) {
+        Integer id = idsByItem.get(item);
+        return id != null ? id : -1;
+    }
+
+    /**
+     * Gets the number of items in the catalog. Valid catalog ids are 0 to count - 1.
+     *
+     * @return The number of menu items.
+     */
+    public int getMenuItemCount() {
+        return itemsById.size();
+    }
+
+    /**
+     * Marks a menu item as available or unavailable ("86'd"), e.g. when an ingredient runs out.
+     * Unavailable items stay on the menu but cannot be added to new orders.
+     *
+     * @param item      The item.
+     * @param available false to 86 the item, true to offer it again.
+     * @return true if the availability of the item changed.
+     */
+    public boolean setItemAvailable(MenuItem item, boolean available) {
+        if (getMenuItemId(item) < 0) {
+            throw new IllegalArgumentException("Menu item is not on this menu: " + item);
+        }
+        boolean changed = available ? unavailableItems.remove(item) : unavailableItems.add(item);
+        if (changed) {
+            LOGGER.info("Menu item '" + item.getName() + "' is now " + (available ? "available." : "unavailable."));
+        }
+        return changed;
+    }
+
+    /**
+     * Checks whether a menu item can currently be ordered.
+     *
+     * @param item The item.
+     * @return false if the item has been marked unavailable.
+     */
+    public boolean isItemAvailable(MenuItem item) {
+        return !unavailableItems.contains(item);
+    }
+
+    /**
+     * Gets the items that are currently unavailable.
+     *
+     * @return An unmodifiable snapshot of the unavailable items.
+     */
+    public Set<MenuItem> getUnavailableItems() {
+        return Collections.unmodifiableSet(new HashSet<>(unavailableItems));
+    }
+
+    /**
+     * Resolves a batch of (catalog id, quantity) pairs into order lines, suitable for
+     * {@link com.example.restrauntautomation.model.Order#addItems}. Every pair is validated
+     * before any line is created.
+     *
+     * @param itemIds    The catalog ids of the ordered items.
+     * @param quantities The quantity ordered for the item at the same index (each must be positive).
+     * @return A list of OrderItems, one per pair, in input order.
+     */
+    public List<OrderItem> toOrderItems(int[] itemIds, int[] quantities) {
+        if (itemIds == null || quantities == null || itemIds.length != quantities.length) {
+            throw new IllegalArgumentException("Item ids and quantities must be non-null and of equal length.");
+        }
+        for (int i = 0; i < itemIds.length; i++) {
+            if (getMenuItemById(itemIds[i]) == null) {
+                throw new IllegalArgumentException("Unknown menu item id: " + itemIds[i]);
+            }
+            if (quantities[i] <= 0) {
+                throw new IllegalArgumentException("Quantity must be positive for menu item id: " + itemIds[i]);
+            }
+        }
+        List<OrderItem> lines = new ArrayList<>(itemIds.length);
+        for (int i = 0; i < itemIds.length; i++) {
+            lines.add(new OrderItem(itemsById.get(itemIds[i]), quantities[i]));
+        }
+        return lines;
+    }
 }
@@ -0,0 +1,453 @@
+package com.example.restrauntautomation.manager;
+
+import com.example.restrauntautomation.model.MenuItem;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Type-ahead search over the names and descriptions of the menu catalog.
+ *
+ * <p>Names and descriptions are split into lower-case, accent-free tokens. Each query token is matched
+ * against the sorted token dictionary in two ways:
+ * <ul>
+ *   <li>exactly, or by prefix for the token being typed (binary search over the dictionary);</li>
+ *   <li>with typos: candidate tokens sharing a trigram with the query token are checked with a bounded
+ *       edit distance (1 edit from 4 characters, 2 from 7; a swap counts as one edit).</li>
+ * </ul>
+ * An item matches when every query token matches one of its tokens. Items are ranked by their summed
+ * match scores: name matches count double description matches, exact beats prefix beats typo, and
+ * names that start with the query get a bonus. Only the best results are kept, in a bounded heap.
+ *
+ * <p>The index is immutable once built and can be queried from any thread.
+ */
+public class MenuSearchIndex {
+
+    private static final Logger LOGGER = Logger.getLogger(MenuSearchIndex.class.getName());
+
+    private static final int FIELD_NAME = 0;
+    private static final int FIELD_DESCRIPTION = 1;
+    private static final int SCORE_EXACT = 100;
+    private static final int SCORE_PREFIX = 80;
+    private static final int SCORE_TYPO = 50;
+    private static final int SCORE_PER_EDIT = 15;
+    private static final int SCORE_NAME_START = 40;
+    private static final int MIN_TYPO_LENGTH = 4; // Shorter tokens are matched exactly or by prefix only
+    private static final int TWO_TYPO_LENGTH = 7; // Tokens this long may contain two typos
+
+    private final MenuItem[] items;          // By catalog id
+    private final String[] normalizedNames;  // By catalog id
+    private final String[] tokens;           // Distinct tokens, sorted
+    private final int[][] postings;          // Token id -> sorted (itemId << 1 | field) entries
+    private final Map<String, int[]> tokenIdsByTrigram;
+
+    /**
+     * Builds the index over the whole catalog of a menu.
+     *
+     * @param menuManager The menu.
+     */
+    public MenuSearchIndex(MenuManager menuManager) {
+        this(catalogOf(menuManager));
+    }
+
+    /**
+     * Builds the index over a list of items.
+     *
+     * @param itemsById The items; an item's index in the list is its id within the index.
+     */
+    public MenuSearchIndex(List<MenuItem> itemsById) {
+        long start = System.nanoTime();
+        int itemCount = itemsById.size();
+        items = new MenuItem[itemCount];
+        normalizedNames = new String[itemCount];
+        TreeMap<String, List<Integer>> entriesByToken = new TreeMap<>();
+        for (int itemId = 0; itemId < itemCount; itemId++) {
+            MenuItem item = itemsById.get(itemId);
+            items[itemId] = item;
+            normalizedNames[itemId] = normalize(item.getName());
+            addTokens(entriesByToken, item.getName(), itemId, FIELD_NAME);
+            addTokens(entriesByToken, item.getDescription(), itemId, FIELD_DESCRIPTION);
+        }
+
+        tokens = entriesByToken.keySet().toArray(new String[0]);
+        postings = new int[tokens.length][];
+        Map<String, List<Integer>> trigramLists = new HashMap<>();
+        for (int tokenId = 0; tokenId < tokens.length; tokenId++) {
+            postings[tokenId] = entriesByToken.get(tokens[tokenId]).stream().mapToInt(Integer::intValue).distinct().sorted().toArray();
+            for (String trigram : trigrams(tokens[tokenId])) {
+                List<Integer> tokenIds = trigramLists.computeIfAbsent(trigram, key -> new ArrayList<>());
+                if (tokenIds.isEmpty() || tokenIds.get(tokenIds.size() - 1) != tokenId) {
+                    tokenIds.add(tokenId);
+                }
+            }
+        }
+        tokenIdsByTrigram = new HashMap<>(trigramLists.size() * 2);
+        for (Map.Entry<String, List<Integer>> entry : trigramLists.entrySet()) {
+            tokenIdsByTrigram.put(entry.getKey(), entry.getValue().stream().mapToInt(Integer::intValue).toArray());
+        }
+        LOGGER.log(Level.INFO, "Menu search index built: {0} items, {1} tokens in {2} ms.",
+                new Object[]{itemCount, tokens.length, (System.nanoTime() - start) / 1_000_000});
+    }
+
+    /**
+     * Finds the best matching menu items for a (possibly partial) query. The last token is treated
+     * as a prefix unless the query ends with a space.
+     *
+     * @param query The text typed so far.
+     * @param limit The maximum number of results.
+     * @return The matching items, best first; empty if the query has no tokens.
+     */
+    public List<MenuItem> search(String query, int limit) {
+        List<String> queryTokens = tokenize(query);
+        if (queryTokens.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        boolean lastIsPrefix = !Character.isWhitespace(query.charAt(query.length() - 1));
+        int[] scores = new int[items.length];
+        int[] matchedTokens = new int[items.length];
+        int[] best = new int[items.length];
+        for (int i = 0; i < queryTokens.size(); i++) {
+            Arrays.fill(best, 0);
+            String queryToken = queryTokens.get(i);
+            boolean prefix = lastIsPrefix && i == queryTokens.size() - 1;
+            matchExactOrPrefix(queryToken, prefix, best);
+            if (queryToken.length() >= MIN_TYPO_LENGTH) {
+                matchWithTypos(queryToken, prefix, best);
+            }
+            for (int itemId = 0; itemId < items.length; itemId++) {
+                if (best[itemId] > 0) {
+                    scores[itemId] += best[itemId];
+                    matchedTokens[itemId]++;
+                }
+            }
+        }
+
+        // Keep the best `limit` matches in a min-heap (worst match at the root) instead of sorting all matches
+        String normalizedQuery = String.join(" ", queryTokens);
+        int[] heap = new int[Math.min(limit, items.length)];
+        int heapSize = 0;
+        for (int itemId = 0; itemId < items.length; itemId++) {
+            if (matchedTokens[itemId] != queryTokens.size()) {
+                continue;
+            }
+            if (normalizedNames[itemId].startsWith(normalizedQuery)) {
+                scores[itemId] += SCORE_NAME_START;
+            }
+            if (heapSize < heap.length) {
+                heap[heapSize] = itemId;
+                siftUp(heap, heapSize++, scores);
+            } else if (ranksBefore(itemId, heap[0], scores)) {
+                heap[0] = itemId;
+                siftDown(heap, heapSize, scores);
+            }
+        }
+        MenuItem[] results = new MenuItem[heapSize];
+        while (heapSize > 0) {
+            results[--heapSize] = items[heap[0]];
+            heap[0] = heap[heapSize];
+            siftDown(heap, heapSize, scores);
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Gets the number of indexed items.
+     *
+     * @return The number of items.
+     */
+    public int getItemCount() {
+        return items.length;
+    }
+
+    /**
+     * Tells whether one match ranks before another: higher score first, then shorter name, then lower id.
+     *
+     * @param a      The first item id.
+     * @param b      The second item id.
+     * @param scores The scores per item.
+     * @return true if a ranks before b.
+     */
+    private boolean ranksBefore(int a, int b, int[] scores) {
+        if (scores[a] != scores[b]) {
+            return scores[a] > scores[b];
+        }
+        if (normalizedNames[a].length() != normalizedNames[b].length()) {
+            return normalizedNames[a].length() < normalizedNames[b].length();
+        }
+        return a < b;
+    }
+
+    /**
+     * Restores the min-heap order (worst-ranked match at the root) after adding an element at the end.
+     *
+     * @param heap   The heap of item ids.
+     * @param index  The index of the added element.
+     * @param scores The scores per item.
+     */
+    private void siftUp(int[] heap, int index, int[] scores) {
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (!ranksBefore(heap[parent], heap[index], scores)) {
+                return;
+            }
+            int swap = heap[parent];
+            heap[parent] = heap[index];
+            heap[index] = swap;
+            index = parent;
+        }
+    }
+
+    /**
+     * Restores the min-heap order after replacing the root.
+     *
+     * @param heap   The heap of item ids.
+     * @param size   The number of elements in the heap.
+     * @param scores The scores per item.
+     */
+    private void siftDown(int[] heap, int size, int[] scores) {
+        int index = 0;
+        while (true) {
+            int worst = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && ranksBefore(heap[worst], heap[left], scores)) {
+                worst = left;
+            }
+            if (right < size && ranksBefore(heap[worst], heap[right], scores)) {
+                worst = right;
+            }
+            if (worst == index) {
+                return;
+            }
+            int swap = heap[worst];
+            heap[worst] = heap[index];
+            heap[index] = swap;
+            index = worst;
+        }
+    }
+
+    /**
+     * Gets the catalog of a menu in catalog id order.
+     *
+     * @param menuManager The menu.
+     * @return The menu items, indexed by catalog id.
+     */
+    private static List<MenuItem> catalogOf(MenuManager menuManager) {
+        List<MenuItem> catalog = new ArrayList<>(menuManager.getMenuItemCount());
+        for (int itemId = 0; itemId < menuManager.getMenuItemCount(); itemId++) {
+            catalog.add(menuManager.getMenuItemById(itemId));
+        }
+        return catalog;
+    }
+
+    /**
+     * Scores the items containing the query token exactly, or as a prefix of one of their tokens.
+     *
+     * @param queryToken The query token.
+     * @param prefix     true to also accept tokens starting with the query token.
+     * @param best       Best score so far per item, updated in place.
+     */
+    private void matchExactOrPrefix(String queryToken, boolean prefix, int[] best) {
+        int from = Arrays.binarySearch(tokens, queryToken);
+        if (from < 0) {
+            from = -from - 1;
+        }
+        for (int tokenId = from; tokenId < tokens.length && tokens[tokenId].startsWith(queryToken); tokenId++) {
+            boolean exact = tokens[tokenId].length() == queryToken.length();
+            if (!exact && !prefix) {
+                break; // Tokens are sorted, so only the first can be an exact match
+            }
+            score(tokenId, exact ? SCORE_EXACT : SCORE_PREFIX, best);
+        }
+    }
+
+    /**
+     * Scores the items containing a token within the allowed edit distance of the query token.
+     * When matching a prefix, the query token is compared with the same-length start of each candidate.
+     *
+     * @param queryToken The query token.
+     * @param prefix     true if the query token is still being typed.
+     * @param best       Best score so far per item, updated in place.
+     */
+    private void matchWithTypos(String queryToken, boolean prefix, int[] best) {
+        int maxEdits = queryToken.length() < TWO_TYPO_LENGTH ? 1 : 2;
+        boolean[] checked = new boolean[tokens.length];
+        for (String trigram : trigrams(queryToken)) {
+            int[] candidates = tokenIdsByTrigram.get(trigram);
+            if (candidates == null) {
+                continue;
+            }
+            for (int tokenId : candidates) {
+                if (checked[tokenId]) {
+                    continue;
+                }
+                checked[tokenId] = true;
+                int edits = prefix
+                        ? prefixEditDistance(queryToken, tokens[tokenId], maxEdits)
+                        : editDistance(queryToken, tokens[tokenId], maxEdits);
+                if (edits > 0 && edits <= maxEdits) {
+                    score(tokenId, SCORE_TYPO - edits * SCORE_PER_EDIT, best);
+                }
+            }
+        }
+    }
+
+    /**
+     * Records a match score for every item containing a token, halving it for description matches.
+     *
+     * @param tokenId The matched token.
+     * @param score   The match score for a name match.
+     * @param best    Best score so far per item, updated in place.
+     */
+    private void score(int tokenId, int score, int[] best) {
+        for (int entry : postings[tokenId]) {
+            int itemId = entry >>> 1;
+            int fieldScore = (entry & 1) == FIELD_NAME ? score : score / 2;
+            if (fieldScore > best[itemId]) {
+                best[itemId] = fieldScore;
+            }
+        }
+    }
+
+    /**
+     * Adds the tokens of a text to the token map.
+     *
+     * @param entriesByToken Token -> (itemId << 1 | field) entries.
+     * @param text           The text (may be null).
+     * @param itemId         The catalog id of the item.
+     * @param field          The field the text comes from.
+     */
+    private static void addTokens(Map<String, List<Integer>> entriesByToken, String text, int itemId, int field) {
+        if (text == null) {
+            return;
+        }
+        for (String token : tokenize(text)) {
+            entriesByToken.computeIfAbsent(token, key -> new ArrayList<>()).add(itemId << 1 | field);
+        }
+    }
+
+    /**
+     * Splits a text into normalized tokens.
+     *
+     * @param text The text.
+     * @return The tokens, in order.
+     */
+    static List<String> tokenize(String text) {
+        String normalized = normalize(text);
+        List<String> result = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean tokenChar = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (tokenChar && start < 0) {
+                start = i;
+            } else if (!tokenChar && start >= 0) {
+                result.add(normalized.substring(start, i));
+                start = -1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Lower-cases a text and strips accents, so accented and plain spellings match.
+     *
+     * @param text The text.
+     * @return The normalized text.
+     */
+    private static String normalize(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder result = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                result.append(c);
+            }
+        }
+        return result.toString().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Gets the trigrams of a token, padded at the start so short tokens and first letters count.
+     *
+     * @param token The token.
+     * @return The trigrams.
+     */
+    private static List<String> trigrams(String token) {
+        String padded = "  " + token;
+        List<String> result = new ArrayList<>(token.length());
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            result.add(padded.substring(i, i + 3));
+        }
+        return result;
+    }
+
+    /**
+     * Computes the edit distance between a partly typed token and the start of a candidate token,
+     * allowing the typed part to be one character shorter or longer than the matching start.
+     *
+     * @param typed     The partly typed token.
+     * @param candidate The candidate token.
+     * @param maxEdits  The limit.
+     * @return The smallest distance, or maxEdits + 1 if it exceeds the limit.
+     */
+    static int prefixEditDistance(String typed, String candidate, int maxEdits) {
+        int result = maxEdits + 1;
+        for (int length = typed.length() - 1; length <= typed.length() + 1; length++) {
+            if (length > 0 && length <= candidate.length()) {
+                result = Math.min(result, editDistance(typed, candidate.substring(0, length), maxEdits));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Computes the edit distance between two strings (insertions, deletions, substitutions and
+     * swaps of adjacent characters), giving up once it exceeds a limit.
+     *
+     * @param a        The first string.
+     * @param b        The second string.
+     * @param maxEdits The limit.
+     * @return The distance, or maxEdits + 1 if it exceeds the limit.
+     */
+    static int editDistance(String a, String b, int maxEdits) {
+        if (Math.abs(a.length() - b.length()) > maxEdits) {
+            return maxEdits + 1;
+        }
+        int[] previous2 = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, previous2[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > maxEdits) {
+                return maxEdits + 1;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return Math.min(previous[b.length()], maxEdits + 1);
+    }
+}
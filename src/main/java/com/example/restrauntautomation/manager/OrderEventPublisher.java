@@ -0,0 +1,104 @@
+package com.example.restrauntautomation.manager;
+
+import com.example.restrauntautomation.model.Order;
+import com.example.restrauntautomation.model.OrderEvent;
+
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Republishes order queue changes as a reactive {@link Flow.Publisher} of {@link OrderEvent}s.
+ * Each subscriber gets its own bounded buffer and controls its pace through {@code request(n)}.
+ * Publishing never blocks the thread that changed the queue: if a slow subscriber's buffer is
+ * full, the event is dropped for that subscriber and a warning is logged. An {@link OrderEventSubscriber}
+ * is also told of the drop, so that it can resynchronize from the queue instead of showing stale orders.
+ */
+public class OrderEventPublisher implements OrderQueueListener, Flow.Publisher<OrderEvent>, AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(OrderEventPublisher.class.getName());
+    public static final int DEFAULT_BUFFER_SIZE = 1024;
+
+    private final SubmissionPublisher<OrderEvent> publisher;
+
+    /**
+     * Constructs a publisher with the default per-subscriber buffer size.
+     */
+    public OrderEventPublisher() {
+        this(DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructs a publisher.
+     *
+     * @param bufferSize The maximum number of undelivered events buffered per subscriber.
+     */
+    public OrderEventPublisher(int bufferSize) {
+        this.publisher = new SubmissionPublisher<>(ForkJoinPool.commonPool(), bufferSize);
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super OrderEvent> subscriber) {
+        publisher.subscribe(subscriber);
+    }
+
+    @Override
+    public void ordersAdded(List<Order> orders) {
+        long now = System.currentTimeMillis();
+        for (Order order : orders) {
+            offer(new OrderEvent(OrderEvent.Type.ADDED, order, now));
+        }
+    }
+
+    @Override
+    public void orderRemoved(Order order) {
+        offer(new OrderEvent(OrderEvent.Type.REMOVED, order, System.currentTimeMillis()));
+    }
+
+    /**
+     * Publishes that items were added to or removed from a queued order, so its tickets are redrawn.
+     *
+     * @param order The amended order.
+     */
+    public void orderAmended(Order order) {
+        offer(new OrderEvent(OrderEvent.Type.AMENDED, order, System.currentTimeMillis()));
+    }
+
+    /**
+     * Gets the number of current subscribers.
+     *
+     * @return The subscriber count.
+     */
+    public int getSubscriberCount() {
+        return publisher.getNumberOfSubscribers();
+    }
+
+    /**
+     * Completes the stream for all subscribers.
+     */
+    @Override
+    public void close() {
+        publisher.close();
+    }
+
+    /**
+     * Offers an event to every subscriber without blocking.
+     *
+     * @param event The event to publish.
+     */
+    private void offer(OrderEvent event) {
+        if (!publisher.hasSubscribers()) {
+            return;
+        }
+        publisher.offer(event, (subscriber, dropped) -> {
+            LOGGER.log(Level.WARNING, "Subscriber is too slow, dropping {0}.", dropped);
+            if (subscriber instanceof OrderEventSubscriber) {
+                ((OrderEventSubscriber) subscriber).onEventDropped(dropped);
+            }
+            return false; // Do not retry
+        });
+    }
+}
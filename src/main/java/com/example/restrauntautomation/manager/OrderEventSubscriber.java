@@ -0,0 +1,22 @@
+package com.example.restrauntautomation.manager;
+
+import com.example.restrauntautomation.model.OrderEvent;
+
+import java.util.concurrent.Flow;
+
+/**
+ * A subscriber to an {@link OrderEventPublisher} that is told when events could not be delivered to it.
+ * The publisher never blocks the thread that changed the queue, so a subscriber that falls behind by more
+ * than its buffer loses events; one that keeps state built from the stream, such as the kitchen display,
+ * must then rebuild that state from {@link OrderQueueManager#getOrders()}.
+ */
+public interface OrderEventSubscriber extends Flow.Subscriber<OrderEvent> {
+
+    /**
+     * Called, on the thread that published it, for each event dropped because this subscriber's buffer was full.
+     * Must not block; typically the subscriber only notes that it has to resynchronize.
+     *
+     * @param dropped The event that was not delivered.
+     */
+    void onEventDropped(OrderEvent dropped);
+}
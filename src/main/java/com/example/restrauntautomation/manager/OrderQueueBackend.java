@@ -0,0 +1,46 @@
+package com.example.restrauntautomation.manager;
+
+import com.example.restrauntautomation.model.Order;
+
+import java.util.ArrayDeque;
+import java.util.LinkedList;
+import java.util.Queue;
+
+/**
+ * The data structures an {@link OrderQueueManager} can keep its queue in. All are first in, first out;
+ * they differ in the cost of removing an order from the middle of the queue, which is what completing
+ * an order does.
+ */
+public enum OrderQueueBackend {
+
+    /** A linked list: O(1) at the ends, O(n) search to complete an order. The original behavior. */
+    LINKED_LIST {
+        @Override
+        Queue<Order> create() {
+            return new LinkedList<>();
+        }
+    },
+
+    /** A resizable array: O(n) to complete an order, but compact and cache-friendly to scan. */
+    ARRAY_DEQUE {
+        @Override
+        Queue<Order> create() {
+            return new ArrayDeque<>();
+        }
+    },
+
+    /** A linked hash set: O(1) to complete an order. An order already in the queue is not added twice. */
+    INDEXED {
+        @Override
+        Queue<Order> create() {
+            return new IndexedOrderQueue();
+        }
+    };
+
+    /**
+     * Creates an empty queue of this kind. The queue is not thread-safe; the manager guards it.
+     *
+     * @return The queue.
+     */
+    abstract Queue<Order> create();
+}
@@ -0,0 +1,26 @@
+package com.example.restrauntautomation.manager;
+
+import com.example.restrauntautomation.model.Order;
+
+import java.util.List;
+
+/**
+ * Receives notifications when the contents of an {@link OrderQueueManager} change.
+ * Notifications are delivered on the thread that changed the queue, after the queue lock is released.
+ */
+public interface OrderQueueListener {
+
+    /**
+     * Called once after one or more orders have been added to the queue.
+     *
+     * @param orders The orders that were added, in queue order.
+     */
+    void ordersAdded(List<Order> orders);
+
+    /**
+     * Called after an order has been removed from the queue (completed or processed).
+     *
+     * @param order The order that was removed.
+     */
+    void orderRemoved(Order order);
+}
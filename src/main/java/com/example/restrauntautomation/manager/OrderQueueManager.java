@@ -1,33 +1,65 @@
 package com.example.restrauntautomation.manager;
 
-import com.example.restrauntautomation.model.Order;
 import com.example.restrauntautomation.model.Order;
 import com.example.restrauntautomation.model.OrderItem;
 
 import java.util.ArrayList; // Added
+import java.util.Collection;
 import java.util.Collections; // Added
-import java.util.LinkedList;
+import java.util.HashSet;
 import java.util.List; // Added
+import java.util.Objects;
 import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Manages the queue of pending restaurant orders.
  * Provides functionality to add orders and display the queue.
+ * All queue operations are synchronized on the manager; registered {@link OrderQueueListener}s
+ * are notified after each change.
  */
 public class OrderQueueManager {
 
     private static final Logger LOGGER = Logger.getLogger(OrderQueueManager.class.getName());
     private final Queue<Order> orderQueue;
+    private final List<OrderQueueListener> listeners = new CopyOnWriteArrayList<>();
 
     /**
-     * Constructs a new OrderQueueManager with an empty order queue.
+     * Constructs a new OrderQueueManager with an empty order queue kept in a linked list.
      */
     public OrderQueueManager() {
-        // LinkedList is a common choice for Queue implementations
-        this.orderQueue = new LinkedList<>();
-        LOGGER.info("Order Queue Manager initialized.");
+        this(OrderQueueBackend.LINKED_LIST);
+    }
+
+    /**
+     * Constructs a new OrderQueueManager with an empty order queue kept in the given data structure.
+     *
+     * @param backend The data structure of the queue (must not be null).
+     */
+    public OrderQueueManager(OrderQueueBackend backend) {
+        this.orderQueue = Objects.requireNonNull(backend, "Queue backend cannot be null.").create();
+        LOGGER.log(Level.INFO, "Order Queue Manager initialized with a {0} queue.", backend);
+    }
+
+    /**
+     * Registers a listener to be notified when orders are added to or removed from the queue.
+     *
+     * @param listener The listener to add (must not be null).
+     */
+    public void addListener(OrderQueueListener listener) {
+        listeners.add(Objects.requireNonNull(listener, "Listener cannot be null."));
+    }
+
+    /**
+     * Unregisters a previously added listener.
+     *
+     * @param listener The listener to remove.
+     */
+    public void removeListener(OrderQueueListener listener) {
+        listeners.remove(listener);
     }
 
     /**
@@ -41,18 +73,59 @@ public class OrderQueueManager {
             LOGGER.warning("Attempted to add a null order to the queue.");
             return false;
         }
-        // offer is generally preferred over add for bounded queues
-        boolean added = orderQueue.offer(order);
+        boolean added;
+        synchronized (this) {
+            // offer is generally preferred over add for bounded queues
+            added = orderQueue.offer(order);
+        }
         if (added) {
             LOGGER.log(Level.INFO, "Order {0} added to the queue.", order.getOrderId());
             // Console display is removed, GUI controller will handle updates
             // displayQueueToConsole();
+            fireOrdersAdded(Collections.singletonList(order));
         } else {
             LOGGER.log(Level.SEVERE, "Failed to add order {0} to the queue.", order.getOrderId());
         }
         return added;
     }
 
+    /**
+     * Validates and adds a batch of orders to the end of the queue under a single lock,
+     * followed by a single change notification.
+     * Null orders, orders without items and orders already in the queue (or repeated in the batch) are skipped.
+     *
+     * @param orders The orders to add, in the order they should be queued.
+     * @return An unmodifiable list of the orders that were actually added.
+     */
+    public List<Order> addOrders(Collection<Order> orders) {
+        if (orders == null || orders.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Order> accepted = new ArrayList<>(orders.size());
+        synchronized (this) {
+            Set<Long> queuedIds = new HashSet<>();
+            for (Order queued : orderQueue) {
+                queuedIds.add(queued.getOrderId());
+            }
+            for (Order order : orders) {
+                if (order == null) {
+                    LOGGER.warning("Skipping null order in batch.");
+                } else if (order.getItems().isEmpty()) {
+                    LOGGER.log(Level.WARNING, "Skipping order {0} in batch: it has no items.", order.getOrderId());
+                } else if (!queuedIds.add(order.getOrderId())) {
+                    LOGGER.log(Level.WARNING, "Skipping order {0} in batch: it is already queued.", order.getOrderId());
+                } else if (orderQueue.offer(order)) {
+                    accepted.add(order);
+                }
+            }
+        }
+        LOGGER.log(Level.INFO, "Added {0} of {1} orders to the queue in one batch.", new Object[]{accepted.size(), orders.size()});
+        if (!accepted.isEmpty()) {
+            fireOrdersAdded(Collections.unmodifiableList(accepted));
+        }
+        return Collections.unmodifiableList(accepted);
+    }
+
     /**
      * Retrieves and removes the order at the head of the queue.
      * Returns null if the queue is empty.
@@ -60,9 +133,13 @@ public class OrderQueueManager {
      * @return The next Order in the queue, or null if empty.
      */
     public Order processNextOrder() {
-        Order nextOrder = orderQueue.poll(); // poll returns null if queue is empty
+        Order nextOrder;
+        synchronized (this) {
+            nextOrder = orderQueue.poll(); // poll returns null if queue is empty
+        }
         if (nextOrder != null) {
             LOGGER.log(Level.INFO, "Processing order {0} from the queue.", nextOrder.getOrderId());
+            fireOrderRemoved(nextOrder);
             // Optionally display queue after processing
             // displayQueueToConsole();
         } else {
@@ -77,7 +154,7 @@ public class OrderQueueManager {
      *
      * @return The next Order in the queue without removing it, or null if empty.
      */
-    public Order peekNextOrder() {
+    public synchronized Order peekNextOrder() {
         return orderQueue.peek(); // peek returns null if queue is empty
     }
 
@@ -86,7 +163,7 @@ public class OrderQueueManager {
      *
      * @return The size of the order queue.
      */
-    public int getQueueSize() {
+    public synchronized int getQueueSize() {
         return orderQueue.size();
     }
 
@@ -95,7 +172,7 @@ public class OrderQueueManager {
      *
      * @return true if the queue contains no orders, false otherwise.
      */
-    public boolean isEmpty() {
+    public synchronized boolean isEmpty() {
         return orderQueue.isEmpty();
     }
 
@@ -105,11 +182,26 @@ public class OrderQueueManager {
      *
      * @return An unmodifiable list of Orders.
      */
-    public List<Order> getOrders() {
+    public synchronized List<Order> getOrders() {
         // Return an unmodifiable list to prevent external modification
         return Collections.unmodifiableList(new ArrayList<>(orderQueue));
     }
 
+    /**
+     * Finds a queued order by its ID.
+     *
+     * @param orderId The ID of the order.
+     * @return The queued Order, or null if no order with that ID is in the queue.
+     */
+    public synchronized Order getOrderById(long orderId) {
+        for (Order order : orderQueue) {
+            if (order.getOrderId() == orderId) {
+                return order;
+            }
+        }
+        return null;
+    }
+
      /**
      * Removes a specific order from the queue, identified by its Order object.
      *
@@ -120,20 +212,47 @@ public class OrderQueueManager {
         if (order == null) {
             return false;
         }
-        boolean removed = orderQueue.remove(order); // remove() uses equals() which is based on orderId
+        boolean removed;
+        synchronized (this) {
+            removed = orderQueue.remove(order); // remove() uses equals() which is based on orderId
+        }
         if (removed) {
             LOGGER.log(Level.INFO, "Order {0} removed from the queue.", order.getOrderId());
+            fireOrderRemoved(order);
         } else {
             LOGGER.log(Level.WARNING, "Attempted to remove Order {0}, but it was not found in the queue.", order.getOrderId());
         }
         return removed;
     }
 
+    /**
+     * Removes a batch of orders from the queue under a single lock, for example all orders of a table
+     * once its bill is settled. Listeners are notified of each removed order after the lock is released.
+     *
+     * @param orders The orders to remove.
+     * @return An unmodifiable list of the orders that were found and removed.
+     */
+    public List<Order> removeOrders(Collection<Order> orders) {
+        if (orders == null || orders.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Set<Order> toRemove = new HashSet<>(orders);
+        List<Order> removed = new ArrayList<>(toRemove.size());
+        synchronized (this) {
+            orderQueue.removeIf(order -> toRemove.contains(order) && removed.add(order));
+        }
+        LOGGER.log(Level.INFO, "Removed {0} of {1} orders from the queue in one batch.", new Object[]{removed.size(), orders.size()});
+        for (Order order : removed) {
+            fireOrderRemoved(order);
+        }
+        return Collections.unmodifiableList(removed);
+    }
+
     /**
      * Displays the current contents of the order queue to the system console.
      * Kept for debugging or alternative display, but primary display is now GUI.
      */
-    public void displayQueueToConsole() {
+    public synchronized void displayQueueToConsole() {
         System.out.println("\n--- Current Order Queue ---");
         if (orderQueue.isEmpty()) {
             System.out.println("Queue is empty.");
@@ -159,11 +278,43 @@ public class OrderQueueManager {
 
     /**
      * Clears all orders from the queue.
-     * Use with caution.
+     * Use with caution. Listeners are notified of each cleared order, in queue order, after the lock
+     * is released, so that they stay in step with the queue.
+     *
+     * @return An unmodifiable list of the orders that were cleared.
+     */
+    public List<Order> clearQueue() {
+        List<Order> cleared;
+        synchronized (this) {
+            cleared = new ArrayList<>(orderQueue);
+            orderQueue.clear();
+        }
+        LOGGER.log(Level.WARNING, "Order queue has been cleared ({0} orders).", cleared.size());
+        for (Order order : cleared) {
+            fireOrderRemoved(order);
+        }
+        return Collections.unmodifiableList(cleared);
+    }
+
+    /**
+     * Notifies listeners that orders were added.
+     *
+     * @param orders The added orders.
      */
-    public void clearQueue() {
-        orderQueue.clear();
-        LOGGER.warning("Order queue has been cleared.");
-        displayQueueToConsole(); // Show the empty queue
+    private void fireOrdersAdded(List<Order> orders) {
+        for (OrderQueueListener listener : listeners) {
+            listener.ordersAdded(orders);
+        }
+    }
+
+    /**
+     * Notifies listeners that an order was removed.
+     *
+     * @param order The removed order.
+     */
+    private void fireOrderRemoved(Order order) {
+        for (OrderQueueListener listener : listeners) {
+            listener.orderRemoved(order);
+        }
     }
 }
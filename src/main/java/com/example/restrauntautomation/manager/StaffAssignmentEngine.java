@@ -0,0 +1,345 @@
+package com.example.restrauntautomation.manager;
+
+import com.example.restrauntautomation.model.Order;
+import com.example.restrauntautomation.model.StaffLoad;
+import com.example.restrauntautomation.model.WaitStaff;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Tracks each server's live workload and recommends the least-loaded server on a floor for a newly seated table.
+ *
+ * <p>Servers are ranked by the number of tables they are seated at, then by their open orders, then by their tip
+ * share so far (so tables go to whoever has earned least), then by staff ID. Each floor keeps its servers in an
+ * indexed binary min-heap on that ranking: every server knows its position in the heap, so a change to its load
+ * (an order queued or completed, a table seated or cleared) is restored with one sift in O(log n), and the
+ * recommendation is the root, read in O(1).
+ *
+ * <p>Registered as a queue listener, the engine counts open orders per server from the orders' wait staff IDs,
+ * and an order for an unassigned table assigns the table to its server; orders of servers it does not know are
+ * ignored. All methods are synchronized on the engine.
+ */
+public class StaffAssignmentEngine implements OrderQueueListener {
+
+    private static final Logger LOGGER = Logger.getLogger(StaffAssignmentEngine.class.getName());
+    private static final int INITIAL_FLOOR_CAPACITY = 16;
+
+    private final Map<String, Server> serversById = new HashMap<>();
+    private final Map<Integer, FloorHeap> floors = new HashMap<>();
+    private final Map<Integer, Server> serverByTable = new HashMap<>();
+
+    /**
+     * Adds a server who starts working on a floor.
+     *
+     * @param staff The server.
+     * @param floor The floor they work on.
+     */
+    public synchronized void addServer(WaitStaff staff, int floor) {
+        Objects.requireNonNull(staff, "Staff cannot be null.");
+        if (serversById.containsKey(staff.getStaffId())) {
+            throw new IllegalArgumentException("Server is already working: " + staff.getStaffId());
+        }
+        Server server = new Server(staff.getStaffId(), floor);
+        serversById.put(server.staffId, server);
+        floors.computeIfAbsent(floor, f -> new FloorHeap()).add(server);
+        LOGGER.log(Level.FINE, "Server {0} added to floor {1}.", new Object[]{server.staffId, floor});
+    }
+
+    /**
+     * Removes a server, e.g. at the end of their shift. Their tables become unassigned.
+     *
+     * @param staffId The ID of the server.
+     * @return true if the server was working.
+     */
+    public synchronized boolean removeServer(String staffId) {
+        Server server = serversById.remove(staffId);
+        if (server == null) {
+            return false;
+        }
+        floors.get(server.floor).remove(server);
+        serverByTable.values().removeIf(assigned -> assigned == server);
+        LOGGER.log(Level.FINE, "Server {0} removed.", staffId);
+        return true;
+    }
+
+    /**
+     * Recommends the least-loaded server on a floor.
+     *
+     * @param floor The floor.
+     * @return The ID of the server, or null if nobody works on the floor.
+     */
+    public synchronized String recommend(int floor) {
+        FloorHeap heap = floors.get(floor);
+        return heap == null || heap.size == 0 ? null : heap.servers[0].staffId;
+    }
+
+    /**
+     * Assigns a table to a server. A table assigned to another server is moved.
+     *
+     * @param tableNumber The table number.
+     * @param staffId     The ID of the server.
+     */
+    public synchronized void assignTable(int tableNumber, String staffId) {
+        Server server = serversById.get(staffId);
+        if (server == null) {
+            throw new IllegalArgumentException("Unknown server: " + staffId);
+        }
+        Server previous = serverByTable.put(tableNumber, server);
+        if (previous == server) {
+            return;
+        }
+        if (previous != null) {
+            previous.tables--;
+            floors.get(previous.floor).decreased(previous);
+        }
+        server.tables++;
+        floors.get(server.floor).increased(server);
+    }
+
+    /**
+     * Seats a new table with the least-loaded server on its floor.
+     *
+     * @param tableNumber The table number.
+     * @param floor       The floor the table is on.
+     * @return The ID of the assigned server, or null if nobody works on the floor.
+     */
+    public synchronized String autoAssign(int tableNumber, int floor) {
+        String staffId = recommend(floor);
+        if (staffId != null) {
+            assignTable(tableNumber, staffId);
+        }
+        return staffId;
+    }
+
+    /**
+     * Clears a table's server, e.g. when the table becomes vacant.
+     *
+     * @param tableNumber The table number.
+     * @return The ID of the server it was assigned to, or null if it was unassigned.
+     */
+    public synchronized String releaseTable(int tableNumber) {
+        Server server = serverByTable.remove(tableNumber);
+        if (server == null) {
+            return null;
+        }
+        server.tables--;
+        floors.get(server.floor).decreased(server);
+        return server.staffId;
+    }
+
+    /**
+     * Gets the server a table is assigned to.
+     *
+     * @param tableNumber The table number.
+     * @return The ID of the server, or null if the table is unassigned.
+     */
+    public synchronized String getServerOf(int tableNumber) {
+        Server server = serverByTable.get(tableNumber);
+        return server == null ? null : server.staffId;
+    }
+
+    /**
+     * Adds to a server's tip share.
+     *
+     * @param staffId  The ID of the server.
+     * @param tipCents The tip in cents (not negative).
+     */
+    public synchronized void recordTip(String staffId, long tipCents) {
+        if (tipCents < 0) {
+            throw new IllegalArgumentException("Tip cannot be negative.");
+        }
+        Server server = serversById.get(staffId);
+        if (server == null) {
+            throw new IllegalArgumentException("Unknown server: " + staffId);
+        }
+        server.tipShareCents += tipCents;
+        floors.get(server.floor).increased(server);
+    }
+
+    /**
+     * Gets a server's current load.
+     *
+     * @param staffId The ID of the server.
+     * @return The load, or null if the server is not working.
+     */
+    public synchronized StaffLoad getLoad(String staffId) {
+        Server server = serversById.get(staffId);
+        return server == null ? null : server.toLoad();
+    }
+
+    /**
+     * Gets the loads of every server on a floor, least-loaded first.
+     *
+     * @param floor The floor.
+     * @return An unmodifiable list of loads.
+     */
+    public synchronized List<StaffLoad> getLoads(int floor) {
+        FloorHeap heap = floors.get(floor);
+        if (heap == null) {
+            return Collections.emptyList();
+        }
+        Server[] ranked = Arrays.copyOf(heap.servers, heap.size);
+        Arrays.sort(ranked, (a, b) -> a == b ? 0 : (ranksBefore(a, b) ? -1 : 1));
+        List<StaffLoad> loads = new ArrayList<>(ranked.length);
+        for (Server server : ranked) {
+            loads.add(server.toLoad());
+        }
+        return Collections.unmodifiableList(loads);
+    }
+
+    @Override
+    public synchronized void ordersAdded(List<Order> orders) {
+        for (Order order : orders) {
+            Server server = serversById.get(order.getWaitStaffId());
+            if (server != null) {
+                server.openOrders++;
+                floors.get(server.floor).increased(server);
+                if (!serverByTable.containsKey(order.getTableNumber())) {
+                    assignTable(order.getTableNumber(), server.staffId);
+                }
+            }
+        }
+    }
+
+    @Override
+    public synchronized void orderRemoved(Order order) {
+        Server server = serversById.get(order.getWaitStaffId());
+        if (server != null && server.openOrders > 0) {
+            server.openOrders--;
+            floors.get(server.floor).decreased(server);
+        }
+    }
+
+    /**
+     * Tells whether a server ranks before another, i.e. should get the next table first.
+     *
+     * @param a The first server.
+     * @param b The second server.
+     * @return true if a is less loaded than b.
+     */
+    private static boolean ranksBefore(Server a, Server b) {
+        if (a.tables != b.tables) {
+            return a.tables < b.tables;
+        }
+        if (a.openOrders != b.openOrders) {
+            return a.openOrders < b.openOrders;
+        }
+        if (a.tipShareCents != b.tipShareCents) {
+            return a.tipShareCents < b.tipShareCents;
+        }
+        return a.staffId.compareTo(b.staffId) < 0;
+    }
+
+    /**
+     * The live workload of one server, and its position in its floor's heap.
+     */
+    private static final class Server {
+        final String staffId;
+        final int floor;
+        int tables;
+        int openOrders;
+        long tipShareCents;
+        int heapIndex;
+
+        Server(String staffId, int floor) {
+            this.staffId = staffId;
+            this.floor = floor;
+        }
+
+        StaffLoad toLoad() {
+            return new StaffLoad(staffId, floor, tables, openOrders, tipShareCents);
+        }
+    }
+
+    /**
+     * An indexed binary min-heap of the servers on one floor, least-loaded at the root.
+     */
+    private static final class FloorHeap {
+        Server[] servers = new Server[INITIAL_FLOOR_CAPACITY];
+        int size;
+
+        void add(Server server) {
+            if (size == servers.length) {
+                servers = Arrays.copyOf(servers, size * 2);
+            }
+            servers[size] = server;
+            server.heapIndex = size++;
+            siftUp(server.heapIndex);
+        }
+
+        void remove(Server server) {
+            int index = server.heapIndex;
+            Server last = servers[--size];
+            servers[size] = null;
+            if (index < size) {
+                servers[index] = last;
+                last.heapIndex = index;
+                siftDown(index);
+                siftUp(last.heapIndex);
+            }
+        }
+
+        /**
+         * Restores the heap after a server's load went up.
+         *
+         * @param server The server.
+         */
+        void increased(Server server) {
+            siftDown(server.heapIndex);
+        }
+
+        /**
+         * Restores the heap after a server's load went down.
+         *
+         * @param server The server.
+         */
+        void decreased(Server server) {
+            siftUp(server.heapIndex);
+        }
+
+        private void siftUp(int index) {
+            Server server = servers[index];
+            while (index > 0) {
+                int parent = (index - 1) / 2;
+                if (!ranksBefore(server, servers[parent])) {
+                    break;
+                }
+                move(servers[parent], index);
+                index = parent;
+            }
+            move(server, index);
+        }
+
+        private void siftDown(int index) {
+            Server server = servers[index];
+            while (true) {
+                int child = 2 * index + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && ranksBefore(servers[child + 1], servers[child])) {
+                    child++;
+                }
+                if (!ranksBefore(servers[child], server)) {
+                    break;
+                }
+                move(servers[child], index);
+                index = child;
+            }
+            move(server, index);
+        }
+
+        private void move(Server server, int index) {
+            servers[index] = server;
+            server.heapIndex = index;
+        }
+    }
+}
@@ -1,12 +1,14 @@
 package com.example.restrauntautomation.manager;
 
 import com.example.restrauntautomation.model.WaitStaff;
+import com.example.restrauntautomation.persistence.WaitStaffRepository;
 
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -20,7 +22,7 @@ import java.util.logging.Logger;
 public class WaitStaffManager {
 
     private static final Logger LOGGER = Logger.getLogger(WaitStaffManager.class.getName());
-    private static final String DEFAULT_FILE_PATH = "waitstaff.csv";
+    public static final String DEFAULT_FILE_PATH = "waitstaff.csv";
 
     /**
      * Loads wait staff data from the default file path ("waitstaff.csv").
@@ -81,6 +83,32 @@ public class WaitStaffManager {
         return staffList;
     }
 
+    /**
+     * Loads wait staff from the database. If the database has no staff yet, the roster is loaded
+     * from the default CSV file and queued to be stored, so later starts read it from the database.
+     * Falls back to the CSV file if the database cannot be read.
+     *
+     * @param repository The wait staff repository.
+     * @return A list of WaitStaff objects, or an empty list if none could be loaded.
+     */
+    public List<WaitStaff> loadWaitStaff(WaitStaffRepository repository) {
+        try {
+            List<WaitStaff> staffList = repository.findAll();
+            if (!staffList.isEmpty()) {
+                LOGGER.log(Level.INFO, "Loaded {0} wait staff members from the database.", staffList.size());
+                return staffList;
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error reading wait staff from the database, using " + DEFAULT_FILE_PATH, e);
+            return loadWaitStaff();
+        }
+        List<WaitStaff> staffList = loadWaitStaff();
+        if (!staffList.isEmpty()) {
+            repository.saveAll(staffList);
+        }
+        return staffList;
+    }
+
     // Potential future methods:
     // public void saveWaitStaff(List<WaitStaff> staffList, String filePath) { ... }
     // public void addWaitStaffMember(WaitStaff member, String filePath) { ... }
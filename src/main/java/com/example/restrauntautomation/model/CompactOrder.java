@@ -0,0 +1,323 @@
+package com.example.restrauntautomation.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * A read-only, memory-compact form of a closed or archived {@link Order}.
+ * Order lines are packed into a single {@code long[]} instead of one {@link OrderItem} object per line: per line
+ * one long with the catalog item id in the high 32 bits and the quantity in the low 32 bits, followed by one
+ * with the line's amount in cents. Line modifiers, which few lines have, are kept in a sparse side array that
+ * is only allocated for orders that have any, sharing the order's immutable {@link Modifier} instances.
+ * The {@link #getItems()} view is materialized on demand from the menu catalog and is not cached. Like the
+ * {@link com.example.restrauntautomation.archive.OrderArchive}, the amounts are those the order was placed at,
+ * so {@link #getTotalPrice()} does not change when the menu is repriced.
+ *
+ * <p>Approximate footprint on a 64-bit JVM with compressed oops, for an order with n lines:
+ * <ul>
+ *   <li>{@link Order}: about 330 bytes of fixed overhead (order object, LocalDateTime with its date and time,
+ *       ArrayList, HashMap line index) plus about 65 bytes per line (ArrayList slot, OrderItem, HashMap node and table slot).</li>
+ *   <li>CompactOrder: about 70 bytes of fixed overhead (object plus array header) plus 16 bytes per line, and
+ *       for an order with modifiers about 16 bytes plus 4 bytes per line for the side array.</li>
+ * </ul>
+ * For a typical 4-line ticket this is roughly 590 bytes versus 135 bytes, a saving of over 75%.
+ * Staff IDs (dictionary codes in both forms) and MenuItems are shared and are not counted.
+ */
+public class CompactOrder {
+
+    private final long orderId;
+    private final int tableNumber;
+    private final int waitStaffCode; // In StringDictionary.STAFF_IDS
+    private final long orderTimeEpochSecond; // Local date-time stored as seconds, UTC offset used as a neutral zone
+    private final int orderTimeNanos;
+    private final Order.OrderStatus status;
+    private final long discountCents;
+    private final long[] lines; // Per line (itemId << 32) | quantity, then the amount in cents
+    private final Modifier[][] modifiers; // Per line, null for lines without; null if no line has any
+    private final IntFunction<MenuItem> catalog;
+
+    /**
+     * Creates a compact copy of an order.
+     *
+     * @param order     The order to compact (must not be null).
+     * @param itemIds   Maps a MenuItem to its catalog id (e.g. {@code MenuManager::getMenuItemId}).
+     * @param catalog   Resolves a catalog id back to its MenuItem (e.g. {@code MenuManager::getMenuItemById}).
+     * @return The compact order.
+     */
+    public static CompactOrder of(Order order, ToIntFunction<MenuItem> itemIds, IntFunction<MenuItem> catalog) {
+        Objects.requireNonNull(order, "Cannot compact a null Order.");
+        Objects.requireNonNull(itemIds, "Item id mapping cannot be null.");
+        List<OrderItem> items = order.getItems();
+        long[] lines = new long[items.size() * 2];
+        Modifier[][] modifiers = null;
+        for (int i = 0; i < items.size(); i++) {
+            OrderItem item = items.get(i);
+            int itemId = itemIds.applyAsInt(item.getMenuItem());
+            if (itemId < 0) {
+                throw new IllegalArgumentException("MenuItem '" + item.getMenuItem().getName() + "' has no catalog id.");
+            }
+            lines[2 * i] = pack(itemId, item.getQuantity());
+            lines[2 * i + 1] = item.getTotalPriceInCents();
+            if (!item.getModifiers().isEmpty()) {
+                if (modifiers == null) {
+                    modifiers = new Modifier[items.size()][];
+                }
+                modifiers[i] = item.getModifiers().toArray(new Modifier[0]);
+            }
+        }
+        LocalDateTime time = order.getOrderTime();
+        return new CompactOrder(order.getOrderId(), order.getTableNumber(), order.getWaitStaffCode(),
+                time.toEpochSecond(ZoneOffset.UTC), time.getNano(), order.getStatus(), order.getDiscountCents(),
+                lines, modifiers, catalog);
+    }
+
+    private CompactOrder(long orderId, int tableNumber, int waitStaffCode, long orderTimeEpochSecond,
+                         int orderTimeNanos, Order.OrderStatus status, long discountCents, long[] lines,
+                         Modifier[][] modifiers, IntFunction<MenuItem> catalog) {
+        this.orderId = orderId;
+        this.tableNumber = tableNumber;
+        this.waitStaffCode = waitStaffCode;
+        this.orderTimeEpochSecond = orderTimeEpochSecond;
+        this.orderTimeNanos = orderTimeNanos;
+        this.status = status;
+        this.discountCents = discountCents;
+        this.lines = lines;
+        this.modifiers = modifiers;
+        this.catalog = Objects.requireNonNull(catalog, "Catalog cannot be null.");
+    }
+
+    /**
+     * Packs a catalog item id and quantity into one long.
+     *
+     * @param itemId   The catalog item id.
+     * @param quantity The quantity.
+     * @return The packed line.
+     */
+    private static long pack(int itemId, int quantity) {
+        return ((long) itemId << 32) | (quantity & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Gets the unique ID of the order.
+     *
+     * @return The order ID.
+     */
+    public long getOrderId() {
+        return orderId;
+    }
+
+    /**
+     * Gets the table number associated with this order.
+     *
+     * @return The table number.
+     */
+    public int getTableNumber() {
+        return tableNumber;
+    }
+
+    /**
+     * Gets the ID of the wait staff member who took the order.
+     *
+     * @return The wait staff ID.
+     */
+    public String getWaitStaffId() {
+        return StringDictionary.STAFF_IDS.valueOf(waitStaffCode);
+    }
+
+    /**
+     * Gets the dictionary code of the wait staff member who took the order.
+     *
+     * @return The code in {@link StringDictionary#STAFF_IDS}.
+     */
+    public int getWaitStaffCode() {
+        return waitStaffCode;
+    }
+
+    /**
+     * Gets the time the order was placed.
+     *
+     * @return The order timestamp.
+     */
+    public LocalDateTime getOrderTime() {
+        return LocalDateTime.ofEpochSecond(orderTimeEpochSecond, orderTimeNanos, ZoneOffset.UTC);
+    }
+
+    /**
+     * Gets the status the order had when it was compacted.
+     *
+     * @return The order status.
+     */
+    public Order.OrderStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Gets the discount the pricing rules gave the order.
+     *
+     * @return The discount in cents.
+     */
+    public long getDiscountCents() {
+        return discountCents;
+    }
+
+    /**
+     * Gets the number of lines in the order.
+     *
+     * @return The line count.
+     */
+    public int getLineCount() {
+        return lines.length / 2;
+    }
+
+    /**
+     * Gets the catalog item id of a line without materializing it.
+     *
+     * @param index The line index.
+     * @return The catalog item id.
+     */
+    public int getItemId(int index) {
+        Objects.checkIndex(index, getLineCount());
+        return (int) (lines[2 * index] >>> 32);
+    }
+
+    /**
+     * Gets the quantity of a line without materializing it.
+     *
+     * @param index The line index.
+     * @return The quantity.
+     */
+    public int getQuantity(int index) {
+        Objects.checkIndex(index, getLineCount());
+        return (int) lines[2 * index];
+    }
+
+    /**
+     * Gets the amount of a line as it was placed (price including modifiers times quantity).
+     *
+     * @param index The line index.
+     * @return The amount in cents.
+     */
+    public long getAmountCents(int index) {
+        Objects.checkIndex(index, getLineCount());
+        return lines[2 * index + 1];
+    }
+
+    /**
+     * Gets the modifiers of a line without materializing it.
+     *
+     * @param index The line index.
+     * @return An unmodifiable list of the modifiers, sorted by name; empty if there are none.
+     */
+    public List<Modifier> getModifiers(int index) {
+        Objects.checkIndex(index, getLineCount());
+        return modifiers == null || modifiers[index] == null
+                ? Collections.emptyList()
+                : Collections.unmodifiableList(Arrays.asList(modifiers[index]));
+    }
+
+    /**
+     * Materializes the order lines as OrderItems, with their modifiers. A new list is built on every call.
+     *
+     * @return An unmodifiable list of OrderItems.
+     */
+    public List<OrderItem> getItems() {
+        int lineCount = getLineCount();
+        List<OrderItem> items = new ArrayList<>(lineCount);
+        for (int i = 0; i < lineCount; i++) {
+            items.add(new OrderItem(resolve(getItemId(i)), getQuantity(i), getModifiers(i)));
+        }
+        return Collections.unmodifiableList(items);
+    }
+
+    /**
+     * Expands the order back into an {@link Order} with the same ID, status, discount and lines, e.g. to record
+     * a refund on it. The lines are priced at the current menu prices.
+     *
+     * @return A new Order.
+     */
+    public Order toOrder() {
+        Order order = new Order(orderId, tableNumber, getWaitStaffId(), getOrderTime(), getStatus());
+        order.addItems(getItems());
+        order.setDiscountCents(discountCents);
+        return order;
+    }
+
+    /**
+     * Calculates the total price of the order from the line amounts it was placed at, less the discount,
+     * without touching the catalog.
+     *
+     * @return The total order price.
+     */
+    public BigDecimal getTotalPrice() {
+        long totalCents = 0;
+        for (int i = 1; i < lines.length; i += 2) {
+            totalCents += lines[i];
+        }
+        return BigDecimal.valueOf(totalCents - discountCents, 2);
+    }
+
+    /**
+     * Resolves a catalog id through the catalog, failing if the menu no longer has it.
+     *
+     * @param itemId The catalog item id.
+     * @return The MenuItem.
+     */
+    private MenuItem resolve(int itemId) {
+        MenuItem item = catalog.apply(itemId);
+        if (item == null) {
+            throw new IllegalStateException("Catalog has no MenuItem with id " + itemId + ".");
+        }
+        return item;
+    }
+
+    /**
+     * Returns a string representation of the compact order.
+     *
+     * @return A string describing the order.
+     */
+    @Override
+    public String toString() {
+        return "CompactOrder{" +
+               "orderId=" + orderId +
+               ", tableNumber=" + tableNumber +
+               ", waitStaffId='" + getWaitStaffId() + '\'' +
+               ", orderTime=" + getOrderTime() +
+               ", status=" + status +
+               ", totalItems=" + getLineCount() +
+               '}';
+    }
+
+    /**
+     * Checks if this CompactOrder is equal to another object.
+     * Equality is based on the unique orderId.
+     *
+     * @param o The object to compare with.
+     * @return true if the objects have the same orderId, false otherwise.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CompactOrder that = (CompactOrder) o;
+        return orderId == that.orderId;
+    }
+
+    /**
+     * Generates a hash code for the CompactOrder.
+     * Based on the unique orderId.
+     *
+     * @return The hash code.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(orderId);
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.restrauntautomation.model;
+
+/**
+ * An immutable, internally consistent view of the live dashboard numbers at one point in time.
+ * Totals are kept for three windows: the last 15 minutes, the current shift and the current day.
+ */
+public class KpiSnapshot {
+
+    private final long timestampMillis;
+    private final int openOrders;
+    private final Stats last15Minutes;
+    private final Stats shift;
+    private final Stats day;
+
+    /**
+     * Constructs a new KpiSnapshot.
+     *
+     * @param timestampMillis When the snapshot was taken, in epoch millis.
+     * @param openOrders      The number of orders currently in the queue.
+     * @param last15Minutes   Totals for the last 15 minutes.
+     * @param shift           Totals since the start of the shift.
+     * @param day             Totals since midnight.
+     */
+    public KpiSnapshot(long timestampMillis, int openOrders, Stats last15Minutes, Stats shift, Stats day) {
+        this.timestampMillis = timestampMillis;
+        this.openOrders = openOrders;
+        this.last15Minutes = last15Minutes;
+        this.shift = shift;
+        this.day = day;
+    }
+
+    /**
+     * Gets the time the snapshot was taken.
+     *
+     * @return The snapshot time in epoch millis.
+     */
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    /**
+     * Gets the number of orders currently open (queued and not yet completed).
+     *
+     * @return The open order count.
+     */
+    public int getOpenOrders() {
+        return openOrders;
+    }
+
+    /**
+     * Gets the totals for the last 15 minutes.
+     *
+     * @return The 15-minute window totals.
+     */
+    public Stats getLast15Minutes() {
+        return last15Minutes;
+    }
+
+    /**
+     * Gets the totals since the start of the current shift.
+     *
+     * @return The shift totals.
+     */
+    public Stats getShift() {
+        return shift;
+    }
+
+    /**
+     * Gets the totals since midnight.
+     *
+     * @return The day totals.
+     */
+    public Stats getDay() {
+        return day;
+    }
+
+    @Override
+    public String toString() {
+        return "KpiSnapshot{" +
+               "openOrders=" + openOrders +
+               ", last15Minutes=" + last15Minutes +
+               ", shift=" + shift +
+               ", day=" + day +
+               '}';
+    }
+
+    /**
+     * Totals for a single time window.
+     */
+    public static class Stats {
+
+        private final long revenueCents;
+        private final int orders;
+        private final int completedOrders;
+        private final int tableTurns;
+        private final long totalTurnMillis;
+
+        /**
+         * Constructs a new Stats.
+         *
+         * @param revenueCents    Revenue of the orders placed in the window, in cents.
+         * @param orders          Number of orders placed in the window.
+         * @param completedOrders Number of orders completed in the window.
+         * @param tableTurns      Number of tables vacated in the window after being seated.
+         * @param totalTurnMillis Sum of the seated-to-vacant durations of those tables.
+         */
+        public Stats(long revenueCents, int orders, int completedOrders, int tableTurns, long totalTurnMillis) {
+            this.revenueCents = revenueCents;
+            this.orders = orders;
+            this.completedOrders = completedOrders;
+            this.tableTurns = tableTurns;
+            this.totalTurnMillis = totalTurnMillis;
+        }
+
+        /**
+         * Gets the revenue of the orders placed in the window.
+         *
+         * @return The revenue in cents.
+         */
+        public long getRevenueCents() {
+            return revenueCents;
+        }
+
+        /**
+         * Gets the number of orders placed in the window.
+         *
+         * @return The order count.
+         */
+        public int getOrders() {
+            return orders;
+        }
+
+        /**
+         * Gets the number of orders completed in the window.
+         *
+         * @return The completed order count.
+         */
+        public int getCompletedOrders() {
+            return completedOrders;
+        }
+
+        /**
+         * Gets the number of tables vacated in the window after being seated.
+         *
+         * @return The table turn count.
+         */
+        public int getTableTurns() {
+            return tableTurns;
+        }
+
+        /**
+         * Gets the average ticket (revenue per order placed).
+         *
+         * @return The average ticket in cents, or 0 if no orders were placed.
+         */
+        public long getAverageTicketCents() {
+            return orders == 0 ? 0 : revenueCents / orders;
+        }
+
+        /**
+         * Gets the average table turn time, from seating a party to the table being vacant again.
+         *
+         * @return The average turn time in millis, or 0 if no table was turned.
+         */
+        public long getAverageTurnMillis() {
+            return tableTurns == 0 ? 0 : totalTurnMillis / tableTurns;
+        }
+
+        @Override
+        public String toString() {
+            return "Stats{" +
+                   "revenueCents=" + revenueCents +
+                   ", orders=" + orders +
+                   ", completedOrders=" + completedOrders +
+                   ", tableTurns=" + tableTurns +
+                   ", averageTurnMillis=" + getAverageTurnMillis() +
+                   '}';
+        }
+    }
+}
@@ -2,8 +2,10 @@ package com.example.restrauntautomation.model;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * Represents a category of items on the restaurant menu (e.g., Appetizers, Main Courses).
@@ -12,7 +14,9 @@ import java.util.Objects;
 public class MenuCategory {
 
     private final String name;
+    private final int code; // In StringDictionary.CATEGORY_NAMES
     private final List<MenuItem> items;
+    private final Set<MenuItem> itemSet; // Same items, hashed so duplicate checks do not scan the list
 
     /**
      * Constructs a new MenuCategory.
@@ -20,11 +24,13 @@ public class MenuCategory {
      * @param name The name of the category (must not be null or empty).
      */
     public MenuCategory(String name) {
-        if (name == null || name.trim().isEmpty()) {
+        if (name == null || name.isBlank()) {
             throw new IllegalArgumentException("Category name cannot be null or empty.");
         }
-        this.name = name.trim();
+        this.code = StringDictionary.CATEGORY_NAMES.codeOf(name.trim());
+        this.name = StringDictionary.CATEGORY_NAMES.valueOf(code);
         this.items = new ArrayList<>();
+        this.itemSet = new HashSet<>();
     }
 
     /**
@@ -36,21 +42,30 @@ public class MenuCategory {
         return name;
     }
 
+    /**
+     * Gets the dictionary code of the category's name.
+     *
+     * @return The code in {@link StringDictionary#CATEGORY_NAMES}.
+     */
+    public int getCode() {
+        return code;
+    }
+
     /**
      * Adds a MenuItem to this category.
-     * Ensures the item belongs to this category by name.
+     * Ensures the item belongs to this category, by comparing category codes.
      *
      * @param item The MenuItem to add (must not be null and must belong to this category).
      */
     public void addItem(MenuItem item) {
         Objects.requireNonNull(item, "Cannot add a null MenuItem.");
-        if (!item.getCategoryName().equals(this.name)) {
+        if (item.getCategoryCode() != code) {
             throw new IllegalArgumentException("MenuItem '" + item.getName() +
                     "' belongs to category '" + item.getCategoryName() +
                     "' but is being added to category '" + this.name + "'.");
         }
         // Optional: Check if item already exists to prevent duplicates
-        if (!this.items.contains(item)) {
+        if (itemSet.add(item)) {
             this.items.add(item);
         }
     }
@@ -62,7 +77,7 @@ public class MenuCategory {
      * @return true if the item was removed, false otherwise.
      */
     public boolean removeItem(MenuItem item) {
-        return this.items.remove(item);
+        return itemSet.remove(item) && this.items.remove(item);
     }
 
     /**
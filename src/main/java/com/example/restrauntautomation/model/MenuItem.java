@@ -1,6 +1,7 @@
 package com.example.restrauntautomation.model;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.Objects;
 
 /**
@@ -12,7 +13,9 @@ public class MenuItem {
     private final String name;
     private final String description;
     private final BigDecimal price;
-    private final String categoryName; // Link to MenuCategory
+    private final long priceInCents; // Fixed-point copy of price for allocation-free arithmetic
+    private final int categoryCode; // Link to MenuCategory, as its code in StringDictionary.CATEGORY_NAMES
+    private final int hashCode; // Cached: items are hash keys on every order line and pricing lookup
 
     /**
      * Constructs a new MenuItem.
@@ -29,14 +32,16 @@ public class MenuItem {
         if (price == null || price.compareTo(BigDecimal.ZERO) < 0) {
             throw new IllegalArgumentException("Menu item price cannot be null or negative.");
         }
-         if (categoryName == null || categoryName.trim().isEmpty()) {
+         if (categoryName == null || categoryName.isBlank()) {
             throw new IllegalArgumentException("Category name cannot be null or empty.");
         }
 
         this.name = name.trim();
         this.description = description != null ? description : ""; // Allow null description, default to empty
         this.price = price;
-        this.categoryName = categoryName.trim();
+        this.priceInCents = price.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+        this.categoryCode = StringDictionary.CATEGORY_NAMES.codeOf(categoryName.trim());
+        this.hashCode = Objects.hash(this.name, getCategoryName());
     }
 
     /**
@@ -66,13 +71,31 @@ public class MenuItem {
         return price;
     }
 
+    /**
+     * Gets the price of the menu item in whole cents, rounded half-up.
+     *
+     * @return The item price in cents.
+     */
+    public long getPriceInCents() {
+        return priceInCents;
+    }
+
     /**
      * Gets the name of the category this item belongs to.
      *
-     * @return The category name.
+     * @return The category name (the shared instance from {@link StringDictionary#CATEGORY_NAMES}).
      */
     public String getCategoryName() {
-        return categoryName;
+        return StringDictionary.CATEGORY_NAMES.valueOf(categoryCode);
+    }
+
+    /**
+     * Gets the dictionary code of the category this item belongs to.
+     *
+     * @return The code in {@link StringDictionary#CATEGORY_NAMES}.
+     */
+    public int getCategoryCode() {
+        return categoryCode;
     }
 
     /**
@@ -86,7 +109,7 @@ public class MenuItem {
                "name='" + name + '\'' +
                ", description='" + description + '\'' +
                ", price=" + price +
-               ", categoryName='" + categoryName + '\'' +
+               ", categoryName='" + getCategoryName() + '\'' +
                '}';
     }
 
@@ -103,17 +126,17 @@ public class MenuItem {
         if (o == null || getClass() != o.getClass()) return false;
         MenuItem menuItem = (MenuItem) o;
         // Primarily checking name and category for uniqueness within a menu context
-        return name.equals(menuItem.name) && categoryName.equals(menuItem.categoryName);
+        return categoryCode == menuItem.categoryCode && name.equals(menuItem.name);
     }
 
     /**
      * Generates a hash code for the MenuItem.
-     * Based on the item name and category name.
+     * Based on the item name and category name; computed once, since both are final.
      *
      * @return The hash code.
      */
     @Override
     public int hashCode() {
-        return Objects.hash(name, categoryName);
+        return hashCode;
     }
 }
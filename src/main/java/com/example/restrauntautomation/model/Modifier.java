@@ -0,0 +1,83 @@
+package com.example.restrauntautomation.model;
+
+import java.util.Objects;
+
+/**
+ * A change to an ordered item, such as "No onions", "Extra cheese" or "Large", with the amount it
+ * adds to (or, if negative, takes off) the item's price.
+ */
+public class Modifier {
+
+    private final String name;
+    private final long priceDeltaCents;
+
+    /**
+     * Constructs a modifier.
+     *
+     * @param name            The name shown on tickets (must not be empty).
+     * @param priceDeltaCents The price change per unit in cents; 0 for free modifiers.
+     */
+    public Modifier(String name, long priceDeltaCents) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("Modifier name cannot be null or empty.");
+        }
+        this.name = name.trim();
+        this.priceDeltaCents = priceDeltaCents;
+    }
+
+    /**
+     * Gets the name of the modifier.
+     *
+     * @return The name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the price change per unit.
+     *
+     * @return The price change in cents.
+     */
+    public long getPriceDeltaCents() {
+        return priceDeltaCents;
+    }
+
+    /**
+     * Returns a string representation of the modifier.
+     *
+     * @return The name, with the price change if there is one.
+     */
+    @Override
+    public String toString() {
+        if (priceDeltaCents == 0) {
+            return name;
+        }
+        return String.format("%s (%s$%d.%02d)", name, priceDeltaCents < 0 ? "-" : "+",
+                Math.abs(priceDeltaCents) / 100, Math.abs(priceDeltaCents) % 100);
+    }
+
+    /**
+     * Checks if this Modifier is equal to another object, by name and price change.
+     *
+     * @param o The object to compare with.
+     * @return true if both have the same name and price change.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Modifier modifier = (Modifier) o;
+        return priceDeltaCents == modifier.priceDeltaCents && name.equals(modifier.name);
+    }
+
+    /**
+     * Generates a hash code for the Modifier.
+     *
+     * @return The hash code.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, priceDeltaCents);
+    }
+}
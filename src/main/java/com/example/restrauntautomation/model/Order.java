@@ -3,10 +3,12 @@ package com.example.restrauntautomation.model;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Represents a customer order placed at a specific table by a wait staff member.
@@ -14,15 +16,17 @@ import java.util.concurrent.atomic.AtomicLong;
  */
 public class Order {
 
-    // Simple sequence generator for unique order IDs
-    private static final AtomicLong idCounter = new AtomicLong(1);
+    // Pluggable source of unique order IDs; time-ordered by default
+    private static volatile OrderIdGenerator idGenerator = new SnowflakeOrderIdGenerator(0);
 
     private final long orderId;
     private final int tableNumber; // Reference to the Table
-    private final String waitStaffId; // Reference to the WaitStaff
+    private final int waitStaffCode; // Reference to the WaitStaff, as its code in StringDictionary.STAFF_IDS
     private final List<OrderItem> items;
+    private final Map<Object, OrderItem> itemIndex; // Hashed lookup so merging lines is O(1); keyed by MenuItem for plain lines
     private final LocalDateTime orderTime;
     private OrderStatus status;
+    private long discountCents; // Set by the pricing rules; 0 when none apply
 
     /**
      * Constructs a new Order.
@@ -34,17 +38,54 @@ public class Order {
          if (tableNumber <= 0) {
             throw new IllegalArgumentException("Table number must be positive.");
         }
-         if (waitStaffId == null || waitStaffId.trim().isEmpty()) {
+         if (waitStaffId == null || waitStaffId.isBlank()) {
             throw new IllegalArgumentException("Wait staff ID cannot be null or empty.");
         }
-        this.orderId = idCounter.getAndIncrement();
+        this.orderId = idGenerator.nextId();
         this.tableNumber = tableNumber;
-        this.waitStaffId = waitStaffId.trim();
+        this.waitStaffCode = StringDictionary.STAFF_IDS.codeOf(waitStaffId.trim());
         this.items = new ArrayList<>();
+        this.itemIndex = new HashMap<>();
         this.orderTime = LocalDateTime.now();
         this.status = OrderStatus.PLACED; // Initial status
     }
 
+    /**
+     * Reconstructs an existing Order, e.g. one received from another terminal.
+     * No new ID is generated; items are added afterwards with {@link #addItem} or {@link #addItems}.
+     *
+     * @param orderId     The ID the order was created with.
+     * @param tableNumber The number of the table placing the order.
+     * @param waitStaffId The ID of the wait staff member taking the order.
+     * @param orderTime   The time the order was placed.
+     * @param status      The current status of the order.
+     */
+    public Order(long orderId, int tableNumber, String waitStaffId, LocalDateTime orderTime, OrderStatus status) {
+        if (tableNumber <= 0) {
+            throw new IllegalArgumentException("Table number must be positive.");
+        }
+        if (waitStaffId == null || waitStaffId.isBlank()) {
+            throw new IllegalArgumentException("Wait staff ID cannot be null or empty.");
+        }
+        this.orderId = orderId;
+        this.tableNumber = tableNumber;
+        this.waitStaffCode = StringDictionary.STAFF_IDS.codeOf(waitStaffId.trim());
+        this.items = new ArrayList<>();
+        this.itemIndex = new HashMap<>();
+        this.orderTime = Objects.requireNonNull(orderTime, "Order time cannot be null.");
+        this.status = Objects.requireNonNull(status, "Order status cannot be null.");
+    }
+
+    /**
+     * Installs the generator used for the IDs of all orders created afterwards.
+     * Call once at startup, before any order is created.
+     *
+     * @param generator The ID generator (must not be null).
+     */
+    public static void setIdGenerator(OrderIdGenerator generator) {
+        idGenerator = Objects.requireNonNull(generator, "Order ID generator cannot be null.");
+    }
+
     /**
      * Gets the unique ID of the order.
      *
@@ -66,10 +107,19 @@ public class Order {
     /**
      * Gets the ID of the wait staff member who took the order.
      *
-     * @return The wait staff ID.
+     * @return The wait staff ID (the shared instance from {@link StringDictionary#STAFF_IDS}).
      */
     public String getWaitStaffId() {
-        return waitStaffId;
+        return StringDictionary.STAFF_IDS.valueOf(waitStaffCode);
+    }
+
+    /**
+     * Gets the dictionary code of the wait staff member who took the order.
+     *
+     * @return The code in {@link StringDictionary#STAFF_IDS}.
+     */
+    public int getWaitStaffCode() {
+        return waitStaffCode;
     }
 
     /**
@@ -108,6 +158,25 @@ public class Order {
         return Collections.unmodifiableList(items);
     }
 
+    /**
+     * Gets the number of lines in this order.
+     *
+     * @return The line count.
+     */
+    public int getItemCount() {
+        return items.size();
+    }
+
+    /**
+     * Gets a line of this order without creating a list view, for allocation-free loops.
+     *
+     * @param index The line index, from 0 to {@link #getItemCount()} - 1.
+     * @return The line.
+     */
+    public OrderItem getItem(int index) {
+        return items.get(index);
+    }
+
     /**
      * Adds an item to the order. If the same menu item already exists,
      * it increases the quantity; otherwise, it adds a new OrderItem.
@@ -120,38 +189,138 @@ public class Order {
         if (quantity <= 0) {
             throw new IllegalArgumentException("Quantity must be positive.");
         }
+        mergeItem(menuItem, quantity);
+    }
 
-        // Check if item already exists in the order
-        for (OrderItem existingItem : items) {
-            if (existingItem.getMenuItem().equals(menuItem)) {
-                existingItem.setQuantity(existingItem.getQuantity() + quantity);
-                return; // Item found and quantity updated
+    /**
+     * Adds an item with modifiers to the order. If a line for the same menu item with the same
+     * modifiers already exists, it increases the quantity; otherwise, it adds a new OrderItem.
+     *
+     * @param menuItem  The MenuItem to add.
+     * @param quantity  The quantity to add (must be positive).
+     * @param modifiers The modifiers of the line (must not be null).
+     */
+    public void addItem(MenuItem menuItem, int quantity, List<Modifier> modifiers) {
+        Objects.requireNonNull(menuItem, "Cannot add a null MenuItem to the order.");
+        if (modifiers.isEmpty()) {
+            addItem(menuItem, quantity);
+        } else {
+            mergeLine(new OrderItem(menuItem, quantity, modifiers));
+        }
+    }
+
+    /**
+     * Adds a batch of lines to the order, merging lines for the same menu item.
+     * The whole batch is validated before anything is added, so an invalid line
+     * leaves the order unchanged.
+     *
+     * @param lines The lines to add (must not be null or contain null entries).
+     */
+    public void addItems(Collection<OrderItem> lines) {
+        Objects.requireNonNull(lines, "Cannot add a null collection of items to the order.");
+        for (OrderItem line : lines) {
+            Objects.requireNonNull(line, "Cannot add a null OrderItem to the order.");
+        }
+        for (OrderItem line : lines) {
+            if (line.getModifiers().isEmpty()) {
+                mergeItem(line.getMenuItem(), line.getQuantity());
+            } else {
+                mergeLine(new OrderItem(line.getMenuItem(), line.getQuantity(), line.getModifiers()));
             }
         }
+    }
+
+    /**
+     * Merges a quantity of a menu item into the order using the hashed line index.
+     *
+     * @param menuItem The MenuItem to merge.
+     * @param quantity The quantity to add.
+     */
+    private void mergeItem(MenuItem menuItem, int quantity) {
+        OrderItem existingItem = itemIndex.get(menuItem);
+        if (existingItem != null) {
+            existingItem.setQuantity(existingItem.getQuantity() + quantity);
+            return; // Item found and quantity updated
+        }
         // Item not found, add as a new OrderItem
-        items.add(new OrderItem(menuItem, quantity));
+        OrderItem newItem = new OrderItem(menuItem, quantity);
+        items.add(newItem);
+        itemIndex.put(menuItem, newItem);
+    }
+
+    /**
+     * Merges a line with modifiers into the order. The line itself is the index key, since lines are
+     * equal when their menu item and modifiers are; if no equal line exists, it becomes the new line.
+     *
+     * @param line The line to merge (not shared with anyone else).
+     */
+    private void mergeLine(OrderItem line) {
+        OrderItem existingItem = itemIndex.get(line);
+        if (existingItem != null) {
+            existingItem.setQuantity(existingItem.getQuantity() + line.getQuantity());
+            return;
+        }
+        items.add(line);
+        itemIndex.put(line, line);
     }
 
      /**
-     * Removes an item completely from the order.
+     * Removes an item without modifiers completely from the order. Lines with modifiers are kept.
      *
      * @param menuItem The MenuItem to remove.
      * @return true if the item was found and removed, false otherwise.
      */
     public boolean removeItem(MenuItem menuItem) {
         Objects.requireNonNull(menuItem, "Cannot remove a null MenuItem from the order.");
-        return items.removeIf(orderItem -> orderItem.getMenuItem().equals(menuItem));
+        OrderItem removed = itemIndex.remove(menuItem);
+        return removed != null && items.remove(removed);
+    }
+
+    /**
+     * Gets the discount given by the pricing rules (happy hour, combos).
+     *
+     * @return The discount in cents.
+     */
+    public long getDiscountCents() {
+        return discountCents;
+    }
+
+    /**
+     * Sets the discount given by the pricing rules.
+     *
+     * @param discountCents The discount in cents (not negative).
+     */
+    public void setDiscountCents(long discountCents) {
+        if (discountCents < 0) {
+            throw new IllegalArgumentException("Discount cannot be negative.");
+        }
+        this.discountCents = discountCents;
+    }
+
+    /**
+     * Calculates the price of all lines, before the discount.
+     *
+     * @return The subtotal in cents.
+     */
+    public long getSubtotalCents() {
+        long subtotal = 0;
+        for (int i = 0; i < items.size(); i++) {
+            subtotal += items.get(i).getTotalPriceInCents();
+        }
+        return subtotal;
     }
 
     /**
-     * Calculates the total price of the order by summing the prices of all OrderItems.
+     * Calculates the total price of the order by summing the prices of all OrderItems
+     * and taking off the pricing discount.
      *
      * @return The total order price.
      */
     public BigDecimal getTotalPrice() {
-        return items.stream()
+        BigDecimal total = items.stream()
                     .map(OrderItem::getTotalPrice)
                     .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return discountCents == 0 ? total : total.subtract(BigDecimal.valueOf(discountCents, 2));
     }
 
     /**
@@ -164,7 +333,7 @@ public class Order {
         return "Order{" +
                "orderId=" + orderId +
                ", tableNumber=" + tableNumber +
-               ", waitStaffId='" + waitStaffId + '\'' +
+               ", waitStaffId='" + getWaitStaffId() + '\'' +
                ", orderTime=" + orderTime +
                ", status=" + status +
                ", totalItems=" + items.size() +
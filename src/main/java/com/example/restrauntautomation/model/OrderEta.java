@@ -0,0 +1,89 @@
+package com.example.restrauntautomation.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * The predicted ready time of an order: the expected time, and a later time by which it is ready
+ * nine times out of ten. Both are the time spent waiting for the orders ahead of it plus its own prep time.
+ */
+public class OrderEta {
+
+    private final long orderId;
+    private final LocalDateTime readyAt;
+    private final LocalDateTime latestReadyAt;
+    private final long waitMillis;
+    private final long prepMillis;
+
+    /**
+     * Constructs a new OrderEta.
+     *
+     * @param orderId       The ID of the order.
+     * @param readyAt       The expected ready time.
+     * @param latestReadyAt The 90th percentile ready time.
+     * @param waitMillis    The expected wait for the orders ahead, in millis.
+     * @param prepMillis    The expected prep time of the order itself, in millis.
+     */
+    public OrderEta(long orderId, LocalDateTime readyAt, LocalDateTime latestReadyAt, long waitMillis, long prepMillis) {
+        this.orderId = orderId;
+        this.readyAt = readyAt;
+        this.latestReadyAt = latestReadyAt;
+        this.waitMillis = waitMillis;
+        this.prepMillis = prepMillis;
+    }
+
+    /**
+     * Gets the ID of the order.
+     *
+     * @return The order ID.
+     */
+    public long getOrderId() {
+        return orderId;
+    }
+
+    /**
+     * Gets the expected ready time.
+     *
+     * @return The expected ready time.
+     */
+    public LocalDateTime getReadyAt() {
+        return readyAt;
+    }
+
+    /**
+     * Gets the time by which the order is ready nine times out of ten.
+     *
+     * @return The 90th percentile ready time.
+     */
+    public LocalDateTime getLatestReadyAt() {
+        return latestReadyAt;
+    }
+
+    /**
+     * Gets the expected wait for the orders queued ahead.
+     *
+     * @return The wait in millis.
+     */
+    public long getWaitMillis() {
+        return waitMillis;
+    }
+
+    /**
+     * Gets the expected prep time of the order's slowest item.
+     *
+     * @return The prep time in millis.
+     */
+    public long getPrepMillis() {
+        return prepMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "OrderEta{" +
+               "orderId=" + orderId +
+               ", readyAt=" + readyAt +
+               ", latestReadyAt=" + latestReadyAt +
+               ", waitMillis=" + waitMillis +
+               ", prepMillis=" + prepMillis +
+               '}';
+    }
+}
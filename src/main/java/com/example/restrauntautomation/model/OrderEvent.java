@@ -0,0 +1,72 @@
+package com.example.restrauntautomation.model;
+
+import java.util.Objects;
+
+/**
+ * An immutable notification that an order entered or left the order queue, or had its items amended while queued.
+ * Published to push-based consumers such as the kitchen display.
+ */
+public class OrderEvent {
+
+    private final Type type;
+    private final Order order;
+    private final long timestampMillis;
+
+    /**
+     * Constructs a new OrderEvent.
+     *
+     * @param type            What happened to the order (must not be null).
+     * @param order           The order concerned (must not be null).
+     * @param timestampMillis When the event happened, in epoch millis.
+     */
+    public OrderEvent(Type type, Order order, long timestampMillis) {
+        this.type = Objects.requireNonNull(type, "Event type cannot be null.");
+        this.order = Objects.requireNonNull(order, "Event order cannot be null.");
+        this.timestampMillis = timestampMillis;
+    }
+
+    /**
+     * Gets what happened to the order.
+     *
+     * @return The event type.
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Gets the order concerned.
+     *
+     * @return The order.
+     */
+    public Order getOrder() {
+        return order;
+    }
+
+    /**
+     * Gets when the event happened.
+     *
+     * @return The event time in epoch millis.
+     */
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "OrderEvent{" +
+               "type=" + type +
+               ", orderId=" + order.getOrderId() +
+               ", timestampMillis=" + timestampMillis +
+               '}';
+    }
+
+    /**
+     * Represents the kinds of order queue events.
+     */
+    public enum Type {
+        ADDED,   // Order entered the queue
+        REMOVED, // Order left the queue (completed or processed)
+        AMENDED  // Items were added to or removed from the queued order
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.restrauntautomation.model;
+
+/**
+ * Source of unique order IDs. Installed with {@link Order#setIdGenerator(OrderIdGenerator)}.
+ * Implementations must be safe to call from multiple threads.
+ */
+public interface OrderIdGenerator {
+
+    /**
+     * Generates the next order ID.
+     *
+     * @return A positive ID not returned before.
+     */
+    long nextId();
+}
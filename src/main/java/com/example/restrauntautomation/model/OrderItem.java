@@ -1,14 +1,24 @@
 package com.example.restrauntautomation.model;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Objects;
 
 /**
- * Represents a single line item within an Order, linking a MenuItem with a quantity.
+ * Represents a single line item within an Order, linking a MenuItem and its modifiers with a quantity.
+ * Lines for the same MenuItem with different modifiers are different lines.
  */
 public class OrderItem {
 
+    private static final Comparator<Modifier> MODIFIER_ORDER =
+            Comparator.comparing(Modifier::getName).thenComparingLong(Modifier::getPriceDeltaCents);
+
     private final MenuItem menuItem;
+    private final List<Modifier> modifiers; // Sorted, so equal sets compare equal
+    private final long modifierDeltaCents; // Sum of the modifier price changes per unit
     private int quantity;
 
     /**
@@ -18,12 +28,40 @@ public class OrderItem {
      * @param quantity The quantity ordered (must be positive).
      */
     public OrderItem(MenuItem menuItem, int quantity) {
+        this(menuItem, quantity, Collections.emptyList());
+    }
+
+    /**
+     * Constructs a new OrderItem with modifiers.
+     *
+     * @param menuItem  The MenuItem being ordered (must not be null).
+     * @param quantity  The quantity ordered (must be positive).
+     * @param modifiers The modifiers applied to every unit (must not be null); their order does not matter.
+     */
+    public OrderItem(MenuItem menuItem, int quantity, List<Modifier> modifiers) {
         Objects.requireNonNull(menuItem, "MenuItem cannot be null for an OrderItem.");
+        Objects.requireNonNull(modifiers, "Modifiers cannot be null for an OrderItem.");
         if (quantity <= 0) {
             throw new IllegalArgumentException("Quantity must be positive.");
         }
         this.menuItem = menuItem;
         this.quantity = quantity;
+        if (modifiers.isEmpty()) {
+            this.modifiers = Collections.emptyList();
+            this.modifierDeltaCents = 0;
+        } else {
+            List<Modifier> sorted = new ArrayList<>(modifiers);
+            long delta = 0;
+            for (Modifier modifier : sorted) {
+                delta = Math.addExact(delta, Objects.requireNonNull(modifier, "Modifier cannot be null.").getPriceDeltaCents());
+            }
+            if (menuItem.getPriceInCents() + delta < 0) {
+                throw new IllegalArgumentException("Modifiers cannot make the price of '" + menuItem.getName() + "' negative.");
+            }
+            sorted.sort(MODIFIER_ORDER);
+            this.modifiers = Collections.unmodifiableList(sorted);
+            this.modifierDeltaCents = delta;
+        }
     }
 
     /**
@@ -35,6 +73,33 @@ public class OrderItem {
         return menuItem;
     }
 
+    /**
+     * Gets the modifiers applied to every unit of this line.
+     *
+     * @return An unmodifiable list of modifiers, sorted by name; empty if there are none.
+     */
+    public List<Modifier> getModifiers() {
+        return modifiers;
+    }
+
+    /**
+     * Gets the price of one unit including modifiers.
+     *
+     * @return The unit price in cents.
+     */
+    public long getUnitPriceInCents() {
+        return menuItem.getPriceInCents() + modifierDeltaCents;
+    }
+
+    /**
+     * Gets the price of the line including modifiers.
+     *
+     * @return The unit price times the quantity, in cents.
+     */
+    public long getTotalPriceInCents() {
+        return getUnitPriceInCents() * quantity;
+    }
+
     /**
      * Gets the quantity ordered for this item.
      *
@@ -58,12 +123,13 @@ public class OrderItem {
     }
 
     /**
-     * Calculates the total price for this order item (MenuItem price * quantity).
+     * Calculates the total price for this order item ((MenuItem price + modifiers) * quantity).
      *
      * @return The total price for this line item.
      */
     public BigDecimal getTotalPrice() {
-        return menuItem.getPrice().multiply(BigDecimal.valueOf(quantity));
+        BigDecimal total = menuItem.getPrice().multiply(BigDecimal.valueOf(quantity));
+        return modifierDeltaCents == 0 ? total : total.add(BigDecimal.valueOf(modifierDeltaCents * quantity, 2));
     }
 
     /**
@@ -75,6 +141,7 @@ public class OrderItem {
     public String toString() {
         return "OrderItem{" +
                "menuItem=" + menuItem.getName() + // Show item name for clarity
+               (modifiers.isEmpty() ? "" : ", modifiers=" + modifiers) +
                ", quantity=" + quantity +
                ", totalPrice=" + getTotalPrice() +
                '}';
@@ -82,28 +149,28 @@ public class OrderItem {
 
     /**
      * Checks if this OrderItem is equal to another object.
-     * Equality is based on the underlying MenuItem. Quantity is not considered
+     * Equality is based on the underlying MenuItem and modifiers. Quantity is not considered
      * for basic equality, as you might want to merge items of the same type.
      *
      * @param o The object to compare with.
-     * @return true if the objects represent the same MenuItem, false otherwise.
+     * @return true if the objects represent the same MenuItem with the same modifiers, false otherwise.
      */
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         OrderItem orderItem = (OrderItem) o;
-        return menuItem.equals(orderItem.menuItem); // Based on the MenuItem only
+        return menuItem.equals(orderItem.menuItem) && modifiers.equals(orderItem.modifiers); // Not the quantity
     }
 
     /**
      * Generates a hash code for the OrderItem.
-     * Based on the underlying MenuItem.
+     * Based on the underlying MenuItem and modifiers.
      *
      * @return The hash code.
      */
     @Override
     public int hashCode() {
-        return Objects.hash(menuItem); // Based on the MenuItem only
+        return modifiers.isEmpty() ? Objects.hash(menuItem) : Objects.hash(menuItem, modifiers); // Not the quantity
     }
 }
@@ -0,0 +1,233 @@
+package com.example.restrauntautomation.model;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Time-ordered order ID generator in the style of Snowflake IDs. A 63-bit ID is laid out as
+ * <pre>
+ *   [ 41 bits: millis since 2024-01-01 | 10 bits: node id | 4 bits: lane | 8 bits: sequence ]
+ * </pre>
+ * Each thread is assigned one of 16 lanes and keeps its own millisecond and sequence, so threads on
+ * different cores never contend on a shared counter. Up to 256 IDs per millisecond per lane are issued
+ * before the lane borrows the next millisecond.
+ *
+ * <p>IDs are unique per node and strictly increasing per lane, and so per thread, but not across the node:
+ * an ID taken on one lane may be smaller than one taken earlier on another lane in the same millisecond,
+ * or in a millisecond that lane borrowed. A node-wide order would need the shared counter the lanes avoid.
+ * Use the order time, not the ID, where the exact order of orders matters.
+ *
+ * <p>Because the order time is embedded, archives can be range-scanned by ID (see {@link #minIdAt(long)}).
+ * The embedded time is never earlier than the clock when the ID was taken, but may be later: by up to
+ * {@value #RESERVATION_MILLIS} ms after a restart, by the size of a clock step back until the clock
+ * catches up, and by the milliseconds a lane borrowed under a burst. If a state file is given, a time
+ * high-water mark is reserved in it ahead of use, so IDs keep increasing across restarts even if the wall
+ * clock is set back.
+ */
+public class SnowflakeOrderIdGenerator implements OrderIdGenerator {
+
+    /** Start of the embedded timestamp range, 2024-01-01T00:00:00Z. */
+    public static final long EPOCH_MILLIS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    public static final int MAX_NODE_ID = 1023;
+
+    private static final int SEQUENCE_BITS = 8;
+    private static final int LANE_BITS = 4;
+    private static final int NODE_BITS = 10;
+    private static final int LANE_SHIFT = SEQUENCE_BITS;
+    private static final int NODE_SHIFT = SEQUENCE_BITS + LANE_BITS;
+    private static final int TIMESTAMP_SHIFT = SEQUENCE_BITS + LANE_BITS + NODE_BITS;
+    private static final int MAX_SEQUENCE = (1 << SEQUENCE_BITS) - 1;
+    private static final int LANE_COUNT = 1 << LANE_BITS;
+    private static final long RESERVATION_MILLIS = 10_000; // How far ahead the persisted high-water mark is set
+
+    private final int nodeId;
+    private final LongSupplier clock;
+    private final Path stateFile; // Null if IDs are not persisted
+    private final Lane[] lanes = new Lane[LANE_COUNT];
+    private final AtomicInteger nextLane = new AtomicInteger();
+    private final ThreadLocal<Lane> threadLane;
+    private final Object reservationLock = new Object();
+    private volatile long reservedUntil; // Every ID issued so far has a timestamp below this
+
+    /**
+     * Creates a generator that does not persist state.
+     *
+     * @param nodeId The node ID of this terminal (0 to 1023).
+     */
+    public SnowflakeOrderIdGenerator(int nodeId) {
+        this(nodeId, null, System::currentTimeMillis);
+    }
+
+    /**
+     * Creates a generator that persists its time high-water mark in the given file.
+     *
+     * @param nodeId    The node ID of this terminal (0 to 1023).
+     * @param stateFile The state file, created if missing.
+     */
+    public SnowflakeOrderIdGenerator(int nodeId, Path stateFile) {
+        this(nodeId, stateFile, System::currentTimeMillis);
+    }
+
+    /**
+     * Creates a generator.
+     *
+     * @param nodeId    The node ID of this terminal (0 to 1023).
+     * @param stateFile The state file, or null to not persist state.
+     * @param clock     Supplies the current time in epoch millis.
+     */
+    public SnowflakeOrderIdGenerator(int nodeId, Path stateFile, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node ID must be between 0 and " + MAX_NODE_ID + ".");
+        }
+        this.nodeId = nodeId;
+        this.stateFile = stateFile;
+        this.clock = clock;
+        long floor = readReservation();
+        for (int i = 0; i < LANE_COUNT; i++) {
+            lanes[i] = new Lane(i, floor);
+        }
+        this.reservedUntil = floor;
+        this.threadLane = ThreadLocal.withInitial(() -> lanes[Math.floorMod(nextLane.getAndIncrement(), LANE_COUNT)]);
+    }
+
+    @Override
+    public long nextId() {
+        return threadLane.get().next();
+    }
+
+    /**
+     * Gets the node ID of this generator.
+     *
+     * @return The node ID.
+     */
+    public int getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Extracts the embedded creation time of an ID.
+     *
+     * @param id An ID produced by this scheme.
+     * @return The creation time in epoch millis.
+     */
+    public static long timestampMillisOf(long id) {
+        return (id >>> TIMESTAMP_SHIFT) + EPOCH_MILLIS;
+    }
+
+    /**
+     * Extracts the node ID of an ID.
+     *
+     * @param id An ID produced by this scheme.
+     * @return The node ID.
+     */
+    public static int nodeIdOf(long id) {
+        return (int) ((id >>> NODE_SHIFT) & MAX_NODE_ID);
+    }
+
+    /**
+     * Gets the smallest ID any node could have generated at the given time, for range scans by ID. Every ID
+     * taken at or after the time is at least this ID. IDs taken before it are below it too, unless their
+     * embedded time ran ahead of the clock (see the class comment), so a scan for orders placed before a time
+     * should extend its upper bound by that slack and filter on the order time.
+     *
+     * @param epochMillis The time in epoch millis.
+     * @return The smallest ID with that timestamp.
+     */
+    public static long minIdAt(long epochMillis) {
+        return Math.max(0, epochMillis - EPOCH_MILLIS) << TIMESTAMP_SHIFT;
+    }
+
+    /**
+     * Makes sure the persisted high-water mark is above the given timestamp, extending it if needed.
+     * Only runs the synchronized path about once every {@value #RESERVATION_MILLIS} ms.
+     *
+     * @param timestamp The timestamp about to be used (millis since {@link #EPOCH_MILLIS}).
+     */
+    private void reserve(long timestamp) {
+        if (timestamp < reservedUntil) {
+            return;
+        }
+        synchronized (reservationLock) {
+            if (timestamp < reservedUntil) {
+                return;
+            }
+            long newReservation = timestamp + RESERVATION_MILLIS;
+            writeReservation(newReservation);
+            reservedUntil = newReservation;
+        }
+    }
+
+    /**
+     * Reads the persisted high-water mark.
+     *
+     * @return The reserved timestamp, or 0 if there is no state file.
+     */
+    private long readReservation() {
+        if (stateFile == null || !Files.exists(stateFile)) {
+            return 0;
+        }
+        try {
+            byte[] bytes = Files.readAllBytes(stateFile);
+            return bytes.length >= Long.BYTES ? ByteBuffer.wrap(bytes).getLong() : 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read order ID state from " + stateFile, e);
+        }
+    }
+
+    /**
+     * Persists a new high-water mark and forces it to disk before any ID beyond the old mark is issued.
+     *
+     * @param reservation The timestamp to persist.
+     */
+    private void writeReservation(long reservation) {
+        if (stateFile == null) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(stateFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES).putLong(0, reservation);
+            channel.write(buffer, 0);
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not persist order ID state to " + stateFile, e);
+        }
+    }
+
+    /**
+     * Per-lane generator state. A lane is normally used by a single thread; the lock is only
+     * contended when more than {@value #LANE_COUNT} threads generate IDs at once.
+     */
+    private final class Lane {
+        private final long laneBits;
+        private long lastTimestamp;
+        private int sequence;
+
+        Lane(int lane, long floor) {
+            this.laneBits = (long) lane << LANE_SHIFT;
+            this.lastTimestamp = floor;
+            this.sequence = MAX_SEQUENCE; // Forces the next ID to move past the floor
+        }
+
+        synchronized long next() {
+            long now = clock.getAsLong() - EPOCH_MILLIS;
+            if (now > lastTimestamp) {
+                lastTimestamp = now;
+                sequence = 0;
+            } else if (sequence < MAX_SEQUENCE) {
+                sequence++; // Same millisecond, or the clock went back: keep counting
+            } else {
+                lastTimestamp++; // Sequence exhausted: borrow the next millisecond
+                sequence = 0;
+            }
+            reserve(lastTimestamp);
+            return (lastTimestamp << TIMESTAMP_SHIFT) | ((long) nodeId << NODE_SHIFT) | laneBits | sequence;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.restrauntautomation.model;
+
+/**
+ * A point-in-time view of one server's workload: the tables they are seated at, their open orders and
+ * their share of the tips so far.
+ */
+public class StaffLoad {
+
+    private final String staffId;
+    private final int floor;
+    private final int tables;
+    private final int openOrders;
+    private final long tipShareCents;
+
+    /**
+     * Constructs a new StaffLoad.
+     *
+     * @param staffId       The ID of the server.
+     * @param floor         The floor the server works on.
+     * @param tables        The number of tables assigned to the server.
+     * @param openOrders    The number of the server's orders still in the queue.
+     * @param tipShareCents The server's tips so far, in cents.
+     */
+    public StaffLoad(String staffId, int floor, int tables, int openOrders, long tipShareCents) {
+        this.staffId = staffId;
+        this.floor = floor;
+        this.tables = tables;
+        this.openOrders = openOrders;
+        this.tipShareCents = tipShareCents;
+    }
+
+    /**
+     * Gets the ID of the server.
+     *
+     * @return The staff ID.
+     */
+    public String getStaffId() {
+        return staffId;
+    }
+
+    /**
+     * Gets the floor the server works on.
+     *
+     * @return The floor number.
+     */
+    public int getFloor() {
+        return floor;
+    }
+
+    /**
+     * Gets the number of tables assigned to the server.
+     *
+     * @return The table count.
+     */
+    public int getTables() {
+        return tables;
+    }
+
+    /**
+     * Gets the number of the server's orders still in the queue.
+     *
+     * @return The open order count.
+     */
+    public int getOpenOrders() {
+        return openOrders;
+    }
+
+    /**
+     * Gets the server's tips so far.
+     *
+     * @return The tip share in cents.
+     */
+    public long getTipShareCents() {
+        return tipShareCents;
+    }
+
+    @Override
+    public String toString() {
+        return "StaffLoad{" +
+               "staffId='" + staffId + '\'' +
+               ", floor=" + floor +
+               ", tables=" + tables +
+               ", openOrders=" + openOrders +
+               ", tipShareCents=" + tipShareCents +
+               '}';
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.restrauntautomation.model;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An append-only dictionary that interns strings which repeat across many objects, such as staff IDs and
+ * category names, and maps each to a dense {@code int} code (0, 1, 2, ... in order of first use).
+ *
+ * <p>Models store the code instead of their own copy of the string, so every order taken by the same server
+ * shares one canonical string and compares by code. Codes are only meaningful within this process; anything
+ * persisted keeps the string or its own stable code (see the order archive's staff dictionary).
+ *
+ * <p>Looking up a known string is a single concurrent hash map read, and resolving a code is an array read.
+ * The code-to-string array is copied when a new string is added, which suits the small, slowly growing sets
+ * this is used for. Safe for use from any thread.
+ */
+public final class StringDictionary {
+
+    /** The IDs of wait staff, as used by {@link Order} and {@link WaitStaff}. */
+    public static final StringDictionary STAFF_IDS = new StringDictionary("staff IDs");
+    /** The names of menu categories, as used by {@link MenuItem} and {@link MenuCategory}. */
+    public static final StringDictionary CATEGORY_NAMES = new StringDictionary("category names");
+
+    private final String description;
+    private final Map<String, Integer> codes = new ConcurrentHashMap<>();
+    private volatile String[] values = new String[0]; // Replaced, never changed in place
+
+    /**
+     * Creates an empty dictionary.
+     *
+     * @param description What the dictionary holds, for error messages.
+     */
+    public StringDictionary(String description) {
+        this.description = Objects.requireNonNull(description, "Description cannot be null.");
+    }
+
+    /**
+     * Gets the code of a string, adding it to the dictionary if it is new.
+     *
+     * @param value The string (must not be null).
+     * @return Its code.
+     */
+    public int codeOf(String value) {
+        Integer code = codes.get(Objects.requireNonNull(value, "Cannot intern null into " + description + "."));
+        return code != null ? code : add(value);
+    }
+
+    /**
+     * Gets the code of a string without adding it.
+     *
+     * @param value The string.
+     * @return Its code, or -1 if it is not in the dictionary.
+     */
+    public int lookup(String value) {
+        Integer code = value == null ? null : codes.get(value);
+        return code != null ? code : -1;
+    }
+
+    /**
+     * Gets the canonical instance of a string, adding it to the dictionary if it is new.
+     *
+     * @param value The string (must not be null).
+     * @return The shared instance equal to the string.
+     */
+    public String intern(String value) {
+        return valueOf(codeOf(value));
+    }
+
+    /**
+     * Resolves a code back to its string.
+     *
+     * @param code The code.
+     * @return The canonical string.
+     */
+    public String valueOf(int code) {
+        String[] current = values;
+        if (code < 0 || code >= current.length) {
+            throw new IllegalArgumentException("Unknown code in " + description + ": " + code);
+        }
+        return current[code];
+    }
+
+    /**
+     * Gets the number of strings in the dictionary. Valid codes are 0 to size - 1.
+     *
+     * @return The number of strings.
+     */
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * Adds a string that was not found, unless another thread added it meanwhile.
+     *
+     * @param value The string.
+     * @return Its code.
+     */
+    private synchronized int add(String value) {
+        Integer code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+        String[] grown = Arrays.copyOf(values, values.length + 1);
+        grown[values.length] = value;
+        values = grown; // Published before the code, so whoever sees the code can resolve it
+        codes.put(value, values.length - 1);
+        return values.length - 1;
+    }
+}
@@ -18,13 +18,13 @@ public class WaitStaff {
      * @param name    The name of the staff member (must not be null or empty).
      */
     public WaitStaff(String staffId, String name) {
-        if (staffId == null || staffId.trim().isEmpty()) {
+        if (staffId == null || staffId.isBlank()) {
             throw new IllegalArgumentException("Staff ID cannot be null or empty.");
         }
         if (name == null || name.trim().isEmpty()) {
             throw new IllegalArgumentException("Staff name cannot be null or empty.");
         }
-        this.staffId = staffId.trim();
+        this.staffId = StringDictionary.STAFF_IDS.intern(staffId.trim()); // Shared with the orders they take
         this.name = name.trim();
     }
 
@@ -0,0 +1,235 @@
+package com.example.restrauntautomation.persistence;
+
+import com.example.restrauntautomation.audit.AmendmentListener;
+import com.example.restrauntautomation.audit.AmendmentLog;
+import com.example.restrauntautomation.audit.OrderAmendment;
+import com.example.restrauntautomation.manager.MenuManager;
+import com.example.restrauntautomation.model.MenuItem;
+import com.example.restrauntautomation.model.Modifier;
+import com.example.restrauntautomation.model.OrderItem;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Stores the {@link AmendmentLog} in the database, so the audit trail survives restarts. Registered as an
+ * amendment listener, it copies every entry into an immutable row as it is appended and queues it; the
+ * database write happens later on the writer thread. Entries are stored under their own ID, issued in
+ * append order and continuing from the highest stored ID, since sequence numbers restart with the log.
+ */
+public class AmendmentRepository implements AmendmentListener {
+
+    private static final Logger LOGGER = Logger.getLogger(AmendmentRepository.class.getName());
+
+    private static final String INSERT_AMENDMENT = "INSERT INTO order_amendment (amendment_id, order_id, type, staff_id, "
+            + "timestamp_millis, table_number, order_time, amount_cents, reason) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_LINE = "INSERT INTO order_amendment_line (amendment_id, line_no, item_id, quantity) "
+            + "VALUES (?, ?, ?, ?)";
+    private static final String INSERT_MODIFIER = "INSERT INTO order_amendment_modifier (amendment_id, line_no, modifier_no, "
+            + "name, price_delta_cents) VALUES (?, ?, ?, ?, ?)";
+    private static final String SELECT_MAX_ID = "SELECT COALESCE(MAX(amendment_id), -1) FROM order_amendment";
+    // Every entry of the orders amended since a time, so each order's history is whole
+    private static final String AMENDED_ORDERS = "SELECT order_id FROM order_amendment WHERE timestamp_millis >= ?";
+    private static final String SELECT_AMENDMENTS = "SELECT amendment_id, order_id, type, staff_id, timestamp_millis, "
+            + "table_number, order_time, amount_cents, reason FROM order_amendment WHERE order_id IN (" + AMENDED_ORDERS + ") "
+            + "ORDER BY amendment_id";
+    private static final String SELECT_LINES = "SELECT l.amendment_id, l.item_id, l.quantity, l.line_no FROM order_amendment_line l "
+            + "JOIN order_amendment a ON a.amendment_id = l.amendment_id WHERE a.order_id IN (" + AMENDED_ORDERS + ") "
+            + "ORDER BY l.amendment_id, l.line_no";
+    private static final String SELECT_MODIFIERS = "SELECT m.amendment_id, m.line_no, m.name, m.price_delta_cents "
+            + "FROM order_amendment_modifier m JOIN order_amendment a ON a.amendment_id = m.amendment_id "
+            + "WHERE a.order_id IN (" + AMENDED_ORDERS + ") ORDER BY m.amendment_id, m.line_no, m.modifier_no";
+
+    private final SqlDatabase database;
+    private final MenuManager menuManager;
+    private final AtomicLong nextId;
+
+    /**
+     * Creates an amendment repository, reading the highest stored entry ID.
+     *
+     * @param database    The database.
+     * @param menuManager The menu, used to store items by catalog id.
+     * @throws SQLException If the stored IDs cannot be read.
+     */
+    public AmendmentRepository(SqlDatabase database, MenuManager menuManager) throws SQLException {
+        this.database = Objects.requireNonNull(database, "Database cannot be null.");
+        this.menuManager = Objects.requireNonNull(menuManager, "Menu manager cannot be null.");
+        this.nextId = new AtomicLong(database.read(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(SELECT_MAX_ID);
+                 ResultSet rows = statement.executeQuery()) {
+                rows.next();
+                return rows.getLong(1) + 1;
+            }
+        }));
+        database.registerWriteOrder(INSERT_AMENDMENT, INSERT_LINE, INSERT_MODIFIER);
+    }
+
+    /**
+     * Queues an entry to be stored.
+     *
+     * @param amendment The entry.
+     * @return true if the write was queued.
+     */
+    public boolean save(OrderAmendment amendment) {
+        try {
+            return database.enqueue(new AmendmentRow(nextId.getAndIncrement(), amendment, menuManager));
+        } catch (IllegalArgumentException e) {
+            LOGGER.log(Level.SEVERE, "Cannot store amendment " + amendment.getSequence() + " of order " + amendment.getOrderId(), e);
+            return false;
+        }
+    }
+
+    @Override
+    public void amendmentAppended(OrderAmendment amendment) {
+        save(amendment);
+    }
+
+    /**
+     * Loads every entry of the orders amended at or after a time, e.g. the start of the shift, to be
+     * restored with {@link AmendmentLog#restore(List)}. Reads committed data only.
+     *
+     * @param fromMillis The earliest amendment time, in epoch millis.
+     * @return The entries, oldest first.
+     * @throws SQLException If the read fails.
+     */
+    public List<OrderAmendment> findAmendmentsSince(long fromMillis) throws SQLException {
+        return database.read(connection -> {
+            Map<Long, Map<Integer, List<Modifier>>> modifiers = new HashMap<>(); // Amendment id -> line no -> modifiers
+            try (PreparedStatement statement = connection.prepareStatement(SELECT_MODIFIERS)) {
+                statement.setLong(1, fromMillis);
+                try (ResultSet rows = statement.executeQuery()) {
+                    while (rows.next()) {
+                        modifiers.computeIfAbsent(rows.getLong(1), key -> new HashMap<>())
+                                .computeIfAbsent(rows.getInt(2), key -> new ArrayList<>())
+                                .add(new Modifier(rows.getString(3), rows.getLong(4)));
+                    }
+                }
+            }
+            Map<Long, List<OrderItem>> lines = new HashMap<>(); // Amendment id -> lines
+            try (PreparedStatement statement = connection.prepareStatement(SELECT_LINES)) {
+                statement.setLong(1, fromMillis);
+                try (ResultSet rows = statement.executeQuery()) {
+                    while (rows.next()) {
+                        long amendmentId = rows.getLong(1);
+                        MenuItem item = menuManager.getMenuItemById(rows.getInt(2));
+                        if (item == null) {
+                            LOGGER.log(Level.WARNING, "Skipping stored line of amendment {0} with unknown item {1}.",
+                                    new Object[]{amendmentId, rows.getInt(2)});
+                            continue;
+                        }
+                        List<Modifier> lineModifiers = modifiers.getOrDefault(amendmentId, Collections.emptyMap())
+                                .getOrDefault(rows.getInt(4), Collections.emptyList());
+                        lines.computeIfAbsent(amendmentId, key -> new ArrayList<>())
+                                .add(new OrderItem(item, rows.getInt(3), lineModifiers));
+                    }
+                }
+            }
+            List<OrderAmendment> amendments = new ArrayList<>();
+            try (PreparedStatement statement = connection.prepareStatement(SELECT_AMENDMENTS)) {
+                statement.setLong(1, fromMillis);
+                try (ResultSet rows = statement.executeQuery()) {
+                    while (rows.next()) {
+                        Timestamp orderTime = rows.getTimestamp(7);
+                        amendments.add(OrderAmendment.of(OrderAmendment.Type.valueOf(rows.getString(3)), rows.getLong(2),
+                                rows.getString(4), rows.getLong(5), rows.getInt(6),
+                                orderTime == null ? null : orderTime.toLocalDateTime(),
+                                lines.getOrDefault(rows.getLong(1), Collections.emptyList()), rows.getLong(8), rows.getString(9)));
+                    }
+                }
+            }
+            return amendments;
+        });
+    }
+
+    /**
+     * An immutable copy of an entry with its stored ID, taken on the appending thread.
+     */
+    private static final class AmendmentRow implements SqlDatabase.PendingWrite {
+        private final long amendmentId;
+        private final long orderId;
+        private final String type;
+        private final String staffId;
+        private final long timestampMillis;
+        private final int tableNumber;
+        private final Timestamp orderTime;
+        private final long amountCents;
+        private final String reason;
+        private final int[] itemIds;
+        private final int[] quantities;
+        private final List<List<Modifier>> modifiers; // Per line; immutable lists
+
+        AmendmentRow(long amendmentId, OrderAmendment amendment, MenuManager menuManager) {
+            this.amendmentId = amendmentId;
+            this.orderId = amendment.getOrderId();
+            this.type = amendment.getType().name();
+            this.staffId = amendment.getStaffId();
+            this.timestampMillis = amendment.getTimestampMillis();
+            this.tableNumber = amendment.getTableNumber();
+            this.orderTime = amendment.getOrderTime() == null ? null : Timestamp.valueOf(amendment.getOrderTime());
+            this.amountCents = amendment.getAmountCents();
+            this.reason = amendment.getReason();
+            List<OrderItem> lines = amendment.getLines();
+            this.itemIds = new int[lines.size()];
+            this.quantities = new int[lines.size()];
+            this.modifiers = new ArrayList<>(lines.size());
+            for (int i = 0; i < lines.size(); i++) {
+                OrderItem line = lines.get(i);
+                itemIds[i] = menuManager.getMenuItemId(line.getMenuItem());
+                if (itemIds[i] < 0) {
+                    throw new IllegalArgumentException("MenuItem '" + line.getMenuItem().getName() + "' has no catalog id.");
+                }
+                quantities[i] = line.getQuantity();
+                modifiers.add(line.getModifiers());
+            }
+        }
+
+        @Override
+        public void bind(SqlDatabase.StatementBatch batch) throws SQLException {
+            PreparedStatement amendmentStatement = batch.statement(INSERT_AMENDMENT);
+            amendmentStatement.setLong(1, amendmentId);
+            amendmentStatement.setLong(2, orderId);
+            amendmentStatement.setString(3, type);
+            amendmentStatement.setString(4, staffId);
+            amendmentStatement.setLong(5, timestampMillis);
+            amendmentStatement.setInt(6, tableNumber);
+            amendmentStatement.setTimestamp(7, orderTime);
+            amendmentStatement.setLong(8, amountCents);
+            amendmentStatement.setString(9, reason);
+            batch.addBatch(amendmentStatement);
+
+            for (int i = 0; i < itemIds.length; i++) {
+                PreparedStatement lineStatement = batch.statement(INSERT_LINE);
+                lineStatement.setLong(1, amendmentId);
+                lineStatement.setInt(2, i);
+                lineStatement.setInt(3, itemIds[i]);
+                lineStatement.setInt(4, quantities[i]);
+                batch.addBatch(lineStatement);
+
+                List<Modifier> lineModifiers = modifiers.get(i);
+                if (lineModifiers.isEmpty()) {
+                    continue;
+                }
+                PreparedStatement modifierStatement = batch.statement(INSERT_MODIFIER);
+                for (int m = 0; m < lineModifiers.size(); m++) {
+                    modifierStatement.setLong(1, amendmentId);
+                    modifierStatement.setInt(2, i);
+                    modifierStatement.setInt(3, m);
+                    modifierStatement.setString(4, lineModifiers.get(m).getName());
+                    modifierStatement.setLong(5, lineModifiers.get(m).getPriceDeltaCents());
+                    batch.addBatch(modifierStatement);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.restrauntautomation.persistence;
+
+import com.example.restrauntautomation.inventory.Ingredient;
+import com.example.restrauntautomation.inventory.InventoryManager;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Stores ingredient stock levels in the database, keyed by ingredient name, so stock survives restarts.
+ * {@link InventoryManager#load} reads them at startup and saves every change.
+ */
+public class InventoryRepository {
+
+    private static final String MERGE_STOCK = "MERGE INTO ingredient_stock (name, units) KEY (name) VALUES (?, ?)";
+    private static final String SELECT_STOCK = "SELECT name, units FROM ingredient_stock ORDER BY name";
+
+    private final SqlDatabase database;
+
+    /**
+     * Creates an inventory repository.
+     *
+     * @param database The database.
+     */
+    public InventoryRepository(SqlDatabase database) {
+        this.database = Objects.requireNonNull(database, "Database cannot be null.");
+    }
+
+    /**
+     * Loads the stored stock levels.
+     *
+     * @return The stock by ingredient name, or an empty map if none are stored.
+     * @throws SQLException If the read fails.
+     */
+    public Map<String, Long> findStock() throws SQLException {
+        return database.read(connection -> {
+            Map<String, Long> stock = new LinkedHashMap<>();
+            try (PreparedStatement statement = connection.prepareStatement(SELECT_STOCK);
+                 ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    stock.put(rows.getString(1), rows.getLong(2));
+                }
+            }
+            return stock;
+        });
+    }
+
+    /**
+     * Queues the stock levels of some ingredients to be stored. The levels are read when the write runs,
+     * not when it is queued, so writes queued by concurrent orders always end with the latest level.
+     *
+     * @param inventory   The inventory holding the stock.
+     * @param ingredients The ingredients to store.
+     * @return true if the write was queued.
+     */
+    public boolean saveStock(InventoryManager inventory, Collection<Ingredient> ingredients) {
+        List<String> names = new ArrayList<>(ingredients.size());
+        for (Ingredient ingredient : ingredients) {
+            names.add(ingredient.getName());
+        }
+        return database.enqueue(batch -> {
+            PreparedStatement statement = batch.statement(MERGE_STOCK);
+            for (String name : names) {
+                statement.setString(1, name);
+                statement.setLong(2, inventory.getStock(name));
+                batch.addBatch(statement);
+            }
+        });
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.restrauntautomation.persistence;
+
+import com.example.restrauntautomation.manager.MenuManager;
+import com.example.restrauntautomation.model.MenuItem;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Stores the menu catalog in the database, keyed by catalog id. The stored catalog is the menu that
+ * {@link MenuManager#load(MenuRepository)} loads at startup, and stored order lines join to it for
+ * item names, prices and categories.
+ */
+public class MenuRepository {
+
+    private static final String MERGE_ITEM = "MERGE INTO menu_item (item_id, name, description, price_cents, category) "
+            + "KEY (item_id) VALUES (?, ?, ?, ?, ?)";
+    private static final String SELECT_ITEMS = "SELECT item_id, name, description, price_cents, category FROM menu_item ORDER BY item_id";
+
+    private final SqlDatabase database;
+
+    /**
+     * Creates a menu repository.
+     *
+     * @param database The database.
+     */
+    public MenuRepository(SqlDatabase database) {
+        this.database = Objects.requireNonNull(database, "Database cannot be null.");
+    }
+
+    /**
+     * Queues the whole catalog of a menu to be stored, replacing stored items with the same catalog ids.
+     *
+     * @param menuManager The menu.
+     * @return true if the write was queued.
+     */
+    public boolean saveCatalog(MenuManager menuManager) {
+        List<MenuItem> items = new ArrayList<>(menuManager.getMenuItemCount());
+        for (int i = 0; i < menuManager.getMenuItemCount(); i++) {
+            items.add(menuManager.getMenuItemById(i));
+        }
+        return database.enqueue(batch -> {
+            PreparedStatement statement = batch.statement(MERGE_ITEM);
+            for (int i = 0; i < items.size(); i++) {
+                MenuItem item = items.get(i);
+                statement.setInt(1, i);
+                statement.setString(2, item.getName());
+                statement.setString(3, item.getDescription());
+                statement.setLong(4, item.getPriceInCents());
+                statement.setString(5, item.getCategoryName());
+                batch.addBatch(statement);
+            }
+        });
+    }
+
+    /**
+     * Loads the stored catalog.
+     *
+     * @return The menu items, where each item's index is its catalog id.
+     * @throws SQLException If the read fails or the stored catalog ids are not 0 to count - 1.
+     */
+    public List<MenuItem> findAll() throws SQLException {
+        return database.read(connection -> {
+            List<MenuItem> items = new ArrayList<>();
+            try (PreparedStatement statement = connection.prepareStatement(SELECT_ITEMS);
+                 ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    int itemId = rows.getInt(1);
+                    if (itemId != items.size()) {
+                        throw new SQLException("Stored menu catalog has no item with id " + items.size() + ".");
+                    }
+                    items.add(new MenuItem(rows.getString(2), rows.getString(3),
+                            BigDecimal.valueOf(rows.getLong(4), 2), rows.getString(5)));
+                }
+            }
+            return items;
+        });
+    }
+}
@@ -0,0 +1,328 @@
+package com.example.restrauntautomation.persistence;
+
+import com.example.restrauntautomation.manager.MenuManager;
+import com.example.restrauntautomation.manager.OrderQueueListener;
+import com.example.restrauntautomation.model.MenuItem;
+import com.example.restrauntautomation.model.Modifier;
+import com.example.restrauntautomation.model.Order;
+import com.example.restrauntautomation.model.OrderItem;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Stores the order history in the database. Registered as a queue listener, it records every order
+ * when it is queued and marks it closed when it leaves the queue. The listener only copies the order
+ * into an immutable row and queues it; the database write happens later on the writer thread.
+ *
+ * <p>The lines of an order amended while queued are rewritten with {@link #saveLines(Order)}. Only the latest
+ * queued copy of an order's lines is written when several land in one batch, since the batch runs all deletes
+ * before all inserts.
+ */
+public class OrderRepository implements OrderQueueListener {
+
+    private static final Logger LOGGER = Logger.getLogger(OrderRepository.class.getName());
+
+    private static final String MERGE_ORDER = "MERGE INTO orders (order_id, table_number, staff_id, order_time, status, discount_cents) "
+            + "KEY (order_id) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String MERGE_LINE = "MERGE INTO order_line (order_id, line_no, item_id, quantity, amount_cents) "
+            + "KEY (order_id, line_no) VALUES (?, ?, ?, ?, ?)";
+    private static final String MERGE_MODIFIER = "MERGE INTO order_line_modifier (order_id, line_no, modifier_no, name, price_delta_cents) "
+            + "KEY (order_id, line_no, modifier_no) VALUES (?, ?, ?, ?, ?)";
+    private static final String DELETE_LINES = "DELETE FROM order_line WHERE order_id = ?";
+    private static final String DELETE_MODIFIERS = "DELETE FROM order_line_modifier WHERE order_id = ?";
+    private static final String CLOSE_ORDER = "UPDATE orders SET status = ?, closed_time = ?, discount_cents = ? WHERE order_id = ?";
+    private static final String SELECT_ORDERS = "SELECT order_id, table_number, staff_id, order_time, status, discount_cents FROM orders "
+            + "WHERE order_time >= ? AND order_time < ? ORDER BY order_time, order_id";
+    private static final String SELECT_LINES = "SELECT l.order_id, l.item_id, l.quantity, l.line_no FROM order_line l "
+            + "JOIN orders o ON o.order_id = l.order_id WHERE o.order_time >= ? AND o.order_time < ? "
+            + "ORDER BY l.order_id, l.line_no";
+    private static final String SELECT_MODIFIERS = "SELECT m.order_id, m.line_no, m.name, m.price_delta_cents "
+            + "FROM order_line_modifier m JOIN orders o ON o.order_id = m.order_id "
+            + "WHERE o.order_time >= ? AND o.order_time < ? ORDER BY m.order_id, m.line_no, m.modifier_no";
+    private static final String COUNT_ORDERS = "SELECT COUNT(*) FROM orders";
+
+    private final SqlDatabase database;
+    private final MenuManager menuManager;
+    private final AtomicLong nextLinesVersion = new AtomicLong(1);
+    private final Map<Long, Long> pendingLines = new ConcurrentHashMap<>(); // Order ID -> latest queued rewrite of its lines
+
+    /**
+     * Creates an order repository.
+     *
+     * @param database    The database.
+     * @param menuManager The menu, used to store items by catalog id.
+     */
+    public OrderRepository(SqlDatabase database, MenuManager menuManager) {
+        this.database = Objects.requireNonNull(database, "Database cannot be null.");
+        this.menuManager = Objects.requireNonNull(menuManager, "Menu manager cannot be null.");
+        // An order can be added, amended and closed in one batch
+        database.registerWriteOrder(MERGE_ORDER, DELETE_MODIFIERS, DELETE_LINES, MERGE_LINE, MERGE_MODIFIER, CLOSE_ORDER);
+    }
+
+    /**
+     * Queues an order and its lines to be stored.
+     *
+     * @param order The order.
+     * @return true if the write was queued.
+     */
+    public boolean save(Order order) {
+        try {
+            return database.enqueue(new OrderRow(order, menuManager, pendingLines, 0));
+        } catch (IllegalArgumentException e) {
+            LOGGER.log(Level.SEVERE, "Cannot store order " + order.getOrderId(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Queues the lines of an order amended while queued to replace its stored lines.
+     *
+     * @param order The amended order.
+     * @return true if the write was queued.
+     */
+    public boolean saveLines(Order order) {
+        long version = nextLinesVersion.getAndIncrement();
+        OrderRow row;
+        try {
+            row = new OrderRow(order, menuManager, pendingLines, version);
+        } catch (IllegalArgumentException e) {
+            LOGGER.log(Level.SEVERE, "Cannot store the lines of order " + order.getOrderId(), e);
+            return false;
+        }
+        pendingLines.put(order.getOrderId(), version);
+        if (!database.enqueue(row)) {
+            pendingLines.remove(order.getOrderId(), version);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Queues an update marking an order as closed, with the discount it was closed with
+     * (open orders are repriced when happy hour starts or ends).
+     *
+     * @param order      The order.
+     * @param closedTime When the order left the queue.
+     * @return true if the write was queued.
+     */
+    public boolean saveClosed(Order order, LocalDateTime closedTime) {
+        long orderId = order.getOrderId();
+        String status = order.getStatus().name();
+        Timestamp closed = Timestamp.valueOf(closedTime);
+        long discountCents = order.getDiscountCents();
+        return database.enqueue(batch -> {
+            PreparedStatement statement = batch.statement(CLOSE_ORDER);
+            statement.setString(1, status);
+            statement.setTimestamp(2, closed);
+            statement.setLong(3, discountCents);
+            statement.setLong(4, orderId);
+            batch.addBatch(statement);
+        });
+    }
+
+    @Override
+    public void ordersAdded(List<Order> orders) {
+        for (Order order : orders) {
+            save(order);
+        }
+    }
+
+    @Override
+    public void orderRemoved(Order order) {
+        saveClosed(order, LocalDateTime.now());
+    }
+
+    /**
+     * Loads the orders placed in a time range, with their lines. Reads committed data only,
+     * so orders still in the write queue are not included.
+     *
+     * @param from The start of the range (inclusive).
+     * @param to   The end of the range (exclusive).
+     * @return The orders, oldest first.
+     * @throws SQLException If the read fails.
+     */
+    public List<Order> findOrdersBetween(LocalDateTime from, LocalDateTime to) throws SQLException {
+        Timestamp fromTime = Timestamp.valueOf(from);
+        Timestamp toTime = Timestamp.valueOf(to);
+        return database.read(connection -> {
+            Map<Long, Order> orders = new LinkedHashMap<>();
+            try (PreparedStatement statement = connection.prepareStatement(SELECT_ORDERS)) {
+                statement.setTimestamp(1, fromTime);
+                statement.setTimestamp(2, toTime);
+                try (ResultSet rows = statement.executeQuery()) {
+                    while (rows.next()) {
+                        long orderId = rows.getLong(1);
+                        Order order = new Order(orderId, rows.getInt(2), rows.getString(3),
+                                rows.getTimestamp(4).toLocalDateTime(), Order.OrderStatus.valueOf(rows.getString(5)));
+                        order.setDiscountCents(rows.getLong(6));
+                        orders.put(orderId, order);
+                    }
+                }
+            }
+            Map<Long, Map<Integer, List<Modifier>>> modifiers = new HashMap<>(); // Order id -> line no -> modifiers
+            try (PreparedStatement statement = connection.prepareStatement(SELECT_MODIFIERS)) {
+                statement.setTimestamp(1, fromTime);
+                statement.setTimestamp(2, toTime);
+                try (ResultSet rows = statement.executeQuery()) {
+                    while (rows.next()) {
+                        modifiers.computeIfAbsent(rows.getLong(1), key -> new HashMap<>())
+                                .computeIfAbsent(rows.getInt(2), key -> new ArrayList<>())
+                                .add(new Modifier(rows.getString(3), rows.getLong(4)));
+                    }
+                }
+            }
+            try (PreparedStatement statement = connection.prepareStatement(SELECT_LINES)) {
+                statement.setTimestamp(1, fromTime);
+                statement.setTimestamp(2, toTime);
+                try (ResultSet rows = statement.executeQuery()) {
+                    while (rows.next()) {
+                        Order order = orders.get(rows.getLong(1));
+                        MenuItem item = menuManager.getMenuItemById(rows.getInt(2));
+                        if (order == null || item == null) {
+                            LOGGER.log(Level.WARNING, "Skipping stored line of order {0} with unknown item {1}.",
+                                    new Object[]{rows.getLong(1), rows.getInt(2)});
+                            continue;
+                        }
+                        List<Modifier> lineModifiers = modifiers.getOrDefault(order.getOrderId(), Collections.emptyMap())
+                                .getOrDefault(rows.getInt(4), Collections.emptyList());
+                        order.addItem(item, rows.getInt(3), lineModifiers);
+                    }
+                }
+            }
+            return new ArrayList<>(orders.values());
+        });
+    }
+
+    /**
+     * Counts the stored orders.
+     *
+     * @return The number of committed orders.
+     * @throws SQLException If the read fails.
+     */
+    public long countOrders() throws SQLException {
+        return database.read(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(COUNT_ORDERS);
+                 ResultSet rows = statement.executeQuery()) {
+                rows.next();
+                return rows.getLong(1);
+            }
+        });
+    }
+
+    /**
+     * An immutable copy of an order taken on the calling thread, so the order can keep changing
+     * while the write is queued. A copy taken to rewrite an amended order's lines replaces the stored lines
+     * instead of storing the order; it and the order's first copy skip the lines if a later rewrite is queued.
+     */
+    private static final class OrderRow implements SqlDatabase.PendingWrite {
+        private final long orderId;
+        private final int tableNumber;
+        private final String staffId;
+        private final Timestamp orderTime;
+        private final String status;
+        private final long discountCents;
+        private final int[] itemIds;
+        private final int[] quantities;
+        private final long[] amountsInCents;
+        private final List<List<Modifier>> modifiers; // Per line; immutable lists
+        private final Map<Long, Long> pendingLines;
+        private final long linesVersion; // 0 to store the order, else the number of this rewrite of its lines
+
+        OrderRow(Order order, MenuManager menuManager, Map<Long, Long> pendingLines, long linesVersion) {
+            this.pendingLines = pendingLines;
+            this.linesVersion = linesVersion;
+            this.orderId = order.getOrderId();
+            this.tableNumber = order.getTableNumber();
+            this.staffId = order.getWaitStaffId();
+            this.orderTime = Timestamp.valueOf(order.getOrderTime());
+            this.status = order.getStatus().name();
+            this.discountCents = order.getDiscountCents();
+            List<OrderItem> items = order.getItems();
+            this.itemIds = new int[items.size()];
+            this.quantities = new int[items.size()];
+            this.amountsInCents = new long[items.size()];
+            this.modifiers = new ArrayList<>(items.size());
+            for (int i = 0; i < items.size(); i++) {
+                OrderItem item = items.get(i);
+                itemIds[i] = menuManager.getMenuItemId(item.getMenuItem());
+                if (itemIds[i] < 0) {
+                    throw new IllegalArgumentException("MenuItem '" + item.getMenuItem().getName() + "' has no catalog id.");
+                }
+                quantities[i] = item.getQuantity();
+                amountsInCents[i] = item.getTotalPriceInCents();
+                modifiers.add(item.getModifiers());
+            }
+        }
+
+        @Override
+        public void bind(SqlDatabase.StatementBatch batch) throws SQLException {
+            Long latestLines = pendingLines.get(orderId);
+            if (linesVersion == 0) {
+                PreparedStatement orderStatement = batch.statement(MERGE_ORDER);
+                orderStatement.setLong(1, orderId);
+                orderStatement.setInt(2, tableNumber);
+                orderStatement.setString(3, staffId);
+                orderStatement.setTimestamp(4, orderTime);
+                orderStatement.setString(5, status);
+                orderStatement.setLong(6, discountCents);
+                batch.addBatch(orderStatement);
+                if (latestLines != null) {
+                    return; // Amended since; the rewrite stores the lines
+                }
+            } else {
+                if (latestLines != null && latestLines != linesVersion) {
+                    return; // Amended again since; the later rewrite stores the lines
+                }
+                // Once bound, the rewrite is no longer pending, so if the batch fails every copy is retried in order
+                pendingLines.remove(orderId, linesVersion);
+                PreparedStatement deleteModifiers = batch.statement(DELETE_MODIFIERS);
+                deleteModifiers.setLong(1, orderId);
+                batch.addBatch(deleteModifiers);
+                PreparedStatement deleteLines = batch.statement(DELETE_LINES);
+                deleteLines.setLong(1, orderId);
+                batch.addBatch(deleteLines);
+            }
+
+            PreparedStatement lineStatement = batch.statement(MERGE_LINE);
+            for (int i = 0; i < itemIds.length; i++) {
+                lineStatement.setLong(1, orderId);
+                lineStatement.setInt(2, i);
+                lineStatement.setInt(3, itemIds[i]);
+                lineStatement.setInt(4, quantities[i]);
+                lineStatement.setLong(5, amountsInCents[i]);
+                batch.addBatch(lineStatement);
+            }
+
+            for (int i = 0; i < itemIds.length; i++) {
+                List<Modifier> lineModifiers = modifiers.get(i);
+                if (lineModifiers.isEmpty()) {
+                    continue;
+                }
+                PreparedStatement modifierStatement = batch.statement(MERGE_MODIFIER);
+                for (int m = 0; m < lineModifiers.size(); m++) {
+                    modifierStatement.setLong(1, orderId);
+                    modifierStatement.setInt(2, i);
+                    modifierStatement.setInt(3, m);
+                    modifierStatement.setString(4, lineModifiers.get(m).getName());
+                    modifierStatement.setLong(5, lineModifiers.get(m).getPriceDeltaCents());
+                    batch.addBatch(modifierStatement);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,458 @@
+package com.example.restrauntautomation.persistence;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * An embedded, in-process SQL database (H2 by default) with an asynchronous write-behind queue.
+ *
+ * <p>Writes are queued by the calling thread without touching the database and applied by a single
+ * writer thread. The writer drains everything that is queued (up to {@value #MAX_BATCH_SIZE} writes),
+ * binds it to cached prepared statements as JDBC batches and commits it in one transaction, so a burst
+ * of orders costs one round trip per statement and one disk sync instead of one per row.
+ * Because rows are grouped by statement, the statements of a batch run in the order given to
+ * {@link #registerWriteOrder(String...)}, e.g. inserts before the updates that may follow them.
+ * Reads run synchronously on a separate connection.
+ *
+ * <p>If a batch fails it is rolled back and its writes are retried one transaction each, in queue order,
+ * so only the write that fails again is lost (and logged); the application keeps running.
+ */
+public class SqlDatabase implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(SqlDatabase.class.getName());
+    public static final String DEFAULT_URL = "jdbc:h2:./restaurant-db";
+    public static final int DEFAULT_QUEUE_CAPACITY = 100_000;
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final long CLOSE_TIMEOUT_SECONDS = 10;
+    private static final long POLL_INTERVAL_MILLIS = 200;
+
+    private static final String[] SCHEMA = {
+            "CREATE TABLE IF NOT EXISTS menu_item (item_id INT PRIMARY KEY, name VARCHAR(255) NOT NULL, "
+                    + "description VARCHAR(1024), price_cents BIGINT NOT NULL, category VARCHAR(255) NOT NULL)",
+            "CREATE TABLE IF NOT EXISTS ingredient_stock (name VARCHAR(255) PRIMARY KEY, units BIGINT NOT NULL)",
+            "CREATE TABLE IF NOT EXISTS wait_staff (staff_id VARCHAR(64) PRIMARY KEY, name VARCHAR(255) NOT NULL)",
+            "CREATE TABLE IF NOT EXISTS orders (order_id BIGINT PRIMARY KEY, table_number INT NOT NULL, "
+                    + "staff_id VARCHAR(64) NOT NULL, order_time TIMESTAMP NOT NULL, status VARCHAR(32) NOT NULL, "
+                    + "closed_time TIMESTAMP, discount_cents BIGINT DEFAULT 0 NOT NULL)",
+            "ALTER TABLE orders ADD COLUMN IF NOT EXISTS discount_cents BIGINT DEFAULT 0 NOT NULL", // Databases created before discounts
+            "CREATE INDEX IF NOT EXISTS orders_order_time ON orders (order_time)",
+            "CREATE TABLE IF NOT EXISTS order_line (order_id BIGINT NOT NULL, line_no INT NOT NULL, "
+                    + "item_id INT NOT NULL, quantity INT NOT NULL, amount_cents BIGINT NOT NULL, "
+                    + "PRIMARY KEY (order_id, line_no))",
+            "CREATE TABLE IF NOT EXISTS order_line_modifier (order_id BIGINT NOT NULL, line_no INT NOT NULL, "
+                    + "modifier_no INT NOT NULL, name VARCHAR(255) NOT NULL, price_delta_cents BIGINT NOT NULL, "
+                    + "PRIMARY KEY (order_id, line_no, modifier_no))",
+            "CREATE TABLE IF NOT EXISTS order_amendment (amendment_id BIGINT PRIMARY KEY, order_id BIGINT NOT NULL, "
+                    + "type VARCHAR(32) NOT NULL, staff_id VARCHAR(64) NOT NULL, timestamp_millis BIGINT NOT NULL, "
+                    + "table_number INT NOT NULL, order_time TIMESTAMP, amount_cents BIGINT NOT NULL, reason VARCHAR(1024))",
+            "CREATE INDEX IF NOT EXISTS order_amendment_order_id ON order_amendment (order_id)",
+            "CREATE INDEX IF NOT EXISTS order_amendment_timestamp ON order_amendment (timestamp_millis)",
+            "CREATE TABLE IF NOT EXISTS order_amendment_line (amendment_id BIGINT NOT NULL, line_no INT NOT NULL, "
+                    + "item_id INT NOT NULL, quantity INT NOT NULL, PRIMARY KEY (amendment_id, line_no))",
+            "CREATE TABLE IF NOT EXISTS order_amendment_modifier (amendment_id BIGINT NOT NULL, line_no INT NOT NULL, "
+                    + "modifier_no INT NOT NULL, name VARCHAR(255) NOT NULL, price_delta_cents BIGINT NOT NULL, "
+                    + "PRIMARY KEY (amendment_id, line_no, modifier_no))"
+    };
+
+    /**
+     * A queued write. Runs on the writer thread and adds its rows to the current batch.
+     */
+    interface PendingWrite {
+        /**
+         * Binds this write's rows to the batch's statements.
+         *
+         * @param batch The batch being built.
+         * @throws SQLException If binding fails.
+         */
+        void bind(StatementBatch batch) throws SQLException;
+    }
+
+    private final String url;
+    private final Connection writeConnection; // Used only by the writer thread
+    private final Connection readConnection;  // Guarded by itself
+    private final BlockingQueue<PendingWrite> queue;
+    private final List<String> writeOrder = new CopyOnWriteArrayList<>();
+    private final Thread writerThread;
+    private volatile boolean running = true;
+
+    /**
+     * Opens the default database in the working directory.
+     *
+     * @throws SQLException If the database cannot be opened.
+     */
+    public SqlDatabase() throws SQLException {
+        this(DEFAULT_URL);
+    }
+
+    /**
+     * Opens (and creates if needed) a database and starts its writer thread.
+     *
+     * @param url The JDBC URL, e.g. {@code jdbc:h2:./restaurant-db} or {@code jdbc:h2:mem:test}.
+     * @throws SQLException If the database cannot be opened or the schema cannot be created.
+     */
+    public SqlDatabase(String url) throws SQLException {
+        this(url, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Opens (and creates if needed) a database with a write queue of the given capacity and starts its writer thread.
+     *
+     * @param url           The JDBC URL, e.g. {@code jdbc:h2:./restaurant-db} or {@code jdbc:h2:mem:test}.
+     * @param queueCapacity The number of writes that can be queued; further writes are dropped (positive).
+     * @throws SQLException If the database cannot be opened or the schema cannot be created.
+     */
+    public SqlDatabase(String url, int queueCapacity) throws SQLException {
+        this.url = Objects.requireNonNull(url, "JDBC URL cannot be null.");
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("Queue capacity must be positive.");
+        }
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        this.writeConnection = DriverManager.getConnection(url);
+        try {
+            this.readConnection = DriverManager.getConnection(url);
+        } catch (SQLException e) {
+            closeQuietly(writeConnection);
+            throw e;
+        }
+        try (Statement statement = writeConnection.createStatement()) {
+            for (String ddl : SCHEMA) {
+                statement.execute(ddl);
+            }
+            writeConnection.setAutoCommit(false);
+        } catch (SQLException e) {
+            closeQuietly(readConnection);
+            closeQuietly(writeConnection);
+            throw e;
+        }
+        this.writerThread = new Thread(this::runWriter, "sql-write-behind");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        LOGGER.log(Level.INFO, "Opened database {0}.", url);
+    }
+
+    /**
+     * Declares the order in which statements run within a batch. Statements registered earlier run first;
+     * statements never registered run last, in the order they were first used.
+     *
+     * @param sql The SQL texts, in execution order.
+     */
+    void registerWriteOrder(String... sql) {
+        for (String statement : sql) {
+            if (!writeOrder.contains(statement)) {
+                writeOrder.add(statement);
+            }
+        }
+    }
+
+    /**
+     * Queues a write without blocking. If the queue is full (the database has fallen far behind),
+     * the write is dropped and logged rather than stalling the caller.
+     *
+     * @param write The write.
+     * @return true if the write was queued.
+     */
+    boolean enqueue(PendingWrite write) {
+        if (!running) {
+            LOGGER.warning("Database is closed, dropping write.");
+            return false;
+        }
+        if (!queue.offer(write)) {
+            LOGGER.severe("Database write queue is full, dropping write.");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Runs a read on the read connection.
+     *
+     * @param query The read to run.
+     * @param <T>   The result type.
+     * @return The result.
+     * @throws SQLException If the read fails.
+     */
+    <T> T read(SqlFunction<T> query) throws SQLException {
+        synchronized (readConnection) {
+            return query.apply(readConnection);
+        }
+    }
+
+    /**
+     * Waits until every write queued before this call has been committed (or has failed).
+     *
+     * @param timeout The maximum time to wait.
+     * @param unit    The unit of the timeout.
+     * @return true if the writes were committed in time.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    public boolean flush(long timeout, TimeUnit unit) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        if (!enqueue(new FlushMarker(done))) {
+            return false;
+        }
+        return done.await(timeout, unit);
+    }
+
+    /**
+     * Gets the number of writes waiting for the writer thread.
+     *
+     * @return The queue length.
+     */
+    public int getPendingWriteCount() {
+        return queue.size();
+    }
+
+    /**
+     * Commits the queued writes, stops the writer thread and closes the connections.
+     */
+    @Override
+    public void close() {
+        try {
+            flush(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        running = false; // The writer notices within one poll interval; it is not interrupted mid-write
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(CLOSE_TIMEOUT_SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        closeQuietly(readConnection);
+        closeQuietly(writeConnection);
+        LOGGER.log(Level.INFO, "Closed database {0}.", url);
+    }
+
+    /**
+     * Writer thread loop: takes everything queued, writes it as one transaction, repeats.
+     */
+    private void runWriter() {
+        StatementBatch batch = new StatementBatch(writeConnection, writeOrder);
+        List<PendingWrite> writes = new ArrayList<>(MAX_BATCH_SIZE);
+        while (running || !queue.isEmpty()) {
+            PendingWrite first;
+            try {
+                first = queue.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                break;
+            }
+            if (first == null) {
+                continue;
+            }
+            writes.add(first);
+            queue.drainTo(writes, MAX_BATCH_SIZE - 1);
+            writeBatch(batch, writes);
+            writes.clear();
+        }
+        batch.close();
+    }
+
+    /**
+     * Binds, executes and commits one batch of writes, then releases any flush markers in it.
+     *
+     * @param batch  The statement cache.
+     * @param writes The writes, in queue order.
+     */
+    private void writeBatch(StatementBatch batch, List<PendingWrite> writes) {
+        try {
+            for (PendingWrite write : writes) {
+                write.bind(batch);
+            }
+            batch.execute();
+            writeConnection.commit();
+        } catch (SQLException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Failed to write a batch of " + writes.size()
+                    + " changes, retrying them one at a time.", e);
+            rollBack(batch);
+            for (PendingWrite write : writes) {
+                writeSingle(batch, write);
+            }
+        }
+        for (PendingWrite write : writes) {
+            if (write instanceof FlushMarker) {
+                ((FlushMarker) write).done.countDown();
+            }
+        }
+    }
+
+    /**
+     * Writes and commits a single write on its own, after its batch failed. A write that fails again is rolled back and dropped.
+     *
+     * @param batch The statement cache.
+     * @param write The write.
+     */
+    private void writeSingle(StatementBatch batch, PendingWrite write) {
+        try {
+            write.bind(batch);
+            batch.execute();
+            writeConnection.commit();
+        } catch (SQLException | RuntimeException e) {
+            LOGGER.log(Level.SEVERE, "Failed to write a change, dropping it.", e);
+            rollBack(batch);
+        }
+    }
+
+    /**
+     * Discards the unexecuted rows of the batch and rolls back the current transaction.
+     *
+     * @param batch The statement cache.
+     */
+    private void rollBack(StatementBatch batch) {
+        batch.clear();
+        try {
+            writeConnection.rollback();
+        } catch (SQLException rollbackError) {
+            LOGGER.log(Level.SEVERE, "Rollback failed.", rollbackError);
+        }
+    }
+
+    /**
+     * Closes a connection, ignoring errors.
+     *
+     * @param connection The connection.
+     */
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            LOGGER.log(Level.FINE, "Error while closing database connection.", e);
+        }
+    }
+
+    /**
+     * A read against a connection.
+     *
+     * @param <T> The result type.
+     */
+    interface SqlFunction<T> {
+        /**
+         * Runs the read.
+         *
+         * @param connection The connection.
+         * @return The result.
+         * @throws SQLException If the read fails.
+         */
+        T apply(Connection connection) throws SQLException;
+    }
+
+    /**
+     * Prepared statements of the writer connection, cached by SQL text. Each statement accumulates
+     * a JDBC batch; on execution the registered statements run first, in registration order.
+     */
+    static final class StatementBatch {
+        private final Connection connection;
+        private final List<String> writeOrder;
+        private final Map<String, PreparedStatement> statements = new HashMap<>();
+        private final Map<PreparedStatement, Integer> pendingRows = new LinkedHashMap<>();
+
+        StatementBatch(Connection connection, List<String> writeOrder) {
+            this.connection = connection;
+            this.writeOrder = writeOrder;
+        }
+
+        /**
+         * Gets the cached statement for the SQL text, preparing it on first use.
+         *
+         * @param sql The SQL text.
+         * @return The statement; call {@link #addBatch(PreparedStatement)} after binding its parameters.
+         * @throws SQLException If the statement cannot be prepared.
+         */
+        PreparedStatement statement(String sql) throws SQLException {
+            PreparedStatement statement = statements.get(sql);
+            if (statement == null) {
+                statement = connection.prepareStatement(sql);
+                statements.put(sql, statement);
+            }
+            return statement;
+        }
+
+        /**
+         * Adds the statement's bound parameters as a row of the batch.
+         *
+         * @param statement A statement obtained from {@link #statement(String)}.
+         * @throws SQLException If the row cannot be added.
+         */
+        void addBatch(PreparedStatement statement) throws SQLException {
+            statement.addBatch();
+            pendingRows.merge(statement, 1, Integer::sum);
+        }
+
+        /**
+         * Executes every statement that has rows.
+         *
+         * @throws SQLException If a statement fails.
+         */
+        void execute() throws SQLException {
+            for (String sql : writeOrder) {
+                PreparedStatement statement = statements.get(sql);
+                if (statement != null && pendingRows.remove(statement) != null) {
+                    statement.executeBatch();
+                }
+            }
+            for (PreparedStatement statement : pendingRows.keySet()) {
+                statement.executeBatch();
+            }
+            pendingRows.clear();
+        }
+
+        /**
+         * Discards rows that were added but not executed.
+         */
+        void clear() {
+            for (PreparedStatement statement : pendingRows.keySet()) {
+                try {
+                    statement.clearBatch();
+                } catch (SQLException e) {
+                    LOGGER.log(Level.FINE, "Could not clear statement batch.", e);
+                }
+            }
+            pendingRows.clear();
+        }
+
+        /**
+         * Closes all cached statements.
+         */
+        void close() {
+            for (PreparedStatement statement : statements.values()) {
+                try {
+                    statement.close();
+                } catch (SQLException e) {
+                    LOGGER.log(Level.FINE, "Could not close statement.", e);
+                }
+            }
+            statements.clear();
+        }
+    }
+
+    /**
+     * A no-op write that signals when everything queued before it has been processed.
+     */
+    private static final class FlushMarker implements PendingWrite {
+        private final CountDownLatch done;
+
+        FlushMarker(CountDownLatch done) {
+            this.done = done;
+        }
+
+        @Override
+        public void bind(StatementBatch batch) {
+            // Nothing to write
+        }
+    }
+}
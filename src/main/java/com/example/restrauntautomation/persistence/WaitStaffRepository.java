@@ -0,0 +1,68 @@
+package com.example.restrauntautomation.persistence;
+
+import com.example.restrauntautomation.model.WaitStaff;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Stores the wait staff roster in the database.
+ */
+public class WaitStaffRepository {
+
+    private static final String MERGE_STAFF = "MERGE INTO wait_staff (staff_id, name) KEY (staff_id) VALUES (?, ?)";
+    private static final String SELECT_STAFF = "SELECT staff_id, name FROM wait_staff ORDER BY staff_id";
+
+    private final SqlDatabase database;
+
+    /**
+     * Creates a wait staff repository.
+     *
+     * @param database The database.
+     */
+    public WaitStaffRepository(SqlDatabase database) {
+        this.database = Objects.requireNonNull(database, "Database cannot be null.");
+    }
+
+    /**
+     * Loads the whole roster.
+     *
+     * @return The wait staff, ordered by staff ID, or an empty list if none are stored.
+     * @throws SQLException If the read fails.
+     */
+    public List<WaitStaff> findAll() throws SQLException {
+        return database.read(connection -> {
+            List<WaitStaff> staff = new ArrayList<>();
+            try (PreparedStatement statement = connection.prepareStatement(SELECT_STAFF);
+                 ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    staff.add(new WaitStaff(rows.getString(1), rows.getString(2)));
+                }
+            }
+            return staff;
+        });
+    }
+
+    /**
+     * Queues the given staff members to be stored, replacing stored members with the same IDs.
+     *
+     * @param staff The staff members.
+     * @return true if the write was queued.
+     */
+    public boolean saveAll(Collection<WaitStaff> staff) {
+        List<WaitStaff> snapshot = new ArrayList<>(staff);
+        return database.enqueue(batch -> {
+            PreparedStatement statement = batch.statement(MERGE_STAFF);
+            for (WaitStaff member : snapshot) {
+                statement.setString(1, member.getStaffId());
+                statement.setString(2, member.getName());
+                batch.addBatch(statement);
+            }
+        });
+    }
+}
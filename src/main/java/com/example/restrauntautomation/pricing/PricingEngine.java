@@ -0,0 +1,166 @@
+package com.example.restrauntautomation.pricing;
+
+import com.example.restrauntautomation.manager.MenuManager;
+import com.example.restrauntautomation.model.Order;
+import com.example.restrauntautomation.model.OrderItem;
+
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.function.ObjLongConsumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Evaluates a compiled {@link PricingRuleSet} against orders and stores the result as the order's discount.
+ *
+ * <p>An evaluation is a single pass over the order lines: each line looks up its catalog id, takes the
+ * largest active percent-off rule and adds its units to the combo slots it fills; afterwards every active
+ * combo is counted as the smallest number of units over its slots. The combo counters are a scratch array
+ * owned by the engine, so nothing is allocated per evaluation. The discount never exceeds the order's subtotal.
+ *
+ * <p>Call {@link #price} on a new order before it is queued, so every queue listener (the audit log, the
+ * database, other terminals) sees the order with its discount, and call {@link #repriceAll} when the active
+ * rules change, e.g. when a happy hour starts. Evaluations are synchronized on the engine because they share
+ * the scratch array.
+ */
+public class PricingEngine {
+
+    private static final Logger LOGGER = Logger.getLogger(PricingEngine.class.getName());
+    private static final int BASIS_POINTS = 10_000;
+
+    private final PricingRuleSet rules;
+    private final MenuManager menuManager;
+    private final int[] slotUnits; // Scratch: units per combo slot in the order being evaluated
+
+    /**
+     * Creates a pricing engine.
+     *
+     * @param rules The compiled rules.
+     */
+    public PricingEngine(PricingRuleSet rules) {
+        this.rules = Objects.requireNonNull(rules, "Pricing rules cannot be null.");
+        this.menuManager = rules.getMenuManager();
+        this.slotUnits = new int[rules.slotRule.length];
+    }
+
+    /**
+     * Gets the rules this engine evaluates.
+     *
+     * @return The compiled rules.
+     */
+    public PricingRuleSet getRules() {
+        return rules;
+    }
+
+    /**
+     * Computes the discount of an order at a time of day, without changing the order.
+     *
+     * @param order The order.
+     * @param time  The time of day that decides which rules are active.
+     * @return The discount in cents.
+     */
+    public long discountCents(Order order, LocalTime time) {
+        return discountCents(order, PricingRuleSet.minuteOf(time));
+    }
+
+    /**
+     * Computes the discount of an order at a minute of the day.
+     *
+     * @param order       The order.
+     * @param minuteOfDay The minute of the day (0 to 1439).
+     * @return The discount in cents.
+     */
+    private synchronized long discountCents(Order order, int minuteOfDay) {
+        Arrays.fill(slotUnits, 0);
+        long subtotal = 0;
+        long discount = 0;
+        for (int i = 0; i < order.getItemCount(); i++) {
+            OrderItem line = order.getItem(i);
+            long lineTotal = line.getTotalPriceInCents();
+            subtotal += lineTotal;
+            int itemId = menuManager.getMenuItemId(line.getMenuItem());
+            if (itemId < 0) {
+                continue; // Not on this menu; no rules apply
+            }
+            int bestBasisPoints = 0;
+            for (int k = rules.percentStart[itemId]; k < rules.percentStart[itemId + 1]; k++) {
+                int rule = rules.percentRules[k];
+                if (rules.ruleBasisPoints[rule] > bestBasisPoints && rules.isActive(rule, minuteOfDay)) {
+                    bestBasisPoints = rules.ruleBasisPoints[rule];
+                }
+            }
+            if (bestBasisPoints > 0) {
+                discount += (lineTotal * bestBasisPoints + BASIS_POINTS / 2) / BASIS_POINTS;
+            }
+            for (int k = rules.slotStart[itemId]; k < rules.slotStart[itemId + 1]; k++) {
+                slotUnits[rules.slots[k]] += line.getQuantity();
+            }
+        }
+        for (int c = 0; c < rules.comboRules.length; c++) {
+            if (!rules.isActive(rules.comboRules[c], minuteOfDay)) {
+                continue;
+            }
+            int combos = Integer.MAX_VALUE;
+            for (int s = rules.comboFirstSlot[c]; s < rules.comboFirstSlot[c] + rules.comboSlotCount[c]; s++) {
+                combos = Math.min(combos, slotUnits[s]);
+            }
+            discount += combos * rules.comboDiscountCents[c];
+        }
+        return Math.min(discount, subtotal);
+    }
+
+    /**
+     * Prices an order: computes its discount and stores it on the order.
+     *
+     * @param order The order.
+     * @param time  The time of day that decides which rules are active.
+     * @return true if the discount changed.
+     */
+    public boolean price(Order order, LocalTime time) {
+        long discount = discountCents(order, time);
+        if (discount == order.getDiscountCents()) {
+            return false;
+        }
+        order.setDiscountCents(discount);
+        return true;
+    }
+
+    /**
+     * Prices a batch of orders, e.g. every open order when a happy hour starts or ends.
+     *
+     * @param orders The orders.
+     * @param time   The time of day that decides which rules are active.
+     * @return The number of orders whose discount changed.
+     */
+    public int repriceAll(Collection<Order> orders, LocalTime time) {
+        return repriceAll(orders, time, Order::setDiscountCents);
+    }
+
+    /**
+     * Prices a batch of orders, handing each changed discount to a setter instead of storing it directly,
+     * e.g. one that records the change in the {@link com.example.restrauntautomation.audit.AmendmentLog}.
+     *
+     * @param orders         The orders.
+     * @param time           The time of day that decides which rules are active.
+     * @param discountSetter Stores the new discount of an order whose discount changed.
+     * @return The number of orders whose discount changed.
+     */
+    public int repriceAll(Collection<Order> orders, LocalTime time, ObjLongConsumer<Order> discountSetter) {
+        Objects.requireNonNull(discountSetter, "Discount setter cannot be null.");
+        long start = System.nanoTime();
+        int minuteOfDay = PricingRuleSet.minuteOf(time);
+        int changed = 0;
+        for (Order order : orders) {
+            long discount = discountCents(order, minuteOfDay);
+            if (discount != order.getDiscountCents()) {
+                discountSetter.accept(order, discount);
+                changed++;
+            }
+        }
+        LOGGER.log(Level.INFO, "Repriced {0} orders ({1} changed) in {2} us.",
+                new Object[]{orders.size(), changed, (System.nanoTime() - start) / 1_000});
+        return changed;
+    }
+}
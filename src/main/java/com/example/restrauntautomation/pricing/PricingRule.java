@@ -0,0 +1,180 @@
+package com.example.restrauntautomation.pricing;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A pricing rule, active all day or during a daily time window. Two kinds exist:
+ * <ul>
+ *   <li>percent off: a discount on every line whose item (by name) or category matches one of the targets,
+ *       e.g. half-price beverages during happy hour. When several apply to a line, the largest wins.</li>
+ *   <li>combo: a fixed discount for every complete set of one unit from each target, e.g. $3 off each
+ *       soup and main course ordered together.</li>
+ * </ul>
+ * Rules are plain descriptions; {@link PricingRuleSet#compile} turns a list of them into lookup tables.
+ */
+public class PricingRule {
+
+    /**
+     * The kinds of pricing rules.
+     */
+    public enum Kind {
+        PERCENT_OFF,
+        COMBO
+    }
+
+    private final String name;
+    private final Kind kind;
+    private final List<String> targets; // Item or category names
+    private final int basisPoints; // PERCENT_OFF only
+    private final long discountCents; // COMBO only
+    private final LocalTime from; // Null for all day
+    private final LocalTime to;
+
+    /**
+     * Creates a rule.
+     *
+     * @param name          The name of the rule.
+     * @param kind          The kind of rule.
+     * @param targets       The item or category names the rule applies to.
+     * @param basisPoints   The percentage off in basis points, for PERCENT_OFF rules.
+     * @param discountCents The discount per combo in cents, for COMBO rules.
+     * @param from          The start of the daily window, or null for all day.
+     * @param to            The end of the daily window (exclusive; before from if it ends after midnight).
+     */
+    private PricingRule(String name, Kind kind, List<String> targets, int basisPoints, long discountCents,
+                        LocalTime from, LocalTime to) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("Rule name cannot be null or empty.");
+        }
+        Objects.requireNonNull(targets, "Rule targets cannot be null.");
+        if (targets.isEmpty()) {
+            throw new IllegalArgumentException("Rule '" + name + "' needs at least one target.");
+        }
+        if (new HashSet<>(targets).size() != targets.size()) {
+            throw new IllegalArgumentException("Rule '" + name + "' lists a target twice.");
+        }
+        if ((from == null) != (to == null) || (from != null && from.equals(to))) {
+            throw new IllegalArgumentException("Rule '" + name + "' needs both ends of a non-empty window, or neither.");
+        }
+        this.name = name.trim();
+        this.kind = kind;
+        this.targets = Collections.unmodifiableList(new ArrayList<>(targets));
+        this.basisPoints = basisPoints;
+        this.discountCents = discountCents;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Creates a percent-off rule.
+     *
+     * @param name        The name of the rule, e.g. "Happy hour drinks".
+     * @param targets     The item or category names it applies to.
+     * @param basisPoints The discount in basis points (1 to 10000; 5000 is half price).
+     * @param from        The start of the daily window, or null for all day.
+     * @param to          The end of the daily window, or null for all day.
+     * @return The rule.
+     */
+    public static PricingRule percentOff(String name, List<String> targets, int basisPoints, LocalTime from, LocalTime to) {
+        if (basisPoints <= 0 || basisPoints > 10_000) {
+            throw new IllegalArgumentException("Discount must be between 1 and 10000 basis points.");
+        }
+        return new PricingRule(name, Kind.PERCENT_OFF, targets, basisPoints, 0, from, to);
+    }
+
+    /**
+     * Creates a combo rule.
+     *
+     * @param name          The name of the rule, e.g. "Soup and main".
+     * @param targets       The item or category names that make up one combo, one unit each.
+     * @param discountCents The discount per complete combo in cents (positive).
+     * @param from          The start of the daily window, or null for all day.
+     * @param to            The end of the daily window, or null for all day.
+     * @return The rule.
+     */
+    public static PricingRule combo(String name, List<String> targets, long discountCents, LocalTime from, LocalTime to) {
+        if (discountCents <= 0) {
+            throw new IllegalArgumentException("Combo discount must be positive.");
+        }
+        return new PricingRule(name, Kind.COMBO, targets, 0, discountCents, from, to);
+    }
+
+    /**
+     * Gets the name of the rule.
+     *
+     * @return The name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the kind of rule.
+     *
+     * @return The kind.
+     */
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Gets the item or category names the rule applies to.
+     *
+     * @return An unmodifiable list of names.
+     */
+    public List<String> getTargets() {
+        return targets;
+    }
+
+    /**
+     * Gets the percentage off of a PERCENT_OFF rule.
+     *
+     * @return The discount in basis points, or 0 for combos.
+     */
+    public int getBasisPoints() {
+        return basisPoints;
+    }
+
+    /**
+     * Gets the discount per combo of a COMBO rule.
+     *
+     * @return The discount in cents, or 0 for percent-off rules.
+     */
+    public long getDiscountCents() {
+        return discountCents;
+    }
+
+    /**
+     * Gets the start of the daily window.
+     *
+     * @return The start time, or null if the rule applies all day.
+     */
+    public LocalTime getFrom() {
+        return from;
+    }
+
+    /**
+     * Gets the end of the daily window.
+     *
+     * @return The exclusive end time, or null if the rule applies all day.
+     */
+    public LocalTime getTo() {
+        return to;
+    }
+
+    @Override
+    public String toString() {
+        return "PricingRule{" +
+               "name='" + name + '\'' +
+               ", kind=" + kind +
+               ", targets=" + targets +
+               (kind == Kind.PERCENT_OFF ? ", basisPoints=" + basisPoints : ", discountCents=" + discountCents) +
+               (from == null ? "" : ", from=" + from + ", to=" + to) +
+               '}';
+    }
+}
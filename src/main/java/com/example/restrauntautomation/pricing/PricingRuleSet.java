@@ -0,0 +1,238 @@
+package com.example.restrauntautomation.pricing;
+
+import com.example.restrauntautomation.manager.MenuManager;
+import com.example.restrauntautomation.model.MenuItem;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A list of {@link PricingRule}s compiled against a menu catalog into flat lookup tables indexed by
+ * catalog item id, so a {@link PricingEngine} can evaluate them without name matching, maps or allocation.
+ *
+ * <p>For each item the tables list the percent-off rules that apply to it and the combo slots it can fill
+ * (a slot is one target of one combo rule), both in compressed rows: the entries of item {@code i} are at
+ * {@code [start[i], start[i + 1])}. Rule windows are stored as minutes of the day.
+ *
+ * <p>The rule set is immutable and can be shared between threads.
+ */
+public class PricingRuleSet {
+
+    private static final Logger LOGGER = Logger.getLogger(PricingRuleSet.class.getName());
+    private static final int ALL_DAY = -1;
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final MenuManager menuManager;
+    private final List<PricingRule> rules;
+    final int[] fromMinute; // Per rule; ALL_DAY if always active
+    final int[] toMinute;
+    final int[] percentStart; // Per item, into percentRules
+    final int[] percentRules; // Rule indexes
+    final int[] ruleBasisPoints; // Per rule
+    final int[] slotStart; // Per item, into slots
+    final int[] slots; // Slot indexes
+    final int[] slotRule; // Per slot: its combo rule index
+    final int[] comboRules; // Rule indexes of the combos
+    final int[] comboFirstSlot; // Per combo
+    final int[] comboSlotCount; // Per combo
+    final long[] comboDiscountCents; // Per combo
+
+    /**
+     * Compiles the rule tables.
+     *
+     * @param rules       The rules.
+     * @param menuManager The menu the tables are indexed by.
+     */
+    private PricingRuleSet(List<PricingRule> rules, MenuManager menuManager) {
+        this.menuManager = menuManager;
+        this.rules = Collections.unmodifiableList(new ArrayList<>(rules));
+        int ruleCount = rules.size();
+        int itemCount = menuManager.getMenuItemCount();
+        this.fromMinute = new int[ruleCount];
+        this.toMinute = new int[ruleCount];
+        this.ruleBasisPoints = new int[ruleCount];
+
+        List<List<Integer>> percentByItem = new ArrayList<>(itemCount);
+        List<List<Integer>> slotsByItem = new ArrayList<>(itemCount);
+        for (int item = 0; item < itemCount; item++) {
+            percentByItem.add(new ArrayList<>());
+            slotsByItem.add(new ArrayList<>());
+        }
+        List<Integer> comboRuleList = new ArrayList<>();
+        List<Integer> slotRuleList = new ArrayList<>();
+        for (int r = 0; r < ruleCount; r++) {
+            PricingRule rule = rules.get(r);
+            fromMinute[r] = rule.getFrom() == null ? ALL_DAY : minuteOf(rule.getFrom());
+            toMinute[r] = rule.getTo() == null ? ALL_DAY : minuteOf(rule.getTo());
+            ruleBasisPoints[r] = rule.getBasisPoints();
+            if (rule.getKind() == PricingRule.Kind.COMBO) {
+                comboRuleList.add(r);
+            }
+            for (String target : rule.getTargets()) {
+                int slot = slotRuleList.size();
+                boolean matched = false;
+                for (int item = 0; item < itemCount; item++) {
+                    MenuItem menuItem = menuManager.getMenuItemById(item);
+                    if (!target.equals(menuItem.getName()) && !target.equals(menuItem.getCategoryName())) {
+                        continue;
+                    }
+                    matched = true;
+                    if (rule.getKind() == PricingRule.Kind.PERCENT_OFF) {
+                        percentByItem.get(item).add(r);
+                    } else {
+                        slotsByItem.get(item).add(slot);
+                    }
+                }
+                if (!matched) {
+                    LOGGER.log(Level.WARNING, "Pricing rule ''{0}'' target ''{1}'' matches no menu item.",
+                            new Object[]{rule.getName(), target});
+                }
+                if (rule.getKind() == PricingRule.Kind.COMBO) {
+                    slotRuleList.add(r);
+                }
+            }
+        }
+
+        this.percentStart = new int[itemCount + 1];
+        this.percentRules = flatten(percentByItem, percentStart);
+        this.slotStart = new int[itemCount + 1];
+        this.slots = flatten(slotsByItem, slotStart);
+        this.slotRule = toArray(slotRuleList);
+        this.comboRules = toArray(comboRuleList);
+        this.comboFirstSlot = new int[comboRules.length];
+        this.comboSlotCount = new int[comboRules.length];
+        this.comboDiscountCents = new long[comboRules.length];
+        int slot = 0;
+        for (int c = 0; c < comboRules.length; c++) {
+            PricingRule rule = rules.get(comboRules[c]);
+            comboFirstSlot[c] = slot;
+            comboSlotCount[c] = rule.getTargets().size();
+            comboDiscountCents[c] = rule.getDiscountCents();
+            slot += comboSlotCount[c];
+        }
+    }
+
+    /**
+     * Compiles pricing rules against a menu. Recompile when the rules or the menu change.
+     *
+     * @param rules       The rules.
+     * @param menuManager The menu.
+     * @return The compiled rule set.
+     */
+    public static PricingRuleSet compile(List<PricingRule> rules, MenuManager menuManager) {
+        Objects.requireNonNull(rules, "Rules cannot be null.");
+        Objects.requireNonNull(menuManager, "Menu manager cannot be null.");
+        for (PricingRule rule : rules) {
+            Objects.requireNonNull(rule, "Rule cannot be null.");
+        }
+        return new PricingRuleSet(rules, menuManager);
+    }
+
+    /**
+     * Gets the rules this set was compiled from.
+     *
+     * @return An unmodifiable list of the rules.
+     */
+    public List<PricingRule> getRules() {
+        return rules;
+    }
+
+    /**
+     * Gets the menu the tables are indexed by.
+     *
+     * @return The menu manager.
+     */
+    MenuManager getMenuManager() {
+        return menuManager;
+    }
+
+    /**
+     * Tells whether a rule is active at a time of day.
+     *
+     * @param rule        The rule index.
+     * @param minuteOfDay The minute of the day (0 to 1439).
+     * @return true if the rule applies.
+     */
+    boolean isActive(int rule, int minuteOfDay) {
+        int from = fromMinute[rule];
+        if (from == ALL_DAY) {
+            return true;
+        }
+        int to = toMinute[rule];
+        return from < to
+                ? minuteOfDay >= from && minuteOfDay < to
+                : minuteOfDay >= from || minuteOfDay < to; // Window past midnight
+    }
+
+    /**
+     * Tells whether the same rules are active at two times of day, e.g. to detect that a happy hour
+     * started or ended between two clock ticks.
+     *
+     * @param first  The first time.
+     * @param second The second time.
+     * @return true if exactly the same rules are active at both times.
+     */
+    public boolean sameActiveRules(LocalTime first, LocalTime second) {
+        int a = minuteOf(first);
+        int b = minuteOf(second);
+        for (int r = 0; r < fromMinute.length; r++) {
+            if (isActive(r, a) != isActive(r, b)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the minute of the day of a time.
+     *
+     * @param time The time.
+     * @return The minute (0 to 1439).
+     */
+    static int minuteOf(LocalTime time) {
+        return (time.getHour() * 60 + time.getMinute()) % MINUTES_PER_DAY;
+    }
+
+    /**
+     * Flattens per-item lists into a compressed row array.
+     *
+     * @param perItem The list of each item.
+     * @param start   Receives the start offset of each item, plus the total at the end.
+     * @return The flattened entries.
+     */
+    private static int[] flatten(List<List<Integer>> perItem, int[] start) {
+        int total = 0;
+        for (int item = 0; item < perItem.size(); item++) {
+            start[item] = total;
+            total += perItem.get(item).size();
+        }
+        start[perItem.size()] = total;
+        int[] entries = new int[total];
+        int index = 0;
+        for (List<Integer> list : perItem) {
+            for (int entry : list) {
+                entries[index++] = entry;
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Copies a list of integers into an array.
+     *
+     * @param list The list.
+     * @return The array.
+     */
+    private static int[] toArray(List<Integer> list) {
+        int[] array = new int[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+}
@@ -0,0 +1,336 @@
+package com.example.restrauntautomation.replication;
+
+import com.example.restrauntautomation.codec.ModelCodec;
+import com.example.restrauntautomation.manager.MenuManager;
+import com.example.restrauntautomation.model.MenuItem;
+import com.example.restrauntautomation.model.Modifier;
+import com.example.restrauntautomation.model.Order;
+import com.example.restrauntautomation.model.OrderItem;
+import com.example.restrauntautomation.model.Table;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * One entry of the replicated log: an order added to or removed from the queue, a table status change, the
+ * payment of served orders, an item added to or removed from a queued order, or a refund on a paid order.
+ * A removal carries the order's status, so other terminals can tell a voided or paid order from one the kitchen
+ * completed, and for a void who voided it and why. Amendments and refunds carry who made them, and refunds why.
+ * Every entry carries the terminal it was made on and that terminal's submission number, so the terminal
+ * can tell when its own change has been committed.
+ * Entries travel between terminals as length-prefixed byte arrays. Orders are encoded with
+ * {@link ModelCodec}, which sends menu items by catalog id, so all terminals must run the same menu.
+ */
+final class ReplicationEntry {
+
+    static final byte ORDER_ADDED = 1;
+    static final byte ORDER_REMOVED = 2;
+    static final byte TABLE_STATUS = 3;
+    static final byte ORDERS_PAID = 4;
+    static final byte ORDER_AMENDED = 5;
+    static final byte ORDER_REFUNDED = 6;
+    private static final int HEADER_BYTES = 1 + Integer.BYTES + Long.BYTES; // Type, origin node, submission ID
+
+    final byte type;
+    final int originNodeId;
+    final long submissionId;
+    final Order order;               // ORDER_ADDED
+    final long orderId;              // ORDER_ADDED, ORDER_REMOVED, ORDER_AMENDED, ORDER_REFUNDED
+    final Order.OrderStatus orderStatus; // ORDER_REMOVED: the status the order left the queue with
+    final String staffId;            // ORDER_REMOVED of a voided order, ORDER_AMENDED, ORDER_REFUNDED, else null
+    final String reason;             // ORDER_REMOVED of a voided order, ORDER_REFUNDED, else null
+    final int tableNumber;           // TABLE_STATUS
+    final Table.TableStatus tableStatus; // TABLE_STATUS
+    final long[] paidOrderIds;       // ORDERS_PAID
+    final OrderItem line;            // ORDER_AMENDED: the line added, or the item removed
+    final boolean lineRemoved;       // ORDER_AMENDED: true if the line's item was removed
+    final long amountCents;          // ORDER_REFUNDED
+
+    private ReplicationEntry(byte type, int originNodeId, long submissionId, Order order, long orderId,
+                             Order.OrderStatus orderStatus, String staffId, String reason, int tableNumber,
+                             Table.TableStatus tableStatus, long[] paidOrderIds) {
+        this(type, originNodeId, submissionId, order, orderId, orderStatus, staffId, reason, tableNumber, tableStatus,
+                paidOrderIds, null, false, 0L);
+    }
+
+    private ReplicationEntry(byte type, int originNodeId, long submissionId, Order order, long orderId,
+                             Order.OrderStatus orderStatus, String staffId, String reason, int tableNumber,
+                             Table.TableStatus tableStatus, long[] paidOrderIds, OrderItem line, boolean lineRemoved,
+                             long amountCents) {
+        this.type = type;
+        this.originNodeId = originNodeId;
+        this.submissionId = submissionId;
+        this.order = order;
+        this.orderId = orderId;
+        this.orderStatus = orderStatus;
+        this.staffId = staffId;
+        this.reason = reason;
+        this.tableNumber = tableNumber;
+        this.tableStatus = tableStatus;
+        this.paidOrderIds = paidOrderIds;
+        this.line = line;
+        this.lineRemoved = lineRemoved;
+        this.amountCents = amountCents;
+    }
+
+    /**
+     * Encodes an added order.
+     *
+     * @param originNodeId The terminal the change was made on.
+     * @param submissionId The number of the change on that terminal.
+     * @param order        The order.
+     * @param menuManager  The menu, used to map items to catalog ids.
+     * @return The encoded entry.
+     * @throws IOException If encoding fails.
+     */
+    static byte[] encodeOrderAdded(int originNodeId, long submissionId, Order order, MenuManager menuManager) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(128);
+        while (true) {
+            try {
+                buffer.clear();
+                buffer.put(ORDER_ADDED);
+                buffer.putInt(originNodeId);
+                buffer.putLong(submissionId);
+                ModelCodec.encodeOrder(order, buffer, menuManager::getMenuItemId);
+                return Arrays.copyOf(buffer.array(), buffer.position());
+            } catch (BufferOverflowException e) {
+                buffer = ByteBuffer.allocate(buffer.capacity() * 2); // Large order, retry with room to spare
+            } catch (IllegalArgumentException e) {
+                throw new IOException(e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Encodes a removed order.
+     *
+     * @param originNodeId The terminal the change was made on.
+     * @param submissionId The number of the change on that terminal.
+     * @param orderId      The ID of the removed order.
+     * @param status       The status the order leaves the queue with.
+     * @param staffId      Who voided the order, or null unless it was voided.
+     * @param reason       Why the order was voided, or null unless it was voided.
+     * @return The encoded entry.
+     * @throws IOException If encoding fails.
+     */
+    static byte[] encodeOrderRemoved(int originNodeId, long submissionId, long orderId, Order.OrderStatus status,
+                                     String staffId, String reason) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(ORDER_REMOVED);
+        out.writeInt(originNodeId);
+        out.writeLong(submissionId);
+        out.writeLong(orderId);
+        out.writeByte(status.ordinal());
+        out.writeBoolean(staffId != null);
+        if (staffId != null) {
+            out.writeUTF(staffId);
+            out.writeUTF(reason == null ? "" : reason);
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Encodes a table status change.
+     *
+     * @param originNodeId The terminal the change was made on.
+     * @param submissionId The number of the change on that terminal.
+     * @param tableNumber  The table number.
+     * @param status       The new status.
+     * @return The encoded entry.
+     */
+    static byte[] encodeTableStatus(int originNodeId, long submissionId, int tableNumber, Table.TableStatus status) {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + Integer.BYTES + 1);
+        buffer.put(TABLE_STATUS);
+        buffer.putInt(originNodeId);
+        buffer.putLong(submissionId);
+        buffer.putInt(tableNumber);
+        buffer.put((byte) status.ordinal());
+        return buffer.array();
+    }
+
+    /**
+     * Encodes the payment of served orders.
+     *
+     * @param originNodeId The terminal the bill was settled on.
+     * @param submissionId The number of the change on that terminal.
+     * @param orderIds     The IDs of the paid orders.
+     * @return The encoded entry.
+     */
+    static byte[] encodeOrdersPaid(int originNodeId, long submissionId, long[] orderIds) {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + Integer.BYTES + orderIds.length * Long.BYTES);
+        buffer.put(ORDERS_PAID);
+        buffer.putInt(originNodeId);
+        buffer.putLong(submissionId);
+        buffer.putInt(orderIds.length);
+        for (long orderId : orderIds) {
+            buffer.putLong(orderId);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Encodes an item added to, or removed from, a queued order. A removed item is sent as a line without
+     * modifiers, since only those can be removed.
+     *
+     * @param originNodeId The terminal the change was made on.
+     * @param submissionId The number of the change on that terminal.
+     * @param orderId      The ID of the amended order.
+     * @param staffId      Who amended the order.
+     * @param line         The line added, or a line of the item removed.
+     * @param removed      true if the line's item was removed.
+     * @param menuManager  The menu, used to map items to catalog ids.
+     * @return The encoded entry.
+     * @throws IOException If encoding fails, e.g. the item is not on the menu.
+     */
+    static byte[] encodeOrderAmended(int originNodeId, long submissionId, long orderId, String staffId, OrderItem line,
+                                     boolean removed, MenuManager menuManager) throws IOException {
+        int itemId = menuManager.getMenuItemId(line.getMenuItem());
+        if (itemId < 0) {
+            throw new IOException("MenuItem '" + line.getMenuItem().getName() + "' has no catalog id.");
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(ORDER_AMENDED);
+        out.writeInt(originNodeId);
+        out.writeLong(submissionId);
+        out.writeLong(orderId);
+        out.writeUTF(staffId);
+        out.writeBoolean(removed);
+        out.writeInt(itemId);
+        out.writeInt(line.getQuantity());
+        List<Modifier> modifiers = line.getModifiers();
+        out.writeInt(modifiers.size());
+        for (Modifier modifier : modifiers) {
+            out.writeUTF(modifier.getName());
+            out.writeLong(modifier.getPriceDeltaCents());
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Encodes a refund on a paid order.
+     *
+     * @param originNodeId The terminal the refund was given on.
+     * @param submissionId The number of the change on that terminal.
+     * @param orderId      The ID of the refunded order.
+     * @param staffId      Who gave the refund.
+     * @param amountCents  The amount refunded in cents.
+     * @param reason       Why the refund was given.
+     * @return The encoded entry.
+     * @throws IOException If encoding fails.
+     */
+    static byte[] encodeOrderRefunded(int originNodeId, long submissionId, long orderId, String staffId,
+                                      long amountCents, String reason) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(ORDER_REFUNDED);
+        out.writeInt(originNodeId);
+        out.writeLong(submissionId);
+        out.writeLong(orderId);
+        out.writeUTF(staffId);
+        out.writeLong(amountCents);
+        out.writeUTF(reason);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes an entry.
+     *
+     * @param data        The encoded entry.
+     * @param menuManager The menu, used to resolve catalog ids.
+     * @return The decoded entry.
+     * @throws IOException If the data is malformed or references unknown menu items.
+     */
+    static ReplicationEntry decode(byte[] data, MenuManager menuManager) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        byte type = in.readByte();
+        int originNodeId = in.readInt();
+        long submissionId = in.readLong();
+        switch (type) {
+            case ORDER_ADDED: {
+                ByteBuffer payload = ByteBuffer.wrap(data, HEADER_BYTES, data.length - HEADER_BYTES);
+                Order order;
+                try {
+                    order = ModelCodec.decodeOrder(payload, menuManager::getMenuItemById);
+                } catch (IllegalArgumentException | BufferUnderflowException e) {
+                    throw new IOException("Malformed replicated order: " + e.getMessage(), e);
+                }
+                return new ReplicationEntry(type, originNodeId, submissionId, order, order.getOrderId(), null, null, null, 0, null, null);
+            }
+            case ORDER_REMOVED: {
+                long orderId = in.readLong();
+                Order.OrderStatus status = Order.OrderStatus.values()[in.readByte()];
+                boolean voided = in.readBoolean();
+                String staffId = voided ? in.readUTF() : null;
+                String reason = voided ? in.readUTF() : null;
+                return new ReplicationEntry(type, originNodeId, submissionId, null, orderId, status, staffId, reason, 0, null, null);
+            }
+            case TABLE_STATUS: {
+                int tableNumber = in.readInt();
+                Table.TableStatus status = Table.TableStatus.values()[in.readByte()];
+                return new ReplicationEntry(type, originNodeId, submissionId, null, 0L, null, null, null, tableNumber, status, null);
+            }
+            case ORDERS_PAID: {
+                int count = in.readInt();
+                if (count < 0 || count > in.available() / Long.BYTES) {
+                    throw new IOException("Malformed payment of " + count + " orders.");
+                }
+                long[] orderIds = new long[count];
+                for (int i = 0; i < count; i++) {
+                    orderIds[i] = in.readLong();
+                }
+                return new ReplicationEntry(type, originNodeId, submissionId, null, 0L, null, null, null, 0, null, orderIds);
+            }
+            case ORDER_AMENDED: {
+                long orderId = in.readLong();
+                String staffId = in.readUTF();
+                boolean removed = in.readBoolean();
+                int itemId = in.readInt();
+                int quantity = in.readInt();
+                int modifierCount = in.readInt();
+                MenuItem menuItem = menuManager.getMenuItemById(itemId);
+                if (menuItem == null) {
+                    throw new IOException("Amendment of order " + orderId + " references unknown menu item " + itemId + ".");
+                }
+                if (modifierCount < 0 || modifierCount > in.available()) {
+                    throw new IOException("Malformed amendment with " + modifierCount + " modifiers.");
+                }
+                List<Modifier> modifiers = new ArrayList<>(modifierCount);
+                for (int i = 0; i < modifierCount; i++) {
+                    modifiers.add(new Modifier(in.readUTF(), in.readLong()));
+                }
+                OrderItem line;
+                try {
+                    line = new OrderItem(menuItem, quantity, modifiers);
+                } catch (IllegalArgumentException e) {
+                    throw new IOException("Malformed amendment of order " + orderId + ": " + e.getMessage(), e);
+                }
+                return new ReplicationEntry(type, originNodeId, submissionId, null, orderId, null, staffId, null, 0, null,
+                        null, line, removed, 0L);
+            }
+            case ORDER_REFUNDED: {
+                long orderId = in.readLong();
+                String staffId = in.readUTF();
+                long amountCents = in.readLong();
+                String reason = in.readUTF();
+                return new ReplicationEntry(type, originNodeId, submissionId, null, orderId, null, staffId, reason, 0, null,
+                        null, null, false, amountCents);
+            }
+            default:
+                throw new IOException("Unknown replication entry type " + type + ".");
+        }
+    }
+}
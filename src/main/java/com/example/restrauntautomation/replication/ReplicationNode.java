@@ -0,0 +1,1126 @@
+package com.example.restrauntautomation.replication;
+
+import com.example.restrauntautomation.manager.MenuManager;
+import com.example.restrauntautomation.manager.OrderQueueManager;
+import com.example.restrauntautomation.model.MenuItem;
+import com.example.restrauntautomation.model.Order;
+import com.example.restrauntautomation.model.OrderItem;
+import com.example.restrauntautomation.model.Table;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps the order queue and table states of several terminals in sync over TCP sockets
+ * using a single-leader replicated log.
+ *
+ * <p>The leader owns the log. Every change, whether made on the leader or forwarded by a follower,
+ * is appended to the log and broadcast to all followers in log order. No terminal changes its own state
+ * when it makes a change: it submits the change, and every terminal, the one that made it included,
+ * applies committed entries one at a time in log order through its applier (the FX thread in the
+ * application). All terminals therefore apply the same changes in the same order, so two terminals
+ * changing the same table or order at once end up with the same result. Each submit returns a future that
+ * completes once the change has been committed and applied on this terminal, or fails if it could not be sent.
+ * Order IDs do not need coordination, because each terminal generates IDs with its own node ID
+ * (see {@link com.example.restrauntautomation.model.SnowflakeOrderIdGenerator}).
+ *
+ * <p>Log entries are numbered from 1, and a follower remembers the number of the last entry it applied.
+ * When it connects it sends that number with the ID of the log it came from, and the leader sends only the
+ * later entries, so no order is added, archived or taken out of stock twice. A follower given a state file
+ * keeps that position across restarts; the orders still open when it stopped are not brought back, as when
+ * a standalone terminal restarts. A follower connecting to a different log (the leader restarted) receives
+ * that log from the start. A follower that loses the leader refuses new changes, fails those not yet
+ * committed, and reconnects in the background.
+ *
+ * <p>Network writes never happen on the caller's thread or under the log lock: local changes are sent by a
+ * single sender thread, and each follower has its own writer thread draining an unbounded queue, so a slow
+ * follower cannot hold up the leader. The log is kept in memory for the lifetime of the leader.
+ */
+public class ReplicationNode implements Closeable {
+
+    private static final Logger LOGGER = Logger.getLogger(ReplicationNode.class.getName());
+    private static final long STOP = -1; // Ends a follower's writer thread
+    private static final long RECONNECT_MIN_MILLIS = 500;
+    private static final long RECONNECT_MAX_MILLIS = 10_000;
+
+    /**
+     * Receives committed table status changes, including those made on this terminal.
+     */
+    public interface TableStatusListener {
+        /**
+         * Called through the applier, in log order, when a table status change is committed.
+         *
+         * @param tableNumber The table number.
+         * @param status      The new status.
+         */
+        void tableStatusChanged(int tableNumber, Table.TableStatus status);
+    }
+
+    /**
+     * Voids orders that were voided on another terminal, e.g. by recording the void in the audit log.
+     */
+    public interface OrderVoidListener {
+        /**
+         * Called through the applier, in log order, just before an order voided on another terminal is removed
+         * from the local queue. The listener is expected to mark the order as cancelled.
+         *
+         * @param order   The local copy of the order.
+         * @param staffId The ID of the staff member who voided it.
+         * @param reason  Why it was voided.
+         */
+        void orderVoided(Order order, String staffId, String reason);
+    }
+
+    /**
+     * Closes orders paid on any terminal, e.g. by taking them off the table's tab.
+     */
+    public interface OrderPaymentListener {
+        /**
+         * Called through the applier, in log order, when the payment of served orders is committed, including
+         * payments made on this terminal.
+         *
+         * @param orderIds The IDs of the paid orders.
+         */
+        void ordersPaid(long[] orderIds);
+    }
+
+    /**
+     * Amends queued orders that were amended on another terminal, e.g. through the audit log.
+     */
+    public interface OrderAmendmentListener {
+        /**
+         * Called through the applier, in log order, when an item added to a queued order on another terminal is
+         * committed. The listener is expected to add the line to the local copy.
+         *
+         * @param order   The local copy of the order.
+         * @param staffId The ID of the staff member who added the item.
+         * @param line    The line added.
+         */
+        void itemAdded(Order order, String staffId, OrderItem line);
+
+        /**
+         * Called through the applier, in log order, when an item removed from a queued order on another terminal
+         * is committed. The listener is expected to remove the item from the local copy.
+         *
+         * @param order    The local copy of the order.
+         * @param staffId  The ID of the staff member who removed the item.
+         * @param menuItem The item removed.
+         */
+        void itemRemoved(Order order, String staffId, MenuItem menuItem);
+    }
+
+    /**
+     * Records refunds given on another terminal, e.g. in the audit log.
+     */
+    public interface OrderRefundListener {
+        /**
+         * Called through the applier, in log order, when a refund given on another terminal is committed.
+         * Paid orders are no longer in the queue, so only the order's ID is given.
+         *
+         * @param orderId     The ID of the refunded order.
+         * @param staffId     The ID of the staff member who gave the refund.
+         * @param amountCents The amount refunded in cents.
+         * @param reason      Why the refund was given.
+         */
+        void orderRefunded(long orderId, String staffId, long amountCents, String reason);
+    }
+
+    /**
+     * Follows the connection of a follower to its leader.
+     */
+    public interface ConnectionListener {
+        /**
+         * Called on a replication thread when the connection to the leader is lost or re-established.
+         *
+         * @param connected true if the follower is connected again, false if it lost the leader.
+         */
+        void connectionChanged(boolean connected);
+    }
+
+    private final int nodeId;
+    private final OrderQueueManager queueManager;
+    private final MenuManager menuManager;
+    private final Executor applier;
+    private final ExecutorService sender;
+    private final Path stateFile; // Null if the applied position is not persisted
+    private final AtomicLong nextSubmissionId = new AtomicLong(1);
+    private final Map<Long, CompletableFuture<Void>> pending = new ConcurrentHashMap<>(); // Submitted, not yet applied
+    private volatile TableStatusListener tableStatusListener;
+    private volatile OrderVoidListener orderVoidListener;
+    private volatile OrderPaymentListener orderPaymentListener;
+    private volatile OrderAmendmentListener orderAmendmentListener;
+    private volatile OrderRefundListener orderRefundListener;
+    private volatile ConnectionListener connectionListener;
+    private volatile boolean running;
+
+    // Log position, changed only by the applier
+    private volatile long logId;       // The log applied entries come from, 0 if none yet
+    private volatile long lastApplied; // Number of the last entry applied from it
+
+    // Leader state
+    private ServerSocket serverSocket;
+    private final List<byte[]> log = new ArrayList<>(); // Entry n at index n - 1
+    private final List<Peer> followers = new CopyOnWriteArrayList<>();
+
+    // Follower state
+    private volatile Peer leader; // Null while disconnected
+    private volatile boolean following;
+
+    /**
+     * Creates a replication node. Call {@link #startLeader(int)} or {@link #startFollower(String, int)} to join a group.
+     *
+     * @param nodeId       The ID of this terminal, unique within the group.
+     * @param queueManager The local order queue to keep in sync.
+     * @param menuManager  The menu, used to send items by catalog id.
+     * @param applier      Runs the application of committed entries; must run tasks one at a time in the order
+     *                     they are submitted, e.g. {@code Platform::runLater} (must not be null).
+     */
+    public ReplicationNode(int nodeId, OrderQueueManager queueManager, MenuManager menuManager, Executor applier) {
+        this(nodeId, queueManager, menuManager, applier, null);
+    }
+
+    /**
+     * Creates a replication node that keeps its position in the leader's log in a state file, so that as a
+     * follower it resumes after the entries it applied before a restart.
+     *
+     * @param nodeId       The ID of this terminal, unique within the group.
+     * @param queueManager The local order queue to keep in sync.
+     * @param menuManager  The menu, used to send items by catalog id.
+     * @param applier      Runs the application of committed entries; must run tasks one at a time in the order
+     *                     they are submitted, e.g. {@code Platform::runLater} (must not be null).
+     * @param stateFile    The state file, created if missing, or null to not persist the position.
+     * @throws UncheckedIOException If the state file cannot be read.
+     */
+    public ReplicationNode(int nodeId, OrderQueueManager queueManager, MenuManager menuManager, Executor applier, Path stateFile) {
+        this.nodeId = nodeId;
+        this.queueManager = Objects.requireNonNull(queueManager, "Queue manager cannot be null.");
+        this.menuManager = Objects.requireNonNull(menuManager, "Menu manager cannot be null.");
+        this.applier = Objects.requireNonNull(applier, "Applier cannot be null.");
+        this.stateFile = stateFile;
+        readState();
+        this.sender = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "replication-send");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Sets the listener notified of committed table status changes.
+     *
+     * @param listener The listener, or null to remove it.
+     */
+    public void setTableStatusListener(TableStatusListener listener) {
+        this.tableStatusListener = listener;
+    }
+
+    /**
+     * Sets the listener that voids orders voided on other terminals. Without one, such orders are just marked
+     * as cancelled before they are removed.
+     *
+     * @param listener The listener, or null to remove it.
+     */
+    public void setOrderVoidListener(OrderVoidListener listener) {
+        this.orderVoidListener = listener;
+    }
+
+    /**
+     * Sets the listener that closes paid orders.
+     *
+     * @param listener The listener, or null to remove it.
+     */
+    public void setOrderPaymentListener(OrderPaymentListener listener) {
+        this.orderPaymentListener = listener;
+    }
+
+    /**
+     * Sets the listener that amends orders amended on other terminals. Without one, such orders are just
+     * amended directly.
+     *
+     * @param listener The listener, or null to remove it.
+     */
+    public void setOrderAmendmentListener(OrderAmendmentListener listener) {
+        this.orderAmendmentListener = listener;
+    }
+
+    /**
+     * Sets the listener that records refunds given on other terminals.
+     *
+     * @param listener The listener, or null to remove it.
+     */
+    public void setOrderRefundListener(OrderRefundListener listener) {
+        this.orderRefundListener = listener;
+    }
+
+    /**
+     * Sets the listener told when a follower loses or regains its leader.
+     *
+     * @param listener The listener, or null to remove it.
+     */
+    public void setConnectionListener(ConnectionListener listener) {
+        this.connectionListener = listener;
+    }
+
+    /**
+     * Tells whether changes can be submitted: always on a running leader, on a follower only while it is
+     * connected to the leader.
+     *
+     * @return true if changes can be submitted.
+     */
+    public boolean isConnected() {
+        return running && (!following || leader != null);
+    }
+
+    /**
+     * Gets the number of the last log entry applied on this terminal.
+     *
+     * @return The entry number, or 0 if none was applied.
+     */
+    public long getLastAppliedIndex() {
+        return lastApplied;
+    }
+
+    /**
+     * Gets the ID of this terminal.
+     *
+     * @return The node ID.
+     */
+    public int getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Starts this node as the group leader, accepting follower connections on the given port.
+     *
+     * @param port The TCP port to listen on, or 0 for any free port.
+     * @throws IOException If the port cannot be opened.
+     */
+    public void startLeader(int port) throws IOException {
+        serverSocket = new ServerSocket(port);
+        long id;
+        do {
+            id = ThreadLocalRandom.current().nextLong();
+        } while (id == 0);
+        logId = id; // A new log: followers of an earlier leader get it from the start
+        lastApplied = 0;
+        running = true;
+        startDaemon("replication-accept", this::acceptFollowers);
+        LOGGER.log(Level.INFO, "Replication node {0} leading on port {1}.", new Object[]{nodeId, serverSocket.getLocalPort()});
+    }
+
+    /**
+     * Gets the port the leader accepts followers on.
+     *
+     * @return The port, or -1 if this node is not leading.
+     */
+    public int getLeaderPort() {
+        return serverSocket == null ? -1 : serverSocket.getLocalPort();
+    }
+
+    /**
+     * Starts this node as a follower of the leader at the given address. If the connection is lost later,
+     * the node keeps trying to reconnect until it is closed.
+     *
+     * @param host The leader's host name.
+     * @param port The leader's port.
+     * @throws IOException If the leader cannot be reached.
+     */
+    public void startFollower(String host, int port) throws IOException {
+        following = true;
+        running = true;
+        Peer peer;
+        try {
+            peer = connect(host, port);
+        } catch (IOException e) {
+            running = false;
+            throw e;
+        }
+        startDaemon("replication-follow", () -> follow(peer, host, port));
+        LOGGER.log(Level.INFO, "Replication node {0} following leader at {1}:{2}.", new Object[]{nodeId, host, port});
+    }
+
+    /**
+     * Submits an order to be added to the queue of every terminal. The order is queued here too only once
+     * the change is committed.
+     *
+     * @param order The order (must not be null).
+     * @return A future that completes once the order is queued here, or fails if it could not be sent to the leader.
+     * @throws IllegalArgumentException If the order has an item that is not on the menu.
+     * @throws IllegalStateException    If the node is not connected (see {@link #isConnected()}).
+     */
+    public CompletableFuture<Void> submitOrderAdded(Order order) {
+        Objects.requireNonNull(order, "Order cannot be null.");
+        long submissionId = nextSubmissionId.getAndIncrement();
+        byte[] entry;
+        try {
+            entry = ReplicationEntry.encodeOrderAdded(nodeId, submissionId, order, menuManager);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Order " + order.getOrderId() + " cannot be replicated: " + e.getMessage(), e);
+        }
+        return submit(submissionId, entry);
+    }
+
+    /**
+     * Submits an order to be removed from the queue of every terminal, including this one once committed.
+     * The order's current status goes with it, so a served order is removed as served everywhere.
+     *
+     * @param order The order (must not be null).
+     * @return A future that completes once the order is removed here, or fails if it could not be sent to the leader.
+     * @throws IllegalStateException If the node is not connected (see {@link #isConnected()}).
+     */
+    public CompletableFuture<Void> submitOrderRemoved(Order order) {
+        Objects.requireNonNull(order, "Order cannot be null.");
+        return submitRemoval(order, null, null);
+    }
+
+    /**
+     * Submits a voided order to be removed from the queue of every terminal, including this one once committed.
+     * Other terminals void their copy through the {@link OrderVoidListener} before removing it.
+     *
+     * @param order   The order, already voided here (must not be null).
+     * @param staffId The ID of the staff member who voided it (must not be blank).
+     * @param reason  Why it was voided (must not be blank).
+     * @return A future that completes once the order is removed here, or fails if it could not be sent to the leader.
+     * @throws IllegalArgumentException If the order is not voided, or the staff ID or reason is missing or too long.
+     * @throws IllegalStateException    If the node is not connected (see {@link #isConnected()}).
+     */
+    public CompletableFuture<Void> submitOrderVoided(Order order, String staffId, String reason) {
+        Objects.requireNonNull(order, "Order cannot be null.");
+        if (order.getStatus() != Order.OrderStatus.CANCELLED) {
+            throw new IllegalArgumentException("Order " + order.getOrderId() + " is " + order.getStatus() + ", not voided.");
+        }
+        if (staffId == null || staffId.isBlank() || reason == null || reason.isBlank()) {
+            throw new IllegalArgumentException("A voided order needs the staff ID and reason.");
+        }
+        return submitRemoval(order, staffId, reason);
+    }
+
+    /**
+     * Submits the payment of served orders, which are no longer in the queue; every terminal, including this
+     * one, closes them through its {@link OrderPaymentListener} once committed.
+     *
+     * @param paidOrders The paid orders (must not be null or empty).
+     * @return A future that completes once the payment is applied here, or fails if it could not be sent to the leader.
+     * @throws IllegalArgumentException If there are no orders or one is not paid.
+     * @throws IllegalStateException    If the node is not connected (see {@link #isConnected()}).
+     */
+    public CompletableFuture<Void> submitOrdersPaid(List<Order> paidOrders) {
+        Objects.requireNonNull(paidOrders, "Paid orders cannot be null.");
+        if (paidOrders.isEmpty()) {
+            throw new IllegalArgumentException("A payment needs at least one order.");
+        }
+        long[] orderIds = new long[paidOrders.size()];
+        for (int i = 0; i < orderIds.length; i++) {
+            Order order = paidOrders.get(i);
+            if (order.getStatus() != Order.OrderStatus.PAID) {
+                throw new IllegalArgumentException("Order " + order.getOrderId() + " is " + order.getStatus() + ", not paid.");
+            }
+            orderIds[i] = order.getOrderId();
+        }
+        long submissionId = nextSubmissionId.getAndIncrement();
+        return submit(submissionId, ReplicationEntry.encodeOrdersPaid(nodeId, submissionId, orderIds));
+    }
+
+    /**
+     * Submits an item added to a queued order, already added here; other terminals add it to their copy through
+     * the {@link OrderAmendmentListener} once committed.
+     *
+     * @param order   The amended order (must not be null).
+     * @param staffId The ID of the staff member who added the item (must not be blank).
+     * @param line    The line added (must not be null).
+     * @return A future that completes once the amendment is committed, or fails if it could not be sent to the leader.
+     * @throws IllegalArgumentException If the staff ID is missing or too long, or the item is not on the menu.
+     * @throws IllegalStateException    If the node is not connected (see {@link #isConnected()}).
+     */
+    public CompletableFuture<Void> submitItemAdded(Order order, String staffId, OrderItem line) {
+        Objects.requireNonNull(line, "Line cannot be null.");
+        return submitAmendment(order, staffId, line, false);
+    }
+
+    /**
+     * Submits an item removed from a queued order, already removed here; other terminals remove it from their
+     * copy through the {@link OrderAmendmentListener} once committed.
+     *
+     * @param order    The amended order (must not be null).
+     * @param staffId  The ID of the staff member who removed the item (must not be blank).
+     * @param menuItem The item removed (must not be null).
+     * @return A future that completes once the amendment is committed, or fails if it could not be sent to the leader.
+     * @throws IllegalArgumentException If the staff ID is missing or too long, or the item is not on the menu.
+     * @throws IllegalStateException    If the node is not connected (see {@link #isConnected()}).
+     */
+    public CompletableFuture<Void> submitItemRemoved(Order order, String staffId, MenuItem menuItem) {
+        Objects.requireNonNull(menuItem, "Menu item cannot be null.");
+        return submitAmendment(order, staffId, new OrderItem(menuItem, 1), true);
+    }
+
+    /**
+     * Submits a refund on a paid order, already recorded here; other terminals record it through the
+     * {@link OrderRefundListener} once committed.
+     *
+     * @param order       The refunded order (must be paid).
+     * @param staffId     The ID of the staff member who gave the refund (must not be blank).
+     * @param amountCents The amount refunded in cents (positive).
+     * @param reason      Why the refund was given (must not be blank).
+     * @return A future that completes once the refund is committed, or fails if it could not be sent to the leader.
+     * @throws IllegalArgumentException If the order is not paid, the amount is not positive, or the staff ID or
+     *                                  reason is missing or too long.
+     * @throws IllegalStateException    If the node is not connected (see {@link #isConnected()}).
+     */
+    public CompletableFuture<Void> submitOrderRefunded(Order order, String staffId, long amountCents, String reason) {
+        Objects.requireNonNull(order, "Order cannot be null.");
+        if (order.getStatus() != Order.OrderStatus.PAID) {
+            throw new IllegalArgumentException("Order " + order.getOrderId() + " is " + order.getStatus() + ", not paid.");
+        }
+        if (amountCents <= 0) {
+            throw new IllegalArgumentException("Refund must be positive.");
+        }
+        if (staffId == null || staffId.isBlank() || reason == null || reason.isBlank()) {
+            throw new IllegalArgumentException("A refund needs the staff ID and reason.");
+        }
+        long submissionId = nextSubmissionId.getAndIncrement();
+        byte[] entry;
+        try {
+            entry = ReplicationEntry.encodeOrderRefunded(nodeId, submissionId, order.getOrderId(), staffId, amountCents, reason);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Refund of order " + order.getOrderId() + " cannot be replicated: " + e.getMessage(), e);
+        }
+        return submit(submissionId, entry);
+    }
+
+    /**
+     * Submits a table status change; every terminal, including this one, applies it once committed.
+     *
+     * @param tableNumber The table number.
+     * @param status      The new status (must not be null).
+     * @return A future that completes once the status is applied here, or fails if it could not be sent to the leader.
+     * @throws IllegalStateException If the node is not connected (see {@link #isConnected()}).
+     */
+    public CompletableFuture<Void> submitTableStatus(int tableNumber, Table.TableStatus status) {
+        Objects.requireNonNull(status, "Table status cannot be null.");
+        long submissionId = nextSubmissionId.getAndIncrement();
+        return submit(submissionId, ReplicationEntry.encodeTableStatus(nodeId, submissionId, tableNumber, status));
+    }
+
+    /**
+     * Leaves the group and closes all connections.
+     */
+    @Override
+    public void close() {
+        running = false;
+        sender.shutdownNow();
+        closeQuietly(serverSocket);
+        for (Peer follower : followers) {
+            follower.close();
+        }
+        Peer current = leader;
+        if (current != null) {
+            current.close();
+        }
+        failPending(new IOException("Replication node " + nodeId + " was closed."));
+    }
+
+    /**
+     * Sends a local change into the log on the sender thread: the leader commits it directly, a follower
+     * forwards it to the leader. The change counts as pending until it comes back to the applier.
+     *
+     * @param submissionId The number of the change on this terminal.
+     * @param entry        The encoded entry.
+     * @return A future that completes once the change is applied here.
+     * @throws IllegalStateException If the node is not connected.
+     */
+    private CompletableFuture<Void> submit(long submissionId, byte[] entry) {
+        if (!isConnected()) {
+            throw new IllegalStateException(running
+                    ? "Not connected to the replication leader; reconnecting, try again shortly."
+                    : "Replication is not running.");
+        }
+        CompletableFuture<Void> committed = new CompletableFuture<>();
+        pending.put(submissionId, committed);
+        sender.execute(() -> {
+            if (!following) {
+                commit(entry);
+                return;
+            }
+            Peer current = leader;
+            if (current == null) {
+                fail(submissionId, new IOException("Lost the connection to the replication leader before the change was sent."));
+                return;
+            }
+            try {
+                current.send(entry);
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Failed to forward a change to the replication leader.", e);
+                fail(submissionId, e);
+                current.close(); // The follow thread notices and reconnects
+            }
+        });
+        return committed;
+    }
+
+    /**
+     * Fails a pending change.
+     *
+     * @param submissionId The number of the change.
+     * @param cause        Why it failed.
+     */
+    private void fail(long submissionId, Throwable cause) {
+        CompletableFuture<Void> future = pending.remove(submissionId);
+        if (future != null) {
+            future.completeExceptionally(cause);
+        }
+    }
+
+    /**
+     * Fails every pending change. A change that reached the leader before the connection was lost may still
+     * be committed and applied once the follower reconnects.
+     *
+     * @param cause Why they failed.
+     */
+    private void failPending(Throwable cause) {
+        for (Long submissionId : new ArrayList<>(pending.keySet())) {
+            fail(submissionId, cause);
+        }
+    }
+
+    /**
+     * Leader only: appends an entry to the log, hands it to the applier and queues its number for every follower.
+     * Holding the log lock keeps all three in log order; nothing under it blocks on the network.
+     *
+     * @param entry The encoded entry.
+     */
+    private void commit(byte[] entry) {
+        synchronized (log) {
+            log.add(entry);
+            long index = log.size();
+            long id = logId;
+            applier.execute(() -> apply(id, index, entry));
+            for (Peer follower : followers) {
+                follower.enqueue(index);
+            }
+        }
+    }
+
+    /**
+     * Leader only: accepts followers and starts a reader for each one, which registers it once it has said
+     * where in the log it is.
+     */
+    private void acceptFollowers() {
+        while (running) {
+            try {
+                Peer follower = new Peer(serverSocket.accept());
+                startDaemon("replication-follower-reader", () -> serveFollower(follower));
+            } catch (IOException e) {
+                if (running) {
+                    LOGGER.log(Level.WARNING, "Failed to accept replication follower.", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Leader only: reads a follower's log position, queues the entries it has not applied, starts its writer,
+     * then commits the changes it forwards until the connection closes.
+     *
+     * @param follower The follower.
+     */
+    private void serveFollower(Peer follower) {
+        long followerLogId;
+        long followerApplied;
+        try {
+            followerLogId = follower.readLong();
+            followerApplied = follower.readLong();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Replication follower disconnected before saying where it is in the log.", e);
+            follower.close();
+            return;
+        }
+        long resumeAfter;
+        synchronized (log) {
+            resumeAfter = followerLogId == logId ? Math.min(Math.max(0, followerApplied), log.size()) : 0;
+            for (long index = resumeAfter + 1; index <= log.size(); index++) {
+                follower.enqueue(index);
+            }
+            followers.add(follower);
+        }
+        startDaemon("replication-follower-writer", () -> writeEntries(follower));
+        LOGGER.log(Level.INFO, "Replication follower connected, sending the log after entry {0}.", resumeAfter);
+        readEntries(follower, true);
+    }
+
+    /**
+     * Leader only: sends the log ID, then the follower's queued entries until the connection fails or is closed.
+     *
+     * @param follower The follower.
+     */
+    private void writeEntries(Peer follower) {
+        try {
+            follower.writeLong(logId);
+            while (running) {
+                long index = follower.outbox.take();
+                if (index == STOP) {
+                    break;
+                }
+                byte[] entry;
+                synchronized (log) {
+                    entry = log.get((int) index - 1);
+                }
+                follower.send(index, entry);
+            }
+        } catch (IOException e) {
+            if (running) {
+                LOGGER.log(Level.WARNING, "Lost replication follower, dropping it.", e);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            followers.remove(follower);
+            follower.close();
+        }
+    }
+
+    /**
+     * Follower only: reads committed entries from the leader, and each time the connection is lost fails the
+     * pending changes and reconnects, until the node is closed.
+     *
+     * @param first The first connection to the leader.
+     * @param host  The leader's host name.
+     * @param port  The leader's port.
+     */
+    private void follow(Peer first, String host, int port) {
+        Peer peer = first;
+        long delay = RECONNECT_MIN_MILLIS;
+        while (running) {
+            if (peer == null) {
+                try {
+                    Thread.sleep(delay);
+                    peer = connect(host, port);
+                    delay = RECONNECT_MIN_MILLIS;
+                    LOGGER.log(Level.INFO, "Reconnected to the replication leader at {0}:{1}.", new Object[]{host, port});
+                    notifyConnection(true);
+                } catch (IOException e) {
+                    LOGGER.log(Level.FINE, "Replication leader still unreachable.", e);
+                    delay = Math.min(delay * 2, RECONNECT_MAX_MILLIS);
+                    continue;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            readEntries(peer, false);
+            leader = null;
+            peer = null;
+            if (running) {
+                LOGGER.warning("Lost the replication leader; refusing changes until reconnected.");
+                failPending(new IOException("Lost the connection to the replication leader before the change was confirmed."));
+                notifyConnection(false);
+            }
+        }
+    }
+
+    /**
+     * Follower only: connects to the leader and tells it where this node is in its log. New changes are
+     * accepted from here on.
+     *
+     * @param host The leader's host name.
+     * @param port The leader's port.
+     * @return The connection.
+     * @throws IOException If the leader cannot be reached.
+     */
+    private Peer connect(String host, int port) throws IOException {
+        Peer peer = new Peer(new Socket(host, port));
+        try {
+            peer.writeLong(logId);
+            peer.writeLong(lastApplied); // Entries received but not yet applied are sent again and skipped
+        } catch (IOException e) {
+            peer.close();
+            throw e;
+        }
+        leader = peer;
+        return peer;
+    }
+
+    /**
+     * Tells the connection listener, if any, about a connection change.
+     *
+     * @param connected The new state.
+     */
+    private void notifyConnection(boolean connected) {
+        ConnectionListener listener = connectionListener;
+        if (listener == null) {
+            return;
+        }
+        try {
+            listener.connectionChanged(connected);
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Replication connection listener failed.", e);
+        }
+    }
+
+    /**
+     * Reads entries from a peer until the connection closes.
+     *
+     * @param peer     The peer to read from.
+     * @param isLeader true if this node is the leader (entries are forwarded changes to commit),
+     *                 false if it is a follower (entries are numbered committed log entries to apply).
+     */
+    private void readEntries(Peer peer, boolean isLeader) {
+        try {
+            long leaderLogId = isLeader ? 0 : peer.readLong();
+            while (running) {
+                if (isLeader) {
+                    commit(peer.receive());
+                } else {
+                    long index = peer.readLong();
+                    byte[] entry = peer.receive();
+                    applier.execute(() -> apply(leaderLogId, index, entry));
+                }
+            }
+        } catch (EOFException e) {
+            LOGGER.info("Replication peer disconnected.");
+        } catch (IOException e) {
+            if (running) {
+                LOGGER.log(Level.WARNING, "Replication connection failed.", e);
+            }
+        } finally {
+            followers.remove(peer);
+            peer.close();
+        }
+    }
+
+    /**
+     * Applies a committed entry to the local state and moves this node's log position past it. Runs on the
+     * applier, one entry at a time in log order. Entries already applied are skipped.
+     *
+     * @param entryLogId The log the entry comes from.
+     * @param index      The number of the entry in that log.
+     * @param data       The encoded entry.
+     */
+    private void apply(long entryLogId, long index, byte[] data) {
+        if (entryLogId != logId) {
+            logId = entryLogId; // The leader restarted with a new log, which it sends from the start
+            lastApplied = 0;
+        }
+        if (index <= lastApplied) {
+            return;
+        }
+        lastApplied = index;
+        ReplicationEntry entry;
+        try {
+            entry = ReplicationEntry.decode(data, menuManager);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(Level.SEVERE, "Skipping malformed replication entry " + index + ".", e);
+            writeState();
+            return;
+        }
+        try {
+            applyEntry(entry);
+        } finally {
+            writeState();
+            if (entry.originNodeId == nodeId) {
+                CompletableFuture<Void> future = pending.remove(entry.submissionId);
+                if (future != null) {
+                    future.complete(null);
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies a decoded committed entry to the local queue or tables.
+     *
+     * @param entry The entry.
+     */
+    private void applyEntry(ReplicationEntry entry) {
+        switch (entry.type) {
+            case ReplicationEntry.ORDER_ADDED:
+                if (queueManager.getOrderById(entry.orderId) == null) {
+                    queueManager.addOrder(entry.order);
+                }
+                break;
+            case ReplicationEntry.ORDER_REMOVED:
+                Order queued = queueManager.getOrderById(entry.orderId);
+                if (queued != null) {
+                    applyClosingStatus(queued, entry);
+                    queueManager.removeOrder(queued);
+                }
+                break;
+            case ReplicationEntry.TABLE_STATUS:
+                TableStatusListener listener = tableStatusListener;
+                if (listener != null) {
+                    listener.tableStatusChanged(entry.tableNumber, entry.tableStatus);
+                }
+                break;
+            case ReplicationEntry.ORDERS_PAID:
+                OrderPaymentListener paymentListener = orderPaymentListener;
+                if (paymentListener != null) {
+                    paymentListener.ordersPaid(entry.paidOrderIds);
+                }
+                break;
+            case ReplicationEntry.ORDER_AMENDED:
+                if (entry.originNodeId != nodeId) { // The terminal that amended the order already changed its copy
+                    Order amended = queueManager.getOrderById(entry.orderId);
+                    if (amended != null) {
+                        applyAmendment(amended, entry);
+                    }
+                }
+                break;
+            case ReplicationEntry.ORDER_REFUNDED:
+                OrderRefundListener refundListener = orderRefundListener;
+                if (entry.originNodeId != nodeId && refundListener != null) {
+                    try {
+                        refundListener.orderRefunded(entry.orderId, entry.staffId, entry.amountCents, entry.reason);
+                    } catch (RuntimeException e) {
+                        LOGGER.log(Level.WARNING, "Could not record the refund of order " + entry.orderId + ".", e);
+                    }
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Gives the local copy of a removed order the status it was removed with on its terminal, so queue
+     * listeners here see a void or payment rather than a completion, and a served order as served. The
+     * terminal that removed the order already changed its own copy.
+     *
+     * @param queued The local copy of the order.
+     * @param entry  The removal.
+     */
+    private void applyClosingStatus(Order queued, ReplicationEntry entry) {
+        if (queued.getStatus() == entry.orderStatus) {
+            return;
+        }
+        if (entry.orderStatus == Order.OrderStatus.CANCELLED) {
+            OrderVoidListener listener = orderVoidListener;
+            if (listener != null && entry.staffId != null) {
+                try {
+                    listener.orderVoided(queued, entry.staffId, entry.reason);
+                } catch (RuntimeException e) {
+                    LOGGER.log(Level.WARNING, "Could not record the void of order " + queued.getOrderId() + ".", e);
+                }
+            }
+            if (queued.getStatus() != Order.OrderStatus.CANCELLED) {
+                queued.setStatus(Order.OrderStatus.CANCELLED);
+            }
+        } else {
+            queued.setStatus(entry.orderStatus);
+        }
+    }
+
+    /**
+     * Adds a line to, or removes an item from, the local copy of an order amended on another terminal.
+     *
+     * @param queued The local copy of the order.
+     * @param entry  The amendment.
+     */
+    private void applyAmendment(Order queued, ReplicationEntry entry) {
+        OrderAmendmentListener listener = orderAmendmentListener;
+        try {
+            if (listener == null) {
+                if (entry.lineRemoved) {
+                    queued.removeItem(entry.line.getMenuItem());
+                } else {
+                    queued.addItem(entry.line.getMenuItem(), entry.line.getQuantity(), entry.line.getModifiers());
+                }
+            } else if (entry.lineRemoved) {
+                listener.itemRemoved(queued, entry.staffId, entry.line.getMenuItem());
+            } else {
+                listener.itemAdded(queued, entry.staffId, entry.line);
+            }
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Could not amend order " + queued.getOrderId() + ".", e);
+        }
+    }
+
+    /**
+     * Encodes and submits an item added to or removed from an order.
+     *
+     * @param order   The order.
+     * @param staffId Who amended it.
+     * @param line    The line added, or a line of the item removed.
+     * @param removed true if the line's item was removed.
+     * @return A future that completes once the amendment is committed.
+     */
+    private CompletableFuture<Void> submitAmendment(Order order, String staffId, OrderItem line, boolean removed) {
+        Objects.requireNonNull(order, "Order cannot be null.");
+        if (staffId == null || staffId.isBlank()) {
+            throw new IllegalArgumentException("An amendment needs the staff ID.");
+        }
+        long submissionId = nextSubmissionId.getAndIncrement();
+        byte[] entry;
+        try {
+            entry = ReplicationEntry.encodeOrderAmended(nodeId, submissionId, order.getOrderId(), staffId, line, removed, menuManager);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Amendment of order " + order.getOrderId() + " cannot be replicated: " + e.getMessage(), e);
+        }
+        return submit(submissionId, entry);
+    }
+
+    /**
+     * Encodes and submits the removal of an order with its current status.
+     *
+     * @param order   The order.
+     * @param staffId Who voided it, or null unless voided.
+     * @param reason  Why it was voided, or null unless voided.
+     * @return A future that completes once the order is removed here.
+     */
+    private CompletableFuture<Void> submitRemoval(Order order, String staffId, String reason) {
+        long submissionId = nextSubmissionId.getAndIncrement();
+        byte[] entry;
+        try {
+            entry = ReplicationEntry.encodeOrderRemoved(nodeId, submissionId, order.getOrderId(), order.getStatus(), staffId, reason);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Removal of order " + order.getOrderId() + " cannot be replicated: " + e.getMessage(), e);
+        }
+        return submit(submissionId, entry);
+    }
+
+    /**
+     * Reads the log position persisted by a follower.
+     */
+    private void readState() {
+        if (stateFile == null || !Files.exists(stateFile)) {
+            return;
+        }
+        try {
+            byte[] bytes = Files.readAllBytes(stateFile);
+            if (bytes.length >= 2 * Long.BYTES) {
+                ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                logId = buffer.getLong();
+                lastApplied = buffer.getLong();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read replication state from " + stateFile, e);
+        }
+    }
+
+    /**
+     * Persists the log position of a follower after each applied entry. A crash between applying an entry and
+     * persisting its number applies that one entry again after the restart.
+     */
+    private void writeState() {
+        if (stateFile == null || !following) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(stateFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(2 * Long.BYTES).putLong(0, logId).putLong(Long.BYTES, lastApplied);
+            channel.write(buffer, 0);
+            channel.force(false);
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Could not persist replication state to " + stateFile
+                    + "; a restart may apply entries again.", e);
+        }
+    }
+
+    /**
+     * Starts a named daemon thread.
+     *
+     * @param name The thread name.
+     * @param task The task to run.
+     */
+    private static void startDaemon(String name, Runnable task) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Closes a resource, ignoring errors.
+     *
+     * @param closeable The resource, may be null.
+     */
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Error while closing replication resource.", e);
+        }
+    }
+
+    /**
+     * A connection to another terminal carrying length-prefixed entries, numbered from the leader.
+     */
+    private static final class Peer implements Closeable {
+        private final Socket socket;
+        private final DataInputStream in;
+        private final DataOutputStream out;
+        final BlockingQueue<Long> outbox = new LinkedBlockingQueue<>(); // Leader side: numbers of entries not yet sent
+
+        Peer(Socket socket) throws IOException {
+            this.socket = socket;
+            socket.setTcpNoDelay(true);
+            this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        }
+
+        void enqueue(long index) {
+            outbox.add(index);
+        }
+
+        synchronized void writeLong(long value) throws IOException {
+            out.writeLong(value);
+            out.flush();
+        }
+
+        synchronized void send(byte[] entry) throws IOException {
+            out.writeInt(entry.length);
+            out.write(entry);
+            out.flush();
+        }
+
+        synchronized void send(long index, byte[] entry) throws IOException {
+            out.writeLong(index);
+            send(entry);
+        }
+
+        long readLong() throws IOException {
+            return in.readLong();
+        }
+
+        byte[] receive() throws IOException {
+            int length = in.readInt();
+            byte[] entry = new byte[length];
+            in.readFully(entry);
+            return entry;
+        }
+
+        @Override
+        public void close() {
+            closeQuietly(socket);
+            outbox.add(STOP);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.restrauntautomation.report;
+
+/**
+ * Result of a {@link SalesReportEngine} run: revenue totals broken down by menu item, category,
+ * staff member, hour of day and table. Item and category revenue is at list price; the total and the staff, hour
+ * and table revenue are net of order discounts, whose total is {@link #getDiscountCents()}. All amounts are in cents; arrays are indexed by catalog item id,
+ * category index, archive staff code, hour (0-23) and table number respectively.
+ */
+public class SalesReport {
+
+    private final long fromEpochMillis;
+    private final long toEpochMillis;
+    private final int orderCount;
+    private final long lineCount;
+    private final long revenueCents;
+    private final long discountCents;
+    private final long[] revenueByItem;
+    private final long[] quantityByItem;
+    private final long[] revenueByCategory;
+    private final long[] revenueByStaff;
+    private final long[] revenueByHour;
+    private final long[] revenueByTable;
+
+    SalesReport(long fromEpochMillis, long toEpochMillis, int orderCount, long lineCount, long revenueCents,
+                long discountCents, long[] revenueByItem, long[] quantityByItem, long[] revenueByCategory,
+                long[] revenueByStaff, long[] revenueByHour, long[] revenueByTable) {
+        this.fromEpochMillis = fromEpochMillis;
+        this.toEpochMillis = toEpochMillis;
+        this.orderCount = orderCount;
+        this.lineCount = lineCount;
+        this.revenueCents = revenueCents;
+        this.discountCents = discountCents;
+        this.revenueByItem = revenueByItem;
+        this.quantityByItem = quantityByItem;
+        this.revenueByCategory = revenueByCategory;
+        this.revenueByStaff = revenueByStaff;
+        this.revenueByHour = revenueByHour;
+        this.revenueByTable = revenueByTable;
+    }
+
+    /**
+     * Gets the inclusive start of the reported period.
+     *
+     * @return The period start in epoch millis.
+     */
+    public long getFromEpochMillis() {
+        return fromEpochMillis;
+    }
+
+    /**
+     * Gets the exclusive end of the reported period.
+     *
+     * @return The period end in epoch millis.
+     */
+    public long getToEpochMillis() {
+        return toEpochMillis;
+    }
+
+    /**
+     * Gets the number of orders completed in the period.
+     *
+     * @return The order count.
+     */
+    public int getOrderCount() {
+        return orderCount;
+    }
+
+    /**
+     * Gets the number of order lines in the period.
+     *
+     * @return The line count.
+     */
+    public long getLineCount() {
+        return lineCount;
+    }
+
+    /**
+     * Gets the total revenue of the period, after discounts.
+     *
+     * @return The revenue in cents.
+     */
+    public long getRevenueCents() {
+        return revenueCents;
+    }
+
+    /**
+     * Gets the total of the order discounts given in the period.
+     *
+     * @return The discounts in cents.
+     */
+    public long getDiscountCents() {
+        return discountCents;
+    }
+
+    /**
+     * Gets revenue per catalog item id.
+     *
+     * @return A copy of the per-item revenue in cents.
+     */
+    public long[] getRevenueByItem() {
+        return revenueByItem.clone();
+    }
+
+    /**
+     * Gets quantity sold per catalog item id.
+     *
+     * @return A copy of the per-item quantities.
+     */
+    public long[] getQuantityByItem() {
+        return quantityByItem.clone();
+    }
+
+    /**
+     * Gets revenue per category index.
+     *
+     * @return A copy of the per-category revenue in cents.
+     */
+    public long[] getRevenueByCategory() {
+        return revenueByCategory.clone();
+    }
+
+    /**
+     * Gets revenue per archive staff code.
+     *
+     * @return A copy of the per-staff revenue in cents.
+     */
+    public long[] getRevenueByStaff() {
+        return revenueByStaff.clone();
+    }
+
+    /**
+     * Gets revenue per hour of day the order was placed.
+     *
+     * @return A copy of the 24 hourly revenue values in cents.
+     */
+    public long[] getRevenueByHour() {
+        return revenueByHour.clone();
+    }
+
+    /**
+     * Gets revenue per table number.
+     *
+     * @return A copy of the per-table revenue in cents (index 0 is unused).
+     */
+    public long[] getRevenueByTable() {
+        return revenueByTable.clone();
+    }
+}
@@ -0,0 +1,310 @@
+package com.example.restrauntautomation.report;
+
+import com.example.restrauntautomation.archive.OrderArchive;
+import com.example.restrauntautomation.manager.MenuManager;
+import com.example.restrauntautomation.model.MenuCategory;
+import com.example.restrauntautomation.model.MenuItem;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Builds {@link SalesReport}s by scanning the columns of an {@link OrderArchive} in parallel.
+ * The order range of the period is located by binary search, split into fork/join tasks, and each
+ * leaf task accumulates into its own primitive arrays; nothing is allocated per order or per line.
+ *
+ * <p>Line amounts are list prices; order discounts from the pricing rules are taken off the order's staff, table
+ * and hour totals and the total revenue, but cannot be attributed to single items, so item and category revenue
+ * stays gross and the report carries the discount total separately.
+ *
+ * <p>An order belongs to the period it was completed in, but to the hour of day it was placed in, in the
+ * archive's time zone with the offset in force when it was placed, so hours stay right across daylight saving
+ * changes. An order placed before midnight and completed after it counts towards the later day, under its
+ * evening hour.
+ *
+ * <p>Archived lines of items that have since been taken off the menu keep their catalog id; they are reported
+ * under that id and under a last category, {@value #OFF_MENU_CATEGORY}.
+ */
+public class SalesReportEngine {
+
+    private static final Logger LOGGER = Logger.getLogger(SalesReportEngine.class.getName());
+    private static final int LEAF_ORDERS = 8192; // Orders scanned by one task before it stops splitting
+    private static final long MILLIS_PER_HOUR = 3_600_000L;
+    private static final long MILLIS_PER_DAY = 24 * MILLIS_PER_HOUR;
+    private static final String OFF_MENU_CATEGORY = "Off the menu";
+
+    private final OrderArchive archive;
+    private final ForkJoinPool pool;
+    private final int[] categoryOfItem; // Catalog item id -> category index
+    private final String[] categoryNames; // The last one collects items no longer on the menu
+    private final int offMenuCategory;
+
+    /**
+     * Creates a report engine using the common fork/join pool.
+     *
+     * @param archive     The archive to report on.
+     * @param menuManager The menu, used to map catalog item ids to categories.
+     */
+    public SalesReportEngine(OrderArchive archive, MenuManager menuManager) {
+        this(archive, menuManager, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a report engine.
+     *
+     * @param archive     The archive to report on.
+     * @param menuManager The menu, used to map catalog item ids to categories.
+     * @param pool        The fork/join pool that runs the scan.
+     */
+    public SalesReportEngine(OrderArchive archive, MenuManager menuManager, ForkJoinPool pool) {
+        this.archive = Objects.requireNonNull(archive, "Archive cannot be null.");
+        this.pool = Objects.requireNonNull(pool, "Fork/join pool cannot be null.");
+        List<MenuCategory> categories = menuManager.getMenuCategories();
+        this.categoryNames = new String[categories.size() + 1];
+        this.offMenuCategory = categories.size();
+        this.categoryNames[offMenuCategory] = OFF_MENU_CATEGORY;
+        this.categoryOfItem = new int[menuManager.getMenuItemCount()];
+        for (int c = 0; c < categories.size(); c++) {
+            categoryNames[c] = categories.get(c).getName();
+            for (MenuItem item : categories.get(c).getItems()) {
+                categoryOfItem[menuManager.getMenuItemId(item)] = c;
+            }
+        }
+    }
+
+    /**
+     * Gets the category names, indexed like {@link SalesReport#getRevenueByCategory()}.
+     *
+     * @return A copy of the category names.
+     */
+    public String[] getCategoryNames() {
+        return categoryNames.clone();
+    }
+
+    /**
+     * Builds the report for one calendar day in the archive's time zone.
+     *
+     * @param day The day to report on.
+     * @return The sales report.
+     */
+    public SalesReport dailyReport(LocalDate day) {
+        long from = day.atStartOfDay(archive.getZone()).toInstant().toEpochMilli();
+        long to = day.plusDays(1).atStartOfDay(archive.getZone()).toInstant().toEpochMilli();
+        return report(from, to);
+    }
+
+    /**
+     * Builds the report for all orders completed in [from, to).
+     *
+     * @param fromEpochMillis Inclusive start of the period.
+     * @param toEpochMillis   Exclusive end of the period.
+     * @return The sales report.
+     */
+    public SalesReport report(long fromEpochMillis, long toEpochMillis) {
+        long start = System.nanoTime();
+        int firstOrder = archive.findFirstCompletedAtOrAfter(fromEpochMillis);
+        int endOrder = archive.findFirstCompletedAtOrAfter(toEpochMillis);
+        // Orders completed in the period were placed before its end, and almost always less than a day before its start
+        ZoneOffsets offsets = new ZoneOffsets(archive.getZone().getRules(), fromEpochMillis - MILLIS_PER_DAY, toEpochMillis);
+
+        Partial result = pool.invoke(new ScanTask(firstOrder, endOrder, offsets));
+        long revenue = 0;
+        for (long value : result.revenueByHour) {
+            revenue += value;
+        }
+        LOGGER.log(Level.INFO, "Sales report over {0} orders and {1} lines built in {2} ms.",
+                new Object[]{endOrder - firstOrder, result.lineCount, (System.nanoTime() - start) / 1_000_000});
+        return new SalesReport(fromEpochMillis, toEpochMillis, endOrder - firstOrder, result.lineCount, revenue,
+                result.discountCents, result.revenueByItem, result.quantityByItem, result.revenueByCategory,
+                result.revenueByStaff, result.revenueByHour, result.revenueByTable);
+    }
+
+    /**
+     * The offsets of a time zone over a window, found up front so the offset of each order is looked up
+     * without allocating. Times before the window fall back to the zone rules.
+     */
+    private static final class ZoneOffsets {
+        private final ZoneRules rules;
+        private final long[] startMillis; // Ascending; offsetMillis[i] is in force from startMillis[i]
+        private final long[] offsetMillis;
+
+        ZoneOffsets(ZoneRules rules, long fromEpochMillis, long toEpochMillis) {
+            this.rules = rules;
+            long[] starts = {fromEpochMillis};
+            long[] offsets = {rules.getOffset(Instant.ofEpochMilli(fromEpochMillis)).getTotalSeconds() * 1000L};
+            int count = 1;
+            ZoneOffsetTransition transition = rules.nextTransition(Instant.ofEpochMilli(fromEpochMillis));
+            while (transition != null && transition.toEpochSecond() * 1000L < toEpochMillis) {
+                if (count == starts.length) {
+                    starts = Arrays.copyOf(starts, count * 2);
+                    offsets = Arrays.copyOf(offsets, count * 2);
+                }
+                starts[count] = transition.toEpochSecond() * 1000L;
+                offsets[count] = transition.getOffsetAfter().getTotalSeconds() * 1000L;
+                count++;
+                transition = rules.nextTransition(transition.getInstant());
+            }
+            this.startMillis = Arrays.copyOf(starts, count);
+            this.offsetMillis = Arrays.copyOf(offsets, count);
+        }
+
+        /**
+         * Gets the offset in force at a time.
+         *
+         * @param epochMillis The time.
+         * @return The offset from UTC in millis.
+         */
+        long offsetAt(long epochMillis) {
+            for (int i = startMillis.length - 1; i >= 0; i--) { // A period holds at most a couple of transitions
+                if (epochMillis >= startMillis[i]) {
+                    return offsetMillis[i];
+                }
+            }
+            return rules.getOffset(Instant.ofEpochMilli(epochMillis)).getTotalSeconds() * 1000L;
+        }
+    }
+
+    /**
+     * Primitive accumulators for one slice of the archive.
+     */
+    private final class Partial {
+        long[] revenueByItem = new long[categoryOfItem.length];
+        long[] quantityByItem = new long[categoryOfItem.length];
+        final long[] revenueByCategory = new long[categoryNames.length];
+        long[] revenueByStaff = new long[Math.max(1, archive.getStaffCodeCount())];
+        final long[] revenueByHour = new long[24];
+        long[] revenueByTable = new long[64];
+        long lineCount;
+        long discountCents;
+
+        /**
+         * Adds another slice's totals into this one.
+         *
+         * @param other The other slice.
+         */
+        void merge(Partial other) {
+            revenueByItem = growTo(revenueByItem, other.revenueByItem.length);
+            addInto(revenueByItem, other.revenueByItem);
+            quantityByItem = growTo(quantityByItem, other.quantityByItem.length);
+            addInto(quantityByItem, other.quantityByItem);
+            addInto(revenueByCategory, other.revenueByCategory);
+            revenueByStaff = growTo(revenueByStaff, other.revenueByStaff.length);
+            addInto(revenueByStaff, other.revenueByStaff);
+            addInto(revenueByHour, other.revenueByHour);
+            revenueByTable = growTo(revenueByTable, other.revenueByTable.length);
+            addInto(revenueByTable, other.revenueByTable);
+            lineCount += other.lineCount;
+            discountCents += other.discountCents;
+        }
+    }
+
+    /**
+     * Fork/join task that scans a range of archived orders.
+     */
+    private final class ScanTask extends RecursiveTask<Partial> {
+        private static final long serialVersionUID = 1L;
+
+        private final int fromOrder;
+        private final int toOrder;
+        private final ZoneOffsets offsets;
+
+        ScanTask(int fromOrder, int toOrder, ZoneOffsets offsets) {
+            this.fromOrder = fromOrder;
+            this.toOrder = toOrder;
+            this.offsets = offsets;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (toOrder - fromOrder > LEAF_ORDERS) {
+                int mid = (fromOrder + toOrder) >>> 1;
+                ScanTask left = new ScanTask(fromOrder, mid, offsets);
+                left.fork();
+                Partial right = new ScanTask(mid, toOrder, offsets).compute();
+                Partial result = left.join();
+                result.merge(right);
+                return result;
+            }
+            return scan();
+        }
+
+        /**
+         * Scans the orders of this leaf into a fresh set of accumulators.
+         *
+         * @return The accumulated totals.
+         */
+        private Partial scan() {
+            Partial partial = new Partial();
+            for (int order = fromOrder; order < toOrder; order++) {
+                int firstLine = archive.getFirstLine(order);
+                int endLine = firstLine + archive.getLineCount(order);
+                long orderRevenue = 0;
+                for (int line = firstLine; line < endLine; line++) {
+                    int itemId = archive.getItemId(line);
+                    long amount = archive.getAmountCents(line);
+                    if (itemId >= partial.revenueByItem.length) {
+                        partial.revenueByItem = growTo(partial.revenueByItem, itemId + 1);
+                        partial.quantityByItem = growTo(partial.quantityByItem, itemId + 1);
+                    }
+                    partial.revenueByItem[itemId] += amount;
+                    partial.quantityByItem[itemId] += archive.getQuantity(line);
+                    partial.revenueByCategory[itemId < categoryOfItem.length ? categoryOfItem[itemId] : offMenuCategory] += amount;
+                    orderRevenue += amount;
+                }
+                partial.lineCount += endLine - firstLine;
+                long discount = archive.getDiscountCents(order);
+                partial.discountCents += discount;
+                orderRevenue -= discount;
+
+                int staffCode = archive.getStaffCode(order);
+                if (staffCode >= partial.revenueByStaff.length) {
+                    partial.revenueByStaff = growTo(partial.revenueByStaff, staffCode + 1);
+                }
+                partial.revenueByStaff[staffCode] += orderRevenue;
+
+                int table = archive.getTableNumber(order);
+                if (table >= partial.revenueByTable.length) {
+                    partial.revenueByTable = growTo(partial.revenueByTable, table + 1);
+                }
+                partial.revenueByTable[table] += orderRevenue;
+
+                long orderTime = archive.getOrderTimeMillis(order);
+                int hour = (int) Math.floorMod(Math.floorDiv(orderTime + offsets.offsetAt(orderTime), MILLIS_PER_HOUR), 24L);
+                partial.revenueByHour[hour] += orderRevenue;
+            }
+            return partial;
+        }
+    }
+
+    /**
+     * Adds each element of the source array into the target array.
+     *
+     * @param target The array to add into (at least as long as source).
+     * @param source The array to add.
+     */
+    private static void addInto(long[] target, long[] source) {
+        for (int i = 0; i < source.length; i++) {
+            target[i] += source[i];
+        }
+    }
+
+    /**
+     * Returns the array itself if it is long enough, otherwise a zero-padded copy.
+     *
+     * @param array  The array.
+     * @param length The required length.
+     * @return An array of at least the required length.
+     */
+    private static long[] growTo(long[] array, int length) {
+        return array.length >= length ? array : Arrays.copyOf(array, Math.max(length, array.length * 2));
+    }
+}
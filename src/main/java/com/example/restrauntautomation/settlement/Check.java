@@ -0,0 +1,98 @@
+package com.example.restrauntautomation.settlement;
+
+/**
+ * One check of a settled bill: the part paid by one guest, seat or item. All amounts are in cents.
+ */
+public class Check {
+
+    private final String label;
+    private final long subtotalCents;
+    private final long discountCents;
+    private final long serviceChargeCents;
+    private final long taxCents;
+    private final long tipCents;
+
+    Check(String label, long subtotalCents, long discountCents, long serviceChargeCents, long taxCents, long tipCents) {
+        this.label = label;
+        this.subtotalCents = subtotalCents;
+        this.discountCents = discountCents;
+        this.serviceChargeCents = serviceChargeCents;
+        this.taxCents = taxCents;
+        this.tipCents = tipCents;
+    }
+
+    /**
+     * Gets what the check is for, e.g. "Seat 3".
+     *
+     * @return The label.
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Gets the price of the items on the check.
+     *
+     * @return The subtotal in cents.
+     */
+    public long getSubtotalCents() {
+        return subtotalCents;
+    }
+
+    /**
+     * Gets the check's share of the pricing discounts (happy hour, combos).
+     *
+     * @return The discount in cents.
+     */
+    public long getDiscountCents() {
+        return discountCents;
+    }
+
+    /**
+     * Gets the check's share of the service charge.
+     *
+     * @return The service charge in cents.
+     */
+    public long getServiceChargeCents() {
+        return serviceChargeCents;
+    }
+
+    /**
+     * Gets the check's share of the tax.
+     *
+     * @return The tax in cents.
+     */
+    public long getTaxCents() {
+        return taxCents;
+    }
+
+    /**
+     * Gets the check's share of the tip.
+     *
+     * @return The tip in cents.
+     */
+    public long getTipCents() {
+        return tipCents;
+    }
+
+    /**
+     * Gets the amount to pay.
+     *
+     * @return The total in cents.
+     */
+    public long getTotalCents() {
+        return subtotalCents - discountCents + serviceChargeCents + taxCents + tipCents;
+    }
+
+    @Override
+    public String toString() {
+        return "Check{" +
+               "label='" + label + '\'' +
+               ", subtotalCents=" + subtotalCents +
+               ", discountCents=" + discountCents +
+               ", serviceChargeCents=" + serviceChargeCents +
+               ", taxCents=" + taxCents +
+               ", tipCents=" + tipCents +
+               '}';
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.restrauntautomation.settlement;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * An in-process stand-in for a payment provider. Approves every charge up to a limit and remembers
+ * approved charges so they can be refunded. Nothing leaves the machine.
+ */
+public class LocalPaymentProcessor implements PaymentProcessor {
+
+    private static final Logger LOGGER = Logger.getLogger(LocalPaymentProcessor.class.getName());
+
+    private final long limitCents;
+    private final Map<String, Long> approvedCharges = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a processor that approves every charge.
+     */
+    public LocalPaymentProcessor() {
+        this(Long.MAX_VALUE);
+    }
+
+    /**
+     * Creates a processor that declines charges above a limit.
+     *
+     * @param limitCents The largest amount approved, in cents.
+     */
+    public LocalPaymentProcessor(long limitCents) {
+        if (limitCents < 0) {
+            throw new IllegalArgumentException("Limit cannot be negative.");
+        }
+        this.limitCents = limitCents;
+    }
+
+    @Override
+    public boolean charge(String reference, long amountCents) {
+        if (amountCents < 0) {
+            throw new IllegalArgumentException("Amount cannot be negative.");
+        }
+        if (amountCents > limitCents) {
+            LOGGER.log(Level.INFO, "Declined charge {0} of {1} cents.", new Object[]{reference, amountCents});
+            return false;
+        }
+        if (approvedCharges.putIfAbsent(reference, amountCents) != null) {
+            throw new IllegalArgumentException("Charge reference '" + reference + "' was already used.");
+        }
+        return true;
+    }
+
+    @Override
+    public boolean refund(String reference) {
+        return approvedCharges.remove(reference) != null;
+    }
+
+    /**
+     * Gets the sum of the approved charges that were not refunded.
+     *
+     * @return The amount in cents.
+     */
+    public long getApprovedTotalCents() {
+        long total = 0;
+        for (long amount : approvedCharges.values()) {
+            total += amount;
+        }
+        return total;
+    }
+}
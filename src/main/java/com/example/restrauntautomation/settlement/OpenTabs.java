@@ -0,0 +1,111 @@
+package com.example.restrauntautomation.settlement;
+
+import com.example.restrauntautomation.manager.OrderQueueListener;
+import com.example.restrauntautomation.model.Order;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps the served orders of each table that have not been paid yet, separately from the kitchen queue.
+ *
+ * <p>Registered as a queue listener, it opens a tab entry for every order the kitchen completes, i.e. that
+ * leaves the queue neither paid nor voided, so the table can be settled after its food has been served.
+ * Orders still in the kitchen are not on the tab. Paid orders are taken off with {@link #close(List)} or
+ * {@link #closeAll(long[])}. All methods are synchronized on the tabs.
+ */
+public class OpenTabs implements OrderQueueListener {
+
+    private static final Logger LOGGER = Logger.getLogger(OpenTabs.class.getName());
+
+    private final Map<Integer, List<Order>> ordersByTable = new HashMap<>();
+    private final Map<Long, Order> ordersById = new HashMap<>();
+
+    /**
+     * Gets the served, unpaid orders of a table.
+     *
+     * @param tableNumber The table.
+     * @return A snapshot of the orders in the order they were served.
+     */
+    public synchronized List<Order> getOrders(int tableNumber) {
+        List<Order> orders = ordersByTable.get(tableNumber);
+        return orders == null ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(orders));
+    }
+
+    /**
+     * Tells whether a table has served orders that have not been paid.
+     *
+     * @param tableNumber The table.
+     * @return true if the table has an open tab.
+     */
+    public synchronized boolean hasOpenTab(int tableNumber) {
+        return ordersByTable.containsKey(tableNumber);
+    }
+
+    /**
+     * Gets the number of served, unpaid orders of all tables.
+     *
+     * @return The number of orders.
+     */
+    public synchronized int size() {
+        return ordersById.size();
+    }
+
+    /**
+     * Takes paid orders off their tabs.
+     *
+     * @param paidOrders The paid orders.
+     * @return The orders that were on a tab.
+     */
+    public List<Order> close(List<Order> paidOrders) {
+        long[] orderIds = new long[paidOrders.size()];
+        for (int i = 0; i < orderIds.length; i++) {
+            orderIds[i] = paidOrders.get(i).getOrderId();
+        }
+        return closeAll(orderIds);
+    }
+
+    /**
+     * Takes paid orders off their tabs by ID, e.g. orders paid on another terminal.
+     *
+     * @param orderIds The IDs of the paid orders.
+     * @return The orders that were on a tab; IDs not on a tab, e.g. already closed, are skipped.
+     */
+    public synchronized List<Order> closeAll(long[] orderIds) {
+        List<Order> closed = new ArrayList<>(orderIds.length);
+        for (long orderId : orderIds) {
+            Order order = ordersById.remove(orderId);
+            if (order == null) {
+                continue;
+            }
+            List<Order> tab = ordersByTable.get(order.getTableNumber());
+            tab.remove(order);
+            if (tab.isEmpty()) {
+                ordersByTable.remove(order.getTableNumber());
+            }
+            closed.add(order);
+        }
+        return closed;
+    }
+
+    @Override
+    public void ordersAdded(List<Order> orders) {
+        // Orders go on the tab once served, not when they are queued
+    }
+
+    @Override
+    public synchronized void orderRemoved(Order order) {
+        if (order.getStatus() == Order.OrderStatus.PAID || order.getStatus() == Order.OrderStatus.CANCELLED) {
+            return;
+        }
+        if (ordersById.putIfAbsent(order.getOrderId(), order) == null) {
+            ordersByTable.computeIfAbsent(order.getTableNumber(), table -> new ArrayList<>()).add(order);
+            LOGGER.log(Level.FINE, "Order {0} served, on the tab of table {1}.", new Object[]{order.getOrderId(), order.getTableNumber()});
+        }
+    }
+}
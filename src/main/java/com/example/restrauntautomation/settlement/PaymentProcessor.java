@@ -0,0 +1,24 @@
+package com.example.restrauntautomation.settlement;
+
+/**
+ * Charges checks to a payment provider. Implementations must be safe to call from multiple threads.
+ */
+public interface PaymentProcessor {
+
+    /**
+     * Charges an amount.
+     *
+     * @param reference   A reference unique to this charge.
+     * @param amountCents The amount in cents.
+     * @return true if the charge was approved.
+     */
+    boolean charge(String reference, long amountCents);
+
+    /**
+     * Reverses an approved charge, used when another check of the same bill is declined.
+     *
+     * @param reference The reference of the charge.
+     * @return true if the charge was found and reversed.
+     */
+    boolean refund(String reference);
+}
@@ -0,0 +1,25 @@
+package com.example.restrauntautomation.settlement;
+
+import com.example.restrauntautomation.model.Order;
+import com.example.restrauntautomation.model.OrderItem;
+
+/**
+ * Tells which seat an order line belongs to when a bill is split by seat.
+ */
+@FunctionalInterface
+public interface SeatAssignment {
+
+    /**
+     * Seat number for lines shared by the whole table; they are split evenly over all seats.
+     */
+    int SHARED = -1;
+
+    /**
+     * Gets the seat of an order line.
+     *
+     * @param order The order.
+     * @param line  The line of the order.
+     * @return The seat number (0-based), or {@link #SHARED}.
+     */
+    int seatOf(Order order, OrderItem line);
+}
@@ -0,0 +1,107 @@
+package com.example.restrauntautomation.settlement;
+
+import com.example.restrauntautomation.model.Order;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of settling a bill: the orders, the checks they were split into and whether every check was paid.
+ * A bill is paid all or nothing; when a check is declined, the checks already charged are refunded.
+ */
+public class Settlement {
+
+    private final List<Order> orders;
+    private final List<Check> checks;
+    private final boolean paid;
+
+    Settlement(List<Order> orders, List<Check> checks, boolean paid) {
+        this.orders = orders;
+        this.checks = checks;
+        this.paid = paid;
+    }
+
+    /**
+     * Gets the settled orders.
+     *
+     * @return An unmodifiable list of the orders.
+     */
+    public List<Order> getOrders() {
+        return orders;
+    }
+
+    /**
+     * Gets the checks of the bill.
+     *
+     * @return An unmodifiable list of the checks.
+     */
+    public List<Check> getChecks() {
+        return checks;
+    }
+
+    /**
+     * Tells whether every check was paid and the orders were marked as paid.
+     *
+     * @return true if the bill is paid.
+     */
+    public boolean isPaid() {
+        return paid;
+    }
+
+    /**
+     * Gets the amount of the whole bill.
+     *
+     * @return The sum of the check totals in cents.
+     */
+    public long getTotalCents() {
+        long total = 0;
+        for (Check check : checks) {
+            total += check.getTotalCents();
+        }
+        return total;
+    }
+
+    /**
+     * Gets the tips of the bill.
+     *
+     * @return The sum of the check tips in cents.
+     */
+    public long getTipCents() {
+        long tips = 0;
+        for (Check check : checks) {
+            tips += check.getTipCents();
+        }
+        return tips;
+    }
+
+    /**
+     * Divides the tips between the servers who took the orders, in proportion to each order's amount after
+     * discounts. The shares add up to exactly {@link #getTipCents()}.
+     *
+     * @return An unmodifiable map of wait staff ID to tip share in cents, in order of the servers' first orders.
+     */
+    public Map<String, Long> getTipsByServer() {
+        long[] weights = new long[orders.size()];
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = Math.max(0, orders.get(i).getSubtotalCents() - orders.get(i).getDiscountCents());
+        }
+        long[] shares = SettlementEngine.allocate(getTipCents(), weights);
+        Map<String, Long> tipsByServer = new LinkedHashMap<>();
+        for (int i = 0; i < shares.length; i++) {
+            tipsByServer.merge(orders.get(i).getWaitStaffId(), shares[i], Long::sum);
+        }
+        return Collections.unmodifiableMap(tipsByServer);
+    }
+
+    @Override
+    public String toString() {
+        return "Settlement{" +
+               "orders=" + orders.size() +
+               ", checks=" + checks.size() +
+               ", totalCents=" + getTotalCents() +
+               ", paid=" + paid +
+               '}';
+    }
+}
@@ -0,0 +1,348 @@
+package com.example.restrauntautomation.settlement;
+
+import com.example.restrauntautomation.model.Order;
+import com.example.restrauntautomation.model.OrderItem;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Splits bills into checks and settles them.
+ *
+ * <p>All arithmetic is on whole cents ({@link com.example.restrauntautomation.model.MenuItem#getPriceInCents()}).
+ * Order discounts from the pricing rules, service charge, tax and tip are computed once on the whole bill
+ * (charges on the subtotal after discounts) and then divided over the checks in
+ * proportion to their subtotals with the largest-remainder method, so the checks always add up to exactly
+ * the bill, and no check is off by more than a cent from its exact share.
+ */
+public class SettlementEngine {
+
+    private static final Logger LOGGER = Logger.getLogger(SettlementEngine.class.getName());
+
+    private final SettlementPolicy policy;
+    private final PaymentProcessor paymentProcessor;
+
+    /**
+     * Creates a settlement engine.
+     *
+     * @param policy           The tax and service charge rates.
+     * @param paymentProcessor The processor that charges the checks.
+     */
+    public SettlementEngine(SettlementPolicy policy, PaymentProcessor paymentProcessor) {
+        this.policy = Objects.requireNonNull(policy, "Settlement policy cannot be null.");
+        this.paymentProcessor = Objects.requireNonNull(paymentProcessor, "Payment processor cannot be null.");
+    }
+
+    /**
+     * Splits a bill evenly between guests.
+     *
+     * @param orders         The orders of the bill.
+     * @param guests         The number of guests (positive).
+     * @param tipBasisPoints The tip rate on the subtotal, in basis points.
+     * @return One check per guest.
+     */
+    public List<Check> splitEvenly(Collection<Order> orders, int guests, int tipBasisPoints) {
+        if (guests <= 0) {
+            throw new IllegalArgumentException("Number of guests must be positive.");
+        }
+        long[] subtotals = allocate(subtotalOf(orders), equalWeights(guests));
+        String[] labels = new String[guests];
+        for (int guest = 0; guest < guests; guest++) {
+            labels[guest] = "Guest " + (guest + 1) + " of " + guests;
+        }
+        return buildChecks(labels, subtotals, discountOf(orders), tipBasisPoints);
+    }
+
+    /**
+     * Splits a bill by seat. Lines assigned to {@link SeatAssignment#SHARED} are split evenly over all seats.
+     *
+     * @param orders         The orders of the bill.
+     * @param seats          The number of seats (positive).
+     * @param seatAssignment Tells the seat of each line.
+     * @param tipBasisPoints The tip rate on the subtotal, in basis points.
+     * @return One check per seat.
+     */
+    public List<Check> splitBySeat(Collection<Order> orders, int seats, SeatAssignment seatAssignment, int tipBasisPoints) {
+        if (seats <= 0) {
+            throw new IllegalArgumentException("Number of seats must be positive.");
+        }
+        Objects.requireNonNull(seatAssignment, "Seat assignment cannot be null.");
+        long[] subtotals = new long[seats];
+        long sharedCents = 0;
+        for (Order order : Objects.requireNonNull(orders, "Orders cannot be null.")) {
+            for (OrderItem line : order.getItems()) {
+                long amount = amountOf(line);
+                int seat = seatAssignment.seatOf(order, line);
+                if (seat == SeatAssignment.SHARED) {
+                    sharedCents += amount;
+                } else if (seat >= 0 && seat < seats) {
+                    subtotals[seat] += amount;
+                } else {
+                    throw new IllegalArgumentException("Seat " + seat + " of order " + order.getOrderId()
+                            + " is not between 0 and " + (seats - 1) + ".");
+                }
+            }
+        }
+        long[] sharedShares = allocate(sharedCents, equalWeights(seats));
+        String[] labels = new String[seats];
+        for (int seat = 0; seat < seats; seat++) {
+            subtotals[seat] += sharedShares[seat];
+            labels[seat] = "Seat " + (seat + 1);
+        }
+        return buildChecks(labels, subtotals, discountOf(orders), tipBasisPoints);
+    }
+
+    /**
+     * Splits a bill by item: every order line gets its own check.
+     *
+     * @param orders         The orders of the bill.
+     * @param tipBasisPoints The tip rate on the subtotal, in basis points.
+     * @return One check per order line.
+     */
+    public List<Check> splitByItem(Collection<Order> orders, int tipBasisPoints) {
+        int lineCount = 0;
+        for (Order order : Objects.requireNonNull(orders, "Orders cannot be null.")) {
+            lineCount += order.getItems().size();
+        }
+        String[] labels = new String[lineCount];
+        long[] subtotals = new long[lineCount];
+        int index = 0;
+        for (Order order : orders) {
+            for (OrderItem line : order.getItems()) {
+                labels[index] = line.getMenuItem().getName() + " x " + line.getQuantity();
+                subtotals[index++] = amountOf(line);
+            }
+        }
+        return buildChecks(labels, subtotals, discountOf(orders), tipBasisPoints);
+    }
+
+    /**
+     * Charges every check of a bill. If all are approved, the orders are marked as paid; if one is
+     * declined, the checks already charged are refunded and the orders are left unchanged.
+     *
+     * @param orders The orders of the bill.
+     * @param checks The checks the bill was split into.
+     * @return The settlement.
+     * @throws IllegalArgumentException If there are no orders or one of them is already paid or voided.
+     */
+    public Settlement settle(List<Order> orders, List<Check> checks) {
+        Objects.requireNonNull(orders, "Orders cannot be null.");
+        Objects.requireNonNull(checks, "Checks cannot be null.");
+        if (orders.isEmpty()) {
+            throw new IllegalArgumentException("Cannot settle a bill without orders.");
+        }
+        for (Order order : orders) {
+            if (order.getStatus() == Order.OrderStatus.PAID) {
+                throw new IllegalArgumentException("Order " + order.getOrderId() + " is already paid.");
+            }
+            if (order.getStatus() == Order.OrderStatus.CANCELLED) {
+                throw new IllegalArgumentException("Order " + order.getOrderId() + " was voided.");
+            }
+        }
+        String billReference = "bill-" + orders.get(0).getOrderId() + "-";
+        List<String> charged = new ArrayList<>(checks.size());
+        for (int i = 0; i < checks.size(); i++) {
+            String reference = billReference + (i + 1);
+            if (!paymentProcessor.charge(reference, checks.get(i).getTotalCents())) {
+                for (String approved : charged) {
+                    paymentProcessor.refund(approved);
+                }
+                LOGGER.log(Level.WARNING, "Check {0} of {1} for bill {2} was declined; refunded {3} charges.",
+                        new Object[]{i + 1, checks.size(), billReference, charged.size()});
+                return new Settlement(Collections.unmodifiableList(new ArrayList<>(orders)), checks, false);
+            }
+            charged.add(reference);
+        }
+        for (Order order : orders) {
+            order.setStatus(Order.OrderStatus.PAID);
+        }
+        return new Settlement(Collections.unmodifiableList(new ArrayList<>(orders)), checks, true);
+    }
+
+    /**
+     * Settles the tab of a table in one operation: splits the bill of its served orders, charges the checks
+     * and, once everything is paid, takes the orders off the tab in a single batch. Orders still in the
+     * kitchen are not part of the bill.
+     *
+     * @param tabs        The open tabs.
+     * @param tableNumber The table.
+     * @param splitter    Splits the table's orders into checks, e.g.
+     *                    {@code orders -> engine.splitEvenly(orders, 4, 1800)}.
+     * @return The settlement.
+     * @throws IllegalArgumentException If the table has no served, unpaid orders.
+     */
+    public Settlement settleTable(OpenTabs tabs, int tableNumber, Function<List<Order>, List<Check>> splitter) {
+        Objects.requireNonNull(tabs, "Open tabs cannot be null.");
+        return settleTable(tabs.getOrders(tableNumber), tableNumber, splitter, tabs::close);
+    }
+
+    /**
+     * Settles all open orders of a table: splits the bill, charges the checks and, once everything is
+     * paid, hands the paid orders to the closer, e.g. to close them on every replicated terminal.
+     *
+     * @param openOrders  The served, unpaid orders, e.g. the table's {@link OpenTabs tab}; orders of other tables are ignored.
+     * @param tableNumber The table.
+     * @param splitter    Splits the table's orders into checks.
+     * @param closer      Closes the orders of a paid bill; not called if a check is declined.
+     * @return The settlement.
+     * @throws IllegalArgumentException If the table has no open orders.
+     */
+    public Settlement settleTable(Collection<Order> openOrders, int tableNumber, Function<List<Order>, List<Check>> splitter,
+                                  Consumer<List<Order>> closer) {
+        Objects.requireNonNull(openOrders, "Open orders cannot be null.");
+        Objects.requireNonNull(splitter, "Splitter cannot be null.");
+        Objects.requireNonNull(closer, "Closer cannot be null.");
+        List<Order> tableOrders = new ArrayList<>();
+        for (Order order : openOrders) {
+            if (order.getTableNumber() == tableNumber) {
+                tableOrders.add(order);
+            }
+        }
+        if (tableOrders.isEmpty()) {
+            throw new IllegalArgumentException("Table " + tableNumber + " has no served orders to pay.");
+        }
+        Settlement settlement = settle(tableOrders, splitter.apply(Collections.unmodifiableList(tableOrders)));
+        if (settlement.isPaid()) {
+            closer.accept(Collections.unmodifiableList(tableOrders));
+            LOGGER.log(Level.INFO, "Settled {0} orders of table {1} in {2} checks.",
+                    new Object[]{tableOrders.size(), tableNumber, settlement.getChecks().size()});
+        }
+        return settlement;
+    }
+
+    /**
+     * Adds service charge, tax and tip to the subtotals, dividing each over the checks by subtotal.
+     *
+     * @param labels         The label of each check.
+     * @param subtotals      The subtotal of each check in cents.
+     * @param discountCents  The discount of the whole bill in cents.
+     * @param tipBasisPoints The tip rate on the subtotal after discounts, in basis points.
+     * @return The checks.
+     */
+    private List<Check> buildChecks(String[] labels, long[] subtotals, long discountCents, int tipBasisPoints) {
+        SettlementPolicy.checkRate(tipBasisPoints, "Tip rate");
+        long billSubtotal = 0;
+        for (long subtotal : subtotals) {
+            billSubtotal = Math.addExact(billSubtotal, subtotal);
+        }
+        long billDiscount = Math.min(discountCents, billSubtotal);
+        long netSubtotal = billSubtotal - billDiscount;
+        long serviceCharge = policy.serviceChargeOf(netSubtotal);
+        long[] discounts = allocate(billDiscount, subtotals);
+        long[] serviceCharges = allocate(serviceCharge, subtotals);
+        long[] taxes = allocate(policy.taxOf(netSubtotal, serviceCharge), subtotals);
+        long[] tips = allocate(SettlementPolicy.basisPointsOf(netSubtotal, tipBasisPoints), subtotals);
+        Check[] checks = new Check[subtotals.length];
+        for (int i = 0; i < checks.length; i++) {
+            checks[i] = new Check(labels[i], subtotals[i], discounts[i], serviceCharges[i], taxes[i], tips[i]);
+        }
+        return Collections.unmodifiableList(Arrays.asList(checks));
+    }
+
+    /**
+     * Divides an amount in proportion to weights with the largest-remainder method: every share is
+     * rounded down, then the cents left over go to the shares with the largest remainders (the lowest
+     * index first on ties). The shares add up to exactly the amount. Zero weights everywhere divide evenly.
+     *
+     * @param amountCents The amount in cents (not negative).
+     * @param weights     The weights (not negative).
+     * @return The shares in cents.
+     */
+    static long[] allocate(long amountCents, long[] weights) {
+        if (amountCents < 0) {
+            throw new IllegalArgumentException("Amount cannot be negative.");
+        }
+        int n = weights.length;
+        long[] shares = new long[n];
+        if (amountCents == 0 || n == 0) {
+            return shares;
+        }
+        long totalWeight = 0;
+        for (long weight : weights) {
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weights cannot be negative.");
+            }
+            totalWeight = Math.addExact(totalWeight, weight);
+        }
+        if (totalWeight == 0) {
+            return allocate(amountCents, equalWeights(n));
+        }
+        // Each key holds a remainder and, in its low digits, the index (reversed so lower indexes sort last)
+        long[] keys = new long[n];
+        long allocated = 0;
+        for (int i = 0; i < n; i++) {
+            long product = Math.multiplyExact(amountCents, weights[i]);
+            shares[i] = product / totalWeight;
+            allocated += shares[i];
+            keys[i] = Math.addExact(Math.multiplyExact(product % totalWeight, n), n - 1 - i);
+        }
+        long leftover = amountCents - allocated; // Less than n
+        if (leftover > 0) {
+            Arrays.sort(keys);
+            for (int k = 0; k < leftover; k++) {
+                shares[n - 1 - (int) (keys[n - 1 - k] % n)]++;
+            }
+        }
+        return shares;
+    }
+
+    /**
+     * Creates equal weights.
+     *
+     * @param n The number of weights.
+     * @return n weights of 1.
+     */
+    private static long[] equalWeights(int n) {
+        long[] weights = new long[n];
+        Arrays.fill(weights, 1);
+        return weights;
+    }
+
+    /**
+     * Sums the lines of orders.
+     *
+     * @param orders The orders.
+     * @return The subtotal in cents.
+     */
+    private static long subtotalOf(Collection<Order> orders) {
+        long subtotal = 0;
+        for (Order order : Objects.requireNonNull(orders, "Orders cannot be null.")) {
+            for (OrderItem line : order.getItems()) {
+                subtotal = Math.addExact(subtotal, amountOf(line));
+            }
+        }
+        return subtotal;
+    }
+
+    /**
+     * Sums the pricing discounts of orders.
+     *
+     * @param orders The orders.
+     * @return The discount in cents.
+     */
+    private static long discountOf(Collection<Order> orders) {
+        long discount = 0;
+        for (Order order : orders) {
+            discount = Math.addExact(discount, order.getDiscountCents());
+        }
+        return discount;
+    }
+
+    /**
+     * Gets the price of an order line.
+     *
+     * @param line The line.
+     * @return The price including modifiers times the quantity, in cents.
+     */
+    private static long amountOf(OrderItem line) {
+        return Math.multiplyExact(line.getUnitPriceInCents(), line.getQuantity());
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.restrauntautomation.settlement;
+
+/**
+ * The rates applied when a bill is settled, in basis points (1/100 of a percent, so 825 is 8.25%).
+ * The service charge is computed on the subtotal and tax on the subtotal plus the service charge;
+ * amounts are rounded half up to whole cents.
+ */
+public class SettlementPolicy {
+
+    static final int BASIS_POINTS = 10_000; // 100%
+
+    private final int taxBasisPoints;
+    private final int serviceChargeBasisPoints;
+
+    /**
+     * Creates a settlement policy.
+     *
+     * @param taxBasisPoints           The tax rate in basis points (0 to 10000).
+     * @param serviceChargeBasisPoints The service charge rate in basis points (0 to 10000).
+     */
+    public SettlementPolicy(int taxBasisPoints, int serviceChargeBasisPoints) {
+        this.taxBasisPoints = checkRate(taxBasisPoints, "Tax rate");
+        this.serviceChargeBasisPoints = checkRate(serviceChargeBasisPoints, "Service charge rate");
+    }
+
+    /**
+     * Gets the tax rate.
+     *
+     * @return The tax rate in basis points.
+     */
+    public int getTaxBasisPoints() {
+        return taxBasisPoints;
+    }
+
+    /**
+     * Gets the service charge rate.
+     *
+     * @return The service charge rate in basis points.
+     */
+    public int getServiceChargeBasisPoints() {
+        return serviceChargeBasisPoints;
+    }
+
+    /**
+     * Computes the service charge on a subtotal.
+     *
+     * @param subtotalCents The subtotal in cents.
+     * @return The service charge in cents.
+     */
+    public long serviceChargeOf(long subtotalCents) {
+        return basisPointsOf(subtotalCents, serviceChargeBasisPoints);
+    }
+
+    /**
+     * Computes the tax on a subtotal and its service charge.
+     *
+     * @param subtotalCents      The subtotal in cents.
+     * @param serviceChargeCents The service charge in cents.
+     * @return The tax in cents.
+     */
+    public long taxOf(long subtotalCents, long serviceChargeCents) {
+        return basisPointsOf(Math.addExact(subtotalCents, serviceChargeCents), taxBasisPoints);
+    }
+
+    /**
+     * Computes a rate of an amount, rounded half up to whole cents.
+     *
+     * @param amountCents The amount in cents (not negative).
+     * @param basisPoints The rate in basis points.
+     * @return The rounded amount in cents.
+     */
+    static long basisPointsOf(long amountCents, int basisPoints) {
+        return (Math.multiplyExact(amountCents, basisPoints) + BASIS_POINTS / 2) / BASIS_POINTS;
+    }
+
+    /**
+     * Validates a rate.
+     *
+     * @param basisPoints The rate in basis points.
+     * @param name        The name of the rate, for the error message.
+     * @return The rate.
+     */
+    static int checkRate(int basisPoints, String name) {
+        if (basisPoints < 0 || basisPoints > BASIS_POINTS) {
+            throw new IllegalArgumentException(name + " must be between 0 and " + BASIS_POINTS + " basis points.");
+        }
+        return basisPoints;
+    }
+
+    @Override
+    public String toString() {
+        return "SettlementPolicy{" +
+               "taxBasisPoints=" + taxBasisPoints +
+               ", serviceChargeBasisPoints=" + serviceChargeBasisPoints +
+               '}';
+    }
+}
@@ -10,6 +10,8 @@ module com.example.restrauntautomation {
     requires org.kordamp.bootstrapfx.core;
     requires eu.hansolo.tilesfx;
     requires java.logging; // Added to allow use of java.util.logging
+    requires java.sql; // Embedded database repositories
+    requires com.h2database; // JDBC driver for the embedded database
 
     opens com.example.restrauntautomation to javafx.fxml;
     exports com.example.restrauntautomation;
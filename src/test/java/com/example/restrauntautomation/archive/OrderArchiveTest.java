@@ -0,0 +1,156 @@
+package com.example.restrauntautomation.archive;
+
+import com.example.restrauntautomation.model.MenuItem;
+import com.example.restrauntautomation.model.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.function.ToIntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OrderArchiveTest {
+
+    private static final LocalDateTime PLACED = LocalDateTime.of(2024, 5, 1, 18, 0);
+
+    private final MenuItem soup = new MenuItem("Soup", "Tomato soup", new BigDecimal("4.50"), "Starters");
+    private final MenuItem steak = new MenuItem("Steak", "Ribeye", new BigDecimal("21.00"), "Mains");
+    private final MenuItem retired = new MenuItem("Retired", "No longer sold", new BigDecimal("1.00"), "Mains");
+    private final ToIntFunction<MenuItem> catalog = item -> item == soup ? 0 : item == steak ? 1 : -1;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void failedAppendLeavesNoRowsBehind() throws IOException {
+        try (OrderArchive archive = new OrderArchive(directory, ZoneOffset.UTC)) {
+            Order rejected = order(1, soup, retired);
+            assertThrows(IllegalArgumentException.class, () -> archive.append(rejected, PLACED.plusMinutes(20), catalog));
+            assertEquals(0, archive.getOrderCount());
+            assertEquals(0, archive.getLineCount());
+
+            archive.append(order(2, steak), PLACED.plusMinutes(30), catalog);
+
+            assertEquals(1, archive.getOrderCount());
+            assertEquals(2L, archive.getOrderId(0));
+            assertEquals(0, archive.getFirstLine(0));
+            assertEquals(1, archive.getLineCount(0));
+            assertEquals(1, archive.getItemId(0));
+        }
+    }
+
+    @Test
+    void failedMappingMidOrderIsRolledBack() throws IOException {
+        ToIntFunction<MenuItem> failing = item -> {
+            if (item == steak) {
+                throw new IllegalStateException("Catalog unavailable");
+            }
+            return catalog.applyAsInt(item);
+        };
+        try (OrderArchive archive = new OrderArchive(directory, ZoneOffset.UTC)) {
+            archive.append(order(1, soup), PLACED.plusMinutes(10), catalog);
+            assertThrows(IllegalStateException.class, () -> archive.append(order(2, soup, steak), PLACED.plusMinutes(20), failing));
+            archive.append(order(3, soup, steak), PLACED.plusMinutes(30), catalog);
+        }
+
+        try (OrderArchive reopened = new OrderArchive(directory, ZoneOffset.UTC)) {
+            assertEquals(2, reopened.getOrderCount());
+            assertEquals(3, reopened.getLineCount());
+            assertEquals(3L, reopened.getOrderId(1));
+            assertEquals(1, reopened.getFirstLine(1));
+            assertEquals(2, reopened.getLineCount(1));
+            assertEquals(0, reopened.getItemId(1));
+            assertEquals(1, reopened.getItemId(2));
+        }
+    }
+
+    @Test
+    void readOnlyArchiveSeesOnlyOrdersCommittedWhenOpened() throws IOException {
+        try (OrderArchive archive = new OrderArchive(directory, ZoneOffset.UTC)) {
+            archive.append(order(1, soup, steak), PLACED.plusMinutes(10), catalog);
+            try (OrderArchive snapshot = OrderArchive.openReadOnly(directory, ZoneOffset.UTC)) {
+                archive.append(order(2, steak), PLACED.plusMinutes(20), catalog);
+
+                assertEquals(1, snapshot.getOrderCount());
+                assertEquals(2, snapshot.getLineCount());
+                assertEquals(1L, snapshot.getOrderId(0));
+                assertEquals("W001", snapshot.getStaffId(snapshot.getStaffCode(0)));
+                assertThrows(IllegalStateException.class, () -> snapshot.append(order(3, soup), PLACED, catalog));
+            }
+            assertEquals(2, archive.getOrderCount());
+        }
+    }
+
+    @Test
+    void discountsAreArchivedWithTheOrder() throws IOException {
+        try (OrderArchive archive = new OrderArchive(directory, ZoneOffset.UTC)) {
+            Order discounted = order(1, soup, steak);
+            discounted.setDiscountCents(300);
+            archive.append(discounted, PLACED.plusMinutes(10), catalog);
+            archive.append(order(2, steak), PLACED.plusMinutes(20), catalog);
+        }
+
+        try (OrderArchive reopened = OrderArchive.openReadOnly(directory, ZoneOffset.UTC)) {
+            assertEquals(300L, reopened.getDiscountCents(0));
+            assertEquals(0L, reopened.getDiscountCents(1));
+        }
+    }
+
+    @Test
+    void archiveWrittenBeforeDiscountsReadsThemAsZero() throws IOException {
+        try (OrderArchive archive = new OrderArchive(directory, ZoneOffset.UTC)) {
+            archive.append(order(1, soup), PLACED.plusMinutes(10), catalog);
+            archive.append(order(2, steak), PLACED.plusMinutes(20), catalog);
+        }
+        Files.delete(directory.resolve("discount.col"));
+
+        try (OrderArchive snapshot = OrderArchive.openReadOnly(directory, ZoneOffset.UTC)) {
+            assertEquals(2, snapshot.getOrderCount());
+            assertEquals(0L, snapshot.getDiscountCents(1));
+        }
+        try (OrderArchive archive = new OrderArchive(directory, ZoneOffset.UTC)) {
+            assertEquals(2, archive.getOrderCount());
+            Order discounted = order(3, soup);
+            discounted.setDiscountCents(50);
+            archive.append(discounted, PLACED.plusMinutes(30), catalog);
+
+            assertEquals(0L, archive.getDiscountCents(0));
+            assertEquals(0L, archive.getDiscountCents(1));
+            assertEquals(50L, archive.getDiscountCents(2));
+        }
+    }
+
+    @Test
+    void closedArchiveRefusesAppendsAndClosesOnce() throws IOException {
+        OrderArchive archive = new OrderArchive(directory, ZoneOffset.UTC);
+        archive.append(order(1, soup), PLACED.plusMinutes(10), catalog);
+        archive.close();
+
+        assertThrows(IllegalStateException.class, () -> archive.append(order(2, steak), PLACED.plusMinutes(20), catalog));
+        archive.flush();
+        archive.close();
+        try (OrderArchive reopened = OrderArchive.openReadOnly(directory, ZoneOffset.UTC)) {
+            assertEquals(1, reopened.getOrderCount());
+        }
+    }
+
+    @Test
+    void readOnlyOpenDoesNotCreateAnArchive() {
+        assertThrows(IOException.class, () -> OrderArchive.openReadOnly(directory.resolve("missing"), ZoneOffset.UTC));
+    }
+
+    private static Order order(long orderId, MenuItem... items) {
+        Order order = new Order(orderId, 4, "W001", PLACED, Order.OrderStatus.SERVED);
+        for (MenuItem item : items) {
+            order.addItem(item, 1);
+        }
+        return order;
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.restrauntautomation.archive;
+
+import com.example.restrauntautomation.model.CompactOrder;
+import com.example.restrauntautomation.model.MenuItem;
+import com.example.restrauntautomation.model.Modifier;
+import com.example.restrauntautomation.model.Order;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderHistoryTest {
+
+    private static final LocalDateTime PLACED = LocalDateTime.of(2024, 5, 1, 18, 0);
+
+    private final MenuItem soup = new MenuItem("Soup", "Tomato soup", new BigDecimal("4.50"), "Starters");
+    private final MenuItem steak = new MenuItem("Steak", "Ribeye", new BigDecimal("21.00"), "Mains");
+    private final List<MenuItem> catalog = List.of(soup, steak);
+    private final OrderHistory history = new OrderHistory(Duration.ofHours(8), catalog::indexOf, catalog::get);
+
+    @Test
+    void recordedOrderKeepsModifiersAndDiscount() {
+        Order order = order(1, 4, "W001", PLACED);
+        List<Modifier> modifiers = List.of(new Modifier("Extra sauce", 150), new Modifier("No onions", 0));
+        order.addItem(steak, 2, modifiers);
+        order.addItem(soup, 1);
+        order.setDiscountCents(200);
+
+        history.record(order);
+
+        CompactOrder recorded = history.getOrder(1);
+        assertEquals(order.getItems(), recorded.getItems());
+        assertEquals(modifiers, recorded.getModifiers(0));
+        assertTrue(recorded.getModifiers(1).isEmpty());
+        assertEquals(200L, recorded.getDiscountCents());
+        assertEquals(order.getTotalPrice(), recorded.getTotalPrice());
+        assertEquals(new BigDecimal("47.50"), recorded.getTotalPrice()); // 2 x (21.00 + 1.50) + 4.50 - 2.00
+        assertEquals(order.getItems().get(0).getTotalPrice(), recorded.getItems().get(0).getTotalPrice());
+    }
+
+    @Test
+    void lookupsReturnOrdersInTheRangeOldestFirst() {
+        history.record(order(1, 4, "W001", PLACED, steak));
+        history.record(order(2, 5, "W002", PLACED.plusMinutes(10), soup));
+        history.record(order(3, 4, "W002", PLACED.plusMinutes(20), soup));
+        history.record(order(4, 4, "W001", PLACED.plusMinutes(30), steak));
+
+        assertEquals(List.of(1L, 3L, 4L), ids(history.findByTable(4, PLACED, PLACED.plusHours(1))));
+        assertEquals(List.of(3L), ids(history.findByTable(4, PLACED.plusMinutes(1), PLACED.plusMinutes(30))));
+        assertEquals(List.of(2L, 3L), ids(history.findByStaff("W002", PLACED, PLACED.plusHours(1))));
+        assertEquals(List.of(2L, 3L), ids(history.findBetween(PLACED.plusMinutes(10), PLACED.plusMinutes(30))));
+        assertTrue(history.findByTable(9, PLACED, PLACED.plusHours(1)).isEmpty());
+        assertTrue(history.findByStaff("W999", PLACED, PLACED.plusHours(1)).isEmpty());
+    }
+
+    @Test
+    void recordingAnOrderAgainReplacesIt() {
+        history.record(order(1, 4, "W001", PLACED, soup));
+        Order paid = order(1, 4, "W001", PLACED, soup, steak);
+        paid.setStatus(Order.OrderStatus.PAID);
+
+        history.record(paid);
+
+        assertEquals(1, history.size());
+        assertEquals(Order.OrderStatus.PAID, history.getOrder(1).getStatus());
+        assertEquals(2, history.getOrder(1).getLineCount());
+        assertEquals(1, history.findByTable(4, PLACED, PLACED.plusHours(1)).size());
+    }
+
+    @Test
+    void ordersOlderThanTheRetentionAreDropped() {
+        history.record(order(1, 4, "W001", PLACED, soup));
+        history.record(order(2, 5, "W002", PLACED.plusHours(2), steak));
+        assertEquals(2, history.size());
+
+        history.record(order(3, 4, "W001", PLACED.plusHours(8).plusMinutes(1), soup));
+
+        assertEquals(2, history.size());
+        assertNull(history.getOrder(1));
+        assertEquals(List.of(3L), ids(history.findByTable(4, PLACED, PLACED.plusDays(1))));
+        assertEquals(1, history.evictBefore(PLACED.plusHours(3)));
+        assertEquals(List.of(3L), ids(history.findBetween(PLACED, PLACED.plusDays(1))));
+    }
+
+    @Test
+    void orderWithAnItemMissingFromTheCatalogIsRejected() {
+        Order order = order(1, 4, "W001", PLACED, soup);
+        order.addItem(new MenuItem("Special", "Off menu", new BigDecimal("9.00"), "Mains"), 1);
+
+        assertThrows(IllegalArgumentException.class, () -> history.record(order));
+        assertEquals(0, history.size());
+    }
+
+    private static Order order(long orderId, int table, String staffId, LocalDateTime placed, MenuItem... items) {
+        Order order = new Order(orderId, table, staffId, placed, Order.OrderStatus.SERVED);
+        for (MenuItem item : items) {
+            order.addItem(item, 1);
+        }
+        return order;
+    }
+
+    private static List<Long> ids(List<CompactOrder> orders) {
+        return orders.stream().map(CompactOrder::getOrderId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.restrauntautomation.audit;
+
+import com.example.restrauntautomation.manager.OrderQueueManager;
+import com.example.restrauntautomation.model.MenuItem;
+import com.example.restrauntautomation.model.Modifier;
+import com.example.restrauntautomation.model.Order;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Cost of auditing: the latency {@link AmendmentLog} adds to {@link OrderQueueManager#addOrder} (it records a
+ * placed entry per order as a queue listener), the cost of an item amendment, and lookup of an order's entries
+ * in a log of a million entries. Orders have four lines, one with a modifier.
+ * Run with {@code mvn -Pbenchmark test}.
+ */
+class AmendmentLogBenchmark {
+
+    private static final int ORDERS = 20_000;
+    private static final int WARMUP_ROUNDS = 15;
+    private static final int MEASURED_ROUNDS = 15;
+    private static final int LOOKUP_LOG_ORDERS = 250_000; // Four entries each
+    private static final int LOOKUPS = 1_000_000;
+
+    private final List<MenuItem> menu = new ArrayList<>();
+
+    @Test
+    void auditingCostPerOrder() {
+        for (int i = 0; i < 50; i++) {
+            menu.add(new MenuItem("Item " + i, "Description of item " + i, new BigDecimal("12.50"), "Category " + (i % 8)));
+        }
+        List<Order> orders = orders(ORDERS);
+
+        long[] withoutLog = new long[1];
+        long[] withLog = new long[1];
+        long[] amendNanos = new long[1];
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+            boolean measured = round >= WARMUP_ROUNDS;
+            long plain = queueAll(orders, null);
+            AmendmentLog log = new AmendmentLog();
+            long audited = queueAll(orders, log);
+            long t0 = System.nanoTime();
+            for (Order order : orders) {
+                log.addItem(order, "W007", menu.get(3), 1, Collections.emptyList());
+            }
+            long amended = System.nanoTime() - t0;
+            assertEquals(2 * ORDERS, log.size());
+            for (Order order : orders) {
+                order.removeItem(menu.get(3)); // Back to the original lines for the next round
+            }
+            if (measured) {
+                withoutLog[0] += plain;
+                withLog[0] += audited;
+                amendNanos[0] += amended;
+            }
+        }
+        long measuredOrders = (long) ORDERS * MEASURED_ROUNDS;
+
+        AmendmentLog large = new AmendmentLog();
+        List<Order> lookupOrders = orders(LOOKUP_LOG_ORDERS);
+        large.ordersAdded(lookupOrders);
+        for (Order order : lookupOrders) {
+            large.addItem(order, "W007", menu.get(3), 1, Collections.emptyList());
+            large.changeDiscount(order, "PRICING", 100);
+            large.removeItem(order, "W007", menu.get(3));
+        }
+        Random random = new Random(42);
+        long entries = 0;
+        for (int i = 0; i < LOOKUPS; i++) { // Warm-up
+            entries += large.getAmendments(1 + random.nextInt(LOOKUP_LOG_ORDERS)).size();
+        }
+        long t0 = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            entries += large.getAmendments(1 + random.nextInt(LOOKUP_LOG_ORDERS)).size();
+        }
+        long lookupNanos = System.nanoTime() - t0;
+        assertEquals(8L * LOOKUPS, entries);
+
+        System.out.printf("AmendmentLog: addOrder %.0f ns without the log, %.0f ns with it (+%.0f ns); "
+                        + "item amendment %.0f ns; lookup of 4 entries in %d: %.0f ns%n",
+                (double) withoutLog[0] / measuredOrders, (double) withLog[0] / measuredOrders,
+                (double) (withLog[0] - withoutLog[0]) / measuredOrders, (double) amendNanos[0] / measuredOrders,
+                large.size(), (double) lookupNanos / LOOKUPS);
+    }
+
+    /**
+     * Queues every order one at a time, as the terminal does, and times it.
+     *
+     * @param orders The orders.
+     * @param log    The audit log to register on the queue, or null for none.
+     * @return The elapsed time in nanoseconds.
+     */
+    private static long queueAll(List<Order> orders, AmendmentLog log) {
+        OrderQueueManager queue = new OrderQueueManager();
+        if (log != null) {
+            queue.addListener(log);
+        }
+        long start = System.nanoTime();
+        for (Order order : orders) {
+            queue.addOrder(order);
+        }
+        long elapsed = System.nanoTime() - start;
+        assertEquals(orders.size(), queue.getQueueSize());
+        return elapsed;
+    }
+
+    /**
+     * Creates orders with IDs 1 to count.
+     *
+     * @param count The number of orders.
+     * @return The orders.
+     */
+    private List<Order> orders(int count) {
+        List<Order> orders = new ArrayList<>(count);
+        LocalDateTime start = LocalDateTime.of(2024, 5, 1, 12, 0);
+        for (int i = 0; i < count; i++) {
+            Order order = new Order(i + 1, 1 + i % 40, "W" + (i % 25), start.plusSeconds(i), Order.OrderStatus.PLACED);
+            for (int line = 0; line < 3; line++) {
+                order.addItem(menu.get(10 + (i * 7 + line * 11) % 40), 1 + line % 2);
+            }
+            order.addItem(menu.get(i % 3), 1, Collections.singletonList(new Modifier("Extra cheese", 150)));
+            orders.add(order);
+        }
+        return orders;
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.restrauntautomation.audit;
+
+import com.example.restrauntautomation.model.MenuItem;
+import com.example.restrauntautomation.model.Modifier;
+import com.example.restrauntautomation.model.Order;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AmendmentLogTest {
+
+    private static final LocalDateTime PLACED = LocalDateTime.of(2024, 5, 1, 18, 0);
+
+    private final MenuItem soup = new MenuItem("Soup", "Tomato soup", new BigDecimal("4.50"), "Starters");
+    private final MenuItem steak = new MenuItem("Steak", "Ribeye", new BigDecimal("21.00"), "Mains");
+    private final AmendmentLog log = new AmendmentLog(Clock.fixed(Instant.parse("2024-05-01T18:05:00Z"), ZoneOffset.UTC));
+
+    @Test
+    void replayRebuildsTheOrderFromItsEntries() {
+        Order order = order(1);
+        log.ordersAdded(Collections.singletonList(order));
+        log.addItem(order, "W002", steak, 1, Collections.singletonList(new Modifier("Rare", 0)));
+        log.removeItem(order, "W002", soup);
+        log.changeDiscount(order, "PRICING", 300);
+
+        Order replayed = log.replay(1);
+
+        assertEquals(order.getItems(), replayed.getItems());
+        assertEquals(300L, replayed.getDiscountCents());
+        assertEquals(order.getTotalPrice(), replayed.getTotalPrice());
+        assertEquals(List.of(OrderAmendment.Type.PLACED, OrderAmendment.Type.ITEM_ADDED, OrderAmendment.Type.ITEM_REMOVED,
+                OrderAmendment.Type.DISCOUNT_CHANGED), types(log.getAmendments(1)));
+        assertEquals("PRICING", log.getAmendments(1).get(3).getStaffId());
+    }
+
+    @Test
+    void unchangedDiscountIsNotRecorded() {
+        Order order = order(1);
+        order.setDiscountCents(200);
+        log.ordersAdded(Collections.singletonList(order));
+
+        assertFalse(log.changeDiscount(order, "PRICING", 200));
+        assertTrue(log.changeDiscount(order, "PRICING", 0));
+
+        assertEquals(2, log.size());
+        assertEquals(200L, log.getAmendments(1).get(0).getAmountCents()); // Placed with the happy hour discount
+        assertEquals(0L, log.replay(1).getDiscountCents());
+    }
+
+    @Test
+    void voidedOrderCannotBeAmended() {
+        Order order = order(1);
+        log.ordersAdded(Collections.singletonList(order));
+        log.voidOrder(order, "W001", "Guest left");
+
+        assertEquals(Order.OrderStatus.CANCELLED, log.replay(1).getStatus());
+        assertThrows(IllegalArgumentException.class, () -> log.changeDiscount(order, "PRICING", 100));
+        assertThrows(IllegalArgumentException.class, () -> log.voidOrder(order, "W001", "Again"));
+        assertEquals(2, log.size());
+    }
+
+    @Test
+    void listenersSeeAppendedEntriesButNotRestoredOnes() {
+        List<OrderAmendment> stored = List.of(
+                OrderAmendment.of(OrderAmendment.Type.PLACED, 1, "W001", 1_000, 4, PLACED, order(1).getItems(), 0, null),
+                OrderAmendment.of(OrderAmendment.Type.VOIDED, 1, "W003", 2_000, 0, null, Collections.emptyList(), 0, "Wrong table"),
+                OrderAmendment.of(OrderAmendment.Type.PLACED, 2, "W002", 3_000, 5, PLACED, order(2).getItems(), 150, null));
+        List<OrderAmendment> appended = new ArrayList<>();
+        log.addListener(appended::add);
+
+        log.restore(stored);
+        Order second = log.replay(2);
+        second.setStatus(Order.OrderStatus.PAID);
+        log.refund(second, "W002", 100, "Cold soup");
+
+        assertEquals(4, log.size());
+        assertEquals(Order.OrderStatus.CANCELLED, log.replay(1).getStatus());
+        assertEquals("Wrong table", log.getAmendments(1).get(1).getReason());
+        assertEquals(2_000L, log.getAmendments(1).get(1).getTimestampMillis());
+        assertEquals(150L, log.replay(2).getDiscountCents());
+        assertEquals(100L, log.getRefundedCents(2));
+        assertEquals(1, appended.size());
+        assertEquals(OrderAmendment.Type.REFUNDED, appended.get(0).getType());
+        assertEquals(3, appended.get(0).getSequence());
+    }
+
+    @Test
+    void restoreRejectsIncompleteHistoriesAndANonEmptyLog() {
+        List<OrderAmendment> unplaced = List.of(
+                OrderAmendment.of(OrderAmendment.Type.VOIDED, 1, "W001", 1_000, 0, null, Collections.emptyList(), 0, "Gone"));
+        assertThrows(IllegalArgumentException.class, () -> log.restore(unplaced));
+        assertEquals(0, log.size());
+
+        log.ordersAdded(Collections.singletonList(order(3)));
+        assertThrows(IllegalStateException.class, () -> log.restore(Collections.emptyList()));
+    }
+
+    private Order order(long orderId) {
+        Order order = new Order(orderId, 4, "W001", PLACED, Order.OrderStatus.PLACED);
+        order.addItem(soup, 2);
+        return order;
+    }
+
+    private static List<OrderAmendment.Type> types(List<OrderAmendment> amendments) {
+        return amendments.stream().map(OrderAmendment::getType).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.restrauntautomation.codec;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BinaryCodecTest {
+
+    private final ByteBuffer buffer = ByteBuffer.allocate(256);
+
+    @Test
+    void varIntsRoundTripAtTheirEdges() {
+        int[] ints = {0, 1, 127, 128, 16_383, 16_384, Integer.MAX_VALUE};
+        long[] longs = {0L, 127L, 128L, Integer.MAX_VALUE + 1L, Long.MAX_VALUE};
+        long[] signed = {0L, -1L, 63L, -64L, Long.MAX_VALUE, Long.MIN_VALUE};
+        for (int value : ints) {
+            BinaryCodec.writeVarInt(buffer, value);
+        }
+        for (long value : longs) {
+            BinaryCodec.writeVarLong(buffer, value);
+        }
+        for (long value : signed) {
+            BinaryCodec.writeZigZagLong(buffer, value);
+        }
+        buffer.flip();
+
+        for (int value : ints) {
+            assertEquals(value, BinaryCodec.readVarInt(buffer));
+        }
+        for (long value : longs) {
+            assertEquals(value, BinaryCodec.readVarLong(buffer));
+        }
+        for (long value : signed) {
+            assertEquals(value, BinaryCodec.readZigZagLong(buffer));
+        }
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    void varIntRejectsNegativeValues() {
+        assertThrows(IllegalArgumentException.class, () -> BinaryCodec.writeVarInt(buffer, -1));
+    }
+
+    @Test
+    void smallValuesUseOneByte() {
+        BinaryCodec.writeVarInt(buffer, 127);
+        assertEquals(1, buffer.position());
+        BinaryCodec.writeZigZagLong(buffer, -64);
+        assertEquals(2, buffer.position());
+    }
+
+    @Test
+    void stringsRoundTripIncludingNonAscii() {
+        String[] values = {"", "W001", "Crème brûlée", "寿司 🍣"};
+        for (String value : values) {
+            BinaryCodec.writeString(buffer, value);
+        }
+        buffer.flip();
+
+        for (String value : values) {
+            assertEquals(value, BinaryCodec.readString(buffer));
+        }
+        assertFalse(buffer.hasRemaining());
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.restrauntautomation.codec;
+
+import com.example.restrauntautomation.model.MenuItem;
+import com.example.restrauntautomation.model.Modifier;
+import com.example.restrauntautomation.model.Order;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Encode and decode throughput of {@link ModelCodec} for typical orders (four lines, one with a modifier),
+ * reusing one buffer as the replication log does. Run with {@code mvn -Pbenchmark test}.
+ */
+class ModelCodecBenchmark {
+
+    private static final int ORDERS = 10_000;
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 20;
+
+    @Test
+    void encodeAndDecodeThroughput() {
+        List<MenuItem> menu = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            menu.add(new MenuItem("Item " + i, "Description of item " + i, new BigDecimal("12.50"), "Category " + (i % 8)));
+        }
+        ToIntFunction<MenuItem> itemIds = item -> Integer.parseInt(item.getName().substring(5));
+        IntFunction<MenuItem> catalog = menu::get;
+        List<Order> orders = new ArrayList<>(ORDERS);
+        LocalDateTime start = LocalDateTime.of(2024, 5, 1, 12, 0);
+        for (int i = 0; i < ORDERS; i++) {
+            Order order = new Order(i + 1, 1 + i % 40, "W" + (i % 25), start.plusSeconds(i), Order.OrderStatus.PLACED);
+            for (int line = 0; line < 4; line++) {
+                order.addItem(menu.get((i * 7 + line * 31) % menu.size()), 1 + line % 2);
+            }
+            order.addItem(menu.get(i % menu.size()), 1, Collections.singletonList(new Modifier("Extra cheese", 150)));
+            orders.add(order);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(ORDERS * 128);
+
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            encodeAll(orders, buffer, itemIds);
+            decodeAll(buffer, catalog);
+        }
+        long encodeNanos = 0;
+        long decodeNanos = 0;
+        long checksum = 0;
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            long t0 = System.nanoTime();
+            encodeAll(orders, buffer, itemIds);
+            long t1 = System.nanoTime();
+            checksum += decodeAll(buffer, catalog);
+            encodeNanos += t1 - t0;
+            decodeNanos += System.nanoTime() - t1;
+        }
+        assertEquals((long) ORDERS * MEASURED_ROUNDS, checksum);
+
+        buffer.clear();
+        encodeAll(orders, buffer, itemIds);
+        long totalOrders = (long) ORDERS * MEASURED_ROUNDS;
+        System.out.printf("ModelCodec: %d bytes/order, encode %.0f orders/s, decode %.0f orders/s%n",
+                buffer.limit() / ORDERS,
+                totalOrders * 1e9 / encodeNanos,
+                totalOrders * 1e9 / decodeNanos);
+    }
+
+    /**
+     * Encodes all orders into the buffer and flips it for reading.
+     *
+     * @param orders  The orders.
+     * @param buffer  The reusable buffer.
+     * @param itemIds Maps a MenuItem to its catalog id.
+     */
+    private static void encodeAll(List<Order> orders, ByteBuffer buffer, ToIntFunction<MenuItem> itemIds) {
+        buffer.clear();
+        for (int i = 0; i < orders.size(); i++) {
+            ModelCodec.encodeOrder(orders.get(i), buffer, itemIds);
+        }
+        buffer.flip();
+    }
+
+    /**
+     * Decodes every order left in the buffer.
+     *
+     * @param buffer  The buffer, flipped for reading.
+     * @param catalog Resolves a catalog id to its MenuItem.
+     * @return The number of orders decoded.
+     */
+    private static long decodeAll(ByteBuffer buffer, IntFunction<MenuItem> catalog) {
+        long decoded = 0;
+        while (buffer.hasRemaining()) {
+            if (ModelCodec.decodeOrder(buffer, catalog).getItemCount() > 0) {
+                decoded++;
+            }
+        }
+        return decoded;
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.restrauntautomation.codec;
+
+import com.example.restrauntautomation.model.MenuItem;
+import com.example.restrauntautomation.model.Modifier;
+import com.example.restrauntautomation.model.Order;
+import com.example.restrauntautomation.model.OrderItem;
+import com.example.restrauntautomation.model.Table;
+import com.example.restrauntautomation.model.WaitStaff;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ModelCodecTest {
+
+    private static final LocalDateTime PLACED = LocalDateTime.of(2024, 5, 1, 18, 0, 12, 345_000_000);
+
+    private final MenuItem soup = new MenuItem("Soup", "Tomato soup", new BigDecimal("4.50"), "Starters");
+    private final MenuItem steak = new MenuItem("Steak", "Ribeye", new BigDecimal("21.00"), "Mains");
+    private final List<MenuItem> menu = Arrays.asList(soup, steak);
+    private final ToIntFunction<MenuItem> itemIds = menu::indexOf;
+    private final IntFunction<MenuItem> catalog = id -> id >= 0 && id < menu.size() ? menu.get(id) : null;
+
+    private final ByteBuffer buffer = ByteBuffer.allocate(1024);
+
+    @Test
+    void orderRoundTripKeepsLinesModifiersAndDiscount() {
+        Order order = new Order(900_000_000_123L, 7, "W042", PLACED, Order.OrderStatus.PREPARING);
+        order.addItem(soup, 2);
+        order.addItem(steak, 1, Arrays.asList(new Modifier("Medium rare", 0), new Modifier("Extra sauce", 150)));
+        order.addItem(steak, 3, Collections.singletonList(new Modifier("No salt", -25)));
+        order.setDiscountCents(300);
+
+        ModelCodec.encodeOrder(order, buffer, itemIds);
+        buffer.flip();
+        Order decoded = ModelCodec.decodeOrder(buffer, catalog);
+
+        assertFalse(buffer.hasRemaining());
+        assertEquals(order.getOrderId(), decoded.getOrderId());
+        assertEquals(7, decoded.getTableNumber());
+        assertEquals("W042", decoded.getWaitStaffId());
+        assertEquals(PLACED, decoded.getOrderTime());
+        assertEquals(Order.OrderStatus.PREPARING, decoded.getStatus());
+        assertEquals(order.getItems(), decoded.getItems());
+        for (int i = 0; i < order.getItemCount(); i++) {
+            assertEquals(order.getItem(i).getQuantity(), decoded.getItem(i).getQuantity());
+            assertSame(order.getItem(i).getMenuItem(), decoded.getItem(i).getMenuItem());
+        }
+        assertEquals(order.getSubtotalCents(), decoded.getSubtotalCents());
+        assertEquals(300, decoded.getDiscountCents());
+    }
+
+    @Test
+    void versionTwoOrderIsReadWithoutDiscount() {
+        buffer.put((byte) 2);
+        buffer.put(ModelCodec.TAG_ORDER);
+        BinaryCodec.writeVarLong(buffer, 56L);
+        BinaryCodec.writeVarInt(buffer, 4);
+        BinaryCodec.writeString(buffer, "W002");
+        BinaryCodec.writeZigZagLong(buffer, PLACED.toEpochSecond(ZoneOffset.UTC));
+        BinaryCodec.writeVarInt(buffer, PLACED.getNano());
+        buffer.put((byte) Order.OrderStatus.PLACED.ordinal());
+        BinaryCodec.writeVarInt(buffer, 1); // No discount in version 2
+        BinaryCodec.writeVarInt(buffer, 1); // Steak
+        BinaryCodec.writeVarInt(buffer, 1);
+        BinaryCodec.writeVarInt(buffer, 1);
+        BinaryCodec.writeString(buffer, "Rare");
+        BinaryCodec.writeZigZagLong(buffer, 0);
+        buffer.flip();
+
+        Order decoded = ModelCodec.decodeOrder(buffer, catalog);
+
+        assertFalse(buffer.hasRemaining());
+        assertEquals(56L, decoded.getOrderId());
+        assertEquals(0, decoded.getDiscountCents());
+        assertSame(steak, decoded.getItem(0).getMenuItem());
+        assertEquals(Collections.singletonList(new Modifier("Rare", 0)), decoded.getItem(0).getModifiers());
+    }
+
+    @Test
+    void versionOneOrderIsReadWithoutModifiers() {
+        buffer.put((byte) 1);
+        buffer.put(ModelCodec.TAG_ORDER);
+        BinaryCodec.writeVarLong(buffer, 55L);
+        BinaryCodec.writeVarInt(buffer, 3);
+        BinaryCodec.writeString(buffer, "W001");
+        BinaryCodec.writeZigZagLong(buffer, PLACED.toEpochSecond(ZoneOffset.UTC));
+        BinaryCodec.writeVarInt(buffer, PLACED.getNano());
+        buffer.put((byte) Order.OrderStatus.SERVED.ordinal());
+        BinaryCodec.writeVarInt(buffer, 2);
+        BinaryCodec.writeVarInt(buffer, 1); // Steak, no modifier count in version 1
+        BinaryCodec.writeVarInt(buffer, 2);
+        BinaryCodec.writeVarInt(buffer, 0); // Soup
+        BinaryCodec.writeVarInt(buffer, 1);
+        buffer.flip();
+
+        Order decoded = ModelCodec.decodeOrder(buffer, catalog);
+
+        assertFalse(buffer.hasRemaining());
+        assertEquals(55L, decoded.getOrderId());
+        assertEquals(3, decoded.getTableNumber());
+        assertEquals(PLACED, decoded.getOrderTime());
+        assertEquals(Order.OrderStatus.SERVED, decoded.getStatus());
+        assertEquals(2, decoded.getItemCount());
+        assertSame(steak, decoded.getItem(0).getMenuItem());
+        assertEquals(2, decoded.getItem(0).getQuantity());
+        assertEquals(Collections.emptyList(), decoded.getItem(0).getModifiers());
+        assertSame(soup, decoded.getItem(1).getMenuItem());
+        assertEquals(Collections.emptyList(), decoded.getItem(1).getModifiers());
+    }
+
+    @Test
+    void versionOneOrderItemIsReadWithoutModifiers() {
+        buffer.put((byte) 1);
+        buffer.put(ModelCodec.TAG_ORDER_ITEM);
+        BinaryCodec.writeVarInt(buffer, 0);
+        BinaryCodec.writeVarInt(buffer, 4);
+        buffer.flip();
+
+        OrderItem decoded = ModelCodec.decodeOrderItem(buffer, catalog);
+
+        assertSame(soup, decoded.getMenuItem());
+        assertEquals(4, decoded.getQuantity());
+        assertEquals(Collections.emptyList(), decoded.getModifiers());
+    }
+
+    @Test
+    void orderItemRoundTrip() {
+        OrderItem line = new OrderItem(steak, 2, Collections.singletonList(new Modifier("Extra sauce", 150)));
+
+        ModelCodec.encodeOrderItem(line, buffer, itemIds);
+        buffer.flip();
+        OrderItem decoded = ModelCodec.decodeOrderItem(buffer, catalog);
+
+        assertEquals(line, decoded);
+        assertEquals(2, decoded.getQuantity());
+        assertEquals(line.getTotalPriceInCents(), decoded.getTotalPriceInCents());
+    }
+
+    @Test
+    void menuItemRoundTripKeepsCatalogIdAndPrice() {
+        MenuItem dessert = new MenuItem("Crème brûlée", "Vanilla custard", new BigDecimal("0.125"), "Desserts");
+
+        ModelCodec.encodeMenuItem(dessert, 300, buffer);
+        buffer.flip();
+
+        assertEquals(300, ModelCodec.peekMenuItemId(buffer));
+        MenuItem decoded = ModelCodec.decodeMenuItem(buffer);
+        assertFalse(buffer.hasRemaining());
+        assertEquals("Crème brûlée", decoded.getName());
+        assertEquals("Vanilla custard", decoded.getDescription());
+        assertEquals(new BigDecimal("0.125"), decoded.getPrice());
+        assertEquals("Desserts", decoded.getCategoryName());
+    }
+
+    @Test
+    void tableAndWaitStaffRoundTrip() {
+        Table table = new Table(12, 6);
+        table.setStatus(Table.TableStatus.OCCUPIED);
+        WaitStaff staff = new WaitStaff("W007", "Jordan");
+
+        ModelCodec.encodeTable(table, buffer);
+        ModelCodec.encodeWaitStaff(staff, buffer);
+        buffer.flip();
+        Table decodedTable = ModelCodec.decodeTable(buffer);
+        WaitStaff decodedStaff = ModelCodec.decodeWaitStaff(buffer);
+
+        assertEquals(12, decodedTable.getTableNumber());
+        assertEquals(6, decodedTable.getCapacity());
+        assertEquals(Table.TableStatus.OCCUPIED, decodedTable.getStatus());
+        assertEquals(staff, decodedStaff);
+        assertEquals("Jordan", decodedStaff.getName());
+    }
+
+    @Test
+    void rejectsNewerSchemaVersionAndWrongTag() {
+        buffer.put((byte) (ModelCodec.SCHEMA_VERSION + 1));
+        buffer.put(ModelCodec.TAG_TABLE);
+        buffer.flip();
+        assertThrows(IllegalArgumentException.class, () -> ModelCodec.decodeTable(buffer));
+
+        buffer.clear();
+        ModelCodec.encodeTable(new Table(1, 2), buffer);
+        buffer.flip();
+        assertThrows(IllegalArgumentException.class, () -> ModelCodec.decodeWaitStaff(buffer));
+    }
+
+    @Test
+    void rejectsUnknownMenuItems() {
+        MenuItem retired = new MenuItem("Retired", "No longer sold", new BigDecimal("1.00"), "Mains");
+        Order order = new Order(1, 1, "W001", PLACED, Order.OrderStatus.PLACED);
+        order.addItem(retired, 1);
+        assertThrows(IllegalArgumentException.class, () -> ModelCodec.encodeOrder(order, buffer, itemIds));
+
+        buffer.clear();
+        buffer.put(ModelCodec.SCHEMA_VERSION);
+        buffer.put(ModelCodec.TAG_ORDER_ITEM);
+        BinaryCodec.writeVarInt(buffer, 99);
+        BinaryCodec.writeVarInt(buffer, 1);
+        BinaryCodec.writeVarInt(buffer, 0);
+        buffer.flip();
+        assertThrows(IllegalArgumentException.class, () -> ModelCodec.decodeOrderItem(buffer, catalog));
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.restrauntautomation.config;
+
+import com.example.restrauntautomation.manager.OrderQueueBackend;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RuntimeConfigTest {
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void clearFileProperty() {
+        System.clearProperty(RuntimeConfig.FILE_PROPERTY);
+    }
+
+    @Test
+    void namedFileIsLoaded() throws IOException {
+        Path file = directory.resolve("terminal.properties");
+        Files.write(file, (RuntimeConfig.TABLES + "=12\n" + RuntimeConfig.QUEUE_BACKEND + "=indexed\n").getBytes(StandardCharsets.UTF_8));
+        System.setProperty(RuntimeConfig.FILE_PROPERTY, file.toString());
+
+        RuntimeConfig config = RuntimeConfig.load();
+
+        assertEquals(12, config.getTables());
+        assertEquals(OrderQueueBackend.INDEXED, config.getQueueBackend());
+    }
+
+    @Test
+    void missingNamedFileIsRejected() {
+        System.setProperty(RuntimeConfig.FILE_PROPERTY, directory.resolve("typo.properties").toString());
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, RuntimeConfig::load);
+        assertTrue(e.getMessage().contains("typo.properties"));
+    }
+
+    @Test
+    void invalidSettingIsRejectedWithItsKey() {
+        Properties properties = new Properties();
+        properties.setProperty(RuntimeConfig.TABLES, "twelve");
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> RuntimeConfig.fromProperties(properties));
+        assertTrue(e.getMessage().contains(RuntimeConfig.TABLES));
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.restrauntautomation.inventory;
+
+import com.example.restrauntautomation.manager.MenuManager;
+import com.example.restrauntautomation.model.MenuItem;
+import com.example.restrauntautomation.model.Order;
+import com.example.restrauntautomation.persistence.InventoryRepository;
+import com.example.restrauntautomation.persistence.SqlDatabase;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InventoryManagerTest {
+
+    private final MenuItem soup = new MenuItem("Tomato Soup", "Classic", new BigDecimal("5.00"), "Soups");
+    private final MenuItem salad = new MenuItem("Tomato Salad", "With basil", new BigDecimal("6.00"), "Starters");
+    private final MenuItem bread = new MenuItem("Bread", "Baked daily", new BigDecimal("2.00"), "Starters");
+    private final MenuManager menu = new MenuManager(Arrays.asList(soup, salad, bread));
+    private final List<Ingredient> low = new ArrayList<>();
+    private final List<List<MenuItem>> availabilityChanges = new ArrayList<>();
+
+    @Test
+    void crossingTheThresholdEightySixesEveryItemUsingTheIngredientOnce() {
+        InventoryManager inventory = inventory(1_000);
+        inventory.consume(order(Order.OrderStatus.PLACED, soup, 2)); // 400 g left, threshold 500
+
+        assertEquals(400L, inventory.getStock("Tomatoes"));
+        assertEquals(Collections.singletonList(inventory.getIngredients().get(0)), inventory.getLowStockIngredients());
+        assertEquals(1, low.size());
+        assertEquals(1, availabilityChanges.size());
+        assertEquals(Arrays.asList(soup, salad), availabilityChanges.get(0));
+        assertFalse(menu.isItemAvailable(soup));
+        assertFalse(menu.isItemAvailable(salad));
+        assertTrue(menu.isItemAvailable(bread));
+
+        inventory.consume(order(Order.OrderStatus.PLACED, salad, 1)); // Already low: no second crossing
+        assertEquals(1, low.size());
+        assertEquals(1, availabilityChanges.size());
+    }
+
+    @Test
+    void stockAtTheThresholdIsNotLow() {
+        InventoryManager inventory = inventory(800);
+        inventory.consume(order(Order.OrderStatus.PLACED, soup, 1)); // Exactly 500 g left
+
+        assertTrue(inventory.getLowStockIngredients().isEmpty());
+        assertTrue(menu.isItemAvailable(soup));
+    }
+
+    @Test
+    void receivingStockOffersTheItemsAgain() {
+        InventoryManager inventory = inventory(600);
+        inventory.consume(order(Order.OrderStatus.PLACED, soup, 1));
+        assertFalse(menu.isItemAvailable(soup));
+
+        inventory.receive("Tomatoes", 100);
+        assertFalse(menu.isItemAvailable(soup)); // 400 g, still below 500
+        inventory.receive("Tomatoes", 100);
+
+        assertTrue(menu.isItemAvailable(soup));
+        assertTrue(menu.isItemAvailable(salad));
+        assertTrue(inventory.getLowStockIngredients().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> inventory.receive("Tomatoes", 0));
+        assertThrows(IllegalArgumentException.class, () -> inventory.receive("Saffron", 5));
+    }
+
+    @Test
+    void countingStockCanCrossTheThresholdBothWays() {
+        InventoryManager inventory = inventory(1_000);
+        inventory.adjustTo("Tomatoes", 100);
+        assertFalse(menu.isItemAvailable(soup));
+        assertEquals(1, low.size());
+
+        inventory.adjustTo("Tomatoes", 2_000);
+        assertEquals(2_000L, inventory.getStock("Tomatoes"));
+        assertTrue(menu.isItemAvailable(soup));
+        assertThrows(IllegalArgumentException.class, () -> inventory.adjustTo("Tomatoes", -1));
+    }
+
+    @Test
+    void voidedOrdersGiveTheirStockBackButCompletedOrdersDoNot() {
+        InventoryManager inventory = inventory(1_000);
+        Order voided = order(Order.OrderStatus.PLACED, soup, 2);
+        Order served = order(Order.OrderStatus.PLACED, bread, 3);
+        inventory.ordersAdded(Arrays.asList(voided, served));
+        assertFalse(menu.isItemAvailable(soup));
+
+        voided.setStatus(Order.OrderStatus.CANCELLED);
+        inventory.orderRemoved(voided);
+        served.setStatus(Order.OrderStatus.SERVED);
+        inventory.orderRemoved(served);
+
+        assertEquals(1_000L, inventory.getStock("Tomatoes"));
+        assertEquals(4L, inventory.getStock("Bread")); // The served bread stays used
+        assertTrue(menu.isItemAvailable(soup));
+        assertEquals(Arrays.asList(soup, salad), availabilityChanges.get(1));
+    }
+
+    @Test
+    void loadedInventoryKeepsItsStockAcrossRestarts() throws SQLException, InterruptedException {
+        MenuManager defaultMenu = new MenuManager();
+        MenuItem cola = defaultMenu.getMenuItemByName("Beverages", "Cola");
+        try (SqlDatabase database = new SqlDatabase("jdbc:h2:mem:" + getClass().getSimpleName() + System.nanoTime())) {
+            InventoryRepository repository = new InventoryRepository(database);
+            InventoryManager first = InventoryManager.load(defaultMenu, repository);
+            long opening = first.getStock("Cola");
+            first.consume(order(Order.OrderStatus.PLACED, cola, 2));
+            first.receive("Lemons", 5);
+            assertTrue(database.flush(5, TimeUnit.SECONDS));
+
+            Map<String, Long> stored = repository.findStock();
+            assertEquals(first.getIngredients().size(), stored.size());
+            InventoryManager restarted = InventoryManager.load(new MenuManager(), repository);
+            assertEquals(opening - 660, restarted.getStock("Cola"));
+            assertEquals(first.getStock("Lemons"), restarted.getStock("Lemons"));
+        }
+    }
+
+    private InventoryManager inventory(long tomatoes) {
+        List<Ingredient> ingredients = Arrays.asList(new Ingredient("Tomatoes", "g", 500), new Ingredient("Bread", "pcs", 2));
+        Map<String, Long> quantities = new HashMap<>();
+        quantities.put("Tomatoes", 300L);
+        Map<String, Long> saladQuantities = new HashMap<>();
+        saladQuantities.put("Tomatoes", 150L);
+        List<Recipe> recipes = Arrays.asList(new Recipe(soup, quantities), new Recipe(salad, saladQuantities),
+                new Recipe(bread, Collections.singletonMap("Bread", 1L)));
+        Map<String, Long> openingStock = new HashMap<>();
+        openingStock.put("Tomatoes", tomatoes);
+        openingStock.put("Bread", 7L);
+        InventoryManager inventory = new InventoryManager(menu, ingredients, recipes, openingStock);
+        inventory.addListener(new InventoryListener() {
+            @Override
+            public void stockChanged(List<Ingredient> ingredients) {
+            }
+
+            @Override
+            public void ingredientLow(Ingredient ingredient, long stock) {
+                low.add(ingredient);
+            }
+
+            @Override
+            public void availabilityChanged(List<MenuItem> items) {
+                availabilityChanges.add(items);
+            }
+        });
+        return inventory;
+    }
+
+    private static Order order(Order.OrderStatus status, MenuItem item, int quantity) {
+        Order order = new Order(1, 2, "W001", java.time.LocalDateTime.of(2024, 5, 1, 18, 0), status);
+        order.addItem(item, quantity);
+        return order;
+    }
+}
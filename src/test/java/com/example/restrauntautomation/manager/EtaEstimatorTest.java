@@ -0,0 +1,142 @@
+package com.example.restrauntautomation.manager;
+
+import com.example.restrauntautomation.model.MenuItem;
+import com.example.restrauntautomation.model.Order;
+import com.example.restrauntautomation.model.OrderEta;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class EtaEstimatorTest {
+
+    private static final long MINUTE = 60_000L;
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-05-01T18:00:00Z"));
+    private final EtaEstimator estimator = new EtaEstimator(clock);
+    private final MenuItem soup = new MenuItem("Soup", "Tomato soup", new BigDecimal("4.50"), "Soups"); // 6 min prior
+    private final MenuItem steak = new MenuItem("Steak", "Sirloin", new BigDecimal("24.00"), "Main Courses"); // 18 min prior
+    private final MenuItem cake = new MenuItem("Cake", "Chocolate cake", new BigDecimal("6.00"), "Desserts"); // 6 min prior
+
+    @Test
+    void etaIsTheQueueDepthTimesTheCompletionIntervalPlusTheSlowestItem() {
+        estimator.ordersAdded(Arrays.asList(order(1, soup), order(2, cake)));
+
+        OrderEta eta = estimator.estimate(order(3, soup, steak));
+
+        LocalDateTime now = LocalDateTime.now(clock);
+        assertEquals(2 * 3 * MINUTE, eta.getWaitMillis()); // Two orders ahead, 3 min each before anything is learned
+        assertEquals(18 * MINUTE, eta.getPrepMillis());
+        assertEquals(now.plusMinutes(24), eta.getReadyAt());
+        assertEquals(now.plusMinutes(6 + 27), eta.getLatestReadyAt()); // 1.5 times the mean until P² has samples
+    }
+
+    @Test
+    void queuedOrdersKeepTheEtaPredictedWhenTheyWereQueued() {
+        estimator.ordersAdded(Collections.singletonList(order(1, soup)));
+        clock.advance(Duration.ofMinutes(2));
+        estimator.ordersAdded(Collections.singletonList(order(2, cake)));
+
+        assertEquals(0, estimator.getEta(1).getWaitMillis());
+        assertEquals(LocalDateTime.of(2024, 5, 1, 18, 6), estimator.getEta(1).getReadyAt());
+        assertEquals(3 * MINUTE, estimator.getEta(2).getWaitMillis());
+        assertNull(estimator.getEta(3));
+    }
+
+    @Test
+    void completionsShareTheirPrepTimeOutOverTheirItems() {
+        Order order = order(1, soup, steak);
+        estimator.ordersAdded(Collections.singletonList(order));
+        clock.advance(Duration.ofMinutes(28));
+        estimator.orderRemoved(order);
+
+        // 28 min with nothing ahead: the steak took all of it, the soup 6/18 of it; each mean moves a fifth of the way
+        assertEquals(18 * MINUTE + (28 - 18) * MINUTE / 5, estimator.getMeanPrepMillis(steak));
+        assertEquals(6 * MINUTE + (28 * MINUTE / 3 - 6 * MINUTE) / 5, estimator.getMeanPrepMillis(soup));
+        assertEquals(6 * MINUTE, estimator.getMeanPrepMillis(cake));
+        assertNull(estimator.getEta(1));
+    }
+
+    @Test
+    void theCompletionIntervalIsLearnedWhileTheKitchenIsBusy() {
+        Order first = order(1, soup);
+        Order second = order(2, soup);
+        estimator.ordersAdded(Arrays.asList(first, second, order(3, soup)));
+        clock.advance(Duration.ofMinutes(4));
+        estimator.orderRemoved(first); // Starts the interval
+        clock.advance(Duration.ofMinutes(2));
+        estimator.orderRemoved(second);
+
+        // 3 min prior moved a fifth of the way to the 2 min measured, for the one order still ahead
+        assertEquals(3 * MINUTE - MINUTE / 5, estimator.estimate(order(4, soup)).getWaitMillis());
+    }
+
+    @Test
+    void cancelledAndPaidOrdersAreNotLearnedFrom() {
+        Order completed = order(1, soup);
+        Order cancelled = order(2, steak);
+        Order paid = order(3, cake);
+        estimator.ordersAdded(Arrays.asList(completed, cancelled, paid, order(4, soup)));
+        clock.advance(Duration.ofMinutes(4));
+        estimator.orderRemoved(completed); // Starts the interval
+        clock.advance(Duration.ofMinutes(40));
+        cancelled.setStatus(Order.OrderStatus.CANCELLED);
+        estimator.orderRemoved(cancelled);
+        paid.setStatus(Order.OrderStatus.PAID);
+        estimator.orderRemoved(paid);
+
+        assertEquals(18 * MINUTE, estimator.getMeanPrepMillis(steak));
+        assertEquals(6 * MINUTE, estimator.getMeanPrepMillis(cake));
+        assertNull(estimator.getEta(2));
+        assertNull(estimator.getEta(3));
+        assertEquals(3 * MINUTE, estimator.estimate(order(5, soup)).getWaitMillis()); // Interval still the prior
+    }
+
+    private Order order(long orderId, MenuItem... items) {
+        Order order = new Order(orderId, 5, "W001", LocalDateTime.now(clock), Order.OrderStatus.PLACED);
+        for (MenuItem item : items) {
+            order.addItem(item, 1);
+        }
+        return order;
+    }
+
+    /**
+     * A clock that only moves when the test advances it.
+     */
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant start) {
+            this.now = start;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.restrauntautomation.manager;
+
+import com.example.restrauntautomation.model.MenuItem;
+import com.example.restrauntautomation.model.Order;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IndexedOrderQueueTest {
+
+    private static final LocalDateTime PLACED = LocalDateTime.of(2024, 5, 1, 18, 0);
+    private static final MenuItem SOUP = new MenuItem("Soup", "Tomato soup", new BigDecimal("4.50"), "Starters");
+
+    @Test
+    void ordersLeaveInTheOrderTheyWereQueued() {
+        IndexedOrderQueue queue = new IndexedOrderQueue();
+        Order first = order(1);
+        Order second = order(2);
+        Order third = order(3);
+        queue.offer(first);
+        queue.offer(second);
+        queue.offer(third);
+
+        assertSame(first, queue.peek());
+        assertSame(first, queue.poll());
+        assertEquals(Arrays.asList(second, third), new ArrayList<>(queue));
+        assertSame(second, queue.poll());
+        assertSame(third, queue.poll());
+        assertNull(queue.poll());
+        assertNull(queue.peek());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    void removingFromTheMiddleKeepsTheRestInOrder() {
+        IndexedOrderQueue queue = new IndexedOrderQueue();
+        for (long id = 1; id <= 5; id++) {
+            queue.offer(order(id));
+        }
+
+        assertTrue(queue.remove(order(3))); // Found by ID, not by identity
+        assertFalse(queue.remove(order(3)));
+        assertFalse(queue.contains(order(3)));
+        assertTrue(queue.contains(order(4)));
+        assertEquals(Arrays.asList(1L, 2L, 4L, 5L), ids(queue));
+
+        Iterator<Order> iterator = queue.iterator();
+        iterator.next();
+        iterator.remove();
+        assertEquals(Arrays.asList(2L, 4L, 5L), ids(queue));
+        assertEquals(3, queue.size());
+    }
+
+    @Test
+    void queuedOrderIsNotQueuedTwiceAndNullIsRejected() {
+        IndexedOrderQueue queue = new IndexedOrderQueue();
+        Order order = order(1);
+
+        assertTrue(queue.offer(order));
+        assertFalse(queue.offer(order(1)));
+        assertThrows(IllegalStateException.class, () -> queue.add(order(1))); // AbstractQueue.add on a refused offer
+        assertThrows(NullPointerException.class, () -> queue.offer(null));
+        assertEquals(1, queue.size());
+
+        queue.clear();
+        assertTrue(queue.isEmpty());
+        assertTrue(queue.offer(order(1))); // Can be queued again once it has left
+    }
+
+    @Test
+    void managerBehavesTheSameWithEveryBackend() {
+        Random random = new Random(7);
+        List<OrderQueueManager> managers = new ArrayList<>();
+        for (OrderQueueBackend backend : OrderQueueBackend.values()) {
+            managers.add(new OrderQueueManager(backend));
+        }
+        long nextId = 1;
+        for (int step = 0; step < 5_000; step++) {
+            int operation = random.nextInt(10);
+            List<Object> results = new ArrayList<>();
+            if (operation < 4) {
+                Order order = order(nextId++);
+                for (OrderQueueManager manager : managers) {
+                    results.add(manager.addOrder(order));
+                }
+            } else if (operation < 5) {
+                List<Order> batch = Arrays.asList(order(nextId), order(nextId), order(Math.max(1, nextId - 3)));
+                nextId++;
+                for (OrderQueueManager manager : managers) {
+                    results.add(manager.addOrders(batch));
+                }
+            } else if (operation < 8) {
+                Order order = order(1 + random.nextInt((int) nextId));
+                for (OrderQueueManager manager : managers) {
+                    results.add(manager.removeOrder(order));
+                }
+            } else if (operation < 9) {
+                for (OrderQueueManager manager : managers) {
+                    results.add(manager.processNextOrder());
+                }
+            } else {
+                long orderId = 1 + random.nextInt((int) nextId);
+                for (OrderQueueManager manager : managers) {
+                    results.add(manager.getOrderById(orderId));
+                }
+            }
+            for (int i = 1; i < managers.size(); i++) {
+                assertEquals(results.get(0), results.get(i), "Step " + step + ", operation " + operation);
+                assertEquals(managers.get(0).getOrders(), managers.get(i).getOrders(), "Step " + step);
+            }
+        }
+    }
+
+    private static Order order(long orderId) {
+        Order order = new Order(orderId, 1 + (int) (orderId % 20), "W001", PLACED, Order.OrderStatus.PLACED);
+        order.addItem(SOUP, 1);
+        return order;
+    }
+
+    private static List<Long> ids(Iterable<Order> orders) {
+        List<Long> ids = new ArrayList<>();
+        for (Order order : orders) {
+            ids.add(order.getOrderId());
+        }
+        return ids;
+    }
+}
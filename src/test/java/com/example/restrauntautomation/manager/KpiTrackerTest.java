@@ -0,0 +1,201 @@
+package com.example.restrauntautomation.manager;
+
+import com.example.restrauntautomation.model.KpiSnapshot;
+import com.example.restrauntautomation.model.MenuItem;
+import com.example.restrauntautomation.model.Order;
+import com.example.restrauntautomation.model.Table;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class KpiTrackerTest {
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-05-01T18:00:00Z"));
+    private final KpiTracker tracker = new KpiTracker(clock);
+
+    @Test
+    void turnTimeRunsFromSeatedToVacant() {
+        tracker.tableStatusChanged(3, Table.TableStatus.OCCUPIED);
+        clock.advance(Duration.ofMinutes(10));
+        tracker.tableStatusChanged(3, Table.TableStatus.OCCUPIED); // A second order at the same table
+        clock.advance(Duration.ofMinutes(20));
+        tracker.tableStatusChanged(3, Table.TableStatus.NEEDS_CLEANING);
+        clock.advance(Duration.ofMinutes(15));
+        tracker.tableStatusChanged(3, Table.TableStatus.VACANT);
+
+        KpiSnapshot.Stats shift = tracker.getSnapshot().getShift();
+        assertEquals(1, shift.getTableTurns());
+        assertEquals(Duration.ofMinutes(45).toMillis(), shift.getAverageTurnMillis());
+    }
+
+    @Test
+    void completingAnOrderIsNotATableTurn() {
+        Order order = order();
+        tracker.ordersAdded(Collections.singletonList(order));
+        clock.advance(Duration.ofMinutes(25));
+        tracker.orderRemoved(order);
+        tracker.tableStatusChanged(5, Table.TableStatus.VACANT); // Never seated, nothing to measure
+
+        KpiSnapshot.Stats shift = tracker.getSnapshot().getShift();
+        assertEquals(1, shift.getCompletedOrders());
+        assertEquals(0, shift.getTableTurns());
+        assertEquals(0, shift.getAverageTurnMillis());
+    }
+
+    @Test
+    void startShiftResetsShiftButNotDayTotals() {
+        tracker.ordersAdded(Collections.singletonList(order()));
+        tracker.tableStatusChanged(1, Table.TableStatus.OCCUPIED);
+        clock.advance(Duration.ofHours(1));
+
+        tracker.startShift();
+        clock.advance(Duration.ofMinutes(30));
+        tracker.tableStatusChanged(1, Table.TableStatus.VACANT); // Seated last shift, turned in this one
+
+        KpiSnapshot snapshot = tracker.getSnapshot();
+        assertEquals(clock.millis() - Duration.ofMinutes(30).toMillis(), tracker.getShiftStartMillis());
+        assertEquals(0, snapshot.getShift().getOrders());
+        assertEquals(1, snapshot.getShift().getTableTurns());
+        assertEquals(Duration.ofMinutes(90).toMillis(), snapshot.getShift().getAverageTurnMillis());
+        assertEquals(1, snapshot.getDay().getOrders());
+    }
+
+    @Test
+    void revenueIsBookedNetOfTheDiscount() {
+        Order order = order(1);
+        order.setDiscountCents(150);
+        tracker.ordersAdded(Collections.singletonList(order));
+
+        KpiSnapshot snapshot = tracker.getSnapshot();
+        assertEquals(750, snapshot.getLast15Minutes().getRevenueCents());
+        assertEquals(750, snapshot.getShift().getRevenueCents());
+        assertEquals(750, snapshot.getDay().getAverageTicketCents());
+    }
+
+    @Test
+    void repricingRebooksTheDifference() {
+        Order order = order(1);
+        tracker.ordersAdded(Collections.singletonList(order));
+        clock.advance(Duration.ofMinutes(5));
+
+        order.setDiscountCents(450); // Happy hour started
+        tracker.orderRepriced(order);
+        order.setDiscountCents(0);   // And ended
+        tracker.orderRepriced(order);
+        order.setDiscountCents(200);
+        tracker.orderRepriced(order);
+
+        KpiSnapshot snapshot = tracker.getSnapshot();
+        assertEquals(700, snapshot.getLast15Minutes().getRevenueCents());
+        assertEquals(700, snapshot.getShift().getRevenueCents());
+        assertEquals(700, snapshot.getDay().getRevenueCents());
+        assertEquals(1, snapshot.getShift().getOrders());
+    }
+
+    @Test
+    void voidingAnOrderTakesBackItsRevenueAndCount() {
+        Order kept = order(1);
+        Order voided = order(2);
+        voided.addItem(new MenuItem("Steak", "Ribeye", new BigDecimal("21.00"), "Mains"), 1);
+        voided.setDiscountCents(100);
+        tracker.ordersAdded(Arrays.asList(kept, voided));
+        clock.advance(Duration.ofMinutes(3));
+
+        voided.setStatus(Order.OrderStatus.CANCELLED);
+        tracker.orderRemoved(voided);
+
+        KpiSnapshot snapshot = tracker.getSnapshot();
+        for (KpiSnapshot.Stats stats : Arrays.asList(snapshot.getLast15Minutes(), snapshot.getShift(), snapshot.getDay())) {
+            assertEquals(900, stats.getRevenueCents());
+            assertEquals(1, stats.getOrders());
+            assertEquals(900, stats.getAverageTicketCents());
+            assertEquals(0, stats.getCompletedOrders());
+        }
+        assertEquals(1, snapshot.getOpenOrders());
+    }
+
+    @Test
+    void voidingOnlyAdjustsTotalsThatAreStillCurrent() {
+        Order voided = order(1);
+        tracker.ordersAdded(Collections.singletonList(voided));
+        clock.advance(Duration.ofMinutes(20)); // Out of the window
+        tracker.startShift();
+        tracker.ordersAdded(Collections.singletonList(order(2)));
+
+        voided.setStatus(Order.OrderStatus.CANCELLED);
+        tracker.orderRemoved(voided);
+
+        KpiSnapshot snapshot = tracker.getSnapshot();
+        assertEquals(900, snapshot.getLast15Minutes().getRevenueCents());
+        assertEquals(900, snapshot.getShift().getRevenueCents()); // Booked last shift, already reset
+        assertEquals(1, snapshot.getShift().getOrders());
+        assertEquals(900, snapshot.getDay().getRevenueCents());
+        assertEquals(1, snapshot.getDay().getOrders());
+    }
+
+    @Test
+    void completedAndPaidOrdersKeepTheirRevenue() {
+        Order completed = order(1);
+        Order paid = order(2);
+        tracker.ordersAdded(Arrays.asList(completed, paid));
+
+        tracker.orderRemoved(completed);
+        paid.setStatus(Order.OrderStatus.PAID);
+        tracker.orderRemoved(paid);
+
+        KpiSnapshot.Stats shift = tracker.getSnapshot().getShift();
+        assertEquals(1800, shift.getRevenueCents());
+        assertEquals(2, shift.getOrders());
+        assertEquals(1, shift.getCompletedOrders());
+    }
+
+    private Order order() {
+        return order(1);
+    }
+
+    private Order order(long orderId) {
+        Order order = new Order(orderId, 5, "W001", LocalDateTime.now(clock), Order.OrderStatus.PLACED);
+        order.addItem(new MenuItem("Soup", "Tomato soup", new BigDecimal("4.50"), "Soups"), 2);
+        return order;
+    }
+
+    /**
+     * A clock that only moves when the test advances it.
+     */
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant start) {
+            this.now = start;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.restrauntautomation.manager;
+
+import com.example.restrauntautomation.model.MenuCategory;
+import com.example.restrauntautomation.model.MenuItem;
+import com.example.restrauntautomation.model.OrderItem;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MenuManagerTest {
+
+    private final MenuManager menuManager = new MenuManager();
+
+    @Test
+    void catalogIdsFollowTheCategoriesInTheOrderTheyWereAdded() {
+        List<String> names = new ArrayList<>();
+        int expectedId = 0;
+        for (MenuCategory category : menuManager.getMenuCategories()) {
+            names.add(category.getName());
+            for (MenuItem item : category.getItems()) {
+                assertEquals(expectedId, menuManager.getMenuItemId(item));
+                assertSame(item, menuManager.getMenuItemById(expectedId));
+                expectedId++;
+            }
+        }
+
+        assertEquals(Arrays.asList("Appetizers", "Soups", "Main Courses", "Desserts", "Beverages"), names);
+        assertEquals(expectedId, menuManager.getMenuItemCount());
+    }
+
+    @Test
+    void toOrderItemsResolvesEachPairInInputOrder() {
+        List<OrderItem> lines = menuManager.toOrderItems(new int[]{5, 0, 5}, new int[]{2, 1, 3});
+
+        assertEquals(3, lines.size());
+        assertSame(menuManager.getMenuItemById(5), lines.get(0).getMenuItem());
+        assertEquals(2, lines.get(0).getQuantity());
+        assertSame(menuManager.getMenuItemById(0), lines.get(1).getMenuItem());
+        assertEquals(1, lines.get(1).getQuantity());
+        assertSame(menuManager.getMenuItemById(5), lines.get(2).getMenuItem());
+        assertEquals(3, lines.get(2).getQuantity());
+    }
+
+    @Test
+    void toOrderItemsRejectsBadInput() {
+        int unknownId = menuManager.getMenuItemCount();
+
+        assertThrows(IllegalArgumentException.class, () -> menuManager.toOrderItems(new int[]{0, 1}, new int[]{1}));
+        assertThrows(IllegalArgumentException.class, () -> menuManager.toOrderItems(null, new int[0]));
+        assertThrows(IllegalArgumentException.class, () -> menuManager.toOrderItems(new int[]{0, unknownId}, new int[]{1, 1}));
+        assertThrows(IllegalArgumentException.class, () -> menuManager.toOrderItems(new int[]{-1}, new int[]{1}));
+        assertThrows(IllegalArgumentException.class, () -> menuManager.toOrderItems(new int[]{0, 1}, new int[]{1, 0}));
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.restrauntautomation.manager;
+
+import com.example.restrauntautomation.model.MenuItem;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MenuSearchIndexTest {
+
+    private final MenuItem tomatoSoup = item("Tomato Soup", "Classic creamy tomato soup", "Soups");
+    private final MenuItem chickenSoup = item("Chicken Noodle Soup", "Hearty chicken and noodle soup", "Soups");
+    private final MenuItem salmon = item("Grilled Salmon", "Salmon fillet with seasonal vegetables", "Mains");
+    private final MenuItem pasta = item("Vegetarian Pasta", "Pasta with mixed vegetables in tomato sauce", "Mains");
+    private final MenuItem cremeBrulee = item("Crème Brûlée", "Vanilla custard", "Desserts");
+
+    private final MenuSearchIndex index = new MenuSearchIndex(Arrays.asList(tomatoSoup, chickenSoup, salmon, pasta, cremeBrulee));
+
+    @Test
+    void editDistanceCountsEditsAndAdjacentSwapsOnce() {
+        assertEquals(0, MenuSearchIndex.editDistance("salmon", "salmon", 2));
+        assertEquals(1, MenuSearchIndex.editDistance("salmn", "salmon", 2));
+        assertEquals(1, MenuSearchIndex.editDistance("salmonn", "salmon", 2));
+        assertEquals(1, MenuSearchIndex.editDistance("salman", "salmon", 2));
+        assertEquals(1, MenuSearchIndex.editDistance("samlon", "salmon", 2));
+        assertEquals(2, MenuSearchIndex.editDistance("slamno", "salmon", 2));
+        assertEquals(3, MenuSearchIndex.editDistance("kitten", "sitting", 5));
+    }
+
+    @Test
+    void editDistanceStopsAtTheLimit() {
+        assertEquals(2, MenuSearchIndex.editDistance("kitten", "sitting", 1));
+        assertEquals(2, MenuSearchIndex.editDistance("soup", "soupbowl", 1));
+        assertEquals(3, MenuSearchIndex.editDistance("", "abc", 5));
+    }
+
+    @Test
+    void prefixEditDistanceComparesWithTheStartOfTheCandidate() {
+        assertEquals(0, MenuSearchIndex.prefixEditDistance("salm", "salmon", 1));
+        assertEquals(1, MenuSearchIndex.prefixEditDistance("slam", "salmon", 1));
+        assertEquals(1, MenuSearchIndex.prefixEditDistance("salmo", "salon", 1));
+        assertEquals(2, MenuSearchIndex.prefixEditDistance("xyzw", "salmon", 1));
+    }
+
+    @Test
+    void exactNameMatchesRankShorterNamesFirst() {
+        assertEquals(Arrays.asList(tomatoSoup, chickenSoup), index.search("soup", 10));
+        assertEquals(Collections.singletonList(tomatoSoup), index.search("soup", 1));
+    }
+
+    @Test
+    void nameMatchesRankBeforeDescriptionMatches() {
+        assertEquals(Arrays.asList(tomatoSoup, pasta), index.search("tomato", 10));
+    }
+
+    @Test
+    void lastTokenMatchesAsPrefixUnlessFollowedBySpace() {
+        assertEquals(Collections.singletonList(salmon), index.search("Gri", 10));
+        assertEquals(Collections.emptyList(), index.search("Gri ", 10));
+    }
+
+    @Test
+    void typosAndAccentsStillMatch() {
+        assertEquals(Collections.singletonList(salmon), index.search("samlon ", 10));
+        assertEquals(Collections.singletonList(salmon), index.search("grilld salm", 10));
+        assertEquals(Collections.singletonList(cremeBrulee), index.search("creme brulee", 10));
+    }
+
+    @Test
+    void everyQueryTokenMustMatch() {
+        assertEquals(Collections.singletonList(pasta), index.search("tomato pasta", 10));
+        assertEquals(Collections.emptyList(), index.search("salmon custard", 10));
+    }
+
+    @Test
+    void blankQueryOrZeroLimitFindsNothing() {
+        List<MenuItem> none = Collections.emptyList();
+        assertEquals(none, index.search("   ", 10));
+        assertEquals(none, index.search("soup", 0));
+    }
+
+    private static MenuItem item(String name, String description, String category) {
+        return new MenuItem(name, description, new BigDecimal("9.00"), category);
+    }
+}
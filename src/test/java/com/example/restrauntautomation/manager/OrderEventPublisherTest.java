@@ -0,0 +1,54 @@
+package com.example.restrauntautomation.manager;
+
+import com.example.restrauntautomation.model.Order;
+import com.example.restrauntautomation.model.OrderEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class OrderEventPublisherTest {
+
+    @Test
+    void subscriberIsToldOfEveryEventDroppedForIt() {
+        List<OrderEvent> dropped = new CopyOnWriteArrayList<>();
+        try (OrderEventPublisher publisher = new OrderEventPublisher(1)) {
+            publisher.subscribe(new OrderEventSubscriber() {
+                @Override
+                public void onEventDropped(OrderEvent event) {
+                    dropped.add(event);
+                }
+
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    // Never requests, so its buffer fills up
+                }
+
+                @Override
+                public void onNext(OrderEvent item) {
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                }
+
+                @Override
+                public void onComplete() {
+                }
+            });
+
+            for (int i = 1; i <= 20; i++) {
+                publisher.orderRemoved(new Order(i, 1, "W001", LocalDateTime.now(), Order.OrderStatus.SERVED));
+            }
+        }
+
+        assertFalse(dropped.isEmpty());
+        assertEquals(OrderEvent.Type.REMOVED, dropped.get(0).getType());
+        assertEquals(20L, dropped.get(dropped.size() - 1).getOrder().getOrderId());
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.restrauntautomation.manager;
+
+import com.example.restrauntautomation.model.Order;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderQueueManagerTest {
+
+    @Test
+    void clearQueueNotifiesListenersOfEveryClearedOrder() {
+        OrderQueueManager queue = new OrderQueueManager();
+        List<Order> removed = new ArrayList<>();
+        queue.addListener(new OrderQueueListener() {
+            @Override
+            public void ordersAdded(List<Order> orders) {
+            }
+
+            @Override
+            public void orderRemoved(Order order) {
+                removed.add(order);
+            }
+        });
+        Order first = new Order(1, "W001");
+        Order second = new Order(2, "W002");
+        queue.addOrder(first);
+        queue.addOrder(second);
+
+        List<Order> cleared = queue.clearQueue();
+
+        assertEquals(Arrays.asList(first, second), cleared);
+        assertEquals(cleared, removed);
+        assertTrue(queue.isEmpty());
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.restrauntautomation.manager;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class P2QuantileTest {
+
+    @Test
+    void estimateIsTheExactMiddleMarkerOnceFiveObservationsArrive() {
+        EtaEstimator.P2Quantile quantile = new EtaEstimator.P2Quantile(0.5);
+        double[] first = {9, 1, 7, 3, 5};
+        for (int i = 0; i < first.length - 1; i++) {
+            quantile.add(first[i]);
+            assertTrue(Double.isNaN(quantile.value()));
+        }
+        quantile.add(first[first.length - 1]);
+
+        assertEquals(5.0, quantile.value());
+    }
+
+    @Test
+    void constantStreamStaysAtThatValue() {
+        EtaEstimator.P2Quantile quantile = new EtaEstimator.P2Quantile(0.9);
+        for (int i = 0; i < 1_000; i++) {
+            quantile.add(42.0);
+        }
+
+        assertEquals(42.0, quantile.value());
+    }
+
+    @Test
+    void tracksQuantilesOfAShuffledUniformStream() {
+        List<Double> values = new ArrayList<>();
+        for (int i = 1; i <= 10_000; i++) {
+            values.add((double) i);
+        }
+        Collections.shuffle(values, new Random(7));
+        EtaEstimator.P2Quantile median = new EtaEstimator.P2Quantile(0.5);
+        EtaEstimator.P2Quantile p90 = new EtaEstimator.P2Quantile(0.9);
+        for (double value : values) {
+            median.add(value);
+            p90.add(value);
+        }
+
+        assertEquals(5_000, median.value(), 100);
+        assertEquals(9_000, p90.value(), 100);
+    }
+
+    @Test
+    void tracksTheTailOfASkewedStream() {
+        // Prep times are right-skewed: mostly quick, with a long tail
+        Random random = new Random(11);
+        double[] values = new double[20_000];
+        EtaEstimator.P2Quantile p90 = new EtaEstimator.P2Quantile(0.9);
+        for (int i = 0; i < values.length; i++) {
+            values[i] = -Math.log(1 - random.nextDouble()) * 600_000; // Exponential, mean 10 minutes
+            p90.add(values[i]);
+        }
+        Arrays.sort(values);
+        double exact = values[(int) (0.9 * values.length)];
+
+        assertEquals(exact, p90.value(), exact * 0.03);
+    }
+
+    @Test
+    void followsADriftingStream() {
+        // The kitchen slows down: every value after the first thousand is larger than all before it
+        EtaEstimator.P2Quantile p90 = new EtaEstimator.P2Quantile(0.9);
+        for (int i = 0; i < 1_000; i++) {
+            p90.add(100 + i % 10);
+        }
+        for (int i = 0; i < 9_000; i++) {
+            p90.add(1_000 + i % 10);
+        }
+
+        assertTrue(p90.value() >= 1_000 && p90.value() <= 1_010, "Estimate " + p90.value());
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.restrauntautomation.manager;
+
+import com.example.restrauntautomation.model.Order;
+import com.example.restrauntautomation.model.StaffLoad;
+import com.example.restrauntautomation.model.WaitStaff;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StaffAssignmentEngineTest {
+
+    private static final int FLOORS = 3;
+    private static final int SERVERS_PER_FLOOR = 300;
+    private static final Comparator<StaffLoad> RANKING = Comparator.comparingInt(StaffLoad::getTables)
+            .thenComparingInt(StaffLoad::getOpenOrders)
+            .thenComparingLong(StaffLoad::getTipShareCents)
+            .thenComparing(StaffLoad::getStaffId);
+
+    @Test
+    void autoAssignSpreadsTablesEvenlyOverAFloor() {
+        StaffAssignmentEngine engine = new StaffAssignmentEngine();
+        for (int i = 0; i < SERVERS_PER_FLOOR; i++) {
+            engine.addServer(new WaitStaff(staffId(0, i), "Server " + i), 0);
+        }
+
+        for (int table = 1; table <= 3 * SERVERS_PER_FLOOR; table++) {
+            engine.autoAssign(table, 0);
+        }
+
+        for (StaffLoad load : engine.getLoads(0)) {
+            assertEquals(3, load.getTables(), load.getStaffId());
+        }
+        assertNull(engine.recommend(1));
+        assertNull(engine.autoAssign(10_000, 1));
+    }
+
+    @Test
+    void tipShareBreaksTiesBetweenEquallyBusyServers() {
+        StaffAssignmentEngine engine = new StaffAssignmentEngine();
+        engine.addServer(new WaitStaff("W001", "Ann"), 0);
+        engine.addServer(new WaitStaff("W002", "Bob"), 0);
+        assertEquals("W001", engine.recommend(0));
+
+        engine.recordTip("W001", 500);
+
+        assertEquals("W002", engine.recommend(0));
+        assertEquals(500L, engine.getLoad("W001").getTipShareCents());
+        assertThrows(IllegalArgumentException.class, () -> engine.recordTip("W001", -1));
+        assertThrows(IllegalArgumentException.class, () -> engine.recordTip("W999", 1));
+    }
+
+    @Test
+    void removingAServerUnassignsTheirTables() {
+        StaffAssignmentEngine engine = new StaffAssignmentEngine();
+        engine.addServer(new WaitStaff("W001", "Ann"), 0);
+        engine.addServer(new WaitStaff("W002", "Bob"), 1);
+        engine.assignTable(4, "W001");
+        engine.ordersAdded(Collections.singletonList(order(5, "W002")));
+
+        assertTrue(engine.removeServer("W001"));
+
+        assertNull(engine.getServerOf(4));
+        assertEquals("W002", engine.getServerOf(5)); // Queuing an order for an unassigned table assigns it
+        assertFalse(engine.removeServer("W001"));
+        assertThrows(IllegalArgumentException.class, () -> engine.addServer(new WaitStaff("W002", "Bob"), 0));
+    }
+
+    @Test
+    void recommendationMatchesAFullScanThroughRandomLoadChanges() {
+        StaffAssignmentEngine engine = new StaffAssignmentEngine();
+        Random random = new Random(46);
+        Map<String, Integer> floorOf = new HashMap<>();
+        List<String> working = new ArrayList<>();
+        for (int floor = 0; floor < FLOORS; floor++) {
+            for (int i = 0; i < SERVERS_PER_FLOOR; i++) {
+                String staffId = staffId(floor, i);
+                engine.addServer(new WaitStaff(staffId, "Server " + staffId), floor);
+                floorOf.put(staffId, floor);
+                working.add(staffId);
+            }
+        }
+        List<Order> open = new ArrayList<>();
+        long nextOrderId = 1;
+
+        for (int step = 0; step < 20_000; step++) {
+            String staffId = working.get(random.nextInt(working.size()));
+            int operation = random.nextInt(100);
+            if (operation < 35) {
+                Order order = new Order(nextOrderId++, 1 + random.nextInt(2_000), staffId,
+                        LocalDateTime.of(2024, 5, 1, 19, 0), Order.OrderStatus.PLACED);
+                open.add(order);
+                engine.ordersAdded(Collections.singletonList(order));
+            } else if (operation < 65 && !open.isEmpty()) {
+                engine.orderRemoved(open.remove(random.nextInt(open.size())));
+            } else if (operation < 75) {
+                engine.assignTable(1 + random.nextInt(2_000), staffId);
+            } else if (operation < 85) {
+                engine.releaseTable(1 + random.nextInt(2_000));
+            } else if (operation < 95) {
+                engine.recordTip(staffId, random.nextInt(2_000));
+            } else if (operation < 97) {
+                assertTrue(engine.removeServer(staffId));
+                working.remove(staffId);
+            } else {
+                String newcomer = "N" + step;
+                int floor = random.nextInt(FLOORS);
+                engine.addServer(new WaitStaff(newcomer, "Newcomer " + step), floor);
+                floorOf.put(newcomer, floor);
+                working.add(newcomer);
+            }
+
+            int floor = random.nextInt(FLOORS);
+            StaffLoad expected = leastLoaded(engine, working, floorOf, floor);
+            assertEquals(expected == null ? null : expected.getStaffId(), engine.recommend(floor), "step " + step);
+        }
+
+        for (int floor = 0; floor < FLOORS; floor++) {
+            List<StaffLoad> loads = engine.getLoads(floor);
+            for (int i = 1; i < loads.size(); i++) {
+                assertTrue(RANKING.compare(loads.get(i - 1), loads.get(i)) < 0, "floor " + floor + " rank " + i);
+            }
+            assertEquals(loads.isEmpty() ? null : loads.get(0).getStaffId(), engine.recommend(floor));
+        }
+    }
+
+    /**
+     * Finds the least-loaded server on a floor by comparing every working server.
+     */
+    private static StaffLoad leastLoaded(StaffAssignmentEngine engine, List<String> working, Map<String, Integer> floorOf, int floor) {
+        StaffLoad best = null;
+        for (String staffId : working) {
+            if (floorOf.get(staffId) == floor) {
+                StaffLoad load = engine.getLoad(staffId);
+                if (best == null || RANKING.compare(load, best) < 0) {
+                    best = load;
+                }
+            }
+        }
+        return best;
+    }
+
+    private static String staffId(int floor, int index) {
+        return String.format("F%dW%03d", floor, index);
+    }
+
+    private static Order order(int tableNumber, String staffId) {
+        return new Order(tableNumber, tableNumber, staffId, LocalDateTime.of(2024, 5, 1, 19, 0), Order.OrderStatus.PLACED);
+    }
+}
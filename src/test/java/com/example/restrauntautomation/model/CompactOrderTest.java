@@ -0,0 +1,120 @@
+package com.example.restrauntautomation.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompactOrderTest {
+
+    private static final LocalDateTime PLACED = LocalDateTime.of(2024, 5, 1, 18, 30, 15, 250_000_000);
+
+    private final MenuItem soup = new MenuItem("Soup", "Tomato soup", new BigDecimal("4.50"), "Starters");
+    private final MenuItem steak = new MenuItem("Steak", "Ribeye", new BigDecimal("21.00"), "Mains");
+    private final List<MenuItem> menu = new ArrayList<>(Arrays.asList(soup, steak));
+    private final AtomicInteger lookups = new AtomicInteger();
+    private final IntFunction<MenuItem> catalog = id -> {
+        lookups.incrementAndGet();
+        return id >= 0 && id < menu.size() ? menu.get(id) : null;
+    };
+
+    @Test
+    void roundTripKeepsOrderFieldsLinesModifiersAndDiscount() {
+        Order order = new Order(77, 4, "W003", PLACED, Order.OrderStatus.SERVED);
+        List<Modifier> modifiers = Arrays.asList(new Modifier("Extra sauce", 150), new Modifier("Medium rare", 0));
+        order.addItem(steak, 2, modifiers);
+        order.addItem(soup, 3);
+        order.setDiscountCents(250);
+
+        CompactOrder compact = CompactOrder.of(order, menu::indexOf, catalog);
+
+        assertEquals(77, compact.getOrderId());
+        assertEquals(4, compact.getTableNumber());
+        assertEquals("W003", compact.getWaitStaffId());
+        assertEquals(PLACED, compact.getOrderTime());
+        assertEquals(Order.OrderStatus.SERVED, compact.getStatus());
+        assertEquals(250, compact.getDiscountCents());
+        assertEquals(2, compact.getLineCount());
+        assertEquals(1, compact.getItemId(0));
+        assertEquals(2, compact.getQuantity(0));
+        assertEquals(2 * (2100 + 150), compact.getAmountCents(0));
+        assertEquals(modifiers, compact.getModifiers(0));
+        assertTrue(compact.getModifiers(1).isEmpty());
+        assertEquals(order.getItems(), compact.getItems());
+        assertEquals(order.getTotalPrice(), compact.getTotalPrice());
+        assertEquals(new BigDecimal("56.00"), compact.getTotalPrice()); // 2 x 22.50 + 3 x 4.50 - 2.50
+        assertThrows(IndexOutOfBoundsException.class, () -> compact.getAmountCents(2));
+    }
+
+    @Test
+    void toOrderExpandsBackIntoAnEqualOrder() {
+        Order order = new Order(78, 6, "W001", PLACED, Order.OrderStatus.PAID);
+        order.addItem(steak, 1, Collections.singletonList(new Modifier("Well done", 0)));
+        order.addItem(soup, 2);
+        order.setDiscountCents(100);
+
+        Order expanded = CompactOrder.of(order, menu::indexOf, catalog).toOrder();
+
+        assertNotSame(order, expanded);
+        assertEquals(order.getOrderId(), expanded.getOrderId());
+        assertEquals(order.getTableNumber(), expanded.getTableNumber());
+        assertEquals(order.getWaitStaffId(), expanded.getWaitStaffId());
+        assertEquals(order.getOrderTime(), expanded.getOrderTime());
+        assertEquals(Order.OrderStatus.PAID, expanded.getStatus());
+        assertEquals(order.getItems(), expanded.getItems());
+        assertEquals(100, expanded.getDiscountCents());
+        assertEquals(order.getTotalPrice(), expanded.getTotalPrice());
+    }
+
+    @Test
+    void itemsAreOnlyResolvedWhenAskedForAndNotCached() {
+        Order order = new Order(78, 4, "W003", PLACED, Order.OrderStatus.SERVED);
+        order.addItem(soup, 1);
+        order.addItem(steak, 1, Collections.singletonList(new Modifier("No salt", 0)));
+
+        CompactOrder compact = CompactOrder.of(order, menu::indexOf, catalog);
+        compact.getTotalPrice();
+        assertEquals(0, lookups.get());
+
+        List<OrderItem> first = compact.getItems();
+        List<OrderItem> second = compact.getItems();
+
+        assertEquals(4, lookups.get());
+        assertNotSame(first, second);
+        assertSame(soup, first.get(0).getMenuItem());
+        assertEquals(order.getItems(), second);
+        assertThrows(UnsupportedOperationException.class, () -> first.add(new OrderItem(soup, 1)));
+    }
+
+    @Test
+    void totalIsTheAmountPlacedEvenAfterTheMenuIsRepriced() {
+        Order order = new Order(79, 4, "W003", PLACED, Order.OrderStatus.SERVED);
+        order.addItem(steak, 1);
+        CompactOrder compact = CompactOrder.of(order, menu::indexOf, catalog);
+
+        menu.set(1, new MenuItem("Steak", "Ribeye", new BigDecimal("24.00"), "Mains"));
+
+        assertEquals(new BigDecimal("21.00"), compact.getTotalPrice());
+        assertEquals(2100, compact.getAmountCents(0));
+    }
+
+    @Test
+    void itemsWithoutCatalogIdAreRejected() {
+        Order order = new Order(80, 4, "W003", PLACED, Order.OrderStatus.SERVED);
+        order.addItem(new MenuItem("Special", "Off the menu", new BigDecimal("9.00"), "Mains"), 1);
+
+        assertThrows(IllegalArgumentException.class, () -> CompactOrder.of(order, menu::indexOf, catalog));
+    }
+}
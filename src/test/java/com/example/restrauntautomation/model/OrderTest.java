@@ -0,0 +1,87 @@
+package com.example.restrauntautomation.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OrderTest {
+
+    private static final LocalDateTime PLACED = LocalDateTime.of(2024, 5, 1, 18, 30);
+
+    private final MenuItem soup = new MenuItem("Soup", "Tomato soup", new BigDecimal("4.50"), "Starters");
+    private final MenuItem steak = new MenuItem("Steak", "Ribeye", new BigDecimal("21.00"), "Mains");
+    private final Modifier sauce = new Modifier("Extra sauce", 150);
+    private final Modifier rare = new Modifier("Rare", 0);
+
+    @Test
+    void addItemsMergesLinesForTheSameItemWithinTheBatchAndWithTheOrder() {
+        Order order = order();
+        order.addItem(soup, 1);
+
+        order.addItems(Arrays.asList(new OrderItem(steak, 1), new OrderItem(soup, 2), new OrderItem(steak, 3)));
+
+        assertEquals(2, order.getItemCount());
+        assertSame(soup, order.getItem(0).getMenuItem());
+        assertEquals(3, order.getItem(0).getQuantity());
+        assertSame(steak, order.getItem(1).getMenuItem());
+        assertEquals(4, order.getItem(1).getQuantity());
+        assertEquals(3 * 450 + 4 * 2100, order.getSubtotalCents());
+    }
+
+    @Test
+    void addItemsMergesModifiedLinesOnlyWithTheSameModifiers() {
+        Order order = order();
+        order.addItem(steak, 1, Arrays.asList(sauce, rare));
+
+        order.addItems(Arrays.asList(
+                new OrderItem(steak, 2, Arrays.asList(rare, sauce)), // Same modifiers in another order
+                new OrderItem(steak, 1, Collections.singletonList(rare)),
+                new OrderItem(steak, 1)));
+
+        assertEquals(3, order.getItemCount());
+        assertEquals(3, order.getItem(0).getQuantity());
+        assertEquals(Collections.singletonList(rare), order.getItem(1).getModifiers());
+        assertEquals(1, order.getItem(1).getQuantity());
+        assertEquals(Collections.emptyList(), order.getItem(2).getModifiers());
+        assertEquals(3 * 2250 + 2100 + 2100, order.getSubtotalCents());
+    }
+
+    @Test
+    void addItemsDoesNotShareTheCallersLines() {
+        Order order = order();
+        OrderItem line = new OrderItem(soup, 2);
+        OrderItem modified = new OrderItem(steak, 1, Collections.singletonList(sauce));
+        List<OrderItem> batch = Arrays.asList(line, modified);
+
+        order.addItems(batch);
+        order.addItems(batch);
+
+        assertEquals(4, order.getItem(0).getQuantity());
+        assertEquals(2, order.getItem(1).getQuantity());
+        assertEquals(2, line.getQuantity());
+        assertEquals(1, modified.getQuantity());
+    }
+
+    @Test
+    void aNullLineLeavesTheOrderUnchanged() {
+        Order order = order();
+        order.addItem(soup, 1);
+
+        assertThrows(NullPointerException.class, () -> order.addItems(Arrays.asList(new OrderItem(steak, 1), null)));
+
+        assertEquals(1, order.getItemCount());
+        assertEquals(450, order.getSubtotalCents());
+    }
+
+    private static Order order() {
+        return new Order(1, 5, "W001", PLACED, Order.OrderStatus.PLACED);
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.restrauntautomation.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SnowflakeOrderIdGeneratorTest {
+
+    private static final long NOW = Instant.parse("2024-05-01T18:00:00Z").toEpochMilli();
+
+    private final AtomicLong clock = new AtomicLong(NOW);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void idsAreUniqueAcrossMoreThreadsThanLanesAndIncreasePerThread() throws Exception {
+        SnowflakeOrderIdGenerator generator = new SnowflakeOrderIdGenerator(42);
+        int threads = 40; // More than the 16 lanes, so lanes are shared
+        int idsPerThread = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<long[]>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(executor.submit(() -> {
+                    long[] ids = new long[idsPerThread];
+                    for (int i = 0; i < ids.length; i++) {
+                        ids[i] = generator.nextId();
+                    }
+                    return ids;
+                }));
+            }
+            Set<Long> unique = new HashSet<>();
+            for (Future<long[]> result : results) {
+                long[] ids = result.get();
+                for (int i = 0; i < ids.length; i++) {
+                    assertTrue(i == 0 || ids[i] > ids[i - 1], "IDs of one thread must increase");
+                    assertEquals(42, SnowflakeOrderIdGenerator.nodeIdOf(ids[i]));
+                    unique.add(ids[i]);
+                }
+            }
+            assertEquals(threads * idsPerThread, unique.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void idsStayAboveThePersistedHighWaterMarkAfterARestart() {
+        Path state = directory.resolve("order-id.state");
+        SnowflakeOrderIdGenerator before = new SnowflakeOrderIdGenerator(1, state, clock::get);
+        long last = 0;
+        for (int i = 0; i < 1000; i++) {
+            last = before.nextId();
+        }
+
+        clock.set(NOW - 3_600_000); // Restarted with the clock an hour behind
+        SnowflakeOrderIdGenerator after = new SnowflakeOrderIdGenerator(1, state, clock::get);
+
+        long first = after.nextId();
+        assertTrue(first > last);
+        assertTrue(SnowflakeOrderIdGenerator.timestampMillisOf(first) > NOW); // Past the reservation, not the clock
+    }
+
+    @Test
+    void idsKeepIncreasingWhenTheClockStepsBack() {
+        SnowflakeOrderIdGenerator generator = new SnowflakeOrderIdGenerator(1, null, clock::get);
+        long previous = generator.nextId();
+        clock.addAndGet(-5_000);
+        for (int i = 0; i < 2000; i++) {
+            long id = generator.nextId();
+            assertTrue(id > previous);
+            previous = id;
+        }
+        clock.set(NOW + 1);
+        assertTrue(generator.nextId() > previous);
+    }
+
+    @Test
+    void exhaustedSequenceBorrowsTheNextMillisecond() {
+        SnowflakeOrderIdGenerator generator = new SnowflakeOrderIdGenerator(1, null, clock::get);
+        long previous = -1;
+        for (int i = 0; i < 256; i++) {
+            long id = generator.nextId();
+            assertTrue(id > previous);
+            assertEquals(NOW, SnowflakeOrderIdGenerator.timestampMillisOf(id));
+            previous = id;
+        }
+
+        long borrowed = generator.nextId(); // Still the same millisecond on the clock
+
+        assertTrue(borrowed > previous);
+        assertEquals(NOW + 1, SnowflakeOrderIdGenerator.timestampMillisOf(borrowed));
+    }
+
+    @Test
+    void embeddedTimeRoundTripsThroughMinIdAt() {
+        SnowflakeOrderIdGenerator generator = new SnowflakeOrderIdGenerator(SnowflakeOrderIdGenerator.MAX_NODE_ID, null, clock::get);
+        long id = generator.nextId();
+
+        assertEquals(NOW, SnowflakeOrderIdGenerator.timestampMillisOf(id));
+        assertEquals(NOW, SnowflakeOrderIdGenerator.timestampMillisOf(SnowflakeOrderIdGenerator.minIdAt(NOW)));
+        assertTrue(SnowflakeOrderIdGenerator.minIdAt(NOW) <= id);
+        assertTrue(id < SnowflakeOrderIdGenerator.minIdAt(NOW + 1));
+        assertEquals(0, SnowflakeOrderIdGenerator.minIdAt(SnowflakeOrderIdGenerator.EPOCH_MILLIS - 1));
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeOrderIdGenerator(SnowflakeOrderIdGenerator.MAX_NODE_ID + 1));
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.restrauntautomation.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.Reference;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Heap footprint of orders whose staff IDs are interned in {@link StringDictionary#STAFF_IDS}, and the cost
+ * of comparing staff by code rather than by string. Orders are built from distinct staff ID strings, as a
+ * decoder or database read produces them; the dictionary collapses them into 25 shared instances, and the
+ * per-order string copies that orders held before are measured separately for comparison.
+ * Run with {@code mvn -Pbenchmark test}.
+ */
+class StringDictionaryBenchmark {
+
+    private static final int ORDERS = 200_000;
+    private static final int STAFF = 25;
+    private static final int COMPARE_ROUNDS = 50;
+
+    @Test
+    void retainedBytesPerOrder() {
+        List<MenuItem> menu = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            menu.add(new MenuItem("Item " + i, "Description of item " + i, new BigDecimal("9.50"), "Category " + (i % 6)));
+        }
+        ToIntFunction<MenuItem> itemIds = item -> Integer.parseInt(item.getName().substring(5));
+        IntFunction<MenuItem> catalog = menu::get;
+        LocalDateTime start = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+        long before = usedHeap();
+        Order[] orders = new Order[ORDERS];
+        for (int i = 0; i < ORDERS; i++) {
+            orders[i] = new Order(i + 1, 1 + i % 40, staffIdCopy(i), start.plusSeconds(i), Order.OrderStatus.SERVED);
+            for (int line = 0; line < 4; line++) {
+                orders[i].addItem(menu.get((i * 7 + line * 11) % menu.size()), 1 + line % 2);
+            }
+        }
+        long orderBytes = usedHeap() - before;
+
+        before = usedHeap();
+        CompactOrder[] compact = new CompactOrder[ORDERS];
+        for (int i = 0; i < ORDERS; i++) {
+            compact[i] = CompactOrder.of(orders[i], itemIds, catalog);
+        }
+        long compactBytes = usedHeap() - before;
+
+        before = usedHeap();
+        String[] copies = new String[ORDERS];
+        for (int i = 0; i < ORDERS; i++) {
+            copies[i] = staffIdCopy(i);
+        }
+        long copyBytes = usedHeap() - before;
+
+        assertEquals(STAFF, distinctStaffInstances(orders));
+        System.out.printf("StringDictionary: Order %.1f bytes, CompactOrder %.1f bytes retained per order; "
+                        + "a per-order staff ID copy would add %.1f bytes%n",
+                (double) orderBytes / ORDERS, (double) compactBytes / ORDERS, (double) copyBytes / ORDERS);
+        Reference.reachabilityFence(orders); // Every measured set stays live until all were measured
+        Reference.reachabilityFence(compact);
+        Reference.reachabilityFence(copies);
+    }
+
+    @Test
+    void staffComparisonByCodeAndByString() {
+        Order[] orders = new Order[ORDERS];
+        for (int i = 0; i < ORDERS; i++) {
+            orders[i] = new Order(i + 1, 1 + i % 40, staffIdCopy(i), LocalDateTime.of(2024, 5, 1, 12, 0), Order.OrderStatus.PLACED);
+        }
+        String staffId = new String("W" + 7); // Not the interned instance, as when read from a form or a request
+        int staffCode = StringDictionary.STAFF_IDS.lookup(staffId);
+
+        long codeMatches = 0;
+        long stringMatches = 0;
+        long codeNanos = 0;
+        long stringNanos = 0;
+        for (int round = 0; round < 2 * COMPARE_ROUNDS; round++) {
+            boolean measured = round >= COMPARE_ROUNDS; // The first half warms up
+            long t0 = System.nanoTime();
+            for (Order order : orders) {
+                if (order.getWaitStaffCode() == staffCode) {
+                    codeMatches++;
+                }
+            }
+            long t1 = System.nanoTime();
+            for (Order order : orders) {
+                if (order.getWaitStaffId().equals(staffId)) {
+                    stringMatches++;
+                }
+            }
+            long t2 = System.nanoTime();
+            if (measured) {
+                codeNanos += t1 - t0;
+                stringNanos += t2 - t1;
+            }
+        }
+
+        assertEquals(codeMatches, stringMatches);
+        long compared = (long) ORDERS * COMPARE_ROUNDS;
+        System.out.printf("StringDictionary: staff match by code %.2f ns/order, by string %.2f ns/order%n",
+                (double) codeNanos / compared, (double) stringNanos / compared);
+    }
+
+    /**
+     * Builds a fresh copy of an order's staff ID, as if it had just been decoded.
+     *
+     * @param order The order index.
+     * @return A new String instance.
+     */
+    private static String staffIdCopy(int order) {
+        return new String("W" + (order % STAFF));
+    }
+
+    /**
+     * Counts the distinct staff ID instances held by the orders.
+     *
+     * @param orders The orders.
+     * @return The number of distinct instances.
+     */
+    private static int distinctStaffInstances(Order[] orders) {
+        Set<String> instances = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Order order : orders) {
+            instances.add(order.getWaitStaffId());
+        }
+        return instances.size();
+    }
+
+    /**
+     * Measures the used heap after asking for a few collections.
+     *
+     * @return The used heap in bytes.
+     */
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
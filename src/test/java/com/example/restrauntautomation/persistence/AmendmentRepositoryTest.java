@@ -0,0 +1,99 @@
+package com.example.restrauntautomation.persistence;
+
+import com.example.restrauntautomation.audit.AmendmentLog;
+import com.example.restrauntautomation.audit.OrderAmendment;
+import com.example.restrauntautomation.manager.MenuManager;
+import com.example.restrauntautomation.model.Modifier;
+import com.example.restrauntautomation.model.Order;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AmendmentRepositoryTest {
+
+    private static final LocalDateTime PLACED = LocalDateTime.of(2024, 5, 1, 18, 0);
+    private static final Instant NOW = Instant.parse("2024-05-01T18:05:00Z");
+
+    private final MenuManager menuManager = new MenuManager();
+    private SqlDatabase database;
+
+    @BeforeEach
+    void openDatabase() throws SQLException {
+        database = new SqlDatabase("jdbc:h2:mem:" + getClass().getSimpleName() + System.nanoTime());
+    }
+
+    @AfterEach
+    void closeDatabase() {
+        database.close();
+    }
+
+    @Test
+    void storedLogIsRestoredAfterARestart() throws SQLException, InterruptedException {
+        AmendmentLog log = new AmendmentLog(Clock.fixed(NOW, ZoneOffset.UTC));
+        log.addListener(new AmendmentRepository(database, menuManager));
+        Order voided = order(1);
+        Order repriced = order(2);
+        log.ordersAdded(List.of(voided, repriced));
+        log.addItem(repriced, "W002", menuManager.getMenuItemById(1), 2, Collections.singletonList(new Modifier("No ice", 0)));
+        log.changeDiscount(repriced, "PRICING", 250);
+        log.voidOrder(voided, "W003", "Wrong table");
+        assertTrue(database.flush(5, TimeUnit.SECONDS));
+
+        AmendmentLog restarted = new AmendmentLog();
+        AmendmentRepository repository = new AmendmentRepository(database, menuManager);
+        restarted.restore(repository.findAmendmentsSince(NOW.toEpochMilli()));
+        restarted.addListener(repository);
+
+        assertEquals(log.size(), restarted.size());
+        assertEquals(Order.OrderStatus.CANCELLED, restarted.replay(1).getStatus());
+        assertEquals("Wrong table", restarted.getAmendments(1).get(1).getReason());
+        Order replayed = restarted.replay(2);
+        assertEquals(repriced.getItems(), replayed.getItems());
+        assertEquals(250L, replayed.getDiscountCents());
+        assertEquals(PLACED, replayed.getOrderTime());
+        assertEquals("W002", restarted.getAmendments(2).get(1).getStaffId());
+
+        // Entries appended after the restart continue the stored IDs instead of overwriting them
+        restarted.changeDiscount(repriced, "PRICING", 0);
+        assertTrue(database.flush(5, TimeUnit.SECONDS));
+        List<OrderAmendment> stored = repository.findAmendmentsSince(0);
+        assertEquals(6, stored.size());
+        assertEquals(OrderAmendment.Type.DISCOUNT_CHANGED, stored.get(5).getType());
+    }
+
+    @Test
+    void onlyOrdersAmendedSinceTheCutoffAreLoadedWithTheirWholeHistory() throws SQLException, InterruptedException {
+        AmendmentRepository repository = new AmendmentRepository(database, menuManager);
+        repository.save(OrderAmendment.of(OrderAmendment.Type.PLACED, 1, "W001", 1_000, 4, PLACED, order(1).getItems(), 0, null));
+        repository.save(OrderAmendment.of(OrderAmendment.Type.PLACED, 2, "W001", 2_000, 5, PLACED, order(2).getItems(), 0, null));
+        repository.save(OrderAmendment.of(OrderAmendment.Type.DISCOUNT_CHANGED, 2, "PRICING", 9_000, 0, null,
+                Collections.emptyList(), 100, null));
+        assertTrue(database.flush(5, TimeUnit.SECONDS));
+
+        List<OrderAmendment> loaded = repository.findAmendmentsSince(5_000);
+
+        assertEquals(2, loaded.size());
+        assertEquals(2L, loaded.get(0).getOrderId());
+        assertEquals(OrderAmendment.Type.PLACED, loaded.get(0).getType());
+        assertEquals(1, loaded.get(0).getLines().size());
+        assertEquals(100L, loaded.get(1).getAmountCents());
+    }
+
+    private Order order(long orderId) {
+        Order order = new Order(orderId, 4, "W001", PLACED, Order.OrderStatus.PLACED);
+        order.addItem(menuManager.getMenuItemById(0), 1);
+        return order;
+    }
+}
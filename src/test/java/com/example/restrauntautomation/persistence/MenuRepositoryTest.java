@@ -0,0 +1,64 @@
+package com.example.restrauntautomation.persistence;
+
+import com.example.restrauntautomation.manager.MenuManager;
+import com.example.restrauntautomation.model.MenuItem;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MenuRepositoryTest {
+
+    private SqlDatabase database;
+    private MenuRepository repository;
+
+    @BeforeEach
+    void openDatabase() throws SQLException {
+        database = new SqlDatabase("jdbc:h2:mem:" + getClass().getSimpleName() + System.nanoTime());
+        repository = new MenuRepository(database);
+    }
+
+    @AfterEach
+    void closeDatabase() {
+        database.close();
+    }
+
+    @Test
+    void firstLoadStoresTheDefaultMenu() throws SQLException, InterruptedException {
+        MenuManager first = MenuManager.load(repository);
+        assertTrue(database.flush(5, TimeUnit.SECONDS));
+
+        assertEquals(first.getMenuItemCount(), repository.findAll().size());
+        MenuManager reloaded = MenuManager.load(repository);
+        assertEquals(first.getMenuItemCount(), reloaded.getMenuItemCount());
+        for (int id = 0; id < first.getMenuItemCount(); id++) {
+            assertEquals(first.getMenuItemById(id).getName(), reloaded.getMenuItemById(id).getName());
+            assertEquals(first.getMenuItemById(id).getPrice(), reloaded.getMenuItemById(id).getPrice());
+        }
+    }
+
+    @Test
+    void storedCatalogIsTheMenu() throws InterruptedException {
+        MenuItem special = new MenuItem("Chef's Special", "Ask your server", new BigDecimal("19.50"), "Specials");
+        MenuItem soup = new MenuItem("Tomato Soup", "Classic creamy tomato soup", new BigDecimal("5.00"), "Soups");
+        repository.saveCatalog(new MenuManager(Arrays.asList(special, soup)));
+        assertTrue(database.flush(5, TimeUnit.SECONDS));
+
+        MenuManager menu = MenuManager.load(repository);
+
+        assertEquals(2, menu.getMenuItemCount());
+        assertEquals("Chef's Special", menu.getMenuItemById(0).getName());
+        assertEquals(new BigDecimal("19.50"), menu.getMenuItemById(0).getPrice());
+        assertEquals(1, menu.getMenuItemId(soup));
+        assertNotNull(menu.getCategoryByName("Specials"));
+        assertEquals(1, menu.getCategoryByName("Soups").getItems().size());
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.restrauntautomation.persistence;
+
+import com.example.restrauntautomation.manager.MenuManager;
+import com.example.restrauntautomation.model.Modifier;
+import com.example.restrauntautomation.model.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Write-behind throughput of {@link OrderRepository} against an on-disk H2 database: orders (four lines,
+ * one with a modifier) are queued, then closed, and timed until the writer has committed them all.
+ * Run with {@code mvn -Pbenchmark test}.
+ */
+class OrderRepositoryBenchmark {
+
+    private static final int WARMUP_ORDERS = 20_000;
+    private static final int MEASURED_ORDERS = 50_000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void ordersPerSecond() throws SQLException, InterruptedException {
+        MenuManager menu = new MenuManager();
+        try (SqlDatabase database = new SqlDatabase("jdbc:h2:" + directory.resolve("bench").toAbsolutePath())) {
+            OrderRepository repository = new OrderRepository(database, menu);
+
+            writeOrders(database, repository, menu, 1, WARMUP_ORDERS);
+            long start = System.nanoTime();
+            writeOrders(database, repository, menu, WARMUP_ORDERS + 1, MEASURED_ORDERS);
+            long elapsed = System.nanoTime() - start;
+
+            assertEquals(WARMUP_ORDERS + MEASURED_ORDERS, repository.countOrders());
+            System.out.printf("OrderRepository: %d orders saved and closed, %.0f orders/s%n",
+                    MEASURED_ORDERS, MEASURED_ORDERS * 1e9 / elapsed);
+        }
+    }
+
+    /**
+     * Queues orders and their completion, then waits for the writer to commit them.
+     *
+     * @param database   The database.
+     * @param repository The repository.
+     * @param menu       The menu to order from.
+     * @param firstId    The first order id.
+     * @param count      The number of orders.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    private static void writeOrders(SqlDatabase database, OrderRepository repository, MenuManager menu,
+                                    long firstId, int count) throws InterruptedException {
+        LocalDateTime placed = LocalDateTime.of(2024, 5, 1, 12, 0);
+        for (int i = 0; i < count; i++) {
+            Order order = new Order(firstId + i, 1 + i % 40, "W" + (i % 25), placed.plusSeconds(i), Order.OrderStatus.PLACED);
+            for (int line = 0; line < 3; line++) {
+                order.addItem(menu.getMenuItemById((i + line * 7) % menu.getMenuItemCount()), 1 + line % 2);
+            }
+            order.addItem(menu.getMenuItemById(i % menu.getMenuItemCount()), 1,
+                    Collections.singletonList(new Modifier("Extra cheese", 150)));
+            while (!repository.save(order)) {
+                Thread.sleep(1); // Queue full, let the writer catch up
+            }
+            order.setStatus(Order.OrderStatus.SERVED);
+            while (!repository.saveClosed(order, placed.plusSeconds(i + 900))) {
+                Thread.sleep(1);
+            }
+        }
+        assertTrue(database.flush(2, TimeUnit.MINUTES));
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.restrauntautomation.persistence;
+
+import com.example.restrauntautomation.manager.MenuManager;
+import com.example.restrauntautomation.model.Modifier;
+import com.example.restrauntautomation.model.Order;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderRepositoryTest {
+
+    private static final LocalDateTime PLACED = LocalDateTime.of(2024, 5, 1, 18, 0);
+
+    private final MenuManager menuManager = new MenuManager();
+    private SqlDatabase database;
+    private OrderRepository repository;
+
+    @BeforeEach
+    void openDatabase() throws SQLException {
+        database = new SqlDatabase("jdbc:h2:mem:" + getClass().getSimpleName() + System.nanoTime());
+        repository = new OrderRepository(database, menuManager);
+    }
+
+    @AfterEach
+    void closeDatabase() {
+        database.close();
+    }
+
+    @Test
+    void discountIsStoredAndUpdatedOnClose() throws SQLException, InterruptedException {
+        Order order = new Order(7, 3, "W001", PLACED, Order.OrderStatus.PLACED);
+        order.addItem(menuManager.getMenuItemById(0), 2);
+        order.setDiscountCents(150);
+        assertTrue(repository.save(order));
+        assertTrue(database.flush(5, TimeUnit.SECONDS));
+        assertEquals(150L, repository.findOrdersBetween(PLACED, PLACED.plusHours(1)).get(0).getDiscountCents());
+
+        order.setDiscountCents(0); // Repriced when the happy hour ended
+        order.setStatus(Order.OrderStatus.PAID);
+        assertTrue(repository.saveClosed(order, PLACED.plusMinutes(45)));
+        assertTrue(database.flush(5, TimeUnit.SECONDS));
+
+        List<Order> stored = repository.findOrdersBetween(PLACED, PLACED.plusHours(1));
+        assertEquals(1, stored.size());
+        assertEquals(Order.OrderStatus.PAID, stored.get(0).getStatus());
+        assertEquals(0L, stored.get(0).getDiscountCents());
+        assertEquals(order.getTotalPrice(), stored.get(0).getTotalPrice());
+    }
+
+    @Test
+    void amendedLinesReplaceTheStoredLines() throws SQLException, InterruptedException {
+        Order order = new Order(8, 4, "W001", PLACED, Order.OrderStatus.PLACED);
+        order.addItem(menuManager.getMenuItemById(0), 1);
+        order.addItem(menuManager.getMenuItemById(1), 2, List.of(new Modifier("Extra cheese", 100)));
+        order.addItem(menuManager.getMenuItemById(2), 1);
+        assertTrue(repository.save(order));
+        assertTrue(database.flush(5, TimeUnit.SECONDS));
+
+        order.removeItem(menuManager.getMenuItemById(0));
+        assertTrue(repository.saveLines(order));
+        assertTrue(database.flush(5, TimeUnit.SECONDS));
+
+        Order stored = repository.findOrdersBetween(PLACED, PLACED.plusHours(1)).get(0);
+        assertEquals(order.getItems(), stored.getItems()); // The modifiers moved up a line with their line
+        assertEquals(order.getSubtotalCents(), stored.getSubtotalCents());
+    }
+
+    @Test
+    void onlyTheLatestLinesAreKeptWhenAmendmentsAreQueuedTogether() throws SQLException, InterruptedException {
+        Order order = new Order(9, 5, "W001", PLACED, Order.OrderStatus.PLACED);
+        order.addItem(menuManager.getMenuItemById(0), 1);
+        order.addItem(menuManager.getMenuItemById(1), 1);
+        order.addItem(menuManager.getMenuItemById(2), 1);
+        assertTrue(repository.save(order)); // All queued before the writer runs, so most likely one batch
+        order.addItem(menuManager.getMenuItemById(3), 1, Collections.emptyList());
+        assertTrue(repository.saveLines(order));
+        order.removeItem(menuManager.getMenuItemById(0));
+        order.removeItem(menuManager.getMenuItemById(1));
+        assertTrue(repository.saveLines(order));
+        assertTrue(database.flush(5, TimeUnit.SECONDS));
+
+        Order stored = repository.findOrdersBetween(PLACED, PLACED.plusHours(1)).get(0);
+        assertEquals(order.getItems(), stored.getItems());
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.restrauntautomation.persistence;
+
+import com.example.restrauntautomation.model.WaitStaff;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SqlDatabaseTest {
+
+    private SqlDatabase database;
+
+    @BeforeEach
+    void openDatabase() throws SQLException {
+        database = new SqlDatabase("jdbc:h2:mem:" + getClass().getSimpleName() + System.nanoTime());
+    }
+
+    @AfterEach
+    void closeDatabase() {
+        database.close();
+    }
+
+    @Test
+    void failingWriteDoesNotTakeDownTheRestOfItsBatch() throws SQLException, InterruptedException {
+        WaitStaffRepository repository = new WaitStaffRepository(database);
+        database.enqueue(batch -> {
+            // Hold the writer so the following writes are drained into one batch
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        repository.saveAll(Collections.singletonList(new WaitStaff("W001", "Avery")));
+        database.enqueue(batch -> {
+            PreparedStatement statement = batch.statement("INSERT INTO wait_staff (staff_id, name) VALUES (?, ?)");
+            statement.setString(1, "W002");
+            statement.setString(2, null); // Violates NOT NULL
+            batch.addBatch(statement);
+        });
+        repository.saveAll(Arrays.asList(new WaitStaff("W003", "Blake"), new WaitStaff("W004", "Casey")));
+
+        assertTrue(database.flush(5, TimeUnit.SECONDS));
+
+        List<WaitStaff> stored = repository.findAll();
+        assertEquals(Arrays.asList(new WaitStaff("W001", "Avery"), new WaitStaff("W003", "Blake"),
+                new WaitStaff("W004", "Casey")), stored);
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.restrauntautomation.pricing;
+
+import com.example.restrauntautomation.manager.MenuManager;
+import com.example.restrauntautomation.model.MenuItem;
+import com.example.restrauntautomation.model.Order;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PricingEngineTest {
+
+    private final MenuItem beer = new MenuItem("Beer", "Draught lager", new BigDecimal("6.00"), "Beverages");
+    private final MenuItem wine = new MenuItem("Wine", "House red", new BigDecimal("9.00"), "Beverages");
+    private final MenuItem soup = new MenuItem("Soup", "Tomato soup", new BigDecimal("5.00"), "Starters");
+    private final MenuItem steak = new MenuItem("Steak", "Ribeye", new BigDecimal("20.00"), "Mains");
+    private final MenuManager menu = new MenuManager(Arrays.asList(beer, wine, soup, steak));
+
+    @Test
+    void percentOffAppliesOnlyInsideItsWindow() {
+        PricingEngine engine = engine(PricingRule.percentOff("Happy hour", Collections.singletonList("Beverages"), 5000,
+                LocalTime.of(17, 0), LocalTime.of(19, 0)));
+        Order order = order(beer, 2, steak, 1);
+
+        assertEquals(0L, engine.discountCents(order, LocalTime.of(16, 59)));
+        assertEquals(600L, engine.discountCents(order, LocalTime.of(17, 0)));
+        assertEquals(600L, engine.discountCents(order, LocalTime.of(18, 59)));
+        assertEquals(0L, engine.discountCents(order, LocalTime.of(19, 0)));
+    }
+
+    @Test
+    void windowCanEndAfterMidnight() {
+        PricingEngine engine = engine(PricingRule.percentOff("Late night", Collections.singletonList("Wine"), 1000,
+                LocalTime.of(22, 0), LocalTime.of(2, 0)));
+        Order order = order(wine, 1);
+
+        assertEquals(90L, engine.discountCents(order, LocalTime.of(23, 30)));
+        assertEquals(90L, engine.discountCents(order, LocalTime.of(1, 0)));
+        assertEquals(0L, engine.discountCents(order, LocalTime.of(3, 0)));
+    }
+
+    @Test
+    void largestPercentOffWinsOnALine() {
+        PricingEngine engine = engine(
+                PricingRule.percentOff("Drinks", Collections.singletonList("Beverages"), 2000, null, null),
+                PricingRule.percentOff("Half price beer", Collections.singletonList("Beer"), 5000, null, null));
+        Order order = order(beer, 2, wine, 1);
+
+        assertEquals(600L + 180L, engine.discountCents(order, LocalTime.NOON));
+    }
+
+    @Test
+    void combosAreCountedByTheScarcestTarget() {
+        PricingEngine engine = engine(PricingRule.combo("Soup and main", Arrays.asList("Soup", "Mains"), 300, null, null));
+
+        assertEquals(600L, engine.discountCents(order(soup, 3, steak, 2), LocalTime.NOON));
+        assertEquals(0L, engine.discountCents(order(soup, 3), LocalTime.NOON));
+    }
+
+    @Test
+    void discountNeverExceedsTheSubtotal() {
+        PricingEngine engine = engine(
+                PricingRule.percentOff("Free beer", Collections.singletonList("Beer"), 10_000, null, null),
+                PricingRule.combo("Beer and soup", Arrays.asList("Beer", "Soup"), 10_000, null, null));
+        Order order = order(beer, 1, soup, 1);
+
+        assertEquals(order.getSubtotalCents(), engine.discountCents(order, LocalTime.NOON));
+    }
+
+    @Test
+    void itemsNotOnTheMenuGetNoDiscount() {
+        PricingEngine engine = engine(PricingRule.percentOff("Drinks", Collections.singletonList("Beverages"), 5000, null, null));
+        MenuItem guestBeer = new MenuItem("Guest Beer", "Not on this menu", new BigDecimal("7.00"), "Beverages");
+
+        assertEquals(0L, engine.discountCents(order(guestBeer, 1), LocalTime.NOON));
+    }
+
+    @Test
+    void priceStoresTheDiscountAndRepriceAllCountsChanges() {
+        PricingEngine engine = engine(PricingRule.percentOff("Happy hour", Collections.singletonList("Beer"), 5000,
+                LocalTime.of(17, 0), LocalTime.of(19, 0)));
+        Order beers = order(beer, 2);
+        Order steaks = order(steak, 1);
+
+        assertTrue(engine.price(beers, LocalTime.of(17, 30)));
+        assertFalse(engine.price(beers, LocalTime.of(18, 0)));
+        assertEquals(600L, beers.getDiscountCents());
+        assertEquals(new BigDecimal("6.00"), beers.getTotalPrice());
+
+        List<Order> open = Arrays.asList(beers, steaks);
+        assertEquals(1, engine.repriceAll(open, LocalTime.of(19, 0)));
+        assertEquals(0L, beers.getDiscountCents());
+        assertEquals(0, engine.repriceAll(open, LocalTime.of(20, 0)));
+    }
+
+    private PricingEngine engine(PricingRule... rules) {
+        return new PricingEngine(PricingRuleSet.compile(Arrays.asList(rules), menu));
+    }
+
+    private static Order order(Object... itemsAndQuantities) {
+        Order order = new Order(1, "W001");
+        for (int i = 0; i < itemsAndQuantities.length; i += 2) {
+            order.addItem((MenuItem) itemsAndQuantities[i], (Integer) itemsAndQuantities[i + 1]);
+        }
+        return order;
+    }
+}
@@ -0,0 +1,410 @@
+package com.example.restrauntautomation.replication;
+
+import com.example.restrauntautomation.archive.OrderArchive;
+import com.example.restrauntautomation.audit.AmendmentLog;
+import com.example.restrauntautomation.audit.OrderAmendment;
+import com.example.restrauntautomation.inventory.Ingredient;
+import com.example.restrauntautomation.inventory.InventoryManager;
+import com.example.restrauntautomation.manager.MenuManager;
+import com.example.restrauntautomation.manager.OrderQueueListener;
+import com.example.restrauntautomation.manager.OrderQueueManager;
+import com.example.restrauntautomation.model.MenuItem;
+import com.example.restrauntautomation.model.Modifier;
+import com.example.restrauntautomation.model.Order;
+import com.example.restrauntautomation.model.OrderItem;
+import com.example.restrauntautomation.model.Table;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs a leader in this JVM and two followers in their own JVMs, lets all three change the same table
+ * and queue orders at the same time, and checks that every terminal ends up with the same queue, in the
+ * same order, and the same table status. Also checks that voided and paid orders leave the other terminals'
+ * queues with their status, that items added to or removed from a queued order and refunds reach the other
+ * terminals' audit logs, that a restarted follower is not sent the entries it already applied, and that a
+ * follower that loses the leader refuses changes until it has reconnected.
+ */
+class ReplicationNodeTest {
+
+    private static final int FOLLOWERS = 2;
+    private static final int CHANGES_PER_NODE = 200;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void terminalsChangingTheSameStateConcurrentlyConverge() {
+        assertTimeoutPreemptively(Duration.ofSeconds(120), () -> {
+            ReplicationPeerProcess leader = new ReplicationPeerProcess(1, new MenuManager());
+            List<Process> followers = new ArrayList<>();
+            try {
+                leader.getNode().startLeader(0);
+                List<BufferedReader> outputs = new ArrayList<>();
+                for (int i = 0; i < FOLLOWERS; i++) {
+                    Process process = startFollower(2 + i, leader.getNode().getLeaderPort());
+                    followers.add(process);
+                    BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+                    assertEquals("READY", output.readLine());
+                    outputs.add(output);
+                }
+
+                for (Process follower : followers) {
+                    Writer input = new OutputStreamWriter(follower.getOutputStream(), StandardCharsets.UTF_8);
+                    input.write("GO\n");
+                    input.flush();
+                }
+                leader.makeChanges(CHANGES_PER_NODE);
+                int total = CHANGES_PER_NODE * (FOLLOWERS + 1);
+                String leaderState = leader.awaitState(total, TimeUnit.SECONDS.toMillis(60));
+
+                for (BufferedReader output : outputs) {
+                    assertEquals("STATE " + leaderState, output.readLine());
+                }
+                assertEquals(total, leaderState.split("\\|")[0].split(",").length);
+            } finally {
+                leader.close();
+                for (Process follower : followers) {
+                    follower.destroyForcibly();
+                }
+            }
+        });
+    }
+
+    @Test
+    void voidedAndPaidOrdersLeaveEveryQueueWithTheirStatus() {
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            MenuManager menu = new MenuManager();
+            OrderQueueManager leaderQueue = new OrderQueueManager();
+            OrderQueueManager followerQueue = new OrderQueueManager();
+            AmendmentLog leaderLog = new AmendmentLog();
+            AmendmentLog followerLog = new AmendmentLog();
+            leaderQueue.addListener(leaderLog);
+            followerQueue.addListener(followerLog);
+            Map<Long, Order.OrderStatus> removedOnLeader = new ConcurrentHashMap<>();
+            leaderQueue.addListener(new OrderQueueListener() {
+                @Override
+                public void ordersAdded(List<Order> orders) {
+                }
+
+                @Override
+                public void orderRemoved(Order order) {
+                    removedOnLeader.put(order.getOrderId(), order.getStatus());
+                }
+            });
+            ExecutorService leaderApplier = Executors.newSingleThreadExecutor();
+            ExecutorService followerApplier = Executors.newSingleThreadExecutor();
+            ReplicationNode leader = new ReplicationNode(1, leaderQueue, menu, leaderApplier);
+            ReplicationNode follower = new ReplicationNode(2, followerQueue, menu, followerApplier);
+            leader.setOrderVoidListener(leaderLog::voidOrder);
+            try {
+                leader.startLeader(0);
+                follower.startFollower("localhost", leader.getLeaderPort());
+                Order voided = new Order(2_000_001L, 3, "W002", LocalDateTime.now(), Order.OrderStatus.PLACED);
+                voided.addItem(menu.getMenuItemById(0), 1);
+                Order paid = new Order(2_000_002L, 4, "W002", LocalDateTime.now(), Order.OrderStatus.PLACED);
+                paid.addItem(menu.getMenuItemById(1), 1);
+                paid.setDiscountCents(100); // Priced before it is queued; the discount travels with the order
+                follower.submitOrderAdded(voided);
+                follower.submitOrderAdded(paid);
+                awaitQueueSize(followerQueue, 2);
+                assertEquals(100, followerQueue.getOrderById(paid.getOrderId()).getDiscountCents());
+
+                Order followerVoided = followerQueue.getOrderById(voided.getOrderId());
+                followerLog.voidOrder(followerVoided, "W003", "Wrong table");
+                follower.submitOrderVoided(followerVoided, "W003", "Wrong table");
+                Order followerPaid = followerQueue.getOrderById(paid.getOrderId());
+                followerPaid.setStatus(Order.OrderStatus.PAID);
+                follower.submitOrderRemoved(followerPaid);
+                awaitQueueSize(followerQueue, 0);
+                while (removedOnLeader.size() < 2) {
+                    Thread.sleep(20);
+                }
+
+                assertEquals(Order.OrderStatus.CANCELLED, removedOnLeader.get(voided.getOrderId()));
+                assertEquals(Order.OrderStatus.PAID, removedOnLeader.get(paid.getOrderId()));
+                List<OrderAmendment> audited = leaderLog.getAmendments(voided.getOrderId());
+                assertEquals(OrderAmendment.Type.VOIDED, audited.get(audited.size() - 1).getType());
+                assertEquals("W003", audited.get(audited.size() - 1).getStaffId());
+                assertEquals("Wrong table", audited.get(audited.size() - 1).getReason());
+                assertEquals(2, followerLog.getAmendments(voided.getOrderId()).size()); // Not voided twice on the follower
+            } finally {
+                follower.close();
+                leader.close();
+                leaderApplier.shutdownNow();
+                followerApplier.shutdownNow();
+            }
+        });
+    }
+
+    @Test
+    void amendmentsAndRefundsAreAuditedOnEveryTerminal() {
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            MenuManager menu = new MenuManager();
+            OrderQueueManager leaderQueue = new OrderQueueManager();
+            OrderQueueManager followerQueue = new OrderQueueManager();
+            AmendmentLog leaderLog = new AmendmentLog();
+            AmendmentLog followerLog = new AmendmentLog();
+            leaderQueue.addListener(leaderLog);
+            followerQueue.addListener(followerLog);
+            Order paid = new Order(2_000_012L, 6, "W002", LocalDateTime.now(), Order.OrderStatus.PAID);
+            paid.addItem(menu.getMenuItemById(2), 2);
+            ExecutorService leaderApplier = Executors.newSingleThreadExecutor();
+            ExecutorService followerApplier = Executors.newSingleThreadExecutor();
+            ReplicationNode leader = new ReplicationNode(1, leaderQueue, menu, leaderApplier);
+            ReplicationNode follower = new ReplicationNode(2, followerQueue, menu, followerApplier);
+            leader.setOrderAmendmentListener(new ReplicationNode.OrderAmendmentListener() {
+                @Override
+                public void itemAdded(Order order, String staffId, OrderItem line) {
+                    leaderLog.addItem(order, staffId, line.getMenuItem(), line.getQuantity(), line.getModifiers());
+                }
+
+                @Override
+                public void itemRemoved(Order order, String staffId, MenuItem menuItem) {
+                    leaderLog.removeItem(order, staffId, menuItem);
+                }
+            });
+            leader.setOrderRefundListener((orderId, staffId, amountCents, reason) -> leaderLog.refund(paid, staffId, amountCents, reason));
+            try {
+                leader.startLeader(0);
+                follower.startFollower("localhost", leader.getLeaderPort());
+                Order amended = new Order(2_000_011L, 5, "W002", LocalDateTime.now(), Order.OrderStatus.PLACED);
+                amended.addItem(menu.getMenuItemById(0), 1);
+                amended.addItem(menu.getMenuItemById(1), 1);
+                follower.submitOrderAdded(amended).get();
+
+                Order followerCopy = followerQueue.getOrderById(amended.getOrderId());
+                OrderItem added = new OrderItem(menu.getMenuItemById(3), 2, List.of(new Modifier("No onions", 0)));
+                followerLog.addItem(followerCopy, "W003", added.getMenuItem(), added.getQuantity(), added.getModifiers());
+                follower.submitItemAdded(followerCopy, "W003", added).get();
+                followerLog.removeItem(followerCopy, "W003", menu.getMenuItemById(0));
+                follower.submitItemRemoved(followerCopy, "W003", menu.getMenuItemById(0)).get();
+                followerLog.refund(paid, "W004", 150, "Cold soup");
+                follower.submitOrderRefunded(paid, "W004", 150, "Cold soup").get();
+                while (leaderLog.getRefundedCents(paid.getOrderId()) == 0) {
+                    Thread.sleep(20);
+                }
+
+                Order leaderCopy = leaderQueue.getOrderById(amended.getOrderId());
+                assertEquals(followerCopy.getItems(), leaderCopy.getItems());
+                assertEquals(List.of(new OrderItem(menu.getMenuItemById(1), 1), added), leaderCopy.getItems());
+                List<OrderAmendment> audited = leaderLog.getAmendments(amended.getOrderId());
+                assertEquals(3, audited.size()); // Placed, item added, item removed
+                assertEquals(OrderAmendment.Type.ITEM_ADDED, audited.get(1).getType());
+                assertEquals(OrderAmendment.Type.ITEM_REMOVED, audited.get(2).getType());
+                assertEquals("W003", audited.get(2).getStaffId());
+                assertEquals(3, followerLog.getAmendments(amended.getOrderId()).size()); // Not amended twice on the follower
+                assertEquals(150, leaderLog.getRefundedCents(paid.getOrderId()));
+                assertEquals(150, followerLog.getRefundedCents(paid.getOrderId())); // Not refunded twice on the follower
+                assertThrows(IllegalArgumentException.class,
+                        () -> follower.submitOrderRefunded(leaderCopy, "W004", 100, "Not paid yet"));
+            } finally {
+                follower.close();
+                leader.close();
+                leaderApplier.shutdownNow();
+                followerApplier.shutdownNow();
+            }
+        });
+    }
+
+    @Test
+    void restartedFollowerResumesAfterTheEntriesItApplied() {
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            MenuManager menu = new MenuManager();
+            OrderQueueManager leaderQueue = new OrderQueueManager();
+            ExecutorService leaderApplier = Executors.newSingleThreadExecutor();
+            ExecutorService followerApplier = Executors.newSingleThreadExecutor();
+            ReplicationNode leader = new ReplicationNode(1, leaderQueue, menu, leaderApplier);
+            // What the follower terminal keeps across its restart: the archive, the stock and its log position
+            Path stateFile = directory.resolve("replication.state");
+            InventoryManager stock = InventoryManager.createDefault(menu);
+            try (OrderArchive archive = new OrderArchive(directory.resolve("archive"))) {
+                leader.startLeader(0);
+                OrderQueueManager followerQueue = followerQueue(menu, stock, archive);
+                ReplicationNode follower = new ReplicationNode(2, followerQueue, menu, followerApplier, stateFile);
+                follower.startFollower("localhost", leader.getLeaderPort());
+                Order served = order(menu, 2_000_001L, 0);
+                follower.submitOrderAdded(served).get(5, TimeUnit.SECONDS);
+                follower.submitOrderAdded(order(menu, 2_000_002L, 1)).get(5, TimeUnit.SECONDS);
+                follower.submitOrderRemoved(followerQueue.getOrderById(served.getOrderId())).get(5, TimeUnit.SECONDS);
+                follower.submitTableStatus(3, Table.TableStatus.OCCUPIED).get(5, TimeUnit.SECONDS);
+                assertEquals(4, follower.getLastAppliedIndex());
+                assertEquals(1, archive.getOrderCount());
+                Map<String, Long> stockBeforeRestart = stockLevels(stock);
+                follower.close();
+
+                OrderQueueManager restartedQueue = followerQueue(menu, stock, archive);
+                ReplicationNode restarted = new ReplicationNode(2, restartedQueue, menu, followerApplier, stateFile);
+                restarted.startFollower("localhost", leader.getLeaderPort());
+                try {
+                    assertEquals(4, restarted.getLastAppliedIndex());
+                    Order later = order(menu, 2_000_003L, 2);
+                    restarted.submitOrderAdded(later).get(5, TimeUnit.SECONDS); // Applied after anything sent again
+
+                    assertEquals(5, restarted.getLastAppliedIndex());
+                    assertEquals(1, archive.getOrderCount());
+                    assertEquals(List.of(later), restartedQueue.getOrders());
+                    InventoryManager expected = InventoryManager.createDefault(menu, stockBeforeRestart);
+                    expected.consume(later);
+                    assertEquals(stockLevels(expected), stockLevels(stock));
+                    awaitQueueSize(leaderQueue, 2);
+                } finally {
+                    restarted.close();
+                }
+            } finally {
+                leader.close();
+                leaderApplier.shutdownNow();
+                followerApplier.shutdownNow();
+            }
+        });
+    }
+
+    @Test
+    void followerThatLosesTheLeaderRefusesChangesUntilItReconnects() {
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            MenuManager menu = new MenuManager();
+            OrderQueueManager followerQueue = new OrderQueueManager();
+            ExecutorService leaderApplier = Executors.newSingleThreadExecutor();
+            ExecutorService followerApplier = Executors.newSingleThreadExecutor();
+            ReplicationNode leader = new ReplicationNode(1, new OrderQueueManager(), menu, leaderApplier);
+            ReplicationNode follower = new ReplicationNode(2, followerQueue, menu, followerApplier);
+            ReplicationNode newLeader = new ReplicationNode(1, new OrderQueueManager(), menu, leaderApplier);
+            List<Boolean> connectionChanges = new CopyOnWriteArrayList<>();
+            follower.setConnectionListener(connectionChanges::add);
+            try {
+                leader.startLeader(0);
+                int port = leader.getLeaderPort();
+                follower.startFollower("localhost", port);
+                follower.submitOrderAdded(order(menu, 2_000_001L, 0)).get(5, TimeUnit.SECONDS);
+
+                leader.close();
+                while (follower.isConnected()) {
+                    Thread.sleep(20);
+                }
+                Order refused = order(menu, 2_000_002L, 1);
+                assertThrows(IllegalStateException.class, () -> follower.submitOrderAdded(refused));
+                assertNull(followerQueue.getOrderById(refused.getOrderId()));
+
+                newLeader.startLeader(port); // Restarted leader, with a new log
+                while (!follower.isConnected()) {
+                    Thread.sleep(20);
+                }
+                follower.submitOrderAdded(refused).get(5, TimeUnit.SECONDS);
+
+                assertEquals(2, followerQueue.getQueueSize());
+                assertEquals(1, follower.getLastAppliedIndex()); // Position in the new log
+                assertEquals(List.of(false, true), connectionChanges);
+            } finally {
+                follower.close();
+                newLeader.close();
+                leader.close();
+                leaderApplier.shutdownNow();
+                followerApplier.shutdownNow();
+            }
+            assertFalse(follower.isConnected());
+            assertTrue(connectionChanges.size() <= 3);
+        });
+    }
+
+    /**
+     * Creates a follower's queue that archives the orders leaving it, as the terminal does, and takes the stock
+     * of queued orders.
+     */
+    private static OrderQueueManager followerQueue(MenuManager menu, InventoryManager stock, OrderArchive archive) {
+        OrderQueueManager queue = new OrderQueueManager();
+        queue.addListener(stock);
+        queue.addListener(new OrderQueueListener() {
+            @Override
+            public void ordersAdded(List<Order> orders) {
+            }
+
+            @Override
+            public void orderRemoved(Order order) {
+                try {
+                    archive.append(order, LocalDateTime.now(), menu::getMenuItemId);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        });
+        return queue;
+    }
+
+    private static Order order(MenuManager menu, long orderId, int itemId) {
+        Order order = new Order(orderId, 3, "W002", LocalDateTime.now(), Order.OrderStatus.PLACED);
+        order.addItem(menu.getMenuItemById(itemId), 2);
+        return order;
+    }
+
+    private static Map<String, Long> stockLevels(InventoryManager stock) {
+        Map<String, Long> levels = new HashMap<>();
+        for (Ingredient ingredient : stock.getIngredients()) {
+            levels.put(ingredient.getName(), stock.getStock(ingredient.getName()));
+        }
+        return levels;
+    }
+
+    private static void awaitQueueSize(OrderQueueManager queue, int size) throws InterruptedException {
+        while (queue.getQueueSize() != size) {
+            Thread.sleep(20);
+        }
+    }
+
+    private static Process startFollower(int nodeId, int leaderPort) throws Exception {
+        Path java = Paths.get(System.getProperty("java.home"), "bin", "java");
+        List<String> command = new ArrayList<>();
+        command.add(java.toString());
+        command.add("-cp");
+        command.add(classPath());
+        command.add(ReplicationPeerProcess.class.getName());
+        command.add(Integer.toString(nodeId));
+        command.add(Integer.toString(leaderPort));
+        command.add(Integer.toString(CHANGES_PER_NODE));
+        command.add(Integer.toString(FOLLOWERS + 1));
+        return new ProcessBuilder(command)
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+    }
+
+    /**
+     * Builds a class path holding the application and test classes, wherever the build put them.
+     */
+    private static String classPath() throws URISyntaxException {
+        Set<String> entries = new LinkedHashSet<>();
+        entries.add(Paths.get(ReplicationNode.class.getProtectionDomain().getCodeSource().getLocation().toURI()).toString());
+        entries.add(Paths.get(ReplicationPeerProcess.class.getProtectionDomain().getCodeSource().getLocation().toURI()).toString());
+        entries.add(Paths.get("target", "test-classes").toAbsolutePath().toString());
+        return String.join(File.pathSeparator, entries);
+    }
+}
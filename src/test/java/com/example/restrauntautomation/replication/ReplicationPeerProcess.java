@@ -0,0 +1,120 @@
+package com.example.restrauntautomation.replication;
+
+import com.example.restrauntautomation.manager.MenuManager;
+import com.example.restrauntautomation.manager.OrderQueueManager;
+import com.example.restrauntautomation.model.Order;
+import com.example.restrauntautomation.model.Table;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.StringJoiner;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One terminal of the replication group in {@link ReplicationNodeTest}: the leader runs inside the test,
+ * and each follower runs this class in its own JVM.
+ *
+ * <p>Usage: {@code ReplicationPeerProcess <nodeId> <leaderPort> <changesPerNode> <nodeCount>}. Prints READY once
+ * connected, makes its changes when GO is read from standard input, and prints the resulting state once every
+ * node's changes have been applied.
+ */
+public class ReplicationPeerProcess {
+
+    private static final Table.TableStatus[] STATUSES = Table.TableStatus.values();
+    static final int CONTESTED_TABLE = 1;
+
+    private final ReplicationNode node;
+    private final OrderQueueManager queue = new OrderQueueManager();
+    private final MenuManager menu;
+    private final ExecutorService applier = Executors.newSingleThreadExecutor();
+    private final AtomicInteger tableChanges = new AtomicInteger();
+    private volatile Table.TableStatus contestedStatus = Table.TableStatus.VACANT;
+
+    ReplicationPeerProcess(int nodeId, MenuManager menu) {
+        this.menu = menu;
+        this.node = new ReplicationNode(nodeId, queue, menu, applier);
+        node.setTableStatusListener((tableNumber, status) -> {
+            if (tableNumber == CONTESTED_TABLE) {
+                contestedStatus = status;
+            }
+            tableChanges.incrementAndGet();
+        });
+    }
+
+    public static void main(String[] args) throws Exception {
+        int nodeId = Integer.parseInt(args[0]);
+        int leaderPort = Integer.parseInt(args[1]);
+        int changes = Integer.parseInt(args[2]);
+        int nodes = Integer.parseInt(args[3]);
+        ReplicationPeerProcess peer = new ReplicationPeerProcess(nodeId, new MenuManager());
+        peer.node.startFollower("localhost", leaderPort);
+        System.out.println("READY");
+        System.out.flush();
+
+        BufferedReader in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        if (!"GO".equals(in.readLine())) {
+            System.exit(2);
+        }
+        peer.makeChanges(changes);
+        System.out.println("STATE " + peer.awaitState(changes * nodes, TimeUnit.SECONDS.toMillis(60)));
+        System.out.flush();
+        peer.close();
+        System.exit(0);
+    }
+
+    ReplicationNode getNode() {
+        return node;
+    }
+
+    /**
+     * Submits the node's changes: orders, and status changes all aimed at the same table.
+     *
+     * @param count The number of orders, and of status changes.
+     */
+    void makeChanges(int count) {
+        int nodeId = node.getNodeId();
+        for (int i = 0; i < count; i++) {
+            Order order = new Order(nodeId * 1_000_000L + i, 1 + i % 5, "W00" + nodeId, LocalDateTime.now(), Order.OrderStatus.PLACED);
+            order.addItem(menu.getMenuItemById(i % menu.getMenuItemCount()), 1);
+            node.submitOrderAdded(order);
+            node.submitTableStatus(CONTESTED_TABLE, STATUSES[(nodeId + i) % STATUSES.length]);
+        }
+    }
+
+    /**
+     * Waits until every change of the group has been applied here, then describes the local state.
+     *
+     * @param expected  The number of orders, and of status changes, made by the whole group.
+     * @param timeoutMs How long to wait.
+     * @return The queued order ids in queue order, and the status of the contested table.
+     * @throws Exception If the changes do not all arrive in time.
+     */
+    String awaitState(int expected, long timeoutMs) throws Exception {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        while (queue.getQueueSize() < expected || tableChanges.get() < expected) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new TimeoutException("Applied " + queue.getQueueSize() + " orders and " + tableChanges.get()
+                        + " status changes of " + expected + ".");
+            }
+            Thread.sleep(20);
+        }
+        return applier.submit(() -> {
+            StringJoiner ids = new StringJoiner(",");
+            for (Order order : queue.getOrders()) {
+                ids.add(Long.toString(order.getOrderId()));
+            }
+            return ids + "|" + contestedStatus;
+        }).get();
+    }
+
+    void close() {
+        node.close();
+        applier.shutdownNow();
+    }
+}
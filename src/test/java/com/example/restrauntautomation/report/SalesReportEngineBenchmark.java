@@ -0,0 +1,82 @@
+package com.example.restrauntautomation.report;
+
+import com.example.restrauntautomation.archive.OrderArchive;
+import com.example.restrauntautomation.manager.MenuManager;
+import com.example.restrauntautomation.model.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Time to build a daily report over 10 million archived lines: 2.5 million orders of four lines, completed
+ * evenly through one day, scanned by {@link SalesReportEngine#dailyReport(LocalDate)} on the common pool. The
+ * target is under a second per report. Run with {@code mvn -Pbenchmark test}.
+ */
+class SalesReportEngineBenchmark {
+
+    private static final int ORDERS = 2_500_000;
+    private static final int LINES_PER_ORDER = 4;
+    private static final int TEMPLATES = 96; // One per quarter hour of the day
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+    private static final LocalDate DAY = LocalDate.of(2024, 5, 1);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void dailyReportOverTenMillionLines() throws IOException {
+        MenuManager menuManager = new MenuManager();
+        int menuSize = menuManager.getMenuItemCount();
+        LocalDateTime start = DAY.atStartOfDay();
+        long nanosPerOrder = 86_400_000_000_000L / ORDERS;
+
+        // Orders placed in each quarter hour; every archived order is one of these, so appends do not allocate
+        Order[] templates = new Order[TEMPLATES];
+        for (int t = 0; t < TEMPLATES; t++) {
+            Order order = new Order(t + 1, 1 + t % 40, "W" + (t % 25), start.plusMinutes(15L * t), Order.OrderStatus.PAID);
+            for (int line = 0; line < LINES_PER_ORDER; line++) {
+                order.addItem(menuManager.getMenuItemById((t * 7 + line * 3) % menuSize), 1 + line % 2);
+            }
+            templates[t] = order;
+        }
+
+        try (OrderArchive archive = new OrderArchive(directory, ZoneId.of("Europe/Berlin"))) {
+            long fillStart = System.nanoTime();
+            for (int i = 0; i < ORDERS; i++) {
+                long offsetNanos = i * nanosPerOrder;
+                Order order = templates[(int) (offsetNanos / 900_000_000_000L)];
+                archive.append(order, start.plusNanos(offsetNanos), menuManager::getMenuItemId);
+            }
+            long fillNanos = System.nanoTime() - fillStart;
+            assertEquals((long) ORDERS * LINES_PER_ORDER, archive.getLineCount());
+
+            SalesReportEngine engine = new SalesReportEngine(archive, menuManager, ForkJoinPool.commonPool());
+            long reportNanos = 0;
+            long best = Long.MAX_VALUE;
+            for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+                long t0 = System.nanoTime();
+                SalesReport report = engine.dailyReport(DAY);
+                long elapsed = System.nanoTime() - t0;
+                assertEquals((long) ORDERS * LINES_PER_ORDER, report.getLineCount());
+                if (round >= WARMUP_ROUNDS) {
+                    reportNanos += elapsed;
+                    best = Math.min(best, elapsed);
+                }
+            }
+
+            System.out.printf("SalesReportEngine: %d lines archived in %.1f s; daily report %.0f ms mean, %.0f ms best "
+                            + "(target < 1000 ms, %d workers)%n",
+                    archive.getLineCount(), fillNanos / 1e9, reportNanos / 1e6 / MEASURED_ROUNDS, best / 1e6,
+                    ForkJoinPool.commonPool().getParallelism());
+        }
+    }
+}
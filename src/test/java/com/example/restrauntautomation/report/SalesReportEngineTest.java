@@ -0,0 +1,113 @@
+package com.example.restrauntautomation.report;
+
+import com.example.restrauntautomation.archive.OrderArchive;
+import com.example.restrauntautomation.manager.MenuManager;
+import com.example.restrauntautomation.model.MenuItem;
+import com.example.restrauntautomation.model.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SalesReportEngineTest {
+
+    private static final LocalDateTime PLACED = LocalDateTime.of(2024, 5, 1, 19, 15);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void itemsNoLongerOnTheMenuAreReportedUnderTheOffMenuCategory() throws IOException {
+        MenuManager menuManager = new MenuManager();
+        MenuItem listed = menuManager.getMenuItemById(0);
+        MenuItem retired = new MenuItem("Seasonal Tart", "Last autumn's dessert", new BigDecimal("7.00"), "Desserts");
+        int retiredId = menuManager.getMenuItemCount() + 3;
+
+        try (OrderArchive archive = new OrderArchive(directory, ZoneOffset.UTC)) {
+            Order order = new Order(1, 5, "W001", PLACED, Order.OrderStatus.SERVED);
+            order.addItem(listed, 1);
+            order.addItem(retired, 2);
+            archive.append(order, PLACED.plusMinutes(40),
+                    item -> item == retired ? retiredId : menuManager.getMenuItemId(item));
+
+            SalesReportEngine engine = new SalesReportEngine(archive, menuManager, ForkJoinPool.commonPool());
+            SalesReport report = engine.dailyReport(PLACED.toLocalDate());
+
+            String[] categories = engine.getCategoryNames();
+            long[] byCategory = report.getRevenueByCategory();
+            assertEquals("Off the menu", categories[categories.length - 1]);
+            assertEquals(1400L, byCategory[byCategory.length - 1]);
+            assertEquals(1400L, report.getRevenueByItem()[retiredId]);
+            assertEquals(2L, report.getQuantityByItem()[retiredId]);
+            assertEquals(listed.getPrice().movePointRight(2).longValueExact() + 1400L, report.getRevenueCents());
+        }
+    }
+
+    @Test
+    void revenueIsNetOfOrderDiscounts() throws IOException {
+        MenuManager menuManager = new MenuManager();
+        MenuItem item = menuManager.getMenuItemById(0);
+        long price = item.getPrice().movePointRight(2).longValueExact();
+
+        try (OrderArchive archive = new OrderArchive(directory, ZoneOffset.UTC)) {
+            Order discounted = new Order(1, 5, "W001", PLACED, Order.OrderStatus.PAID);
+            discounted.addItem(item, 2);
+            discounted.setDiscountCents(250);
+            archive.append(discounted, PLACED.plusMinutes(40), menuManager::getMenuItemId);
+            Order fullPrice = new Order(2, 6, "W001", PLACED, Order.OrderStatus.PAID);
+            fullPrice.addItem(item, 1);
+            archive.append(fullPrice, PLACED.plusMinutes(50), menuManager::getMenuItemId);
+
+            SalesReport report = new SalesReportEngine(archive, menuManager, ForkJoinPool.commonPool())
+                    .dailyReport(PLACED.toLocalDate());
+
+            assertEquals(250L, report.getDiscountCents());
+            assertEquals(3 * price - 250, report.getRevenueCents());
+            assertEquals(3 * price, report.getRevenueByItem()[0]);
+            assertEquals(2 * price - 250, report.getRevenueByTable()[5]);
+            assertEquals(price, report.getRevenueByTable()[6]);
+            assertEquals(3 * price - 250, report.getRevenueByStaff()[archive.getStaffCode(0)]);
+            assertEquals(3 * price - 250, report.getRevenueByHour()[PLACED.getHour()]);
+        }
+    }
+
+    @Test
+    void ordersAreBucketedByTheLocalHourTheyWerePlacedInAcrossDaylightSaving() throws IOException {
+        MenuManager menuManager = new MenuManager();
+        MenuItem item = menuManager.getMenuItemById(0);
+        long price = item.getPrice().movePointRight(2).longValueExact();
+        LocalDate springForward = LocalDate.of(2024, 3, 31); // Clocks go from 02:00 to 03:00 in Berlin
+        LocalDateTime beforeChange = springForward.atTime(1, 30);
+        LocalDateTime evening = springForward.atTime(20, 0);
+        LocalDateTime lastNight = springForward.minusDays(1).atTime(23, 40);
+
+        try (OrderArchive archive = new OrderArchive(directory, ZoneId.of("Europe/Berlin"))) {
+            Order overnight = new Order(3, 7, "W001", lastNight, Order.OrderStatus.SERVED);
+            overnight.addItem(item, 3);
+            archive.append(overnight, lastNight.plusMinutes(30), menuManager::getMenuItemId); // Completed after midnight
+            Order early = new Order(1, 5, "W001", beforeChange, Order.OrderStatus.SERVED);
+            early.addItem(item, 1);
+            archive.append(early, beforeChange.plusMinutes(20), menuManager::getMenuItemId);
+            Order late = new Order(2, 6, "W001", evening, Order.OrderStatus.SERVED);
+            late.addItem(item, 2);
+            archive.append(late, evening.plusMinutes(30), menuManager::getMenuItemId);
+
+            SalesReport report = new SalesReportEngine(archive, menuManager, ForkJoinPool.commonPool())
+                    .dailyReport(springForward);
+
+            assertEquals(3, report.getOrderCount());
+            assertEquals(price, report.getRevenueByHour()[1]);
+            assertEquals(2 * price, report.getRevenueByHour()[20]);
+            assertEquals(3 * price, report.getRevenueByHour()[23]); // The hour it was placed in, on the day before
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.restrauntautomation.settlement;
+
+import com.example.restrauntautomation.model.MenuItem;
+import com.example.restrauntautomation.model.Modifier;
+import com.example.restrauntautomation.model.Order;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Time to settle a 500-guest banquet in one operation: 50 tables of 10 guests, three courses per guest on a
+ * tab of its own table, split by seat with shared wine, charged and closed as paid, table by table, plus the
+ * whole banquet as one bill split evenly between all guests. Run with {@code mvn -Pbenchmark test}.
+ */
+class SettlementEngineBenchmark {
+
+    private static final int TABLES = 50;
+    private static final int GUESTS_PER_TABLE = 10;
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 20;
+
+    private final List<MenuItem> menu = new ArrayList<>();
+
+    @Test
+    void banquetSettlementTime() {
+        for (int i = 0; i < 30; i++) {
+            menu.add(new MenuItem("Course " + i, "Banquet course " + i, new BigDecimal("18.75"), "Category " + (i % 3)));
+        }
+        MenuItem wine = new MenuItem("Wine", "Bottle for the table", new BigDecimal("32.00"), "Drinks");
+        SettlementPolicy policy = new SettlementPolicy(825, 1200);
+        SeatAssignment seats = (order, line) -> line.getMenuItem() == wine ? SeatAssignment.SHARED
+                : (int) (order.getOrderId() % GUESTS_PER_TABLE);
+
+        long byTableNanos = 0;
+        long evenNanos = 0;
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+            boolean measured = round >= WARMUP_ROUNDS;
+            // A processor per pass: bill references repeat with the order IDs, and a processor takes each only once
+            SettlementEngine engine = new SettlementEngine(policy, new LocalPaymentProcessor());
+            OpenTabs tabs = tabs(wine);
+            long t0 = System.nanoTime();
+            long total = 0;
+            for (int table = 1; table <= TABLES; table++) {
+                Settlement settlement = engine.settleTable(tabs, table,
+                        orders -> engine.splitBySeat(orders, GUESTS_PER_TABLE, seats, 1800));
+                total += settlement.getTotalCents();
+            }
+            long byTable = System.nanoTime() - t0;
+            assertEquals(0, tabs.size());
+            assertTrue(total > 0);
+
+            List<Order> banquet = new ArrayList<>();
+            OpenTabs all = tabs(wine);
+            for (int table = 1; table <= TABLES; table++) {
+                banquet.addAll(all.getOrders(table));
+            }
+            SettlementEngine banquetEngine = new SettlementEngine(policy, new LocalPaymentProcessor());
+            t0 = System.nanoTime();
+            Settlement settlement = banquetEngine.settle(banquet, banquetEngine.splitEvenly(banquet, TABLES * GUESTS_PER_TABLE, 1800));
+            all.close(banquet);
+            long even = System.nanoTime() - t0;
+            assertTrue(settlement.isPaid());
+            assertEquals(0, all.size());
+            if (measured) {
+                byTableNanos += byTable;
+                evenNanos += even;
+            }
+        }
+        System.out.printf("SettlementEngine: %d-guest banquet settled by seat at %d tables in %.3f ms, "
+                        + "as one bill split %d ways in %.3f ms%n",
+                TABLES * GUESTS_PER_TABLE, TABLES, byTableNanos / 1e6 / MEASURED_ROUNDS,
+                TABLES * GUESTS_PER_TABLE, evenNanos / 1e6 / MEASURED_ROUNDS);
+    }
+
+    /**
+     * Opens the banquet's tabs: three served courses per guest, one with a modifier, and a shared bottle
+     * of wine per table.
+     *
+     * @param wine The shared wine.
+     * @return The tabs.
+     */
+    private OpenTabs tabs(MenuItem wine) {
+        OpenTabs tabs = new OpenTabs();
+        LocalDateTime start = LocalDateTime.of(2024, 5, 1, 19, 0);
+        long orderId = 0;
+        for (int table = 1; table <= TABLES; table++) {
+            for (int guest = 0; guest < GUESTS_PER_TABLE; guest++) {
+                Order order = new Order(++orderId, table, "W" + (table % 12), start.plusSeconds(orderId), Order.OrderStatus.SERVED);
+                order.addItem(menu.get((int) (orderId % 10)), 1);
+                order.addItem(menu.get(10 + (int) (orderId % 10)), 1, Collections.singletonList(new Modifier("No sauce", 0)));
+                order.addItem(menu.get(20 + (int) (orderId % 10)), 1);
+                if (guest == 0) {
+                    order.addItem(wine, 2);
+                }
+                tabs.orderRemoved(order);
+            }
+        }
+        return tabs;
+    }
+}
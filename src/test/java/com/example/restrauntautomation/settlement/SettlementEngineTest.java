@@ -0,0 +1,258 @@
+package com.example.restrauntautomation.settlement;
+
+import com.example.restrauntautomation.manager.KpiTracker;
+import com.example.restrauntautomation.manager.OrderQueueManager;
+import com.example.restrauntautomation.model.MenuItem;
+import com.example.restrauntautomation.model.Order;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SettlementEngineTest {
+
+    private final MenuItem pasta = new MenuItem("Pasta", "Tomato sauce", new BigDecimal("10.00"), "Mains");
+    private final MenuItem wine = new MenuItem("Wine", "Glass of red", new BigDecimal("7.33"), "Drinks");
+
+    @Test
+    void allocateGivesLeftoverCentsToLargestRemainders() {
+        assertArrayEquals(new long[]{34, 33, 33}, SettlementEngine.allocate(100, new long[]{1, 1, 1}));
+        assertArrayEquals(new long[]{33, 67}, SettlementEngine.allocate(100, new long[]{1, 2}));
+        assertArrayEquals(new long[]{1, 1, 0}, SettlementEngine.allocate(2, new long[]{1, 1, 1}));
+        assertArrayEquals(new long[]{0, 5, 0}, SettlementEngine.allocate(5, new long[]{0, 7, 0}));
+    }
+
+    @Test
+    void allocateAlwaysAddsUpToTheAmount() {
+        long[] weights = {1999, 1, 333, 0, 4200, 17};
+        for (long amount = 0; amount < 5000; amount += 37) {
+            long[] shares = SettlementEngine.allocate(amount, weights);
+            long total = 0;
+            for (int i = 0; i < shares.length; i++) {
+                total += shares[i];
+                double exact = (double) amount * weights[i] / 6550;
+                assertTrue(Math.abs(shares[i] - exact) < 1, "share " + i + " of " + amount);
+            }
+            assertEquals(amount, total);
+        }
+    }
+
+    @Test
+    void allocateSplitsEvenlyWhenAllWeightsAreZeroAndRejectsNegatives() {
+        assertArrayEquals(new long[]{4, 3, 3}, SettlementEngine.allocate(10, new long[]{0, 0, 0}));
+        assertArrayEquals(new long[0], SettlementEngine.allocate(10, new long[0]));
+        assertThrows(IllegalArgumentException.class, () -> SettlementEngine.allocate(-1, new long[]{1}));
+        assertThrows(IllegalArgumentException.class, () -> SettlementEngine.allocate(10, new long[]{1, -1}));
+    }
+
+    @Test
+    void evenSplitChecksAddUpToTheBill() {
+        SettlementEngine engine = new SettlementEngine(new SettlementPolicy(825, 1000), new LocalPaymentProcessor());
+        Order order = order(1, 7);
+        order.addItem(pasta, 2);
+        order.addItem(wine, 3);
+        order.setDiscountCents(150);
+
+        List<Check> checks = engine.splitEvenly(Collections.singletonList(order), 3, 1800);
+
+        long subtotal = 0;
+        long discount = 0;
+        long total = 0;
+        for (Check check : checks) {
+            subtotal += check.getSubtotalCents();
+            discount += check.getDiscountCents();
+            total += check.getTotalCents();
+        }
+        long net = 4199 - 150;
+        long serviceCharge = 405; // 10% of 40.49, rounded half up
+        long tax = 367;           // 8.25% of 44.54
+        long tip = 729;           // 18% of 40.49
+        assertEquals(4199, subtotal);
+        assertEquals(150, discount);
+        assertEquals(net + serviceCharge + tax + tip, total);
+    }
+
+    @Test
+    void declinedCheckRefundsTheOthersAndLeavesOrdersOpen() {
+        LocalPaymentProcessor processor = new LocalPaymentProcessor(1500);
+        SettlementEngine engine = new SettlementEngine(new SettlementPolicy(0, 0), processor);
+        Order order = order(1, 7);
+        order.addItem(pasta, 1);
+        order.addItem(wine, 3);
+        List<Check> checks = engine.splitByItem(Collections.singletonList(order), 0); // 10.00 and 21.99
+
+        Settlement settlement = engine.settle(Collections.singletonList(order), checks);
+
+        assertFalse(settlement.isPaid());
+        assertEquals(Order.OrderStatus.SERVED, order.getStatus());
+        assertEquals(0, processor.getApprovedTotalCents());
+    }
+
+    @Test
+    void seatSplitChargesEachSeatItsLinesAndSharesTheRestEvenly() {
+        SettlementEngine engine = new SettlementEngine(new SettlementPolicy(0, 0), new LocalPaymentProcessor());
+        MenuItem bread = new MenuItem("Bread", "For the table", new BigDecimal("5.00"), "Starters");
+        Order order = order(1, 7);
+        order.addItem(pasta, 1); // Seat 0
+        order.addItem(wine, 2);  // Seat 2
+        order.addItem(bread, 1); // Shared
+        SeatAssignment seats = (o, line) -> line.getMenuItem() == pasta ? 0 : line.getMenuItem() == wine ? 2 : SeatAssignment.SHARED;
+
+        List<Check> checks = engine.splitBySeat(Collections.singletonList(order), 3, seats, 0);
+
+        assertEquals(3, checks.size());
+        assertEquals("Seat 1", checks.get(0).getLabel());
+        assertEquals(1000 + 167, checks.get(0).getSubtotalCents());
+        assertEquals(167, checks.get(1).getSubtotalCents());
+        assertEquals(1466 + 166, checks.get(2).getSubtotalCents());
+    }
+
+    @Test
+    void seatSplitRejectsSeatsOutsideTheTable() {
+        SettlementEngine engine = new SettlementEngine(new SettlementPolicy(0, 0), new LocalPaymentProcessor());
+        Order order = order(1, 7);
+        order.addItem(pasta, 1);
+        List<Order> orders = Collections.singletonList(order);
+
+        assertThrows(IllegalArgumentException.class, () -> engine.splitBySeat(orders, 2, (o, line) -> 2, 0));
+        assertThrows(IllegalArgumentException.class, () -> engine.splitBySeat(orders, 2, (o, line) -> -2, 0));
+        assertThrows(IllegalArgumentException.class, () -> engine.splitBySeat(orders, 0, (o, line) -> 0, 0));
+    }
+
+    @Test
+    void itemSplitGivesEveryLineItsOwnCheckAndSharesTheDiscountBySubtotal() {
+        SettlementEngine engine = new SettlementEngine(new SettlementPolicy(0, 0), new LocalPaymentProcessor());
+        Order first = order(1, 7);
+        first.addItem(pasta, 3);
+        Order second = order(2, 7);
+        second.addItem(wine, 1);
+        second.setDiscountCents(100);
+
+        List<Check> checks = engine.splitByItem(Arrays.asList(first, second), 0);
+
+        assertEquals(2, checks.size());
+        assertEquals("Pasta x 3", checks.get(0).getLabel());
+        assertEquals(3000, checks.get(0).getSubtotalCents());
+        assertEquals(733, checks.get(1).getSubtotalCents());
+        assertEquals(100, checks.get(0).getDiscountCents() + checks.get(1).getDiscountCents());
+        assertEquals(80, checks.get(0).getDiscountCents()); // 100 * 3000 / 3733, rounded
+        assertEquals(3733 - 100, checks.get(0).getTotalCents() + checks.get(1).getTotalCents());
+    }
+
+    @Test
+    void voidedAndPaidOrdersAreNotSettled() {
+        SettlementEngine engine = new SettlementEngine(new SettlementPolicy(0, 0), new LocalPaymentProcessor());
+        Order voided = order(1, 7);
+        voided.addItem(pasta, 1);
+        voided.setStatus(Order.OrderStatus.CANCELLED);
+        Order paid = order(2, 7);
+        paid.addItem(pasta, 1);
+        paid.setStatus(Order.OrderStatus.PAID);
+
+        for (Order order : Arrays.asList(voided, paid)) {
+            List<Order> orders = Collections.singletonList(order);
+            assertThrows(IllegalArgumentException.class, () -> engine.settle(orders, engine.splitEvenly(orders, 1, 0)));
+        }
+        assertEquals(Order.OrderStatus.CANCELLED, voided.getStatus());
+    }
+
+    @Test
+    void servedOrdersAreSettledFromTheTabWhileTheKitchenQueueIsLeftAlone() {
+        SettlementEngine engine = new SettlementEngine(new SettlementPolicy(0, 0), new LocalPaymentProcessor());
+        OrderQueueManager queue = new OrderQueueManager();
+        KpiTracker kpis = new KpiTracker();
+        OpenTabs tabs = new OpenTabs();
+        queue.addListener(kpis);
+        queue.addListener(tabs);
+        Order first = placed(1, 7, pasta);
+        Order second = placed(2, 7, wine);
+        Order stillCooking = placed(3, 7, pasta);
+        Order otherTable = placed(4, 8, pasta);
+        queue.addOrders(Arrays.asList(first, second, stillCooking, otherTable));
+        for (Order served : Arrays.asList(first, second, otherTable)) {
+            served.setStatus(Order.OrderStatus.SERVED);
+            queue.removeOrder(served);
+        }
+
+        List<Order> closed = new ArrayList<>();
+        Settlement settlement = engine.settleTable(tabs.getOrders(7), 7,
+                orders -> engine.splitEvenly(orders, 2, 0), paid -> closed.addAll(tabs.close(paid)));
+
+        assertTrue(settlement.isPaid());
+        assertEquals(Arrays.asList(first, second), closed);
+        assertEquals(Order.OrderStatus.PAID, first.getStatus());
+        assertEquals(1733, settlement.getTotalCents());
+        assertEquals(Collections.singletonList(stillCooking), queue.getOrders());
+        assertEquals(Order.OrderStatus.PLACED, stillCooking.getStatus());
+        assertFalse(tabs.hasOpenTab(7));
+        assertTrue(tabs.hasOpenTab(8));
+        engine.settleTable(tabs, 8, orders -> engine.splitEvenly(orders, 1, 0));
+        assertEquals(0, tabs.size());
+        assertFalse(tabs.hasOpenTab(8));
+        assertEquals(3, kpis.getSnapshot().getShift().getCompletedOrders()); // Served once, not counted again when paid
+        assertThrows(IllegalArgumentException.class, () -> engine.settleTable(tabs, 8, orders -> engine.splitEvenly(orders, 1, 0)));
+    }
+
+    @Test
+    void tabsOnlyHoldServedOrdersUntilTheyArePaid() {
+        OrderQueueManager queue = new OrderQueueManager();
+        OpenTabs tabs = new OpenTabs();
+        queue.addListener(tabs);
+        Order served = placed(1, 7, pasta);
+        Order voided = placed(2, 7, wine);
+        queue.addOrders(Arrays.asList(served, voided));
+        assertFalse(tabs.hasOpenTab(7));
+
+        served.setStatus(Order.OrderStatus.SERVED);
+        queue.removeOrder(served);
+        voided.setStatus(Order.OrderStatus.CANCELLED);
+        queue.removeOrder(voided);
+        tabs.orderRemoved(served); // A repeated removal does not bill the order twice
+
+        assertEquals(Collections.singletonList(served), tabs.getOrders(7));
+        assertEquals(Collections.singletonList(served), tabs.closeAll(new long[]{1, 99}));
+        assertTrue(tabs.closeAll(new long[]{1}).isEmpty());
+        assertTrue(tabs.getOrders(7).isEmpty());
+    }
+
+    @Test
+    void tipsAreDividedBetweenTheServersByTheirOrdersAmounts() {
+        SettlementEngine engine = new SettlementEngine(new SettlementPolicy(0, 0), new LocalPaymentProcessor());
+        Order first = order(1, 7);
+        first.addItem(pasta, 3); // 30.00
+        Order second = new Order(2, 7, "W002", LocalDateTime.of(2024, 5, 1, 19, 0), Order.OrderStatus.SERVED);
+        second.addItem(pasta, 2);
+        second.setDiscountCents(1000); // 10.00 after the discount
+        Order third = order(3, 7);
+        third.addItem(wine, 1);
+
+        Settlement settlement = engine.settle(Arrays.asList(first, second, third),
+                engine.splitEvenly(Arrays.asList(first, second, third), 2, 2000));
+
+        long tips = settlement.getTipCents();
+        assertEquals((3000 + 1000 + 733) / 5, tips, 1);
+        assertEquals(Arrays.asList("W001", "W002"), new ArrayList<>(settlement.getTipsByServer().keySet()));
+        assertEquals(tips, settlement.getTipsByServer().get("W001") + settlement.getTipsByServer().get("W002"));
+        assertEquals(tips * 1000 / 4733.0, settlement.getTipsByServer().get("W002"), 1);
+    }
+
+    private static Order order(long orderId, int tableNumber) {
+        return new Order(orderId, tableNumber, "W001", LocalDateTime.of(2024, 5, 1, 19, 0), Order.OrderStatus.SERVED);
+    }
+
+    private static Order placed(long orderId, int tableNumber, MenuItem item) {
+        Order order = new Order(orderId, tableNumber, "W001", LocalDateTime.of(2024, 5, 1, 19, 0), Order.OrderStatus.PLACED);
+        order.addItem(item, 1);
+        return order;
+    }
+}